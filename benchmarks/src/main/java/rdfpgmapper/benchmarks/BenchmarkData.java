@@ -0,0 +1,126 @@
+package rdfpgmapper.benchmarks;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Erzeugt reproduzierbare RDF-Modelle für die Benchmarks.
+ * Das Schema besteht aus einer Klassen-Kette der gegebenen Tiefe, einer Object Property und einer Datatype Property
+ * je Namensraum mit passender Domain und Range. Jedes Subjekt hat einen Typ aus der Kette und
+ * {@value #TRIPLES_PER_SUBJECT} weitere Tripel, von denen der gegebene Anteil Literale sind.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public final class BenchmarkData {
+
+    /**
+     * Anzahl der Tripel je Subjekt ohne rdf:type.
+     */
+    public static final int TRIPLES_PER_SUBJECT = 5;
+
+    private static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Gibt den Namensraum mit der gegebenen Nummer zurück.
+     *
+     * @param index Die Nummer des Namensraums.
+     * @return Der Namensraum.
+     */
+    public static String namespace(int index) {
+        return "http://example.org/ns" + index + "/";
+    }
+
+    /**
+     * Erzeugt ein Modell, das nur aus einer Klassen-Kette besteht.
+     *
+     * @param depth Die Anzahl der Klassen; Klasse {@code C0} ist die spezifischste.
+     * @return Das Modell.
+     */
+    public static Model hierarchy(int depth) {
+        Model model = ModelFactory.createDefaultModel();
+        model.setNsPrefix("ns0", namespace(0));
+        classes(model, depth);
+        return model;
+    }
+
+    /**
+     * Erzeugt ein Modell mit Schema und Instanzdaten.
+     *
+     * @param subjects     Die Anzahl der Subjekte.
+     * @param prefixes     Die Anzahl der Namensräume, auf die Subjekte und Properties verteilt werden.
+     * @param depth        Die Tiefe der Klassen-Kette.
+     * @param literalRatio Der Anteil der Tripel mit einem Literal als Objekt.
+     * @return Das Modell.
+     */
+    public static Model model(int subjects, int prefixes, int depth, double literalRatio) {
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = 0; i < prefixes; i++) {
+            model.setNsPrefix("ns" + i, namespace(i));
+        }
+        List<Resource> classes = classes(model, depth);
+
+        List<Property> objectProperties = new ArrayList<>();
+        List<Property> datatypeProperties = new ArrayList<>();
+        Resource top = classes.getLast();
+        for (int i = 0; i < prefixes; i++) {
+            Property link = model.createProperty(namespace(i), "link");
+            model.add(link, RDF.type, RDF.Property).add(link, RDFS.domain, top).add(link, RDFS.range, top);
+            objectProperties.add(link);
+
+            Property value = model.createProperty(namespace(i), "value");
+            model.add(value, RDF.type, RDF.Property).add(value, RDFS.domain, top);
+            datatypeProperties.add(value);
+        }
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int s = 0; s < subjects; s++) {
+            Resource subject = subject(model, s, prefixes);
+            subject.addProperty(RDF.type, classes.get(random.nextInt(classes.size())));
+            for (int t = 0; t < TRIPLES_PER_SUBJECT; t++) {
+                if (random.nextDouble() < literalRatio) {
+                    Property property = datatypeProperties.get(random.nextInt(prefixes));
+                    switch (random.nextInt(3)) {
+                        case 0 -> subject.addLiteral(property, model.createTypedLiteral(String.valueOf(random.nextInt(1_000_000)), XSDDatatype.XSDinteger));
+                        case 1 -> subject.addProperty(property, "value " + random.nextInt(10_000));
+                        default -> subject.addLiteral(property, model.createTypedLiteral(
+                                "20" + (10 + random.nextInt(15)) + "-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10), XSDDatatype.XSDdate));
+                    }
+                } else {
+                    Property property = objectProperties.get(random.nextInt(prefixes));
+                    subject.addProperty(property, subject(model, random.nextInt(subjects), prefixes));
+                }
+            }
+        }
+        return model;
+    }
+
+    private static Resource subject(Model model, int index, int prefixes) {
+        return model.createResource(namespace(index % prefixes) + "s" + index);
+    }
+
+    private static List<Resource> classes(Model model, int depth) {
+        List<Resource> classes = new ArrayList<>();
+        for (int i = 0; i < depth; i++) {
+            Resource type = model.createResource(namespace(0) + "C" + i);
+            model.add(type, RDF.type, RDFS.Class);
+            if (i > 0) {
+                model.add(classes.getLast(), RDFS.subClassOf, type);
+            }
+            classes.add(type);
+        }
+        return classes;
+    }
+}
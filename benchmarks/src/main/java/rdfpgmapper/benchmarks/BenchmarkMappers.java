@@ -0,0 +1,70 @@
+package rdfpgmapper.benchmarks;
+
+import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.mapper.pgt.PgtSimple;
+import rdfpgmapper.mapper.pgt.pgtcomplete.PgtComplete;
+import rdfpgmapper.mapper.rpt.RptGeneric;
+import rdfpgmapper.mapper.rpt.RptSimple;
+import rdfpgmapper.neo4j.Neo4jClient;
+
+import java.util.List;
+
+/**
+ * Erzeugt die Mapper der Benchmarks anhand ihres Klassennamens.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public final class BenchmarkMappers {
+
+    /**
+     * Die Namen der Mapper in der Reihenfolge ihrer Nummern in der MapperApi.
+     */
+    public static final List<String> NAMES = List.of("RptSimple", "RptGeneric", "PgtSimple", "PgtComplete");
+
+    private BenchmarkMappers() {
+    }
+
+    /**
+     * Gibt die Nummer eines Mappers in der MapperApi zurück.
+     *
+     * @param name Der Klassenname des Mappers.
+     * @return Die Nummer (1-4).
+     */
+    public static int number(String name) {
+        int index = NAMES.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unbekannter Mapper: " + name);
+        }
+        return index + 1;
+    }
+
+    /**
+     * Erzeugt einen Mapper.
+     *
+     * @param name        Der Klassenname des Mappers.
+     * @param neo4jClient Der Client; für das Mapping von RDF zu Cypher wird keine Verbindung aufgebaut.
+     * @return Der Mapper.
+     */
+    public static Mapper create(String name, Neo4jClient neo4jClient) {
+        return switch (number(name)) {
+            case 1 -> new RptSimple(neo4jClient);
+            case 2 -> new RptGeneric(neo4jClient);
+            case 3 -> new PgtSimple(neo4jClient);
+            default -> new PgtComplete(neo4jClient);
+        };
+    }
+
+    /**
+     * Erzeugt einen Client für die Datenbank der Export-Benchmarks.
+     * Die Verbindung wird über die System-Properties {@code bench.neo4j.uri}, {@code bench.neo4j.user}
+     * und {@code bench.neo4j.password} festgelegt.
+     *
+     * @return Der Client.
+     */
+    public static Neo4jClient client() {
+        return new Neo4jClient(System.getProperty("bench.neo4j.uri", "bolt://localhost:7687"),
+                System.getProperty("bench.neo4j.user", "neo4j"),
+                System.getProperty("bench.neo4j.password", "12345678"));
+    }
+}
@@ -0,0 +1,73 @@
+package rdfpgmapper.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Startet die Benchmarks mit dem GC-Profiler und schreibt die Ergebnisse als JSON nach
+ * {@code results/<Bezeichnung>.json}. Die Bezeichnung ist der Wert der System-Property {@code bench.label},
+ * sonst der aktuelle Git-Commit und sonst ein Zeitstempel, sodass Ergebnisse verschiedener Commits
+ * mit {@link CompareResults} verglichen werden können. Alle Argumente werden wie bei JMH ausgewertet,
+ * z.B. {@code InstanceMapping -p mapper=PgtComplete}.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        CommandLineOptions commandLineOptions;
+        try {
+            commandLineOptions = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Ungültige Argumente: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        Path results = Path.of("results");
+        Files.createDirectories(results);
+        Path resultFile = results.resolve(label() + ".json");
+
+        Options options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Ergebnisse geschrieben: " + resultFile);
+    }
+
+    static String label() {
+        String label = System.getProperty("bench.label");
+        if (label != null && !label.isBlank()) {
+            return label;
+        }
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String commit = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (process.waitFor() == 0 && !commit.isEmpty()) {
+                return commit;
+            }
+        } catch (IOException e) {
+            // Kein Git verfügbar, es wird der Zeitstempel verwendet.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+    }
+}
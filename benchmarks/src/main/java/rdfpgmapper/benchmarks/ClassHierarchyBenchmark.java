@@ -0,0 +1,51 @@
+package rdfpgmapper.benchmarks;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rdfpgmapper.utils.Helper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst {@link Helper#getClassHierarchy(Resource, Model)} für die spezifischste Klasse einer Klassen-Kette.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassHierarchyBenchmark {
+
+    @Param({"2", "8", "32"})
+    public int depth;
+
+    private Model model;
+    private Resource leaf;
+
+    @Setup
+    public void setup() {
+        model = BenchmarkData.hierarchy(depth);
+        leaf = model.createResource(BenchmarkData.namespace(0) + "C0");
+    }
+
+    @Benchmark
+    public List<String> classHierarchy() {
+        return Helper.getClassHierarchy(leaf, model);
+    }
+}
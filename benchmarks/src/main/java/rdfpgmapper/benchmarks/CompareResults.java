@@ -0,0 +1,88 @@
+package rdfpgmapper.benchmarks;
+
+import org.apache.jena.atlas.json.JSON;
+import org.apache.jena.atlas.json.JsonObject;
+import org.apache.jena.atlas.json.JsonValue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Vergleicht zwei JSON-Ergebnisdateien des {@link BenchmarkRunner}.
+ * Gibt je Benchmark und Parameterkombination den Score und die Allokation pro Operation
+ * ({@code gc.alloc.rate.norm}) beider Läufe sowie die relative Änderung aus.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class CompareResults {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Verwendung: CompareResults <vorher.json> <nachher.json>");
+            System.exit(2);
+        }
+        Map<String, double[]> before = read(Path.of(args[0]));
+        Map<String, double[]> after = read(Path.of(args[1]));
+
+        System.out.printf("%-110s %14s %14s %9s %14s %14s %9s%n", "Benchmark", "Score vorher", "Score nachher", "Änd.",
+                "B/op vorher", "B/op nachher", "Änd.");
+        for (Map.Entry<String, double[]> entry : after.entrySet()) {
+            double[] old = before.get(entry.getKey());
+            if (old == null) {
+                continue;
+            }
+            double[] current = entry.getValue();
+            System.out.printf("%-110s %14.3f %14.3f %9s %14.0f %14.0f %9s%n", entry.getKey(),
+                    old[0], current[0], change(old[0], current[0]), old[1], current[1], change(old[1], current[1]));
+        }
+    }
+
+    /**
+     * Liest Score und Allokation pro Operation je Benchmark und Parameterkombination.
+     */
+    private static Map<String, double[]> read(Path path) throws IOException {
+        Map<String, double[]> results = new LinkedHashMap<>();
+        JsonValue json;
+        try (InputStream in = Files.newInputStream(path)) {
+            json = JSON.parseAny(in);
+        }
+        for (JsonValue value : json.getAsArray()) {
+            JsonObject run = value.getAsObject();
+            StringBuilder key = new StringBuilder(run.getString("benchmark").replace("rdfpgmapper.benchmarks.", ""));
+            if (run.hasKey("params")) {
+                JsonObject params = run.getObj("params");
+                Map<String, String> sorted = new TreeMap<>();
+                params.keys().forEach(name -> sorted.put(name, params.get(name).getAsString().value()));
+                sorted.forEach((name, param) -> key.append(' ').append(name).append('=').append(param));
+            }
+            JsonObject primary = run.getObj("primaryMetric");
+            key.append(" [").append(primary.getString("scoreUnit")).append(']');
+
+            double allocation = Double.NaN;
+            if (run.hasKey("secondaryMetrics") && run.getObj("secondaryMetrics").hasKey(ALLOCATION)) {
+                allocation = score(run.getObj("secondaryMetrics").getObj(ALLOCATION));
+            }
+            results.put(key.toString(), new double[]{score(primary), allocation});
+        }
+        return results;
+    }
+
+    private static double score(JsonObject metric) {
+        return metric.get("score").getAsNumber().value().doubleValue();
+    }
+
+    private static String change(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+            return "-";
+        }
+        return String.format("%+.1f%%", (after - before) / before * 100);
+    }
+}
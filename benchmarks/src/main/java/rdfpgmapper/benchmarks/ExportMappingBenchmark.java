@@ -0,0 +1,77 @@
+package rdfpgmapper.benchmarks;
+
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.mapper.MapperApi;
+import rdfpgmapper.neo4j.Neo4jClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst {@link Mapper#mapPgToRdf()} aller vier Mapper. Benötigt eine Neo4j-Datenbank mit APOC, die über die
+ * System-Properties {@code bench.neo4j.*} festgelegt wird (siehe {@link BenchmarkMappers#client()});
+ * ihr Inhalt wird vor jedem Durchlauf gelöscht und durch die generierten Daten ersetzt.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportMappingBenchmark {
+
+    @Param({"RptSimple", "RptGeneric", "PgtSimple", "PgtComplete"})
+    public String mapper;
+
+    @Param({"1000", "10000"})
+    public int subjects;
+
+    @Param({"4"})
+    public int prefixes;
+
+    @Param({"4"})
+    public int depth;
+
+    @Param({"0.5"})
+    public double literalRatio;
+
+    private Neo4jClient neo4jClient;
+    private Mapper instance;
+
+    @Setup
+    public void setup() {
+        neo4jClient = BenchmarkMappers.client();
+        MapperApi mapperApi = new MapperApi(BenchmarkMappers.number(mapper), neo4jClient);
+        mapperApi.clearDatabase();
+        Model model = BenchmarkData.model(subjects, prefixes, depth, literalRatio);
+        if (!mapperApi.importRdf(model, "benchmark-" + mapper + "-" + subjects + "-" + prefixes + "-" + depth + "-" + literalRatio).success()) {
+            throw new IllegalStateException("Import der Benchmark-Daten fehlgeschlagen.");
+        }
+        instance = BenchmarkMappers.create(mapper, neo4jClient);
+    }
+
+    @TearDown
+    public void tearDown() {
+        neo4jClient.close();
+    }
+
+    @Benchmark
+    public Model mapPgToRdf() {
+        return instance.mapPgToRdf();
+    }
+}
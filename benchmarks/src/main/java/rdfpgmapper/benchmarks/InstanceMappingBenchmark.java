@@ -0,0 +1,72 @@
+package rdfpgmapper.benchmarks;
+
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.neo4j.Neo4jClient;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst {@link Mapper#mapRdfToPgInstance(Model)} aller vier Mapper. Das Mapping der Instanzdaten greift nicht
+ * auf die Datenbank zu, sodass der Benchmark ohne Neo4j läuft.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstanceMappingBenchmark {
+
+    @Param({"RptSimple", "RptGeneric", "PgtSimple", "PgtComplete"})
+    public String mapper;
+
+    @Param({"1000", "10000"})
+    public int subjects;
+
+    @Param({"4"})
+    public int prefixes;
+
+    @Param({"4"})
+    public int depth;
+
+    @Param({"0.2", "0.8"})
+    public double literalRatio;
+
+    private Neo4jClient neo4jClient;
+    private Mapper instance;
+    private Model model;
+
+    @Setup
+    public void setup() {
+        neo4jClient = BenchmarkMappers.client();
+        instance = BenchmarkMappers.create(mapper, neo4jClient);
+        model = BenchmarkData.model(subjects, prefixes, depth, literalRatio);
+    }
+
+    @TearDown
+    public void tearDown() {
+        neo4jClient.close();
+    }
+
+    @Benchmark
+    public List<String> mapRdfToPgInstance() {
+        return instance.mapRdfToPgInstance(model);
+    }
+}
@@ -0,0 +1,74 @@
+package rdfpgmapper.benchmarks;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rdfpgmapper.utils.Helper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst {@link Helper#getPrefixedName(String, Model)} und {@link Helper#getPrefixedName(String, Map)} für
+ * {@value #URIS} IRIs, die gleichmäßig auf die Namensräume verteilt sind; jede achte IRI hat keinen bekannten Namensraum.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixedNameBenchmark {
+
+    private static final int URIS = 1024;
+
+    @Param({"1", "16", "128"})
+    public int prefixes;
+
+    private Model model;
+    private Map<String, Object> nsPrefixUri;
+    private String[] uris;
+
+    @Setup
+    public void setup() {
+        model = ModelFactory.createDefaultModel();
+        nsPrefixUri = new HashMap<>();
+        for (int i = 0; i < prefixes; i++) {
+            model.setNsPrefix("ns" + i, BenchmarkData.namespace(i));
+            nsPrefixUri.put("ns" + i, BenchmarkData.namespace(i));
+        }
+        uris = new String[URIS];
+        for (int i = 0; i < URIS; i++) {
+            uris[i] = i % 8 == 7 ? "http://unknown.org/r" + i : BenchmarkData.namespace(i % prefixes) + "r" + i;
+        }
+    }
+
+    @Benchmark
+    public void prefixedNameFromModel(Blackhole blackhole) {
+        for (String uri : uris) {
+            blackhole.consume(Helper.getPrefixedName(uri, model));
+        }
+    }
+
+    @Benchmark
+    public void prefixedNameFromMap(Blackhole blackhole) {
+        for (String uri : uris) {
+            blackhole.consume(Helper.getPrefixedName(uri, nsPrefixUri));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package rdfpgmapper.benchmarks;
+
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.CompiledSchema;
+import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.RDFGraphModel;
+import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.RDFModelBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst das Kompilieren des RDFS-Schemas und den Aufbau des {@link RDFGraphModel} aus einem Modell mit Instanzdaten.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaBenchmark {
+
+    @Param({"2", "8", "32"})
+    public int depth;
+
+    @Param({"16"})
+    public int prefixes;
+
+    @Param({"1000", "10000"})
+    public int subjects;
+
+    private Model model;
+
+    @Setup
+    public void setup() {
+        model = BenchmarkData.model(subjects, prefixes, depth, 0.5);
+    }
+
+    @Benchmark
+    public CompiledSchema compile() {
+        return RDFModelBuilder.compile(model);
+    }
+
+    @Benchmark
+    public RDFGraphModel buildGraphModel() {
+        return RDFModelBuilder.buildGraphModel(model);
+    }
+}
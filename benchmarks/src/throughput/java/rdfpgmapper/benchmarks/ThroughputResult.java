@@ -0,0 +1,53 @@
+package rdfpgmapper.benchmarks;
+
+import java.util.Locale;
+
+/**
+ * Ergebnis eines Import- und Export-Durchlaufs der {@link ThroughputSuite} für einen Mapper und einen Datensatz.
+ *
+ * @param mapper        Der Klassenname des Mappers.
+ * @param triples       Die Anzahl der verschiedenen Tripel des Datensatzes.
+ * @param importNanos   Die Dauer des Imports einschließlich des Einlesens der Datei.
+ * @param statements    Die Anzahl der beim Import übernommenen Statements.
+ * @param exportNanos   Die Dauer des Exports einschließlich des Schreibens der Datei.
+ * @param exported      Die Anzahl der verschiedenen exportierten Tripel oder -1, wenn der Export fehlschlug.
+ * @param peakHeapBytes Der höchste Heap-Verbrauch während Import und Export, einschließlich der eingebetteten Datenbank.
+ * @param storeBytes    Die Größe der Datenbank-Dateien nach dem Import.
+ * @param success       true, wenn Import und Export vollständig waren.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record ThroughputResult(String mapper, long triples, long importNanos, int statements, long exportNanos,
+                               long exported, long peakHeapBytes, long storeBytes, boolean success) {
+
+    /**
+     * Die Kopfzeile des CSV-Berichts.
+     */
+    public static final String CSV_HEADER = "mapper,triples,import_s,import_triples_per_s,statements,export_s,"
+            + "export_triples_per_s,exported,roundtrip,peak_heap_mb,store_mb,success";
+
+    /**
+     * Gibt zurück, ob der Export genauso viele verschiedene Tripel enthält wie der Datensatz.
+     *
+     * @return true, wenn die Anzahl übereinstimmt.
+     */
+    public boolean roundTrip() {
+        return exported == triples;
+    }
+
+    /**
+     * Gibt das Ergebnis als Zeile des CSV-Berichts zurück.
+     *
+     * @return Die CSV-Zeile.
+     */
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%s,%d,%.3f,%.0f,%d,%.3f,%.0f,%d,%s,%.1f,%.1f,%s", mapper, triples,
+                importNanos / 1e9, perSecond(triples, importNanos), statements, exportNanos / 1e9,
+                perSecond(exported, exportNanos), exported, roundTrip(), peakHeapBytes / 1048576.0,
+                storeBytes / 1048576.0, success);
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos <= 0 || count < 0 ? 0 : count * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,173 @@
+package rdfpgmapper.benchmarks;
+
+import apoc.ApocConfig;
+import org.apache.jena.riot.RDFDataMgr;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.SimpleTriggerInfo;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import rdfpgmapper.generator.DatasetGenerator;
+import rdfpgmapper.generator.GeneratorConfig;
+import rdfpgmapper.mapper.ImportResult;
+import rdfpgmapper.mapper.MapperApi;
+import rdfpgmapper.neo4j.Neo4jClient;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Durchsatz-Suite für Import und Export aller Mapper gegen eine eingebettete Neo4j-Datenbank mit APOC.
+ * Für jede Datensatzgröße wird mit dem {@link DatasetGenerator} ein Datensatz in Turtle erzeugt (und im
+ * Arbeitsverzeichnis wiederverwendet), da die PGT-Mapper Labels und Relationstypen aus den Präfixen bilden.
+ * Jeder Mapper importiert ihn in eine frische Datenbank und exportiert ihn wieder als N-Triples.
+ * Gemessen werden Dauer und Durchsatz beider Richtungen, der höchste Heap-Verbrauch und die Größe der Datenbank;
+ * die Anzahl der exportierten Tripel wird mit der des Datensatzes verglichen. Abweichungen werden gemeldet, aber
+ * nur fehlgeschlagene Importe und Exporte führen zum Exit-Code 1, da die PGT-Layouts mehrwertige Literal-Properties
+ * nicht verlustfrei abbilden. Die Ergebnisse werden als CSV nach
+ * {@code results/throughput-<Bezeichnung>.csv} geschrieben, mit derselben Bezeichnung wie beim {@link BenchmarkRunner}.
+ * <p>
+ * Argumente: {@code --triples 100000,1000000} (Standard 100000), {@code --mappers RptSimple,PgtComplete}
+ * (Standard alle), {@code --seed <n>}, {@code --work-dir <verzeichnis>} (Standard {@code target/throughput})
+ * und {@code --report <datei>}.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ThroughputSuite {
+
+    private static final List<String> KEYS = List.of("triples", "mappers", "seed", "work-dir", "report");
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new TreeMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            String key = args[i].startsWith("--") ? args[i].substring(2) : args[i];
+            if (!KEYS.contains(key) || i + 1 >= args.length) {
+                System.err.println("Unbekanntes oder unvollständiges Argument: " + args[i]);
+                System.err.println("Argumente: [--triples <n,...>] [--mappers <name,...>] [--seed <n>] [--work-dir <pfad>] [--report <datei>]");
+                System.exit(2);
+            }
+            options.put(key, args[i + 1]);
+        }
+
+        List<Long> sizes = Arrays.stream(options.getOrDefault("triples", "100000").split(","))
+                .map(String::trim).map(Long::parseLong).toList();
+        List<String> mappers = Arrays.stream(options.getOrDefault("mappers", String.join(",", BenchmarkMappers.NAMES)).split(","))
+                .map(String::trim).toList();
+        mappers.forEach(BenchmarkMappers::number);
+        String seed = options.getOrDefault("seed", "42");
+        Path workDir = Path.of(options.getOrDefault("work-dir", "target/throughput")).toAbsolutePath();
+        Path report = Path.of(options.getOrDefault("report", "results/throughput-" + BenchmarkRunner.label() + ".csv"));
+        Files.createDirectories(workDir);
+
+        List<ThroughputResult> results = new ArrayList<>();
+        for (long size : sizes) {
+            Path dataset = workDir.resolve("dataset-" + size + "-" + seed + ".ttl");
+            if (!Files.exists(dataset)) {
+                new DatasetGenerator(GeneratorConfig.parse(new String[]{
+                        "--output", dataset.toString(), "--triples", String.valueOf(size), "--seed", seed})).generate();
+            }
+            long triples = RDFDataMgr.loadGraph(dataset.toString()).size();
+            for (String mapper : mappers) {
+                ThroughputResult result = run(mapper, dataset, triples, workDir);
+                results.add(result);
+                System.out.println(ThroughputResult.CSV_HEADER);
+                System.out.println(result.toCsv());
+            }
+        }
+
+        Path parent = report.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(report))) {
+            writer.println(ThroughputResult.CSV_HEADER);
+            results.forEach(result -> writer.println(result.toCsv()));
+        }
+        System.out.println("Bericht geschrieben: " + report);
+
+        results.stream().filter(result -> result.success() && !result.roundTrip()).forEach(result ->
+                System.out.println("Abweichung " + result.mapper() + ": " + result.exported() + " von " + result.triples() + " Tripeln exportiert."));
+        System.exit(results.stream().allMatch(ThroughputResult::success) ? 0 : 1);
+    }
+
+    /**
+     * Importiert und exportiert einen Datensatz mit einem Mapper in einer frischen eingebetteten Datenbank.
+     * Vor dem Messen der Datenbankgröße wird ein Checkpoint erzwungen, damit alle Seiten geschrieben sind.
+     */
+    private static ThroughputResult run(String mapper, Path dataset, long triples, Path workDir) throws IOException {
+        Path exportFile = workDir.resolve("export-" + mapper + "-" + dataset.getFileName().toString().replace(".ttl", ".nt"));
+        Files.deleteIfExists(exportFile);
+
+        try (Neo4j neo4j = Neo4jBuilders.newInProcessBuilder(workDir)
+                .withDisabledServer()
+                .withProcedure(apoc.trigger.Trigger.class)
+                .withProcedure(apoc.util.Utils.class)
+                .withProcedure(apoc.create.Create.class)
+                .withProcedure(apoc.merge.Merge.class)
+                .withProcedure(apoc.schema.Schemas.class)
+                .build();
+             Neo4jClient neo4jClient = new Neo4jClient(neo4j.boltURI().toString(), "neo4j", "neo4j")) {
+
+            // APOC liest apoc.conf aus dem Home-Verzeichnis, das der Harness zufällig anlegt; die Trigger werden
+            // daher direkt freigeschaltet, bevor der erste Mapper sie installiert.
+            ApocConfig.apocConfig().setProperty("apoc.trigger.enabled", true);
+            MapperApi mapperApi = new MapperApi(BenchmarkMappers.number(mapper), neo4jClient);
+            System.gc();
+            resetPeakHeap();
+
+            long start = System.nanoTime();
+            ImportResult imported = mapperApi.importRdf(dataset.toString(), "TTL");
+            long importNanos = System.nanoTime() - start;
+
+            GraphDatabaseAPI database = (GraphDatabaseAPI) neo4j.defaultDatabaseService();
+            database.getDependencyResolver().resolveDependency(CheckPointer.class)
+                    .forceCheckPoint(new SimpleTriggerInfo("ThroughputSuite"));
+            long storeBytes = size(database.databaseLayout().databaseDirectory());
+
+            start = System.nanoTime();
+            mapperApi.exportRdf(exportFile.toString(), "N-TRIPLE");
+            long exportNanos = System.nanoTime() - start;
+            long peakHeap = peakHeap();
+
+            long exported = Files.exists(exportFile) ? RDFDataMgr.loadGraph(exportFile.toString()).size() : -1;
+            return new ThroughputResult(mapper, triples, importNanos, imported.statements(), exportNanos, exported,
+                    peakHeap, storeBytes, imported.success() && exported >= 0);
+        }
+    }
+
+    private static void resetPeakHeap() {
+        ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    private static long peakHeap() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+
+    private static long size(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).mapToLong(path -> {
+                try {
+                    return Files.size(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).sum();
+        }
+    }
+}
@@ -2,8 +2,14 @@ package rdfpgmapper;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import rdfpgmapper.generator.DatasetGenerator;
+import rdfpgmapper.job.BatchJob;
+import rdfpgmapper.job.JobConfig;
 import rdfpgmapper.mapper.MapperApi;
+import rdfpgmapper.profiler.DataProfiler;
+import rdfpgmapper.service.ServiceServer;
 
+import java.util.Arrays;
 import java.util.Scanner;
 
 
@@ -21,11 +27,33 @@ public class Main {
      * Hauptmethode zur Ausführung der Anwendung.
      * Erlaubt die Auswahl verschiedener Mapping-Methoden und stellt ein Menü für
      * weitere Operationen wie Importieren, Exportieren und Löschen von Daten bereit.
+     * Werden Argumente übergeben, läuft stattdessen ein nicht-interaktiver Import-Job (siehe {@link JobConfig}),
+     * und das Programm endet mit dessen Exit-Code. Mit dem ersten Argument {@code generate} wird stattdessen ein
+     * synthetischer Datensatz erzeugt (siehe {@link DatasetGenerator}), mit {@code profile} werden Eingabedaten vor einem
+     * Import profiliert (siehe {@link DataProfiler}); mit {@code serve} läuft die Anwendung als Dienst
+     * mit HTTP-Schnittstelle (siehe {@link ServiceServer}), bis der Prozess beendet wird.
      *
      * @param args Argumente, die von der Kommandozeile übergeben werden.
      */
     public static void main(String[] args) {
 
+        if (args.length > 0 && args[0].equals("generate")) {
+            System.exit(DatasetGenerator.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        if (args.length > 0 && args[0].equals("profile")) {
+            System.exit(DataProfiler.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        if (args.length > 0 && args[0].equals("serve")) {
+            int exitCode = ServiceServer.run(Arrays.copyOfRange(args, 1, args.length));
+            if (exitCode != 0) {
+                System.exit(exitCode);
+            }
+            return;
+        }
+        if (args.length > 0) {
+            System.exit(runJob(args));
+        }
+
         Scanner scanner = new Scanner(System.in);
 
         while (true) {
@@ -40,6 +68,7 @@ public class Main {
             scanner.nextLine();
 
             MapperApi mapperApi = new MapperApi(option);
+            mapperApi.setPrintSchemaPlan(true);
 
             boolean run = true;
             while (run) {
@@ -47,8 +76,9 @@ public class Main {
                 System.out.println("1 - RDF-Graph importieren");
                 System.out.println("2 - RDF-Graph exportieren");
                 System.out.println("3 - Neo4j-Datenbank leeren");
-                System.out.println("4 - Mapping-Strategie wechseln");
-                System.out.println("5 - Beenden");
+                System.out.println("4 - In das Layout eines anderen Mappers migrieren");
+                System.out.println("5 - Mapping-Strategie wechseln");
+                System.out.println("6 - Beenden");
 
                 System.out.print("Wählen Sie eine Option: ");
 
@@ -82,14 +112,33 @@ public class Main {
 
                         break;
                     case 3:
-                        mapperApi.clearDatabase();
-                        System.out.println("Alle Daten wurden gelöscht.");
+                        if (mapperApi.clearDatabase()) {
+                            System.out.println("Alle Daten wurden gelöscht.");
+                        } else {
+                            System.out.println("Die Daten konnten nicht vollständig gelöscht werden.");
+                        }
 
                         break;
                     case 4:
-                        run = false;
+                        System.out.println("In welches Layout soll migriert werden? (1 - RPT-Simple, 2 - RPT-Generic, 3 - PGT-Simple)");
+                        int targetMapper = scanner.nextInt();
+                        scanner.nextLine();
+
+                        try {
+                            if (mapperApi.migrate(targetMapper).success()) {
+                                mapperApi = new MapperApi(targetMapper);
+                                mapperApi.setPrintSchemaPlan(true);
+                                System.out.println("Daten wurden migriert.");
+                            }
+                        } catch (IllegalArgumentException e) {
+                            System.out.println(e.getMessage());
+                        }
+
                         break;
                     case 5:
+                        run = false;
+                        break;
+                    case 6:
                         System.out.println("Programm beendet.");
                         return;
                     default:
@@ -100,6 +149,28 @@ public class Main {
         }
     }
 
+    /**
+     * Liest die Job-Konfiguration aus den Argumenten und führt den Job aus.
+     *
+     * @param args Die Kommandozeilen-Argumente.
+     * @return Der Exit-Code des Jobs.
+     */
+    private static int runJob(String[] args) {
+        JobConfig config;
+        try {
+            config = JobConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Aufruf: java -jar rdfpgmapper.jar [--job <datei>] --input <pfad|glob> [--input ...] [--mapper 1-4]"
+                    + " [--uri <uri>] [--user <name>] [--password <passwort>] [--format AUTO|TTL|RDF/XML|N-TRIPLE]"
+                    + " [--parallelism <n>] [--batch-size <n>] [--change-tracking true|false]"
+                    + " [--metrics-file <datei>] [--metrics-interval <sekunden>]"
+                    + " [--spill-budget <mb>] [--spill-dir <verzeichnis>]");
+            return BatchJob.EXIT_INVALID_JOB;
+        }
+        return new BatchJob(config).run();
+    }
+
     /**
      * Hilfsmethode zur Auswahl des Pfades und Formats für den Import oder Export von RDF-Daten.
      * Der Benutzer wird aufgefordert, Pfad und Format in einem spezifischen Format einzugeben.
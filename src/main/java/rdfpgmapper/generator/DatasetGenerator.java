@@ -0,0 +1,254 @@
+package rdfpgmapper.generator;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.system.PrefixMap;
+import org.apache.jena.riot.system.PrefixMapFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.jena.vocabulary.XSD;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Erzeugt reproduzierbare synthetische RDF-Datensätze für Last- und Durchsatztests aller Mapping-Varianten.
+ * Nach dem Schema ({@link SyntheticSchema}) werden die Instanzen in Abschnitten von {@value #CHUNK_SIZE} Instanzen
+ * parallel erzeugt und in ihrer Reihenfolge in die Ausgabedatei geschrieben; es werden höchstens zwei Abschnitte
+ * je Thread gleichzeitig im Speicher gehalten. Jeder Abschnitt hat einen eigenen, aus Seed und Abschnitt
+ * abgeleiteten Zufallsgenerator, sodass die Datei unabhängig von der Anzahl der Threads gleich ist.
+ * <p>
+ * Instanz {@code i} hat die Klasse {@code i mod classes}. Relationen verwenden nur Properties, deren Domain eine
+ * Klasse der Instanz ist, und zeigen auf eine Instanz einer Unterklasse der Range; welche Instanz, wird nach einer
+ * Potenzverteilung gewählt, sodass wenige Instanzen jeder Klasse sehr viele eingehende Relationen haben.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class DatasetGenerator {
+
+    /**
+     * Anzahl der Instanzen, die ein Thread am Stück erzeugt.
+     */
+    public static final int CHUNK_SIZE = 10000;
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    private static final long EPOCH_DAY_2000 = LocalDate.of(2000, 1, 1).toEpochDay();
+
+    private final GeneratorConfig config;
+    private final SyntheticSchema schema;
+    private final String dataNamespace;
+    private final PrefixMap prefixes;
+
+    /**
+     * Konstruktor für den DatasetGenerator.
+     *
+     * @param config Die Konfiguration des Datensatzes.
+     */
+    public DatasetGenerator(GeneratorConfig config) {
+        this.config = config;
+        this.schema = new SyntheticSchema(config);
+        this.dataNamespace = config.namespace() + "data/";
+        if (config.format().equals("TTL")) {
+            prefixes = PrefixMapFactory.create();
+            prefixes.add("rdf", RDF.getURI());
+            prefixes.add("rdfs", RDFS.getURI());
+            prefixes.add("xsd", XSD.getURI());
+            prefixes.add("syn", schema.getNamespace());
+            prefixes.add("inst", dataNamespace);
+        } else {
+            prefixes = null;
+        }
+    }
+
+    /**
+     * Liest die Konfiguration aus den Argumenten und erzeugt den Datensatz.
+     *
+     * @param args Die Argumente (siehe {@link GeneratorConfig#parse(String[])}).
+     * @return 0, wenn der Datensatz geschrieben wurde, 1 bei einem Fehler und 2 bei ungültigen Argumenten.
+     */
+    public static int run(String[] args) {
+        GeneratorConfig config;
+        try {
+            config = GeneratorConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Aufruf: java -jar rdfpgmapper.jar generate --output <datei> [--format N-TRIPLE|TTL]"
+                    + " [--triples <n> | --instances <n>] [--seed <n>] [--classes <n>] [--depth <n>]"
+                    + " [--object-properties <n>] [--datatype-properties <n>] [--sub-property-ratio <anteil>]"
+                    + " [--degree <n>] [--literal-ratio <anteil>] [--degree-exponent <n>]"
+                    + " [--datatypes " + String.join(",", GeneratorConfig.DATATYPES) + "]"
+                    + " [--blank-node-ratio <anteil>] [--threads <n>] [--namespace <iri>]");
+            return 2;
+        }
+
+        long start = System.nanoTime();
+        try {
+            long triples = new DatasetGenerator(config).generate();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d Tripel in %.1f s geschrieben (%.0f Tripel/s): %s%n", triples, seconds, triples / seconds, config.output());
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Datensatz konnte nicht erzeugt werden: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Erzeugt den Datensatz und schreibt ihn in die Ausgabedatei.
+     *
+     * @return Die Anzahl der geschriebenen Tripel; wiederholt gezogene Relationen und Literale sind mitgezählt,
+     * sodass der eingelesene Graph etwas kleiner sein kann.
+     * @throws IOException wenn die Ausgabedatei nicht geschrieben werden kann.
+     */
+    public long generate() throws IOException {
+        long chunks = (config.instances() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads());
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(config.output()), 1 << 16)) {
+            TripleWriter header = new TripleWriter(prefixes);
+            if (prefixes != null) {
+                prefixes.forEach((prefix, uri) -> header.line("@prefix " + prefix + ": <" + uri + "> ."));
+            }
+            schema.write(header);
+            out.write(header.toByteArray());
+            long triples = header.triples();
+
+            Deque<Future<TripleWriter>> pending = new ArrayDeque<>();
+            long next = 0;
+            while (next < chunks || !pending.isEmpty()) {
+                while (next < chunks && pending.size() < 2 * config.threads()) {
+                    long chunk = next++;
+                    pending.add(executor.submit(() -> chunk(chunk)));
+                }
+                TripleWriter writer = await(pending.poll());
+                out.write(writer.toByteArray());
+                triples += writer.triples();
+            }
+            return triples;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TripleWriter chunk(long chunk) {
+        TripleWriter writer = new TripleWriter(prefixes);
+        SplittableRandom random = new SplittableRandom(mix(config.seed(), chunk));
+        long end = Math.min(config.instances(), (chunk + 1) * CHUNK_SIZE);
+        for (long instance = chunk * CHUNK_SIZE; instance < end; instance++) {
+            instance(writer, random, instance);
+        }
+        return writer;
+    }
+
+    private void instance(TripleWriter writer, SplittableRandom random, long instance) {
+        Node subject = instanceNode(instance);
+        int type = (int) (instance % schema.classCount());
+        writer.triple(subject, RDF.type.asNode(), schema.classNode(type));
+
+        int[] objectProperties = schema.objectPropertiesOf(type);
+        int[] datatypeProperties = schema.datatypePropertiesOf(type);
+        int degree = (int) config.degree() + (random.nextDouble() < config.degree() % 1 ? 1 : 0);
+        for (int j = 0; j < degree; j++) {
+            boolean literal = datatypeProperties.length > 0
+                    && (objectProperties.length == 0 || random.nextDouble() < config.literalRatio());
+            if (literal) {
+                literal(writer, random, subject, datatypeProperties);
+            } else if (objectProperties.length > 0) {
+                int property = objectProperties[random.nextInt(objectProperties.length)];
+                int[] targets = schema.descendants(schema.objectRange(property));
+                int target = targets[random.nextInt(targets.length)];
+
+                if (random.nextDouble() < config.blankNodeRatio()) {
+                    Node blankNode = NodeFactory.createBlankNode("b" + instance + "x" + j);
+                    writer.triple(subject, schema.objectProperty(property), blankNode);
+                    writer.triple(blankNode, RDF.type.asNode(), schema.classNode(target));
+                    if (schema.datatypePropertiesOf(target).length > 0) {
+                        literal(writer, random, blankNode, schema.datatypePropertiesOf(target));
+                    }
+                    continue;
+                }
+
+                long candidates = target < config.instances() ? (config.instances() - 1 - target) / schema.classCount() + 1 : 0;
+                if (candidates > 0) {
+                    long rank = rank(random, candidates, config.degreeExponent());
+                    writer.triple(subject, schema.objectProperty(property), instanceNode(rank * schema.classCount() + target));
+                }
+            }
+        }
+    }
+
+    private void literal(TripleWriter writer, SplittableRandom random, Node subject, int[] datatypeProperties) {
+        int property = datatypeProperties[random.nextInt(datatypeProperties.length)];
+        String datatype = schema.datatypeRange(property);
+        Node value = switch (datatype) {
+            case "langString" -> random.nextBoolean()
+                    ? NodeFactory.createLiteralLang("Wert " + random.nextInt(100_000), "de")
+                    : NodeFactory.createLiteralLang("value " + random.nextInt(100_000), "en");
+            case "integer" -> NodeFactory.createLiteral(String.valueOf(random.nextInt(-1_000_000, 1_000_000)), XSDDatatype.XSDinteger);
+            case "decimal" -> NodeFactory.createLiteral(random.nextInt(100_000) + "." + (10 + random.nextInt(90)), XSDDatatype.XSDdecimal);
+            case "double" -> NodeFactory.createLiteral(Double.toString(random.nextDouble() * 1000), XSDDatatype.XSDdouble);
+            case "boolean" -> NodeFactory.createLiteral(String.valueOf(random.nextBoolean()), XSDDatatype.XSDboolean);
+            case "date" -> NodeFactory.createLiteral(LocalDate.ofEpochDay(EPOCH_DAY_2000 + random.nextInt(10_000)).toString(), XSDDatatype.XSDdate);
+            case "dateTime" -> NodeFactory.createLiteral(LocalDate.ofEpochDay(EPOCH_DAY_2000 + random.nextInt(10_000))
+                    .atStartOfDay().plusSeconds(random.nextInt(86_400)).format(DATE_TIME), XSDDatatype.XSDdateTime);
+            default -> NodeFactory.createLiteralString("text " + random.nextInt(1_000_000));
+        };
+        writer.triple(subject, schema.datatypeProperty(property), value);
+    }
+
+    private Node instanceNode(long instance) {
+        return NodeFactory.createURI(dataNamespace + "i" + instance);
+    }
+
+    /**
+     * Wählt einen Rang zwischen 0 und {@code candidates - 1} nach einer stetigen Potenzverteilung mit dem gegebenen
+     * Exponenten über [1, candidates]; bei Exponent 0 gleichverteilt.
+     */
+    private static long rank(SplittableRandom random, long candidates, double exponent) {
+        if (candidates == 1 || exponent == 0) {
+            return random.nextLong(candidates);
+        }
+        double u = random.nextDouble();
+        double x;
+        if (Math.abs(exponent - 1) < 1e-9) {
+            x = Math.pow(candidates, u);
+        } else {
+            double e = 1 - exponent;
+            x = Math.pow((Math.pow(candidates, e) - 1) * u + 1, 1 / e);
+        }
+        return Math.max(0, Math.min(candidates - 1, (long) x - 1));
+    }
+
+    /**
+     * Leitet den Startwert eines Abschnitts ab (Finalisierer von SplitMix64).
+     */
+    private static long mix(long seed, long chunk) {
+        long z = seed + (chunk + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static TripleWriter await(Future<TripleWriter> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Abschnitt konnte nicht erzeugt werden: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Erzeugung unterbrochen.", e);
+        }
+    }
+}
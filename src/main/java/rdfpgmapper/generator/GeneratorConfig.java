@@ -0,0 +1,163 @@
+package rdfpgmapper.generator;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Konfiguration des synthetischen Datensatzes eines {@link DatasetGenerator}.
+ * Sie wird wie die Konfiguration eines Import-Jobs aus Argumenten der Form {@code --schlüssel wert} gelesen.
+ * Gleiche Konfigurationen erzeugen unabhängig von der Anzahl der Threads byte-gleiche Dateien.
+ *
+ * @param output             Die Ausgabedatei.
+ * @param format             Das Ausgabeformat ({@code N-TRIPLE} oder {@code TTL}).
+ * @param seed               Der Startwert aller Zufallszahlen.
+ * @param instances          Die Anzahl der Instanzen.
+ * @param classes            Die Anzahl der Klassen.
+ * @param depth              Die Tiefe der Klassen-Hierarchie (1 = keine Unterklassen).
+ * @param objectProperties   Die Anzahl der Properties zwischen Instanzen.
+ * @param datatypeProperties Die Anzahl der Properties mit Literal-Werten.
+ * @param subPropertyRatio   Der Anteil der Properties, die Sub-Property einer anderen Property sind.
+ * @param degree             Die mittlere Anzahl der Tripel je Instanz ohne rdf:type.
+ * @param literalRatio       Der Anteil dieser Tripel mit einem Literal als Objekt.
+ * @param degreeExponent     Der Exponent der Potenzverteilung, nach der Ziele von Relationen gewählt werden;
+ *                           0 wählt gleichverteilt, größere Werte bilden stärkere Hubs.
+ * @param datatypes          Die Datentypen der Literal-Properties.
+ * @param blankNodeRatio     Der Anteil der Relationen, deren Ziel ein neuer Blank Node ist.
+ * @param threads            Die Anzahl der Threads, die Abschnitte des Datensatzes erzeugen.
+ * @param namespace          Der Basis-Namensraum; Schema und Instanzen liegen in {@code schema/} und {@code data/}.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record GeneratorConfig(Path output, String format, long seed, long instances, int classes, int depth,
+                              int objectProperties, int datatypeProperties, double subPropertyRatio, double degree,
+                              double literalRatio, double degreeExponent, List<String> datatypes, double blankNodeRatio,
+                              int threads, String namespace) {
+
+    /**
+     * Die unterstützten Schlüssel in Argumenten.
+     */
+    public static final List<String> KEYS = List.of("output", "format", "seed", "triples", "instances", "classes",
+            "depth", "object-properties", "datatype-properties", "sub-property-ratio", "degree", "literal-ratio",
+            "degree-exponent", "datatypes", "blank-node-ratio", "threads", "namespace");
+
+    /**
+     * Die unterstützten Datentypen der Literal-Properties.
+     */
+    public static final List<String> DATATYPES = List.of("string", "langString", "integer", "decimal", "double",
+            "boolean", "date", "dateTime");
+
+    /**
+     * Liest die Konfiguration aus Kommandozeilen-Argumenten. Statt {@code --instances} kann mit {@code --triples}
+     * die ungefähre Größe des Datensatzes angegeben werden.
+     *
+     * @param args Die Argumente, z.B. {@code --output data.nt --triples 1000000 --depth 6}.
+     * @return Die Konfiguration.
+     * @throws IllegalArgumentException wenn ein Argument unbekannt oder ungültig ist.
+     */
+    public static GeneratorConfig parse(String[] args) {
+        Properties properties = new Properties();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Erwartet wird --<schlüssel> <wert>, gefunden: " + args[i]);
+            }
+            String key = args[i].substring(2);
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unbekanntes Argument: " + args[i]);
+            }
+            properties.setProperty(key, args[i + 1]);
+        }
+
+        String output = properties.getProperty("output");
+        if (output == null) {
+            throw new IllegalArgumentException("Die Ausgabedatei (--output) muss angegeben werden.");
+        }
+        String format = properties.getProperty("format", output.toLowerCase(Locale.ROOT).endsWith(".ttl") ? "TTL" : "N-TRIPLE")
+                .toUpperCase(Locale.ROOT);
+        if (!format.equals("TTL") && !format.equals("N-TRIPLE")) {
+            throw new IllegalArgumentException("Format nicht unterstützt: " + format);
+        }
+
+        int classes = (int) parseLong(properties, "classes", 20);
+        int depth = (int) parseLong(properties, "depth", 4);
+        int objectProperties = (int) parseLong(properties, "object-properties", 10);
+        int datatypeProperties = (int) parseLong(properties, "datatype-properties", 10);
+        int threads = (int) parseLong(properties, "threads", Runtime.getRuntime().availableProcessors());
+        double degree = parseDouble(properties, "degree", 5);
+        double literalRatio = parseDouble(properties, "literal-ratio", 0.4);
+        double blankNodeRatio = parseDouble(properties, "blank-node-ratio", 0.05);
+        double subPropertyRatio = parseDouble(properties, "sub-property-ratio", 0.2);
+        double degreeExponent = parseDouble(properties, "degree-exponent", 1.5);
+
+        if (classes < 1 || depth < 1 || depth > classes || threads < 1) {
+            throw new IllegalArgumentException("classes und threads müssen größer als 0 sein, depth zwischen 1 und classes liegen.");
+        }
+        if (objectProperties < 0 || datatypeProperties < 0 || objectProperties + datatypeProperties == 0) {
+            throw new IllegalArgumentException("Es muss mindestens eine Property geben.");
+        }
+        if (degree < 0 || degreeExponent < 0 || !isRatio(literalRatio) || !isRatio(blankNodeRatio) || !isRatio(subPropertyRatio)) {
+            throw new IllegalArgumentException("degree und degree-exponent dürfen nicht negativ sein, Anteile müssen zwischen 0 und 1 liegen.");
+        }
+
+        List<String> datatypes = Arrays.stream(properties.getProperty("datatypes", String.join(",", DATATYPES)).split(","))
+                .map(String::trim).filter(s -> !s.isEmpty()).toList();
+        for (String datatype : datatypes) {
+            if (!DATATYPES.contains(datatype)) {
+                throw new IllegalArgumentException("Datentyp nicht unterstützt: " + datatype);
+            }
+        }
+        if (datatypes.isEmpty() && datatypeProperties > 0) {
+            throw new IllegalArgumentException("Für Literal-Properties muss mindestens ein Datentyp angegeben werden.");
+        }
+
+        long instances;
+        if (properties.containsKey("instances")) {
+            instances = parseLong(properties, "instances", 0);
+        } else {
+            double perInstance = 1 + degree + 2 * degree * (1 - literalRatio) * blankNodeRatio;
+            instances = Math.round(parseLong(properties, "triples", 1_000_000) / perInstance);
+        }
+        if (instances < 1) {
+            throw new IllegalArgumentException("Der Datensatz muss mindestens eine Instanz enthalten.");
+        }
+
+        String namespace = properties.getProperty("namespace", "http://example.org/synthetic/");
+        if (!namespace.endsWith("/") && !namespace.endsWith("#")) {
+            namespace = namespace + "/";
+        }
+
+        return new GeneratorConfig(Path.of(output), format, parseLong(properties, "seed", 42), instances, classes, depth,
+                objectProperties, datatypeProperties, subPropertyRatio, degree, literalRatio, degreeExponent,
+                datatypes, blankNodeRatio, threads, namespace);
+    }
+
+    private static boolean isRatio(double value) {
+        return value >= 0 && value <= 1;
+    }
+
+    private static long parseLong(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim().replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Keine Zahl für " + key + ": " + value);
+        }
+    }
+
+    private static double parseDouble(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Keine Zahl für " + key + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package rdfpgmapper.generator;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Das RDFS-Schema eines synthetischen Datensatzes.
+ * Die Klassen bilden einen Wald der konfigurierten Tiefe, in dem jede Klasse eine Oberklasse der vorigen Ebene hat.
+ * Sub-Properties erhalten Domain und Range unterhalb der Domain und Range ihrer Super-Property, sodass die
+ * erzeugten Instanzdaten die RDFS-Constraints erfüllen. Das Schema hängt nur von der Konfiguration und dem Seed ab.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class SyntheticSchema {
+
+    private final String schemaNamespace;
+    private final List<String> datatypes;
+
+    private final Node[] classes;
+    private final int[] parents;
+    private final int[][] descendants;
+
+    private final Node[] objectProperties;
+    private final int[] objectDomains;
+    private final int[] objectRanges;
+    private final int[] objectSupers;
+
+    private final Node[] datatypeProperties;
+    private final int[] datatypeDomains;
+    private final String[] datatypeRanges;
+    private final int[] datatypeSupers;
+
+    private final int[][] objectPropertiesByClass;
+    private final int[][] datatypePropertiesByClass;
+
+    /**
+     * Erzeugt das Schema einer Konfiguration.
+     *
+     * @param config Die Konfiguration des Datensatzes.
+     */
+    public SyntheticSchema(GeneratorConfig config) {
+        this.schemaNamespace = config.namespace() + "schema/";
+        this.datatypes = config.datatypes();
+        SplittableRandom random = new SplittableRandom(config.seed());
+
+        int classCount = config.classes();
+        classes = new Node[classCount];
+        parents = new int[classCount];
+        int[] levels = new int[classCount];
+        int[] firstOfLevel = new int[config.depth() + 1];
+        for (int level = 0; level <= config.depth(); level++) {
+            firstOfLevel[level] = (int) ((long) level * classCount / config.depth());
+        }
+        for (int i = 0; i < classCount; i++) {
+            classes[i] = NodeFactory.createURI(schemaNamespace + "Class" + i);
+            int level = 0;
+            while (i >= firstOfLevel[level + 1]) {
+                level++;
+            }
+            levels[i] = level;
+            parents[i] = level == 0 ? -1
+                    : firstOfLevel[level - 1] + random.nextInt(firstOfLevel[level] - firstOfLevel[level - 1]);
+        }
+        descendants = descendants(parents);
+
+        objectProperties = new Node[config.objectProperties()];
+        objectDomains = new int[objectProperties.length];
+        objectRanges = new int[objectProperties.length];
+        objectSupers = new int[objectProperties.length];
+        for (int i = 0; i < objectProperties.length; i++) {
+            objectProperties[i] = NodeFactory.createURI(schemaNamespace + "rel" + i);
+            objectSupers[i] = i > 0 && random.nextDouble() < config.subPropertyRatio() ? random.nextInt(i) : -1;
+            if (objectSupers[i] < 0) {
+                objectDomains[i] = upperClass(random, levels);
+                objectRanges[i] = upperClass(random, levels);
+            } else {
+                objectDomains[i] = pick(random, descendants[objectDomains[objectSupers[i]]]);
+                objectRanges[i] = pick(random, descendants[objectRanges[objectSupers[i]]]);
+            }
+        }
+
+        datatypeProperties = new Node[config.datatypeProperties()];
+        datatypeDomains = new int[datatypeProperties.length];
+        datatypeRanges = new String[datatypeProperties.length];
+        datatypeSupers = new int[datatypeProperties.length];
+        for (int i = 0; i < datatypeProperties.length; i++) {
+            datatypeProperties[i] = NodeFactory.createURI(schemaNamespace + "attr" + i);
+            datatypeSupers[i] = i > 0 && random.nextDouble() < config.subPropertyRatio() ? random.nextInt(i) : -1;
+            if (datatypeSupers[i] < 0) {
+                datatypeDomains[i] = upperClass(random, levels);
+                datatypeRanges[i] = datatypes.get(i % datatypes.size());
+            } else {
+                datatypeDomains[i] = pick(random, descendants[datatypeDomains[datatypeSupers[i]]]);
+                datatypeRanges[i] = datatypeRanges[datatypeSupers[i]];
+            }
+        }
+
+        objectPropertiesByClass = byClass(objectDomains);
+        datatypePropertiesByClass = byClass(datatypeDomains);
+    }
+
+    /**
+     * Schreibt die Schema-Tripel.
+     *
+     * @param writer Das Ziel der Tripel.
+     */
+    public void write(TripleWriter writer) {
+        Node type = RDF.type.asNode();
+        for (int i = 0; i < classes.length; i++) {
+            writer.triple(classes[i], type, RDFS.Class.asNode());
+            if (parents[i] >= 0) {
+                writer.triple(classes[i], RDFS.subClassOf.asNode(), classes[parents[i]]);
+            }
+        }
+        for (int i = 0; i < objectProperties.length; i++) {
+            writer.triple(objectProperties[i], type, RDF.Property.asNode());
+            writer.triple(objectProperties[i], RDFS.domain.asNode(), classes[objectDomains[i]]);
+            writer.triple(objectProperties[i], RDFS.range.asNode(), classes[objectRanges[i]]);
+            if (objectSupers[i] >= 0) {
+                writer.triple(objectProperties[i], RDFS.subPropertyOf.asNode(), objectProperties[objectSupers[i]]);
+            }
+        }
+        for (int i = 0; i < datatypeProperties.length; i++) {
+            writer.triple(datatypeProperties[i], type, RDF.Property.asNode());
+            writer.triple(datatypeProperties[i], RDFS.domain.asNode(), classes[datatypeDomains[i]]);
+            writer.triple(datatypeProperties[i], RDFS.range.asNode(), NodeFactory.createURI(datatype(datatypeRanges[i]).getURI()));
+            if (datatypeSupers[i] >= 0) {
+                writer.triple(datatypeProperties[i], RDFS.subPropertyOf.asNode(), datatypeProperties[datatypeSupers[i]]);
+            }
+        }
+    }
+
+    /**
+     * Gibt den Namensraum der Klassen und Properties zurück.
+     *
+     * @return Der Namensraum.
+     */
+    public String getNamespace() {
+        return schemaNamespace;
+    }
+
+    /**
+     * Gibt die Anzahl der Klassen zurück.
+     *
+     * @return Die Anzahl der Klassen.
+     */
+    public int classCount() {
+        return classes.length;
+    }
+
+    /**
+     * Gibt eine Klasse zurück.
+     *
+     * @param index Die Nummer der Klasse.
+     * @return Die IRI der Klasse.
+     */
+    public Node classNode(int index) {
+        return classes[index];
+    }
+
+    /**
+     * Gibt die Klasse selbst und alle ihre Unterklassen zurück.
+     *
+     * @param index Die Nummer der Klasse.
+     * @return Die Nummern der Klassen.
+     */
+    public int[] descendants(int index) {
+        return descendants[index];
+    }
+
+    /**
+     * Gibt die Object Properties zurück, deren Domain die Klasse oder eine ihrer Oberklassen ist.
+     *
+     * @param index Die Nummer der Klasse.
+     * @return Die Nummern der Properties.
+     */
+    public int[] objectPropertiesOf(int index) {
+        return objectPropertiesByClass[index];
+    }
+
+    /**
+     * Gibt die Datatype Properties zurück, deren Domain die Klasse oder eine ihrer Oberklassen ist.
+     *
+     * @param index Die Nummer der Klasse.
+     * @return Die Nummern der Properties.
+     */
+    public int[] datatypePropertiesOf(int index) {
+        return datatypePropertiesByClass[index];
+    }
+
+    /**
+     * Gibt eine Object Property zurück.
+     *
+     * @param index Die Nummer der Property.
+     * @return Die IRI der Property.
+     */
+    public Node objectProperty(int index) {
+        return objectProperties[index];
+    }
+
+    /**
+     * Gibt die Range einer Object Property zurück.
+     *
+     * @param index Die Nummer der Property.
+     * @return Die Nummer der Klasse.
+     */
+    public int objectRange(int index) {
+        return objectRanges[index];
+    }
+
+    /**
+     * Gibt eine Datatype Property zurück.
+     *
+     * @param index Die Nummer der Property.
+     * @return Die IRI der Property.
+     */
+    public Node datatypeProperty(int index) {
+        return datatypeProperties[index];
+    }
+
+    /**
+     * Gibt den Datentyp einer Datatype Property zurück.
+     *
+     * @param index Die Nummer der Property.
+     * @return Der Name des Datentyps aus {@link GeneratorConfig#DATATYPES}.
+     */
+    public String datatypeRange(int index) {
+        return datatypeRanges[index];
+    }
+
+    /**
+     * Gibt den RDF-Datentyp zu einem Namen aus {@link GeneratorConfig#DATATYPES} zurück.
+     *
+     * @param name Der Name des Datentyps.
+     * @return Der Datentyp.
+     */
+    public static RDFDatatype datatype(String name) {
+        return switch (name) {
+            case "langString" -> RDF.dtLangString;
+            case "integer" -> XSDDatatype.XSDinteger;
+            case "decimal" -> XSDDatatype.XSDdecimal;
+            case "double" -> XSDDatatype.XSDdouble;
+            case "boolean" -> XSDDatatype.XSDboolean;
+            case "date" -> XSDDatatype.XSDdate;
+            case "dateTime" -> XSDDatatype.XSDdateTime;
+            default -> XSDDatatype.XSDstring;
+        };
+    }
+
+    /**
+     * Wählt eine Klasse und steigt zufällig viele Ebenen zu ihren Oberklassen auf, sodass Domains und Ranges
+     * bevorzugt auf oberen Ebenen liegen und für viele Klassen gelten.
+     */
+    private int upperClass(SplittableRandom random, int[] levels) {
+        int index = random.nextInt(classes.length);
+        for (int steps = random.nextInt(levels[index] + 1); steps > 0; steps--) {
+            index = parents[index];
+        }
+        return index;
+    }
+
+    private int[][] byClass(int[] domains) {
+        int[][] byClass = new int[classes.length][];
+        for (int i = 0; i < classes.length; i++) {
+            List<Integer> properties = new ArrayList<>();
+            for (int property = 0; property < domains.length; property++) {
+                for (int ancestor = i; ancestor >= 0; ancestor = parents[ancestor]) {
+                    if (domains[property] == ancestor) {
+                        properties.add(property);
+                        break;
+                    }
+                }
+            }
+            byClass[i] = properties.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return byClass;
+    }
+
+    private static int[][] descendants(int[] parents) {
+        int[][] descendants = new int[parents.length][];
+        for (int i = 0; i < parents.length; i++) {
+            List<Integer> below = new ArrayList<>();
+            for (int candidate = 0; candidate < parents.length; candidate++) {
+                for (int ancestor = candidate; ancestor >= 0; ancestor = parents[ancestor]) {
+                    if (ancestor == i) {
+                        below.add(candidate);
+                        break;
+                    }
+                }
+            }
+            descendants[i] = below.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return descendants;
+    }
+
+    private static int pick(SplittableRandom random, int[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,83 @@
+package rdfpgmapper.generator;
+
+import org.apache.jena.atlas.io.AWriter;
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.out.NodeFormatter;
+import org.apache.jena.riot.out.NodeFormatterNT;
+import org.apache.jena.riot.out.NodeFormatterTTL;
+import org.apache.jena.riot.out.NodeToLabel;
+import org.apache.jena.riot.system.PrefixMap;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Schreibt Tripel zeilenweise in einen Puffer, in N-Triples oder in Turtle mit Präfixen.
+ * Blank Nodes behalten ihre Bezeichner, sodass unabhängig erzeugte Abschnitte aneinandergehängt werden können.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class TripleWriter {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+    private final AWriter out = IO.wrapUTF8(buffer);
+    private final NodeFormatter formatter;
+    private long triples;
+
+    /**
+     * Konstruktor für den TripleWriter.
+     *
+     * @param prefixes Die Präfixe für Turtle oder null für N-Triples.
+     */
+    public TripleWriter(PrefixMap prefixes) {
+        this.formatter = prefixes == null ? new NodeFormatterNT()
+                : new NodeFormatterTTL(null, prefixes, NodeToLabel.createBNodeByLabelAsGiven());
+    }
+
+    /**
+     * Schreibt ein Tripel.
+     *
+     * @param subject   Das Subjekt.
+     * @param predicate Das Prädikat.
+     * @param object    Das Objekt.
+     */
+    public void triple(Node subject, Node predicate, Node object) {
+        formatter.format(out, subject);
+        out.print(' ');
+        formatter.format(out, predicate);
+        out.print(' ');
+        formatter.format(out, object);
+        out.print(" .\n");
+        triples++;
+    }
+
+    /**
+     * Schreibt eine Zeile ohne Tripel, z.B. eine Präfix-Deklaration.
+     *
+     * @param line Die Zeile ohne Zeilenumbruch.
+     */
+    public void line(String line) {
+        out.print(line);
+        out.print("\n");
+    }
+
+    /**
+     * Gibt die Anzahl der geschriebenen Tripel zurück.
+     *
+     * @return Die Anzahl der Tripel.
+     */
+    public long triples() {
+        return triples;
+    }
+
+    /**
+     * Gibt den Inhalt des Puffers zurück.
+     *
+     * @return Die geschriebenen Zeilen als UTF-8.
+     */
+    public byte[] toByteArray() {
+        out.flush();
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,161 @@
+package rdfpgmapper.job;
+
+import rdfpgmapper.mapper.ImportResult;
+import rdfpgmapper.mapper.MapperApi;
+import rdfpgmapper.mapper.dictionary.NodeDictionary;
+import rdfpgmapper.mapper.schema.SchemaPlanner;
+import rdfpgmapper.mapper.spill.ExternalSorter;
+import rdfpgmapper.metrics.MapperMetrics;
+import rdfpgmapper.neo4j.Neo4jClient;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Nicht-interaktiver Import-Job, der mehrere RDF-Dateien gleichzeitig importiert.
+ * Alle Importe teilen sich einen Neo4j-Client und damit den Verbindungs-Pool des Treibers, einen
+ * {@link SchemaPlanner#shared(Neo4jClient) geteilten Schema-Planer} und ein {@link NodeDictionary}.
+ * Jede Datei wird von einer eigenen {@link MapperApi} mit eigenem Mapper verarbeitet, sodass ein abgebrochener
+ * Import einer Datei über ihren Checkpoint fortgesetzt werden kann, ohne die übrigen zu wiederholen.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class BatchJob {
+
+    /**
+     * Exit-Code, wenn alle Dateien importiert wurden.
+     */
+    public static final int EXIT_SUCCESS = 0;
+
+    /**
+     * Exit-Code, wenn mindestens eine Datei nicht vollständig importiert wurde.
+     */
+    public static final int EXIT_FAILED_FILES = 1;
+
+    /**
+     * Exit-Code bei ungültiger Konfiguration oder fehlenden Eingabedateien.
+     */
+    public static final int EXIT_INVALID_JOB = 2;
+
+    private final JobConfig config;
+
+    /**
+     * Konstruktor für den BatchJob.
+     *
+     * @param config Die Konfiguration des Jobs.
+     */
+    public BatchJob(JobConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Führt den Job aus und gibt anschließend einen Bericht mit dem Durchsatz jeder Datei aus.
+     * Zurückgestellte Constraints und Indizes werden erst angelegt, nachdem alle Dateien vollständig importiert wurden.
+     * Ist eine Kennzahlen-Datei konfiguriert, werden die Kennzahlen während des Jobs periodisch und an seinem Ende geschrieben.
+     *
+     * @return Der Exit-Code des Jobs.
+     */
+    public int run() {
+        List<Path> files;
+        try {
+            files = config.resolveInputs();
+        } catch (IOException e) {
+            System.err.println("Eingaben konnten nicht aufgelöst werden: " + e.getMessage());
+            return EXIT_INVALID_JOB;
+        }
+        if (files.isEmpty()) {
+            System.err.println("Keine Eingabedateien gefunden: " + config.inputs());
+            return EXIT_INVALID_JOB;
+        }
+        for (Path file : files) {
+            if (config.formatFor(file) == null) {
+                System.err.println("Format nicht erkannt: " + file);
+                return EXIT_INVALID_JOB;
+            }
+        }
+
+        if (config.metricsFile() != null) {
+            MapperMetrics.enable(Path.of(config.metricsFile()), Duration.ofSeconds(config.metricsSeconds()));
+        }
+        ExternalSorter.setDefaults(config.spillBudget() * 1024L * 1024L, Path.of(config.spillDirectory()));
+        long start = System.nanoTime();
+        List<FileReport> reports = new ArrayList<>();
+        try (Neo4jClient neo4jClient = new Neo4jClient(config.uri(), config.user(), config.password(), config.parallelism() + 1)) {
+            SchemaPlanner schemaPlanner = SchemaPlanner.shared(neo4jClient);
+            NodeDictionary nodeDictionary = new NodeDictionary(neo4jClient);
+
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(config.parallelism(), files.size()));
+            try {
+                List<Future<FileReport>> futures = new ArrayList<>();
+                for (Path file : files) {
+                    futures.add(executor.submit(() -> importFile(file, neo4jClient, schemaPlanner, nodeDictionary)));
+                }
+                for (int i = 0; i < files.size(); i++) {
+                    reports.add(await(futures.get(i), files.get(i)));
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            if (reports.stream().allMatch(report -> report.result().success())) {
+                for (String statement : schemaPlanner.applyPendingDeferred()) {
+                    System.err.println("Nicht angelegt: " + statement);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Job abgebrochen: " + e.getMessage());
+            return EXIT_FAILED_FILES;
+        } finally {
+            MapperMetrics.disable();
+        }
+
+        printReport(reports, System.nanoTime() - start);
+        return reports.stream().allMatch(report -> report.result().success()) ? EXIT_SUCCESS : EXIT_FAILED_FILES;
+    }
+
+    private FileReport importFile(Path file, Neo4jClient neo4jClient, SchemaPlanner schemaPlanner, NodeDictionary nodeDictionary) {
+        MapperApi mapperApi = new MapperApi(config.mapper(), neo4jClient);
+        mapperApi.setSchemaPlanner(schemaPlanner);
+        mapperApi.setNodeDictionary(nodeDictionary);
+        mapperApi.setImportBatchSize(config.batchSize());
+        mapperApi.setChangeTracking(config.changeTracking());
+
+        long start = System.nanoTime();
+        ImportResult result = mapperApi.importRdf(file.toString(), config.formatFor(file));
+        return new FileReport(file, result, System.nanoTime() - start);
+    }
+
+    private static FileReport await(Future<FileReport> future, Path file) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            System.err.println("Import von " + file + " fehlgeschlagen: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Import von " + file + " unterbrochen.");
+        }
+        return new FileReport(file, ImportResult.failed(), 0);
+    }
+
+    private static void printReport(List<FileReport> reports, long nanos) {
+        System.out.println("\nImport-Bericht:");
+        System.out.println(String.format(Locale.ROOT, "  %-50s %12s %10s %12s  %s", "Datei", "Tripel", "Sekunden", "Tripel/s", "Status"));
+        long triples = 0;
+        for (FileReport report : reports) {
+            triples += report.result().triples();
+            System.out.println(String.format(Locale.ROOT, "  %-50s %12d %10.2f %12.0f  %s", report.file(), report.result().triples(),
+                    report.nanos() / 1e9, report.triplesPerSecond(), report.result().success() ? "OK" : "FEHLER"));
+        }
+        System.out.println(String.format(Locale.ROOT, "  %-50s %12d %10.2f %12.0f", "Gesamt (" + reports.size() + " Dateien)", triples,
+                nanos / 1e9, nanos == 0 ? 0 : triples * 1e9 / nanos));
+    }
+}
@@ -0,0 +1,26 @@
+package rdfpgmapper.job;
+
+import rdfpgmapper.mapper.ImportResult;
+
+import java.nio.file.Path;
+
+/**
+ * Ergebnis des Imports einer Datei innerhalb eines {@link BatchJob}.
+ *
+ * @param file   Die Eingabedatei.
+ * @param result Das Ergebnis des Imports.
+ * @param nanos  Die Dauer des Imports in Nanosekunden, einschließlich des Einlesens der Datei.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record FileReport(Path file, ImportResult result, long nanos) {
+
+    /**
+     * Gibt den Durchsatz des Imports zurück.
+     *
+     * @return Die Anzahl der Tripel pro Sekunde.
+     */
+    public double triplesPerSecond() {
+        return nanos == 0 ? 0 : result.triples() * 1_000_000_000.0 / nanos;
+    }
+}
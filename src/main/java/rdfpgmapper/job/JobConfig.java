@@ -0,0 +1,245 @@
+package rdfpgmapper.job;
+
+import rdfpgmapper.mapper.checkpoint.CheckpointedImporter;
+import rdfpgmapper.mapper.spill.ExternalSorter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Konfiguration eines nicht-interaktiven Import-Jobs.
+ * Sie wird aus Kommandozeilen-Argumenten der Form {@code --schlüssel wert} gelesen; mit {@code --job <datei>}
+ * können die Werte aus einer Properties-Datei mit denselben Schlüsseln geladen werden, wobei Argumente
+ * die Werte der Datei überschreiben. Mehrere Eingaben werden in der Datei durch Kommas getrennt.
+ *
+ * @param mapper         Nummer des Mappers (1-4).
+ * @param uri            Die URI der Neo4j-Datenbank.
+ * @param user           Der Benutzername für die Authentifizierung.
+ * @param password       Das Passwort für die Authentifizierung.
+ * @param inputs         Dateien, Verzeichnisse oder Glob-Muster der Eingabedateien.
+ * @param format         Das RDF-Format aller Eingaben oder {@code AUTO} für die Erkennung an der Dateiendung.
+ * @param parallelism    Die Anzahl gleichzeitig importierter Dateien.
+ * @param batchSize      Die Anzahl der Statements pro Transaktion.
+ * @param changeTracking true, um die Änderungsverfolgung zu aktivieren.
+ * @param metricsFile    Die Datei für die Kennzahlen im Prometheus-Text-Format oder null, um keine Kennzahlen zu erfassen.
+ * @param metricsSeconds Der Abstand in Sekunden, in dem die Kennzahlen-Datei neu geschrieben wird.
+ * @param spillBudget    Das Speicherbudget in MB, ab dem das Knoten-Verzeichnis seine Knotenmengen sortiert auf die Festplatte auslagert.
+ * @param spillDirectory Das Verzeichnis für ausgelagerte Läufe.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record JobConfig(int mapper, String uri, String user, String password, List<String> inputs, String format,
+                        int parallelism, int batchSize, boolean changeTracking, String metricsFile, int metricsSeconds,
+                        int spillBudget, String spillDirectory) {
+
+    /**
+     * Die unterstützten Schlüssel in Argumenten und Job-Dateien.
+     */
+    public static final List<String> KEYS = List.of("mapper", "uri", "user", "password", "input", "format",
+            "parallelism", "batch-size", "change-tracking", "metrics-file", "metrics-interval",
+            "spill-budget", "spill-dir");
+
+    /**
+     * Liest die Konfiguration aus Kommandozeilen-Argumenten.
+     *
+     * @param args Die Argumente, z.B. {@code --mapper 4 --input "data/*.ttl" --parallelism 8}.
+     * @return Die Konfiguration.
+     * @throws IllegalArgumentException wenn ein Argument unbekannt oder ungültig ist.
+     */
+    public static JobConfig parse(String[] args) {
+        Properties properties = new Properties();
+        List<String> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Erwartet wird --<schlüssel> <wert>, gefunden: " + args[i]);
+            }
+            String key = args[i].substring(2);
+            String value = args[i + 1];
+            if (key.equals("job")) {
+                loadJobFile(Path.of(value), properties, inputs);
+            } else if (key.equals("input")) {
+                inputs.add(value);
+            } else if (KEYS.contains(key)) {
+                properties.setProperty(key, value);
+            } else {
+                throw new IllegalArgumentException("Unbekanntes Argument: " + args[i]);
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("Mindestens eine Eingabe (--input) muss angegeben werden.");
+        }
+
+        int parallelism = parseInt(properties, "parallelism", Runtime.getRuntime().availableProcessors());
+        int batchSize = parseInt(properties, "batch-size", CheckpointedImporter.DEFAULT_BATCH_SIZE);
+        int metricsSeconds = parseInt(properties, "metrics-interval", 10);
+        int spillBudget = parseInt(properties, "spill-budget", (int) (ExternalSorter.DEFAULT_MEMORY_BUDGET / (1024 * 1024)));
+        if (parallelism < 1 || batchSize < 1 || metricsSeconds < 1 || spillBudget < 1) {
+            throw new IllegalArgumentException("parallelism, batch-size, metrics-interval und spill-budget müssen größer als 0 sein.");
+        }
+
+        String format = properties.getProperty("format", "AUTO").toUpperCase(Locale.ROOT);
+        if (!format.equals("AUTO") && formatOf(format) == null) {
+            throw new IllegalArgumentException("Format nicht unterstützt: " + format);
+        }
+
+        return new JobConfig(parseMapper(properties.getProperty("mapper", "1")),
+                properties.getProperty("uri", "bolt://localhost:7687"),
+                properties.getProperty("user", "neo4j"),
+                properties.getProperty("password", "12345678"),
+                List.copyOf(inputs), format, parallelism, batchSize,
+                Boolean.parseBoolean(properties.getProperty("change-tracking", "false")),
+                properties.getProperty("metrics-file"), metricsSeconds, spillBudget,
+                properties.getProperty("spill-dir", System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Löst die Eingaben in eine sortierte Liste von Dateien auf. Verzeichnisse liefern alle Dateien mit bekannter
+     * Endung; Glob-Muster (z.B. {@code data/**}{@code /*.ttl}) werden ab dem ersten Pfadabschnitt ohne Platzhalter durchsucht.
+     *
+     * @return Die Eingabedateien.
+     * @throws IOException wenn ein Verzeichnis nicht gelesen werden kann.
+     */
+    public List<Path> resolveInputs() throws IOException {
+        return resolve(inputs);
+    }
+
+    /**
+     * Löst Dateien, Verzeichnisse und Glob-Muster wie {@link #resolveInputs()} in eine sortierte Liste von Dateien auf.
+     *
+     * @param inputs Die Eingaben.
+     * @return Die Eingabedateien.
+     * @throws IOException wenn ein Verzeichnis nicht gelesen werden kann.
+     */
+    public static List<Path> resolve(List<String> inputs) throws IOException {
+        TreeSet<Path> files = new TreeSet<>();
+        for (String input : inputs) {
+            int wildcard = indexOfWildcard(input);
+            if (wildcard < 0) {
+                Path path = Path.of(input);
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> paths = Files.walk(path)) {
+                        paths.filter(Files::isRegularFile).filter(file -> formatOf(file) != null).forEach(files::add);
+                    }
+                } else {
+                    files.add(path);
+                }
+                continue;
+            }
+
+            int separator = input.lastIndexOf('/', wildcard);
+            Path base = Path.of(separator < 0 ? "." : separator == 0 ? "/" : input.substring(0, separator));
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + (separator < 0 ? "./" + input : input));
+            if (!Files.isDirectory(base)) {
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(base)) {
+                paths.filter(path -> matcher.matches(path) && Files.isRegularFile(path)).forEach(files::add);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Gibt das RDF-Format einer Eingabedatei zurück.
+     *
+     * @param file Die Eingabedatei.
+     * @return Das konfigurierte Format oder bei {@code AUTO} das an der Dateiendung erkannte Format; null, wenn es unbekannt ist.
+     */
+    public String formatFor(Path file) {
+        return format.equals("AUTO") ? formatOf(file) : format;
+    }
+
+    /**
+     * Erkennt das RDF-Format einer Datei an ihrer Endung.
+     *
+     * @param file Die Datei.
+     * @return Das Format (z.B. "TTL") oder null, wenn die Endung unbekannt ist.
+     */
+    public static String formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? null : switch (name.substring(dot + 1)) {
+            case "ttl" -> "TTL";
+            case "rdf", "owl", "xml" -> "RDF/XML";
+            case "nt" -> "N-TRIPLE";
+            default -> null;
+        };
+    }
+
+    private static String formatOf(String format) {
+        return switch (format) {
+            case "TTL", "RDF/XML", "N-TRIPLE" -> format;
+            default -> null;
+        };
+    }
+
+    private static int indexOfWildcard(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if ("*?[{".indexOf(input.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void loadJobFile(Path file, Properties properties, List<String> inputs) {
+        Properties job = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            job.load(reader);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Job-Datei konnte nicht gelesen werden: " + e.getMessage());
+        }
+        for (String key : job.stringPropertyNames()) {
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unbekannter Schlüssel in " + file + ": " + key);
+            }
+            if (key.equals("input")) {
+                Arrays.stream(job.getProperty(key).split(",")).map(String::trim).filter(s -> !s.isEmpty()).forEach(inputs::add);
+            } else {
+                properties.setProperty(key, job.getProperty(key));
+            }
+        }
+    }
+
+    /**
+     * Liest die Nummer eines Mappers aus seiner Nummer oder seinem Namen, z.B. {@code 4} oder {@code pgt-complete}.
+     *
+     * @param value Die Nummer oder der Name.
+     * @return Die Nummer des Mappers (1-4).
+     * @throws IllegalArgumentException wenn der Mapper unbekannt ist.
+     */
+    public static int parseMapper(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "1", "rptsimple", "rpt-simple" -> 1;
+            case "2", "rptgeneric", "rpt-generic" -> 2;
+            case "3", "pgtsimple", "pgt-simple" -> 3;
+            case "4", "pgtcomplete", "pgt-complete" -> 4;
+            default -> throw new IllegalArgumentException("Unbekannter Mapper: " + value);
+        };
+    }
+
+    private static int parseInt(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Keine Zahl für " + key + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package rdfpgmapper.mapper;
+
+/**
+ * Ergebnis des Imports einer RDF-Datei.
+ *
+ * @param triples    Die Anzahl der eingelesenen Tripel.
+ * @param statements Die Anzahl der erzeugten Instanz-Statements.
+ * @param success    true, wenn alle Statements übernommen wurden.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record ImportResult(long triples, int statements, boolean success) {
+
+    /**
+     * Ergebnis eines Imports, der vor dem Schreiben abgebrochen wurde.
+     *
+     * @return Ein fehlgeschlagenes Ergebnis ohne Tripel.
+     */
+    public static ImportResult failed() {
+        return new ImportResult(0, 0, false);
+    }
+}
@@ -1,8 +1,13 @@
 package rdfpgmapper.mapper;
 
 import org.apache.jena.rdf.model.Model;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.mapper.export.ExportPage;
+import rdfpgmapper.mapper.schema.DataProfile;
+import rdfpgmapper.mapper.schema.IndexRequirement;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface zur Definition der Methoden für Mapping zwischen RDF-Modellen und Neo4j Property-Graphen.
@@ -21,6 +26,16 @@ public interface Mapper {
      */
     public List<String> mapRdfToPgSchema(Model model);
 
+    /**
+     * Gibt die Constraints und Indizes zurück, die die vom Mapper erzeugten Queries benötigen.
+     * Der {@link rdfpgmapper.mapper.schema.SchemaPlanner} entscheidet anhand dieser Anforderungen,
+     * welche davon vor und welche nach dem Laden angelegt werden.
+     *
+     * @param profile Die Kennzahlen der zu importierenden Daten.
+     * @return Die Index-Anforderungen des Layouts.
+     */
+    public List<IndexRequirement> getIndexRequirements(DataProfile profile);
+
     /**
      * Konvertiert ein RDF-Modell in eine Liste von Cypher-Instanz-Anweisungen.
      * Diese Methode erzeugt die Daten, die in den Property-Graphen von Neo4j als Instanzen des zuvor erstellten Schemas eingefügt werden.
@@ -30,6 +45,33 @@ public interface Mapper {
      */
     public List<String> mapRdfToPgInstance(Model model);
 
+    /**
+     * Konvertiert entfernte RDF-Tripel in gezielte Cypher-Lösch-Anweisungen.
+     * Je nach Layout werden Relationen gelöscht, Properties entfernt oder Labels entfernt. Labels, die sich aus
+     * Typen und Klassen-Hierarchie ableiten, werden anhand des {@link #setContext(Model) Kontexts} neu berechnet.
+     *
+     * @param model Das RDF-Modell mit den Tripeln, die aus Neo4j entfernt werden sollen.
+     * @return Eine Liste von Cypher-Anweisungen, die die Tripel aus Neo4j entfernen.
+     */
+    public List<String> mapRdfToPgDelete(Model model);
+
+    /**
+     * Aktiviert oder deaktiviert die Änderungsverfolgung für nachfolgend erzeugte Cypher-Anweisungen.
+     * Bei aktivierter Änderungsverfolgung werden neu erstellte Relationen und geänderte Knoten mit der Batch-ID
+     * gestempelt und gelöschte Tripel als {@code DeletedTriple} festgehalten.
+     *
+     * @param batch Die Import-Batch-ID oder null, um die Änderungsverfolgung zu deaktivieren.
+     */
+    public void setChangeBatch(Long batch);
+
+    /**
+     * Legt ein Modell fest, aus dem beim Mapping eines Teil-Modells, z.B. eines Deltas, zusätzlich Typen und die
+     * Klassen-Hierarchie gelesen werden. Die Tripel des Kontexts werden selbst nicht geschrieben oder gelöscht.
+     *
+     * @param context Das vollständige Modell des neuen Stands oder null, wenn das gemappte Modell vollständig ist.
+     */
+    public void setContext(Model context);
+
     /**
      * Konvertiert die Daten aus einem Neo4j Property-Graphen zurück in ein RDF-Modell.
      * Diese Methode ermöglicht die Rückkonversion von Graphdaten in das RDF-Format.
@@ -37,4 +79,28 @@ public interface Mapper {
      * @return Ein RDF-Modell, das die Daten aus dem Neo4j Property-Graphen repräsentiert.
      */
     public Model mapPgToRdf();
+
+    /**
+     * Gibt die Shards zurück, in die der Export dieses Layouts zerlegt wird.
+     * Jeder Shard wird über einen eigenen, stabilen und eindeutigen Schlüssel seitenweise gelesen.
+     *
+     * @return Die Namen der Shards in Export-Reihenfolge.
+     */
+    public List<String> getExportShards();
+
+    /**
+     * Liest einen Abschnitt eines Shards aus dem Neo4j Property-Graphen und konvertiert ihn in ein RDF-Modell.
+     * Ein Abschnitt umfasst höchstens {@code pageSize} Subjekt-Knoten, deren Schlüssel größer als {@code afterKey} ist,
+     * zusammen mit ihren ausgehenden Tripeln. Der Filter wird dabei direkt in die Cypher-Queries übersetzt.
+     * Die Tripel eines Subjekts werden nicht auf mehrere Abschnitte verteilt; ein Superknoten mit sehr vielen
+     * ausgehenden Tripeln wird daher in einem einzigen, entsprechend großen Abschnitt gelesen.
+     *
+     * @param shard       Der Name des Shards.
+     * @param afterKey    Der zuletzt gelesene Schlüssel; ein leerer String beginnt am Anfang des Shards.
+     * @param pageSize    Die maximale Anzahl an Subjekt-Knoten pro Abschnitt.
+     * @param filter      Der bereits aufgelöste Export-Filter.
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @return Der gelesene Abschnitt.
+     */
+    public ExportPage mapPgToRdfPage(String shard, String afterKey, int pageSize, ExportFilter filter, Map<String, Object> nsPrefixUri);
 }
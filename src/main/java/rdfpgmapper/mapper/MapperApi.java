@@ -1,15 +1,40 @@
 package rdfpgmapper.mapper;
 
+import io.micrometer.core.instrument.Timer;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.RDFFormat;
+import rdfpgmapper.mapper.changelog.ChangeLog;
+import rdfpgmapper.mapper.changelog.ChangeLogExporter;
+import rdfpgmapper.mapper.checkpoint.CheckpointedImporter;
+import rdfpgmapper.mapper.checkpoint.ImportCheckpoint;
+import rdfpgmapper.mapper.delta.TripleDelta;
+import rdfpgmapper.mapper.dictionary.NodeDictionary;
+import rdfpgmapper.mapper.delta.TripleFingerprintStore;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.mapper.export.PagedExporter;
+import rdfpgmapper.mapper.migration.LayoutMigration;
+import rdfpgmapper.mapper.migration.MigrationResult;
 import rdfpgmapper.mapper.pgt.pgtcomplete.PgtComplete;
+import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.SchemaCache;
+import rdfpgmapper.mapper.pgt.pgtcomplete.validation.ValidationMode;
+import rdfpgmapper.mapper.pgt.LiteralEncoding;
 import rdfpgmapper.mapper.pgt.PgtSimple;
+import rdfpgmapper.mapper.rpt.LiteralKeying;
 import rdfpgmapper.mapper.rpt.RptGeneric;
 import rdfpgmapper.mapper.rpt.RptSimple;
+import rdfpgmapper.mapper.schema.SchemaPlan;
+import rdfpgmapper.mapper.schema.SchemaPlanner;
+import rdfpgmapper.metrics.MapperMetrics;
+import rdfpgmapper.neo4j.DatabaseCleaner;
 import rdfpgmapper.neo4j.Neo4jClient;
 import rdfpgmapper.rdf.JenaClient;
+import rdfpgmapper.sparql.SparqlEndpoint;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Haupt-API-Klasse für das RDF-zu-Property-Graph-Mapping.
@@ -24,6 +49,12 @@ public class MapperApi {
     private final Neo4jClient neo4jClient;
     private final JenaClient jenaClient;
     private final Mapper mapper;
+    private int exportPageSize = PagedExporter.DEFAULT_PAGE_SIZE;
+    private int importBatchSize = CheckpointedImporter.DEFAULT_BATCH_SIZE;
+    private boolean changeTracking = false;
+    private boolean printSchemaPlan = false;
+    private SchemaPlanner schemaPlanner;
+    private NodeDictionary nodeDictionary;
 
     /**
      * Konstruktor für die MapperApi.
@@ -32,7 +63,19 @@ public class MapperApi {
      * @param mapper Nummer des gewählten Mappers (1-4), die bestimmt, welche Mapper-Klasse verwendet wird.
      */
     public MapperApi(int mapper) {
-        neo4jClient = new Neo4jClient("bolt://localhost:7687", "neo4j", "12345678");
+        this(mapper, new Neo4jClient("bolt://localhost:7687", "neo4j", "12345678"));
+    }
+
+    /**
+     * Konstruktor für die MapperApi mit einem vorhandenen Neo4j-Client.
+     * Mehrere Instanzen können sich so den Verbindungs-Pool eines Clients teilen; jede Instanz hält
+     * ihren eigenen Mapper und darf nur von einem Thread gleichzeitig verwendet werden.
+     *
+     * @param mapper      Nummer des gewählten Mappers (1-4), die bestimmt, welche Mapper-Klasse verwendet wird.
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     */
+    public MapperApi(int mapper, Neo4jClient neo4jClient) {
+        this.neo4jClient = neo4jClient;
         jenaClient = new JenaClient();
 
         switch (mapper) {
@@ -55,45 +98,383 @@ public class MapperApi {
 
     /**
      * Importiert RDF-Daten von einem gegebenen Pfad und konvertiert sie in Cypher-Befehle, die in Neo4j ausgeführt werden.
+     * Die Instanz-Statements werden in Abschnitten übernommen; mit jedem Abschnitt wird in derselben Transaktion ein
+     * Checkpoint fortgeschrieben. Ein erneuter Aufruf mit derselben Datei und demselben Mapper überspringt bereits
+     * übernommene Abschnitte. Blank Nodes werden dafür über ihre Bezeichner in der Datei identifiziert, denen der
+     * Hash der Datei vorangestellt wird, sodass gleichlautende Bezeichner verschiedener Dateien getrennt bleiben.
      *
      * @param filePath Pfad zur RDF-Datei.
      * @param format   Format der RDF-Datei (z.B. "RDF/XML").
+     * @return Das Ergebnis des Imports.
+     */
+    public ImportResult importRdf(String filePath, String format) {
+
+        String inputHash;
+        try {
+            inputHash = ImportCheckpoint.hash(Path.of(filePath));
+        } catch (IOException e) {
+            System.err.println("Eingabedatei konnte nicht gelesen werden: " + e.getMessage());
+            return ImportResult.failed();
+        }
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(neo4jClient, inputHash, mapper.getClass().getSimpleName());
+
+        return importModel(jenaClient.parseRDFFileWithStableBlankNodes(filePath, format, ImportCheckpoint.blankNodeScope(inputHash)), checkpoint);
+    }
+
+    /**
+     * Importiert ein bereits eingelesenes RDF-Modell, z.B. eine Partition einer Datei.
+     * Der Checkpoint des Imports ist über die gegebene Kennung identifiziert, die für dieselben Eingabedaten
+     * stabil sein muss, damit ein abgebrochener Import fortgesetzt werden kann.
+     *
+     * @param model   Das RDF-Modell.
+     * @param inputId Die Kennung der Eingabedaten, z.B. der Hash der Datei mit der Nummer der Partition.
+     * @return Das Ergebnis des Imports.
      */
-    public void importRdf(String filePath, String format) {
+    public ImportResult importRdf(Model model, String inputId) {
+        return importModel(model, ImportCheckpoint.load(neo4jClient, inputId, mapper.getClass().getSimpleName()));
+    }
 
-        Model model = jenaClient.parseRDFFile(filePath, format);
+    private ImportResult importModel(Model model, ImportCheckpoint checkpoint) {
+        if (checkpoint.isResumed()) {
+            mapper.setChangeBatch(checkpoint.getChangeBatch());
+        } else {
+            checkpoint.setChangeBatch(startChangeBatch());
+        }
 
-        List<String> cypherCommandSchema = mapper.mapRdfToPgSchema(model);
-        List<String> cypherCommandInstance = mapper.mapRdfToPgInstance(model);
+        List<String> cypherCommandSchema = map("schema", () -> mapper.mapRdfToPgSchema(model));
+        List<String> cypherCommandInstance = map("instance", () -> mapper.mapRdfToPgInstance(model));
 
-        neo4jClient.writeToNeo4j(cypherCommandSchema);
-        neo4jClient.writeToNeo4j(cypherCommandInstance);
+        SchemaPlanner schemaPlanner = this.schemaPlanner != null ? this.schemaPlanner : new SchemaPlanner(neo4jClient);
+        SchemaPlan schemaPlan = schemaPlanner.plan(mapper, model);
+        schemaPlanner.applyImmediate(schemaPlan);
 
+        if (!neo4jClient.writeToNeo4j(cypherCommandSchema)) {
+            System.err.println("Schema konnte nicht geschrieben werden, Import abgebrochen.");
+            return new ImportResult(model.size(), cypherCommandInstance.size(), false);
+        }
+        if (nodeDictionary != null && !nodeDictionary.createNodes(mapper, model)) {
+            return new ImportResult(model.size(), cypherCommandInstance.size(), false);
+        }
+        boolean success = new CheckpointedImporter(neo4jClient, importBatchSize).run(cypherCommandInstance, checkpoint);
+        if (success) {
+            schemaPlanner.applyDeferred(schemaPlan);
+        }
+        if (printSchemaPlan) {
+            schemaPlan.print();
+        }
+        return new ImportResult(model.size(), cypherCommandInstance.size(), success);
+    }
+
+    /**
+     * Importiert nur die Änderungen einer RDF-Datei gegenüber dem zuletzt importierten Stand.
+     * Der letzte Stand wird als sortierte Liste von 128-Bit-Tripel-Hashes in einer lokalen Fingerprint-Datei gehalten.
+     * Hinzugekommene Tripel werden über den Mapper importiert, entfernte Tripel in gezielte Lösch-Anweisungen
+     * des jeweiligen Layouts übersetzt. Unveränderte Schema-Tripel werden nicht erneut geschrieben; der Mapper liest
+     * Typen und Klassen-Hierarchie aus der vollständigen Datei als Kontext und berechnet daraus auch die Labels von
+     * Knoten neu, deren Typen entfernt wurden. Existiert noch keine Fingerprint-Datei, wird die gesamte Datei importiert.
+     * Blank Nodes werden über ihre Bezeichner in der Datei identifiziert; als Bereich der Bezeichner dient der Pfad der
+     * Fingerprint-Datei, sodass sie über alle Stände derselben Datei stabil bleiben.
+     *
+     * @param filePath  Pfad zur RDF-Datei.
+     * @param format    Format der RDF-Datei (z.B. "RDF/XML").
+     * @param storePath Pfad zur Fingerprint-Datei des letzten Imports; wird nach erfolgreichem Import aktualisiert.
+     */
+    public void importRdfDelta(String filePath, String format, String storePath) {
+
+        String scope = ImportCheckpoint.blankNodeScope(
+                ImportCheckpoint.digest(List.of(Path.of(storePath).toAbsolutePath().normalize().toString())));
+        Model model = jenaClient.parseRDFFileWithStableBlankNodes(filePath, format, scope);
+
+        TripleDelta delta;
+        try {
+            delta = TripleFingerprintStore.diff(model, Path.of(storePath), mapper.getClass().getSimpleName());
+        } catch (IOException e) {
+            System.err.println("Fingerprint-Datei konnte nicht gelesen werden: " + e.getMessage());
+            return;
+        }
+
+        startChangeBatch();
+
+        System.out.println("Delta: " + delta.removed().size() + " entfernte, " + delta.added().size() + " hinzugefügte Tripel (inkl. Typen betroffener Knoten).");
+
+        List<String> cypherCommandSchema = map("schema", () -> mapper.mapRdfToPgSchema(model));
+        List<String> cypherCommandDelete;
+        List<String> cypherCommandInstance;
+        mapper.setContext(model);
+        try {
+            cypherCommandDelete = map("delete", () -> mapper.mapRdfToPgDelete(delta.removed()));
+            cypherCommandInstance = map("instance", () -> mapper.mapRdfToPgInstance(delta.added()));
+        } finally {
+            mapper.setContext(null);
+        }
+
+        SchemaPlanner schemaPlanner = new SchemaPlanner(neo4jClient);
+        SchemaPlan schemaPlan = schemaPlanner.plan(mapper, model);
+        schemaPlanner.applyImmediate(schemaPlan);
+        if (printSchemaPlan) {
+            schemaPlan.print();
+        }
+        boolean success = neo4jClient.writeToNeo4j(cypherCommandSchema)
+                && neo4jClient.writeToNeo4j(cypherCommandDelete)
+                && neo4jClient.writeToNeo4j(cypherCommandInstance);
+
+        if (!success) {
+            System.err.println("Delta-Import unvollständig, Fingerprint-Datei wird nicht aktualisiert.");
+            return;
+        }
+
+        try {
+            delta.snapshot().write(Path.of(storePath));
+        } catch (IOException e) {
+            System.err.println("Fingerprint-Datei konnte nicht geschrieben werden: " + e.getMessage());
+        }
     }
 
     /**
      * Exportiert Daten aus Neo4j in ein RDF-Format und speichert sie an einem angegebenen Pfad.
+     * Der Export erfolgt seitenweise in kurzen Lese-Transaktionen. Wird ein Export unterbrochen,
+     * setzt ein erneuter Aufruf mit demselben Pfad anhand der Checkpoint-Datei an der letzten Stelle fort.
      *
      * @param filePath Pfad, an dem die RDF-Datei gespeichert werden soll.
      * @param format   Das RDF-Format, in das exportiert werden soll (z.B. "TTL", "RDF/XML").
      */
     public void exportRdf(String filePath, String format) {
-        Model model = mapper.mapPgToRdf();
+        exportRdf(filePath, format, ExportFilter.all());
+    }
+
+    /**
+     * Exportiert einen gefilterten Teilgraphen aus Neo4j in ein RDF-Format und speichert ihn an einem angegebenen Pfad.
+     * Der Filter wird von den Mappern in ihre Cypher-Queries übersetzt, sodass nur der benötigte Teilgraph gelesen wird.
+     *
+     * @param filePath Pfad, an dem die RDF-Datei gespeichert werden soll.
+     * @param format   Das RDF-Format, in das exportiert werden soll (z.B. "TTL", "RDF/XML").
+     * @param filter   Der Filter nach Klassen, Prädikaten, Namensräumen und Literal-Datentypen.
+     */
+    public void exportRdf(String filePath, String format, ExportFilter filter) {
+        RDFFormat outputFormat = toRdfFormat(format);
+
+        try {
+            new PagedExporter(neo4jClient, jenaClient, exportPageSize).export(mapper, filePath, outputFormat, filter);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Export abgebrochen, ein erneuter Aufruf setzt ihn fort: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Beantwortet eine SPARQL-SELECT-Abfrage direkt auf dem gemappten Graphen (siehe {@link SparqlEndpoint}).
+     * Unterstützt werden die Mapper RptSimple, RptGeneric und PgtSimple mit der Literal-Kodierung STRING.
+     *
+     * @param sparql Die SPARQL-Abfrage mit Basic Graph Patterns, FILTER, OPTIONAL, DISTINCT, ORDER BY, LIMIT und OFFSET.
+     * @param output Der Strom, in den das Ergebnis geschrieben wird; er wird nicht geschlossen.
+     * @param format Das Ergebnisformat ("JSON", "XML", "CSV" oder "TSV").
+     * @throws IllegalArgumentException wenn die Abfrage ungültig ist oder für den Mapper nicht unterstützt wird.
+     */
+    public void query(String sparql, OutputStream output, String format) {
+        new SparqlEndpoint(mapper, neo4jClient).query(sparql, output, format);
+    }
 
-        RDFFormat outputFormat = switch (format) {
+    /**
+     * Überführt die Daten direkt in der Datenbank aus dem Layout dieses Mappers in das Layout eines anderen Mappers
+     * (siehe {@link LayoutMigration}). Anschließend muss mit einer MapperApi des Ziel-Mappers weitergearbeitet werden.
+     *
+     * @param targetMapper Nummer des Ziel-Mappers (1-3).
+     * @return Das Ergebnis der Migration.
+     * @throws IllegalArgumentException wenn Quelle und Ziel dasselbe Layout haben oder ein Layout nicht unterstützt wird.
+     */
+    public MigrationResult migrate(int targetMapper) {
+        return new LayoutMigration(neo4jClient, mapper, new MapperApi(targetMapper, neo4jClient).mapper).run();
+    }
+
+    /**
+     * Gibt das Jena-Ausgabeformat zu einem Formatnamen der MapperApi zurück.
+     *
+     * @param format Das RDF-Format (z.B. "TTL", "RDF/XML", "N-TRIPLE").
+     * @return Das Ausgabeformat; unbekannte Namen ergeben Turtle.
+     */
+    public static RDFFormat toRdfFormat(String format) {
+        return switch (format) {
             case "TTL" -> RDFFormat.TURTLE;
             case "RDF/XML" -> RDFFormat.RDFXML;
             case "N-TRIPLE" -> RDFFormat.NTRIPLES;
             default -> RDFFormat.TURTLE_PRETTY;
         };
+    }
 
-        jenaClient.writeModel(model, filePath, outputFormat);
+    /**
+     * Exportiert alle Änderungen seit einer gegebenen Import-Batch-ID.
+     * Setzt voraus, dass die betroffenen Importe mit aktivierter Änderungsverfolgung ausgeführt wurden.
+     *
+     * @param sinceBatch Die letzte bereits replizierte Batch-ID.
+     * @param filePath   Pfad, an dem die Änderungen gespeichert werden sollen.
+     * @param format     "PATCH" für RDF Patch oder "N-TRIPLE" für getrennte Dateien mit hinzugefügten und gelöschten Tripeln.
+     */
+    public void exportChanges(long sinceBatch, String filePath, String format) {
+        try {
+            long currentBatch = new ChangeLogExporter(neo4jClient, exportPageSize).export(mapper, sinceBatch, filePath, format);
+            System.out.println("Nächster Export ab Batch: " + currentBatch);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Export der Änderungen fehlgeschlagen: " + e.getMessage());
+        }
     }
 
     /**
-     * Löscht alle Daten in der Neo4j-Datenbank.
+     * Aktiviert oder deaktiviert die Änderungsverfolgung.
+     * Ist sie aktiv, erhält jeder Import eine neue Batch-ID, mit der erstellte und geänderte Elemente
+     * gestempelt und Löschungen festgehalten werden.
+     *
+     * @param changeTracking true, um die Änderungsverfolgung zu aktivieren.
+     */
+    public void setChangeTracking(boolean changeTracking) {
+        this.changeTracking = changeTracking;
+        if (!changeTracking) {
+            mapper.setChangeBatch(null);
+        }
+    }
+
+    /**
+     * Legt fest, wie der PgtComplete-Mapper Verletzungen von Domain-, Range- und Datentyp-Constraints behandelt
+     * und ob zusätzlich die Validierungs-Trigger in Neo4j installiert werden. Für andere Mapper ohne Wirkung.
+     *
+     * @param validationMode       Der Validierungsmodus im Mapper.
+     * @param serverSideValidation true, um zusätzlich die Server-Trigger zu installieren.
+     */
+    public void setValidation(ValidationMode validationMode, boolean serverSideValidation) {
+        if (mapper instanceof PgtComplete pgtComplete) {
+            pgtComplete.setValidationMode(validationMode);
+            pgtComplete.setServerSideValidation(serverSideValidation);
+        }
+    }
+
+    /**
+     * Legt fest, ob der PgtComplete-Mapper die RDFS-Hülle beim Mapping ableitet, anstatt sie über Trigger
+     * in Neo4j zu berechnen. Für andere Mapper ohne Wirkung.
+     *
+     * @param materializeEntailment true, um geerbte Labels und Relationen der Super-Properties im Mapper abzuleiten.
+     * @param inferDomainRange      true, um zusätzlich Typen aus rdfs:domain und rdfs:range abzuleiten.
+     */
+    public void setMaterializeEntailment(boolean materializeEntailment, boolean inferDomainRange) {
+        if (mapper instanceof PgtComplete pgtComplete) {
+            pgtComplete.setMaterializeEntailment(materializeEntailment, inferDomainRange);
+        }
+    }
+
+    /**
+     * Legt fest, wie die PGT-Mapper Literale ablegen: als Zeichenkette {@code 'wert^^datentyp'} oder als native
+     * Neo4j-Werte. Beim Export muss dieselbe Kodierung eingestellt sein wie beim Import. Für RPT-Mapper ohne Wirkung.
+     *
+     * @param literalEncoding Die Kodierung der Literale.
+     */
+    public void setLiteralEncoding(LiteralEncoding literalEncoding) {
+        if (mapper instanceof PgtSimple pgtSimple) {
+            pgtSimple.setLiteralEncoding(literalEncoding);
+        } else if (mapper instanceof PgtComplete pgtComplete) {
+            pgtComplete.setLiteralEncoding(literalEncoding);
+        }
+    }
+
+    /**
+     * Legt fest, über welchen Schlüssel der RptGeneric-Mapper Literal-Knoten mergt. Für andere Mapper ohne Wirkung.
+     *
+     * @param literalKeying Der Schlüssel der Literal-Knoten.
+     */
+    public void setLiteralKeying(LiteralKeying literalKeying) {
+        if (mapper instanceof RptGeneric rptGeneric) {
+            rptGeneric.setLiteralKeying(literalKeying);
+        }
+    }
+
+    /**
+     * Legt das Verzeichnis fest, in dem der PgtComplete-Mapper kompilierte Ontologie-Schemata und die daraus
+     * erzeugten Schema-Statements ablegt. Für andere Mapper ohne Wirkung.
+     *
+     * @param directory Das Cache-Verzeichnis oder null, um den Cache abzuschalten.
+     */
+    public void setSchemaCache(String directory) {
+        if (mapper instanceof PgtComplete pgtComplete) {
+            pgtComplete.setSchemaCache(directory == null ? null : new SchemaCache(Path.of(directory)));
+        }
+    }
+
+    /**
+     * Setzt einen Cache kompilierter Ontologie-Schemata, den mehrere Instanzen teilen, sodass eine unveränderte
+     * Ontologie auch ohne erneutes Lesen der Cache-Datei nur einmal kompiliert wird. Für andere Mapper ohne Wirkung.
+     *
+     * @param schemaCache Der geteilte Cache oder null, um den Cache abzuschalten.
+     */
+    public void setSchemaCache(SchemaCache schemaCache) {
+        if (mapper instanceof PgtComplete pgtComplete) {
+            pgtComplete.setSchemaCache(schemaCache);
+        }
+    }
+
+    /**
+     * Legt fest, ob der Schema-Plan eines Imports auf der Konsole ausgegeben wird (siehe {@link SchemaPlan#print()}).
+     *
+     * @param printSchemaPlan true, um den Plan auszugeben; standardmäßig false.
+     */
+    public void setPrintSchemaPlan(boolean printSchemaPlan) {
+        this.printSchemaPlan = printSchemaPlan;
+    }
+
+    /**
+     * Setzt einen Schema-Planer, den mehrere gleichzeitige Importe teilen (siehe {@link SchemaPlanner#shared(Neo4jClient)}).
+     * Ohne geteilten Planer plant jeder Import seine Constraints und Indizes selbst.
+     *
+     * @param schemaPlanner Der geteilte Planer oder null.
+     */
+    public void setSchemaPlanner(SchemaPlanner schemaPlanner) {
+        this.schemaPlanner = schemaPlanner;
+    }
+
+    /**
+     * Setzt das Knoten-Verzeichnis, über das gleichzeitige Importe gemeinsam referenzierte Ressourcen-Knoten
+     * vorab und nur einmal anlegen.
+     *
+     * @param nodeDictionary Das geteilte Verzeichnis oder null.
+     */
+    public void setNodeDictionary(NodeDictionary nodeDictionary) {
+        this.nodeDictionary = nodeDictionary;
+    }
+
+    /**
+     * Setzt die Anzahl der Statements, die beim Import pro Transaktion übernommen werden.
+     *
+     * @param importBatchSize Die Größe eines Import-Abschnitts.
+     */
+    public void setImportBatchSize(int importBatchSize) {
+        this.importBatchSize = importBatchSize;
+    }
+
+    /**
+     * Setzt die Anzahl der Subjekt-Knoten, die pro Lese-Transaktion exportiert werden.
+     *
+     * @param exportPageSize Die Größe eines Export-Abschnitts.
+     */
+    public void setExportPageSize(int exportPageSize) {
+        this.exportPageSize = exportPageSize;
+    }
+
+    private List<String> map(String phase, Supplier<List<String>> mapping) {
+        Timer.Sample sample = MapperMetrics.start();
+        List<String> statements = mapping.get();
+        MapperMetrics.mapped(sample, mapper.getClass().getSimpleName(), phase, statements.size());
+        return statements;
+    }
+
+    private Long startChangeBatch() {
+        Long batch = changeTracking ? ChangeLog.nextBatch(neo4jClient) : null;
+        mapper.setChangeBatch(batch);
+        return batch;
+    }
+
+    /**
+     * Löscht alle Daten, Trigger, Constraints und Indizes in der Neo4j-Datenbank. Relationen und Knoten werden in
+     * Transaktionen begrenzter Größe gelöscht; Einstellungen wie Parallelität oder das Neuanlegen der Datenbank
+     * bietet der {@link DatabaseCleaner}.
+     *
+     * @return true, wenn die Datenbank leer ist, sonst false.
      */
-    public void clearDatabase() {
-        neo4jClient.writeToNeo4j(List.of("CALL apoc.schema.assert({}, {})", "CALL apoc.trigger.removeAll()", "MATCH (n) DETACH DELETE n"));
+    public boolean clearDatabase() {
+        return new DatabaseCleaner(neo4jClient).clear();
     }
 }
@@ -0,0 +1,190 @@
+package rdfpgmapper.mapper.changelog;
+
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.out.NodeFormatterNT;
+import org.neo4j.driver.Record;
+import rdfpgmapper.mapper.delta.TripleFingerprintStore;
+import rdfpgmapper.mapper.schema.IndexRequirement;
+import rdfpgmapper.neo4j.Neo4jClient;
+import rdfpgmapper.utils.Helper;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hilfsklasse für die Änderungsverfolgung.
+ * Bei aktivierter Änderungsverfolgung stempeln die Mapper neu erstellte Relationen und geänderte Knoten mit
+ * einer monoton steigenden Import-Batch-ID ({@value #BATCH_PROPERTY}) und legen für gelöschte Tripel
+ * {@code DeletedTriple}-Knoten an. Die Batch-ID wird in einem einzelnen {@code ChangeLog}-Knoten fortgeschrieben.
+ * In den PGT-Layouts trägt jede Literal-Property zusätzlich die Batch-ID ihrer letzten Änderung
+ * ({@value #PROPERTY_BATCH_PREFIX}{@code <property>}), und ein Knoten wird auch beim Erstellen einer ausgehenden
+ * Relation gestempelt, sodass geänderte Subjekte über einen Index auf {@value #BATCH_PROPERTY} gefunden werden.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ChangeLog {
+
+    /**
+     * Name der internen Property, die die Import-Batch-ID trägt.
+     * Properties mit dem Präfix "__" sind intern und werden nicht als RDF exportiert.
+     */
+    public static final String BATCH_PROPERTY = "__batch";
+
+    /**
+     * Präfix der internen Properties, die die Batch-ID der letzten Änderung einer Literal-Property tragen.
+     */
+    public static final String PROPERTY_BATCH_PREFIX = "__batch_";
+
+    private ChangeLog() {
+    }
+
+    /**
+     * Vergibt die nächste Import-Batch-ID.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @return Die neue Batch-ID.
+     */
+    public static long nextBatch(Neo4jClient neo4jClient) {
+        List<Record> records = neo4jClient.writeAndReadFromNeo4j(
+                "MERGE (c:ChangeLog) SET c.lastBatch = coalesce(c.lastBatch, 0) + 1 RETURN c.lastBatch AS batch", Map.of());
+        return records.getFirst().get("batch").asLong();
+    }
+
+    /**
+     * Gibt die zuletzt vergebene Import-Batch-ID zurück.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @return Die letzte Batch-ID oder 0, wenn noch kein Batch vergeben wurde.
+     */
+    public static long currentBatch(Neo4jClient neo4jClient) {
+        List<Record> records = neo4jClient.readFromNeo4j("MATCH (c:ChangeLog) RETURN c.lastBatch AS batch", Map.of());
+        return records.isEmpty() ? 0 : records.getFirst().get("batch").asLong();
+    }
+
+    /**
+     * Erstellt eine ON CREATE SET-Klausel, die ein neu erstelltes Element mit der Batch-ID stempelt.
+     *
+     * @param variable Die Variable der Relation bzw. des Knotens.
+     * @param batch    Die Batch-ID oder null, wenn die Änderungsverfolgung deaktiviert ist.
+     * @return Die Klausel mit führendem Leerzeichen oder ein leerer String.
+     */
+    public static String stampOnCreate(String variable, Long batch) {
+        return batch == null ? "" : " ON CREATE SET " + variable + "." + BATCH_PROPERTY + " = " + batch;
+    }
+
+    /**
+     * Erstellt eine ON CREATE SET-Klausel, die eine neu erstellte Relation und ihren Start-Knoten mit der Batch-ID stempelt.
+     *
+     * @param variable Die Variable der Relation.
+     * @param subject  Die Variable des Start-Knotens.
+     * @param batch    Die Batch-ID oder null, wenn die Änderungsverfolgung deaktiviert ist.
+     * @return Die Klausel mit führendem Leerzeichen oder ein leerer String.
+     */
+    public static String stampOnCreate(String variable, String subject, Long batch) {
+        return batch == null ? "" : stampOnCreate(variable, batch) + ", " + subject + "." + BATCH_PROPERTY + " = " + batch;
+    }
+
+    /**
+     * Erstellt SET-Zuweisungen, die einen Knoten und die Property selbst nur dann mit der Batch-ID stempeln, wenn sich
+     * der Wert der Property durch das folgende SET ändert. Muss vor der Zuweisung der Property stehen.
+     *
+     * @param variable Die Variable des Knotens.
+     * @param property Der Name der Property.
+     * @param value    Der neue Wert als Cypher-Ausdruck.
+     * @param batch    Die Batch-ID oder null, wenn die Änderungsverfolgung deaktiviert ist.
+     * @return Die Zuweisung mit abschließendem Komma oder ein leerer String.
+     */
+    public static String stampOnChange(String variable, String property, String value, Long batch) {
+        return stampOnChange(variable, property, value, null, null, batch);
+    }
+
+    /**
+     * Erstellt SET-Zuweisungen wie {@link #stampOnChange(String, String, String, Long)}, wobei bei nativer
+     * Literal-Kodierung auch eine Änderung des Eintrags in {@code __types} als Änderung gilt.
+     *
+     * @param variable     Die Variable des Knotens.
+     * @param property     Der Name der Property.
+     * @param value        Der neue Wert als Cypher-Ausdruck.
+     * @param sideEntry    Der Cypher-Ausdruck für den alten Eintrag in {@code __types} oder null.
+     * @param newSideEntry Der neue Eintrag in {@code __types} oder null.
+     * @param batch        Die Batch-ID oder null, wenn die Änderungsverfolgung deaktiviert ist.
+     * @return Die Zuweisung mit abschließendem Komma oder ein leerer String.
+     */
+    public static String stampOnChange(String variable, String property, String value, String sideEntry,
+                                       String newSideEntry, Long batch) {
+        if (batch == null) {
+            return "";
+        }
+        String changed = changed(variable, property, value, sideEntry, newSideEntry);
+        String propertyBatch = variable + "." + PROPERTY_BATCH_PREFIX + property;
+        return variable + "." + BATCH_PROPERTY + " = CASE WHEN " + changed
+                + " THEN " + batch + " ELSE " + variable + "." + BATCH_PROPERTY + " END, "
+                + propertyBatch + " = CASE WHEN " + changed + " THEN " + batch + " ELSE " + propertyBatch + " END, ";
+    }
+
+    /**
+     * Erstellt eine FOREACH-Klausel, die in den PGT-Layouts das Ersetzen eines vorhandenen Literals durch das folgende
+     * SET als gelöschtes Tripel festhält. Da der alte Wert erst in der Datenbank bekannt ist, speichert der
+     * {@code DeletedTriple}-Knoten statt des Tripels dessen Bestandteile; der Export setzt daraus das Tripel zusammen.
+     * Muss zwischen dem MERGE des Knotens und der Zuweisung der Property stehen.
+     *
+     * @param variable     Die Variable des Knotens.
+     * @param subject      Die IRI als Präfix-Name bzw. die ID des Knotens.
+     * @param property     Der Name der Property.
+     * @param value        Der neue Wert als Cypher-Ausdruck.
+     * @param sideEntry    Der Cypher-Ausdruck für den alten Eintrag in {@code __types} bei nativer Kodierung, sonst null.
+     * @param newSideEntry Der neue Eintrag in {@code __types} bei nativer Kodierung, sonst null.
+     * @param encoding     Der Name der Literal-Kodierung.
+     * @param batch        Die Batch-ID oder null, wenn die Änderungsverfolgung deaktiviert ist.
+     * @return Die Klausel mit führendem Leerzeichen oder ein leerer String.
+     */
+    public static String recordReplacement(String variable, String subject, String property, String value,
+                                           String sideEntry, String newSideEntry, String encoding, Long batch) {
+        if (batch == null) {
+            return "";
+        }
+        String current = variable + "." + property;
+        return " FOREACH (_ IN CASE WHEN " + current + " IS NOT NULL AND " + changed(variable, property, value, sideEntry, newSideEntry)
+                + " THEN [1] ELSE [] END | CREATE (:DeletedTriple {batch: " + batch + ", subject: '" + Helper.escapeString(subject)
+                + "', property: '" + Helper.escapeString(property) + "', value: " + current + ", side: "
+                + (sideEntry == null ? "null" : sideEntry) + ", encoding: '" + encoding + "'})) ";
+    }
+
+    /**
+     * Erstellt die Bedingung, dass das folgende SET den Wert einer Property oder ihren Eintrag in {@code __types} ändert.
+     * Eine fehlende Property gilt als geändert.
+     */
+    private static String changed(String variable, String property, String value, String sideEntry, String newSideEntry) {
+        String changed = "coalesce(NOT " + variable + "." + property + " = " + value + ", true)";
+        if (sideEntry == null) {
+            return changed;
+        }
+        String expected = newSideEntry == null ? "''" : "'" + Helper.escapeString(newSideEntry) + "'";
+        return "(" + changed + " OR coalesce(" + sideEntry + ", '') <> " + expected + ")";
+    }
+
+    /**
+     * Gibt den Index zurück, über den der Export der Änderungen die {@code DeletedTriple}-Knoten eines Batch-Bereichs liest.
+     *
+     * @return Die Index-Anforderung.
+     */
+    public static IndexRequirement deletionIndex() {
+        return IndexRequirement.nodeRange("DeletedTriple", "batch", "MATCH (:DeletedTriple) WHERE batch > $since (Export der Änderungen)");
+    }
+
+    /**
+     * Erstellt eine CREATE-Klausel, die das Löschen eines Tripels festhält.
+     *
+     * @param statement Das gelöschte Statement.
+     * @param batch     Die Batch-ID oder null, wenn die Änderungsverfolgung deaktiviert ist.
+     * @return Die Klausel mit führendem Zeilenumbruch oder ein leerer String.
+     */
+    public static String recordDeletion(Statement statement, Long batch) {
+        if (batch == null) {
+            return "";
+        }
+        String triple = TripleFingerprintStore.toNTriples(statement, new NodeFormatterNT());
+        return "\nCREATE (:DeletedTriple {batch: " + batch + ", triple: '" + Helper.escapeString(triple) + "'})";
+    }
+}
@@ -0,0 +1,160 @@
+package rdfpgmapper.mapper.changelog;
+
+import io.micrometer.core.instrument.Timer;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.riot.out.NodeFormatter;
+import org.apache.jena.riot.out.NodeFormatterNT;
+import org.neo4j.driver.Record;
+import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.mapper.delta.TripleFingerprintStore;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.mapper.export.ExportPage;
+import rdfpgmapper.mapper.pgt.LiteralEncoding;
+import rdfpgmapper.mapper.pgt.PgtPages;
+import rdfpgmapper.metrics.MapperMetrics;
+import rdfpgmapper.neo4j.Neo4jClient;
+import rdfpgmapper.utils.Helper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Exportiert die Änderungen seit einer gegebenen Import-Batch-ID.
+ * Hinzugefügte Tripel werden über die gefilterten Export-Queries der Mapper gelesen, gelöschte Tripel
+ * aus den {@code DeletedTriple}-Knoten. Die Ausgabe erfolgt als RDF Patch oder als getrennte
+ * N-Triples-Dateien für hinzugefügte und gelöschte Tripel. Beide Seiten sind auf die Batches bis zur beim Start
+ * vergebenen Batch-ID beschränkt; die hinzugefügten Tripel werden seitenweise geschrieben, ohne sie im Speicher zu sammeln.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ChangeLogExporter {
+
+    private final Neo4jClient neo4jClient;
+    private final int pageSize;
+
+    /**
+     * Konstruktor für den ChangeLogExporter.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @param pageSize    Die maximale Anzahl an Schlüsseln pro Lese-Transaktion.
+     */
+    public ChangeLogExporter(Neo4jClient neo4jClient, int pageSize) {
+        this.neo4jClient = neo4jClient;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Exportiert alle Änderungen nach der angegebenen Batch-ID.
+     *
+     * @param mapper     Der Mapper, dessen Layout gelesen wird.
+     * @param sinceBatch Die letzte bereits replizierte Batch-ID; exportiert werden nur spätere Änderungen.
+     * @param filePath   Pfad der Ausgabedatei. Bei "N-TRIPLE" werden {@code <filePath>.add.nt}
+     *                   und {@code <filePath>.delete.nt} geschrieben.
+     * @param format     "PATCH" für RDF Patch oder "N-TRIPLE" für getrennte N-Triples-Dateien.
+     * @return Die höchste zum Zeitpunkt des Exports vergebene Batch-ID.
+     * @throws IOException Wenn die Ausgabe nicht geschrieben werden kann.
+     */
+    public long export(Mapper mapper, long sinceBatch, String filePath, String format) throws IOException {
+        long currentBatch = ChangeLog.currentBatch(neo4jClient);
+
+        ExportFilter filter = ExportFilter.all().since(sinceBatch).until(currentBatch);
+        List<Record> deleted = neo4jClient.readFromNeo4j(
+                "MATCH (d:DeletedTriple) WHERE d.batch > $since AND d.batch <= $until " +
+                        "RETURN d.triple AS triple, d.subject AS subject, d.property AS property, d.value AS value, " +
+                        "d.side AS side, d.encoding AS encoding ORDER BY d.batch",
+                Map.of("since", sinceBatch, "until", currentBatch));
+
+        NodeFormatter formatter = new NodeFormatterNT();
+        Map<String, Object> nsPrefixUri = Helper.readNsPrefixUri(neo4jClient);
+        long added;
+
+        if ("N-TRIPLE".equals(format)) {
+            try (BufferedWriter addWriter = Files.newBufferedWriter(Path.of(filePath + ".add.nt"), StandardCharsets.UTF_8);
+                 BufferedWriter deleteWriter = Files.newBufferedWriter(Path.of(filePath + ".delete.nt"), StandardCharsets.UTF_8)) {
+                for (Record record : deleted) {
+                    deleteWriter.write(deletedTriple(record, nsPrefixUri, formatter));
+                    deleteWriter.newLine();
+                }
+                added = writeAdded(addWriter, mapper, filter, nsPrefixUri, formatter, "");
+            }
+        } else {
+            try (BufferedWriter writer = Files.newBufferedWriter(Path.of(filePath), StandardCharsets.UTF_8)) {
+                writer.write("H id <uuid:" + UUID.randomUUID() + "> .");
+                writer.newLine();
+                writer.write("H batch \"" + sinceBatch + ".." + currentBatch + "\" .");
+                writer.newLine();
+                writer.write("TX .");
+                writer.newLine();
+                for (Record record : deleted) {
+                    writer.write("D " + deletedTriple(record, nsPrefixUri, formatter));
+                    writer.newLine();
+                }
+                added = writeAdded(writer, mapper, filter, nsPrefixUri, formatter, "A ");
+                writer.write("TC .");
+                writer.newLine();
+            }
+        }
+
+        System.out.println("Änderungen exportiert: " + deleted.size() + " gelöschte, " + added
+                + " hinzugefügte Tripel (Batch " + sinceBatch + " bis " + currentBatch + ").");
+        return currentBatch;
+    }
+
+    /**
+     * Gibt ein gelöschtes Tripel als N-Triples-Zeile zurück. Ersetzte Literale der PGT-Layouts werden aus den
+     * gespeicherten Bestandteilen zusammengesetzt (siehe {@link ChangeLog#recordReplacement}).
+     */
+    private String deletedTriple(Record record, Map<String, Object> nsPrefixUri, NodeFormatter formatter) {
+        String triple = Helper.getString(record, "triple");
+        if (triple != null) {
+            return triple;
+        }
+        Model model = ModelFactory.createDefaultModel();
+        String subject = record.get("subject").asString();
+        Resource resource = subject.startsWith("_:")
+                ? PgtPages.resource(model, nsPrefixUri, "null", subject)
+                : PgtPages.resource(model, nsPrefixUri, subject, "null");
+        Property property = model.createProperty(Helper.getUri(record.get("property").asString(), nsPrefixUri));
+        Literal literal = PgtPages.decodeLiteral(model, LiteralEncoding.valueOf(record.get("encoding").asString()),
+                record.get("value").asObject(), Helper.getString(record, "side"), nsPrefixUri);
+        return TripleFingerprintStore.toNTriples(model.createStatement(resource, property, literal), formatter);
+    }
+
+    private long writeAdded(BufferedWriter writer, Mapper mapper, ExportFilter filter, Map<String, Object> nsPrefixUri,
+                            NodeFormatter formatter, String linePrefix) throws IOException {
+        ExportFilter resolvedFilter = filter.resolve(nsPrefixUri);
+        long count = 0;
+
+        for (String shard : mapper.getExportShards()) {
+            String lastKey = "";
+            while (true) {
+                Timer.Sample sample = MapperMetrics.start();
+                ExportPage page = mapper.mapPgToRdfPage(shard, lastKey, pageSize, resolvedFilter, nsPrefixUri);
+                MapperMetrics.exported(sample, mapper.getClass().getSimpleName(), shard, page.isLast() ? 0 : page.model().size());
+                if (page.isLast()) {
+                    break;
+                }
+                StmtIterator iterator = page.model().listStatements();
+                while (iterator.hasNext()) {
+                    writer.write(linePrefix + TripleFingerprintStore.toNTriples(iterator.nextStatement(), formatter));
+                    writer.newLine();
+                    count++;
+                }
+                lastKey = page.lastKey();
+            }
+        }
+        return count;
+    }
+}
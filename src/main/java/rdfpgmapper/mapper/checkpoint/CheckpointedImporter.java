@@ -0,0 +1,67 @@
+package rdfpgmapper.mapper.checkpoint;
+
+import rdfpgmapper.neo4j.Neo4jClient;
+
+import java.util.List;
+
+/**
+ * Führt die Instanz-Statements eines Imports in Abschnitten aus.
+ * Jeder Abschnitt wird zusammen mit dem Fortschreiben des {@link ImportCheckpoint} in einer einzigen Transaktion
+ * übernommen, sodass ein abgebrochener Import ohne erneutes Ausführen bereits übernommener Statements fortgesetzt werden kann.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class CheckpointedImporter {
+
+    /**
+     * Standardanzahl an Statements pro Transaktion.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final Neo4jClient neo4jClient;
+    private final int batchSize;
+
+    /**
+     * Konstruktor für den CheckpointedImporter.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @param batchSize   Die maximale Anzahl an Statements pro Transaktion.
+     */
+    public CheckpointedImporter(Neo4jClient neo4jClient, int batchSize) {
+        this.neo4jClient = neo4jClient;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Führt die Statements ab dem im Checkpoint gespeicherten Stand aus.
+     * Nach dem letzten Abschnitt wird der Checkpoint entfernt.
+     *
+     * @param statements Die Cypher-Statements des Imports.
+     * @param checkpoint Der Checkpoint des Imports.
+     * @return true, wenn alle Statements übernommen wurden, sonst false.
+     */
+    public boolean run(List<String> statements, ImportCheckpoint checkpoint) {
+        String statementsDigest = ImportCheckpoint.digest(statements);
+        int total = statements.size();
+        int from = (int) checkpoint.resumeFrom(statementsDigest);
+
+        if (from > 0) {
+            System.out.println("Import wird bei Statement " + from + " von " + total + " fortgesetzt.");
+        }
+
+        while (from < total) {
+            int to = Math.min(from + batchSize, total);
+            boolean success = neo4jClient.writeToNeo4j(statements.subList(from, to), ImportCheckpoint.ADVANCE_QUERY,
+                    checkpoint.advanceParameters(to, (to + batchSize - 1) / batchSize, total, statementsDigest));
+            if (!success) {
+                System.err.println("Import bei Statement " + from + " von " + total + " abgebrochen, ein erneuter Aufruf setzt ihn fort.");
+                return false;
+            }
+            from = to;
+        }
+
+        checkpoint.complete(neo4jClient);
+        return true;
+    }
+}
@@ -0,0 +1,217 @@
+package rdfpgmapper.mapper.checkpoint;
+
+import org.neo4j.driver.Record;
+import rdfpgmapper.neo4j.Neo4jClient;
+import rdfpgmapper.utils.Helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checkpoint eines Imports.
+ * Der Checkpoint liegt als {@code ImportCheckpoint}-Knoten in der Datenbank und wird in derselben Transaktion
+ * fortgeschrieben wie der zugehörige Abschnitt der Cypher-Statements. Er ist über den SHA-256-Hash der
+ * Eingabedatei und den Mapper identifiziert, sodass ein Import nie gegen eine geänderte Datei fortgesetzt wird.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ImportCheckpoint {
+
+    /**
+     * Cypher-Statement, das den Checkpoint innerhalb der Transaktion eines Abschnitts fortschreibt.
+     */
+    static final String ADVANCE_QUERY = "MERGE (c:ImportCheckpoint {inputHash: $inputHash, mapper: $mapper}) " +
+            "SET c.ordinal = $ordinal, c.batch = $batch, c.total = $total, " +
+            "c.statementsDigest = $statementsDigest, c.changeBatch = $changeBatch";
+
+    private final String inputHash;
+    private final String mapperId;
+    private final long ordinal;
+    private final String statementsDigest;
+    private Long changeBatch;
+
+    private ImportCheckpoint(String inputHash, String mapperId, long ordinal, String statementsDigest, Long changeBatch) {
+        this.inputHash = inputHash;
+        this.mapperId = mapperId;
+        this.ordinal = ordinal;
+        this.statementsDigest = statementsDigest;
+        this.changeBatch = changeBatch;
+    }
+
+    /**
+     * Lädt den Checkpoint für eine Eingabedatei und einen Mapper aus der Datenbank.
+     * Existiert kein Checkpoint, wird ein leerer Checkpoint zurückgegeben.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @param input       Pfad der Eingabedatei.
+     * @param mapperId    Kennung des Mappers.
+     * @return Der geladene oder ein neuer, leerer Checkpoint.
+     * @throws IOException Wenn die Eingabedatei nicht gelesen werden kann.
+     */
+    public static ImportCheckpoint load(Neo4jClient neo4jClient, Path input, String mapperId) throws IOException {
+        return load(neo4jClient, hash(input), mapperId);
+    }
+
+    /**
+     * Lädt den Checkpoint für eingelesene Eingabedaten und einen Mapper aus der Datenbank.
+     * Existiert kein Checkpoint, wird ein leerer Checkpoint zurückgegeben.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @param inputHash   Die stabile Kennung der Eingabedaten.
+     * @param mapperId    Kennung des Mappers.
+     * @return Der geladene oder ein neuer, leerer Checkpoint.
+     */
+    public static ImportCheckpoint load(Neo4jClient neo4jClient, String inputHash, String mapperId) {
+        List<Record> records = neo4jClient.readFromNeo4j(
+                "MATCH (c:ImportCheckpoint {inputHash: $inputHash, mapper: $mapper}) " +
+                        "RETURN c.ordinal AS ordinal, c.statementsDigest AS statementsDigest, c.changeBatch AS changeBatch",
+                Map.of("inputHash", inputHash, "mapper", mapperId));
+
+        if (records.isEmpty()) {
+            return new ImportCheckpoint(inputHash, mapperId, 0, null, null);
+        }
+        Record record = records.getFirst();
+        Long changeBatch = record.get("changeBatch").isNull() ? null : record.get("changeBatch").asLong();
+        return new ImportCheckpoint(inputHash, mapperId, record.get("ordinal").asLong(),
+                Helper.getString(record, "statementsDigest"), changeBatch);
+    }
+
+    /**
+     * Berechnet den SHA-256-Hash einer Datei.
+     *
+     * @param input Pfad der Datei.
+     * @return Der Hash als Hex-String.
+     * @throws IOException Wenn die Datei nicht gelesen werden kann.
+     */
+    public static String hash(Path input) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(input)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Leitet aus der Kennung der Eingabedaten den Bereich ab, in dem die Blank-Node-Bezeichner der Eingabe gelten.
+     *
+     * @param inputHash Der Hash der Eingabedaten.
+     * @return Das Präfix der Blank-Node-Bezeichner.
+     */
+    public static String blankNodeScope(String inputHash) {
+        return inputHash.substring(0, 16);
+    }
+
+    /**
+     * Berechnet einen Hash über eine Liste von Cypher-Statements.
+     * Damit wird beim Fortsetzen geprüft, dass der Mapper dieselben Statements in derselben Reihenfolge erzeugt hat.
+     *
+     * @param statements Die Cypher-Statements.
+     * @return Der Hash als Hex-String.
+     */
+    public static String digest(List<String> statements) {
+        MessageDigest digest = sha256();
+        for (String statement : statements) {
+            digest.update(statement.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Gibt zurück, ob der Checkpoint bereits Fortschritt enthält.
+     *
+     * @return true, wenn ein früherer Import fortgesetzt wird.
+     */
+    public boolean isResumed() {
+        return ordinal > 0;
+    }
+
+    /**
+     * Gibt die Anzahl der Statements zurück, ab der ein Import mit den gegebenen Statements fortgesetzt werden kann.
+     * Weichen die Statements von denen des abgebrochenen Imports ab, beginnt der Import von vorne.
+     *
+     * @param statementsDigest Der Hash der aktuell erzeugten Statements.
+     * @return Die Anzahl der bereits übernommenen Statements.
+     */
+    public long resumeFrom(String statementsDigest) {
+        if (!isResumed()) {
+            return 0;
+        }
+        if (!statementsDigest.equals(this.statementsDigest)) {
+            System.err.println("Die erzeugten Statements weichen vom abgebrochenen Import ab, der Import beginnt von vorne.");
+            return 0;
+        }
+        return ordinal;
+    }
+
+    /**
+     * Gibt die Batch-ID der Änderungsverfolgung zurück, mit der der abgebrochene Import gestartet wurde.
+     *
+     * @return Die Batch-ID oder null.
+     */
+    public Long getChangeBatch() {
+        return changeBatch;
+    }
+
+    /**
+     * Setzt die Batch-ID der Änderungsverfolgung, die mit dem Checkpoint gespeichert wird.
+     *
+     * @param changeBatch Die Batch-ID oder null.
+     */
+    public void setChangeBatch(Long changeBatch) {
+        this.changeBatch = changeBatch;
+    }
+
+    /**
+     * Erstellt die Parameter für {@link #ADVANCE_QUERY}.
+     *
+     * @param ordinal          Die Anzahl der nach dem Abschnitt übernommenen Statements.
+     * @param batch            Die laufende Nummer des Abschnitts.
+     * @param total            Die Gesamtzahl der Statements.
+     * @param statementsDigest Der Hash der Statements.
+     * @return Die Parameter des Checkpoint-Statements.
+     */
+    Map<String, Object> advanceParameters(long ordinal, long batch, long total, String statementsDigest) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("inputHash", inputHash);
+        parameters.put("mapper", mapperId);
+        parameters.put("ordinal", ordinal);
+        parameters.put("batch", batch);
+        parameters.put("total", total);
+        parameters.put("statementsDigest", statementsDigest);
+        parameters.put("changeBatch", changeBatch);
+        return parameters;
+    }
+
+    /**
+     * Entfernt den Checkpoint nach einem vollständigen Import.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     */
+    public void complete(Neo4jClient neo4jClient) {
+        neo4jClient.writeAndReadFromNeo4j("MATCH (c:ImportCheckpoint {inputHash: $inputHash, mapper: $mapper}) DELETE c",
+                Map.of("inputHash", inputHash, "mapper", mapperId));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package rdfpgmapper.mapper.delta;
+
+import org.apache.jena.rdf.model.Model;
+
+/**
+ * Ergebnis des Vergleichs einer neuen RDF-Eingabe mit dem zuletzt importierten Stand.
+ *
+ * @param added    Die hinzugekommenen Tripel, ergänzt um die rdf:type-Tripel der betroffenen Knoten.
+ * @param removed  Die entfernten Tripel.
+ * @param snapshot Der neue Fingerprint-Stand, der nach erfolgreichem Import gespeichert wird.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record TripleDelta(Model added, Model removed, TripleFingerprintStore snapshot) {
+}
@@ -0,0 +1,269 @@
+package rdfpgmapper.mapper.delta;
+
+import org.apache.jena.atlas.io.IndentedLineBuffer;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.out.NodeFormatter;
+import org.apache.jena.riot.out.NodeFormatterNT;
+import org.apache.jena.vocabulary.RDF;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lokaler Fingerprint-Speicher des zuletzt importierten RDF-Stands.
+ * Jedes Tripel wird über einen 128-Bit-Hash seiner N-Triples-Darstellung identifiziert. Die Datei enthält die
+ * nach Hash sortierten Einträge zusammen mit dem Tripel selbst, damit entfernte Tripel gezielt gelöscht werden können.
+ * Der Vergleich mit einer neuen Eingabe erfolgt als Merge zweier sortierter Folgen, ohne den alten Stand
+ * vollständig in den Speicher zu laden.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class TripleFingerprintStore {
+
+    private static final int MAGIC = 0x52504746;
+
+    private final String mapperId;
+    private final long[] high;
+    private final long[] low;
+    private final String[] triples;
+
+    private TripleFingerprintStore(String mapperId, long[] high, long[] low, String[] triples) {
+        this.mapperId = mapperId;
+        this.high = high;
+        this.low = low;
+        this.triples = triples;
+    }
+
+    /**
+     * Erstellt den Fingerprint-Stand eines RDF-Modells.
+     *
+     * @param model    Das RDF-Modell der neuen Eingabe.
+     * @param mapperId Kennung des Mappers, mit dem importiert wird.
+     * @return Der sortierte Fingerprint-Stand.
+     */
+    public static TripleFingerprintStore of(Model model, String mapperId) {
+        List<Statement> statements = model.listStatements().toList();
+        int size = statements.size();
+        long[] hashHigh = new long[size];
+        long[] hashLow = new long[size];
+        String[] lines = new String[size];
+        Integer[] order = new Integer[size];
+
+        NodeFormatter formatter = new NodeFormatterNT();
+        for (int i = 0; i < size; i++) {
+            lines[i] = toNTriples(statements.get(i), formatter);
+            long[] hash = fingerprint(lines[i]);
+            hashHigh[i] = hash[0];
+            hashLow[i] = hash[1];
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compare(hashHigh[a], hashLow[a], hashHigh[b], hashLow[b]));
+
+        long[] sortedHigh = new long[size];
+        long[] sortedLow = new long[size];
+        String[] sortedLines = new String[size];
+        for (int i = 0; i < size; i++) {
+            sortedHigh[i] = hashHigh[order[i]];
+            sortedLow[i] = hashLow[order[i]];
+            sortedLines[i] = lines[order[i]];
+        }
+        return new TripleFingerprintStore(mapperId, sortedHigh, sortedLow, sortedLines);
+    }
+
+    /**
+     * Vergleicht ein neues RDF-Modell mit dem gespeicherten Stand.
+     * Existiert kein gespeicherter Stand oder wurde er mit einem anderen Mapper erstellt, gelten alle Tripel als hinzugefügt.
+     *
+     * @param model     Das RDF-Modell der neuen Eingabe.
+     * @param storePath Pfad der Fingerprint-Datei des letzten Imports.
+     * @param mapperId  Kennung des Mappers, mit dem importiert wird.
+     * @return Die hinzugefügten und entfernten Tripel sowie der neue Stand.
+     * @throws IOException wenn die Fingerprint-Datei nicht gelesen werden kann.
+     */
+    public static TripleDelta diff(Model model, Path storePath, String mapperId) throws IOException {
+        TripleFingerprintStore snapshot = of(model, mapperId);
+
+        Model added = ModelFactory.createDefaultModel();
+        added.setNsPrefixes(model.getNsPrefixMap());
+        StringBuilder removedLines = new StringBuilder();
+
+        if (!Files.exists(storePath)) {
+            added.add(model);
+            return new TripleDelta(added, ModelFactory.createDefaultModel(), snapshot);
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(storePath)))) {
+            if (in.readInt() != MAGIC || !in.readUTF().equals(mapperId)) {
+                added.add(model);
+                return new TripleDelta(added, ModelFactory.createDefaultModel(), snapshot);
+            }
+            long remaining = in.readLong();
+
+            StringBuilder addedLines = new StringBuilder();
+            int i = 0;
+            long[] old = remaining > 0 ? readHash(in) : null;
+            while (old != null || i < snapshot.size()) {
+                int cmp;
+                if (old == null) {
+                    cmp = 1;
+                } else if (i >= snapshot.size()) {
+                    cmp = -1;
+                } else {
+                    cmp = compare(old[0], old[1], snapshot.high[i], snapshot.low[i]);
+                }
+
+                if (cmp < 0) {
+                    removedLines.append(readLine(in)).append('\n');
+                } else {
+                    if (cmp > 0) {
+                        addedLines.append(snapshot.triples[i]).append('\n');
+                    } else {
+                        skipLine(in);
+                    }
+                    i++;
+                }
+                if (cmp <= 0) {
+                    remaining--;
+                    old = remaining > 0 ? readHash(in) : null;
+                }
+            }
+            parse(addedLines, added);
+        }
+
+        // Die Typen aller betroffenen Knoten werden mitgegeben, damit Labels und Domain-/Range-Prüfungen vollständig
+        // bleiben. Unveränderte Schema-Tripel lesen die Mapper aus dem Kontext, statt sie erneut zu schreiben.
+        List<RDFNode> touched = new ArrayList<>();
+        added.listStatements().forEachRemaining(statement -> {
+            touched.add(statement.getSubject());
+            touched.add(statement.getObject());
+        });
+        for (RDFNode node : touched) {
+            if (node.isResource()) {
+                added.add(model.listStatements(node.asResource(), RDF.type, (RDFNode) null));
+            }
+        }
+
+        Model removed = ModelFactory.createDefaultModel();
+        removed.setNsPrefixes(model.getNsPrefixMap());
+        parse(removedLines, removed);
+        return new TripleDelta(added, removed, snapshot);
+    }
+
+    /**
+     * Schreibt den Fingerprint-Stand atomar auf die Festplatte.
+     *
+     * @param storePath Pfad der Fingerprint-Datei.
+     * @throws IOException wenn die Datei nicht geschrieben werden kann.
+     */
+    public void write(Path storePath) throws IOException {
+        Path tmp = storePath.resolveSibling(storePath.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(mapperId);
+            out.writeLong(high.length);
+            for (int i = 0; i < high.length; i++) {
+                out.writeLong(high[i]);
+                out.writeLong(low[i]);
+                byte[] line = triples[i].getBytes(StandardCharsets.UTF_8);
+                out.writeInt(line.length);
+                out.write(line);
+            }
+        }
+        Files.move(tmp, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Gibt die Anzahl der Tripel in diesem Stand zurück.
+     *
+     * @return Die Anzahl der Tripel.
+     */
+    public int size() {
+        return high.length;
+    }
+
+    /**
+     * Berechnet den 128-Bit-Fingerprint einer Zeichenkette.
+     *
+     * @param value Die Zeichenkette, z.B. die N-Triples-Darstellung eines Tripels.
+     * @return Die oberen und unteren 64 Bit des Hashes.
+     */
+    public static long[] fingerprint(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            return new long[]{buffer.getLong(), buffer.getLong()};
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Erstellt die N-Triples-Darstellung eines Statements.
+     *
+     * @param statement Das Statement.
+     * @param formatter Der Formatter für N-Triples-Knoten.
+     * @return Das Statement als N-Triples-Zeile ohne Zeilenumbruch.
+     */
+    public static String toNTriples(Statement statement, NodeFormatter formatter) {
+        IndentedLineBuffer buffer = new IndentedLineBuffer();
+        formatter.format(buffer, statement.getSubject().asNode());
+        buffer.print(" ");
+        formatter.format(buffer, statement.getPredicate().asNode());
+        buffer.print(" ");
+        formatter.format(buffer, statement.getObject().asNode());
+        buffer.print(" .");
+        return buffer.asString();
+    }
+
+    private static void parse(StringBuilder lines, Model model) {
+        if (!lines.isEmpty()) {
+            RDFParser.fromString(lines.toString(), Lang.NTRIPLES)
+                    .labelToNode(LabelToNode.createUseLabelEncoded())
+                    .parse(model);
+        }
+    }
+
+    private static int compare(long highA, long lowA, long highB, long lowB) {
+        int cmp = Long.compareUnsigned(highA, highB);
+        return cmp != 0 ? cmp : Long.compareUnsigned(lowA, lowB);
+    }
+
+    private static long[] readHash(DataInputStream in) throws IOException {
+        try {
+            return new long[]{in.readLong(), in.readLong()};
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static String readLine(DataInputStream in) throws IOException {
+        byte[] line = new byte[in.readInt()];
+        in.readFully(line);
+        return new String(line, StandardCharsets.UTF_8);
+    }
+
+    private static void skipLine(DataInputStream in) throws IOException {
+        in.skipNBytes(in.readInt());
+    }
+}
@@ -0,0 +1,156 @@
+package rdfpgmapper.mapper.dictionary;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.mapper.rpt.RptSimple;
+import rdfpgmapper.mapper.spill.ExternalSorter;
+import rdfpgmapper.neo4j.Neo4jClient;
+import rdfpgmapper.utils.Helper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gemeinsames Verzeichnis der Ressourcen-Knoten, die gleichzeitig laufende Importe eines Jobs bereits angelegt haben.
+ * Vor dem Import einer Datei werden die Knoten aller in ihren Relationen verwendeten IRIs, die noch kein anderer
+ * Import beansprucht hat, in wenigen großen Transaktionen angelegt. Die MERGE-Statements der Mapper finden
+ * diese Knoten anschließend nur noch, sodass Importe, die dieselben Ressourcen referenzieren, nicht gleichzeitig
+ * um das Anlegen desselben Knotens konkurrieren.
+ * <p>
+ * Die Namen eines Modells werden über einen {@link ExternalSorter} dedupliziert, sodass ihre Menge zusätzlich zum
+ * bereits geladenen Modell höchstens das Speicherbudget des Sortierers belegt. Das Verzeichnis der beanspruchten Knoten ist ebenfalls durch dieses Budget
+ * begrenzt; ist es voll, werden weitere Knoten zwar angelegt, aber nicht mehr vermerkt. Da die Knoten per MERGE
+ * angelegt werden, kann ein anderer Import sie dann höchstens ein zweites Mal finden.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class NodeDictionary {
+
+    /**
+     * Anzahl der Knoten, die pro Transaktion angelegt werden.
+     */
+    public static final int CREATE_BATCH_SIZE = 10000;
+
+    private final Neo4jClient neo4jClient;
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+    private final long maxKeys = Math.max(CREATE_BATCH_SIZE, ExternalSorter.getDefaultMemoryBudget() / 128);
+
+    /**
+     * Konstruktor für das NodeDictionary.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     */
+    public NodeDictionary(Neo4jClient neo4jClient) {
+        this.neo4jClient = neo4jClient;
+    }
+
+    /**
+     * Legt die Ressourcen-Knoten eines Modells an, die noch kein anderer Import des Jobs angelegt hat.
+     * Berücksichtigt werden Subjekte und Objekte von Relationen zwischen IRIs; rdf:type und RDFS-Prädikate werden
+     * übersprungen, da ihre Objekte in den PGT-Layouts zu Labels bzw. Schema werden.
+     *
+     * @param mapper Der Mapper, dessen Layout die Knoten folgen.
+     * @param model  Das zu importierende RDF-Modell.
+     * @return true, wenn alle beanspruchten Knoten angelegt wurden, sonst false.
+     */
+    public boolean createNodes(Mapper mapper, Model model) {
+        boolean rptSimple = mapper instanceof RptSimple;
+        String label = rptSimple ? "Node" : "Resource";
+        String property = rptSimple ? "name" : "iri";
+
+        String statement = "UNWIND $keys AS key MERGE (:" + label + " {" + property + ": key})";
+        List<String> batch = new ArrayList<>();
+        boolean[] success = {true};
+        try (ExternalSorter names = resourceNames(model)) {
+            names.forEachDistinct(entry -> {
+                if (!success[0] || !claim(label + " " + entry.key())) {
+                    return;
+                }
+                batch.add(entry.key());
+                if (batch.size() == CREATE_BATCH_SIZE) {
+                    success[0] = createBatch(statement, label, batch);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Knoten konnten nicht vorbereitet werden: " + e.getMessage());
+            release(label, batch);
+            return false;
+        }
+        return success[0] && createBatch(statement, label, batch);
+    }
+
+    /**
+     * Gibt die Anzahl der vom Job angelegten Knoten zurück.
+     *
+     * @return Die Anzahl der Einträge.
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Vermerkt einen Knoten als beansprucht. Ist das Verzeichnis voll, wird der Knoten ohne Vermerk angelegt.
+     *
+     * @return false, wenn ein anderer Import den Knoten bereits beansprucht hat.
+     */
+    private boolean claim(String key) {
+        if (keys.contains(key)) {
+            return false;
+        }
+        return keys.size() >= maxKeys || keys.add(key);
+    }
+
+    private boolean createBatch(String statement, String label, List<String> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        boolean success = neo4jClient.writeToNeo4j(List.of(), statement, Map.of("keys", List.copyOf(batch)));
+        if (!success) {
+            release(label, batch);
+        }
+        batch.clear();
+        return success;
+    }
+
+    private void release(String label, List<String> batch) {
+        batch.forEach(name -> keys.remove(label + " " + name));
+    }
+
+    private static ExternalSorter resourceNames(Model model) {
+        ExternalSorter names = new ExternalSorter();
+        StmtIterator statements = model.listStatements();
+        while (statements.hasNext()) {
+            Statement statement = statements.nextStatement();
+            RDFNode object = statement.getObject();
+            String predicate = statement.getPredicate().getURI();
+            if (!statement.getSubject().isURIResource() || !object.isURIResource()
+                    || statement.getPredicate().equals(RDF.type) || predicate.startsWith(RDFS.getURI())) {
+                continue;
+            }
+            addName(statement.getSubject().getURI(), model, names);
+            addName(object.asResource().getURI(), model, names);
+        }
+        return names;
+    }
+
+    /**
+     * Namen mit Anführungszeichen oder Backslashes werden von den Mappern unverändert in Cypher-Strings eingebettet
+     * und ergäben als Parameter einen anderen Schlüssel; sie werden daher den Mappern überlassen.
+     */
+    private static void addName(String uri, Model model, ExternalSorter names) {
+        String name = Helper.getPrefixedName(uri, model);
+        if (name.indexOf('\'') < 0 && name.indexOf('\\') < 0) {
+            names.add(name);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package rdfpgmapper.mapper.export;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Checkpoint eines seitenweisen Exports.
+ * Speichert pro Shard den zuletzt geschriebenen Schlüssel sowie die bereits geschriebene Länge der Zwischendatei,
+ * sodass ein abgebrochener Export an derselben Stelle fortgesetzt werden kann.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ExportCheckpoint {
+
+    private static final String KEY_MAPPER = "mapper";
+    private static final String KEY_SPOOL_LENGTH = "spool.length";
+    private static final String KEY_SHARD = "shard.";
+
+    private final Path path;
+    private final Properties properties;
+
+    private ExportCheckpoint(Path path, Properties properties) {
+        this.path = path;
+        this.properties = properties;
+    }
+
+    /**
+     * Lädt einen Checkpoint von der Festplatte.
+     * Existiert kein Checkpoint oder gehört er zu einem anderen Export, wird ein leerer Checkpoint zurückgegeben.
+     *
+     * @param path     Pfad der Checkpoint-Datei.
+     * @param exportId Kennung des Exports (Mapper und Filter), zu dem der Checkpoint passen muss.
+     * @return Der geladene oder ein neuer, leerer Checkpoint.
+     */
+    public static ExportCheckpoint load(Path path, String exportId) {
+        Properties properties = new Properties();
+        if (Files.exists(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("Checkpoint konnte nicht gelesen werden: " + e.getMessage());
+                properties.clear();
+            }
+        }
+        if (!Objects.equals(properties.getProperty(KEY_MAPPER), exportId)) {
+            properties.clear();
+            properties.setProperty(KEY_MAPPER, exportId);
+        }
+        return new ExportCheckpoint(path, properties);
+    }
+
+    /**
+     * Gibt zurück, ob der Checkpoint bereits Fortschritt enthält.
+     *
+     * @return true, wenn ein früherer Export fortgesetzt wird.
+     */
+    public boolean isResumed() {
+        return properties.containsKey(KEY_SPOOL_LENGTH);
+    }
+
+    /**
+     * Gibt die Länge der Zwischendatei zum Zeitpunkt des letzten Checkpoints zurück.
+     *
+     * @return Die Anzahl der bereits vollständig geschriebenen Bytes.
+     */
+    public long getSpoolLength() {
+        return Long.parseLong(properties.getProperty(KEY_SPOOL_LENGTH, "0"));
+    }
+
+    /**
+     * Gibt den zuletzt geschriebenen Schlüssel eines Shards zurück.
+     *
+     * @param shard Der Name des Shards.
+     * @return Der zuletzt geschriebene Schlüssel oder ein leerer String, wenn der Shard noch nicht begonnen wurde.
+     */
+    public String getLastKey(String shard) {
+        return properties.getProperty(KEY_SHARD + shard + ".after", "");
+    }
+
+    /**
+     * Gibt zurück, ob ein Shard bereits vollständig exportiert wurde.
+     *
+     * @param shard Der Name des Shards.
+     * @return true, wenn der Shard abgeschlossen ist.
+     */
+    public boolean isDone(String shard) {
+        return Boolean.parseBoolean(properties.getProperty(KEY_SHARD + shard + ".done"));
+    }
+
+    /**
+     * Hält den Fortschritt eines Shards fest und schreibt den Checkpoint.
+     *
+     * @param shard       Der Name des Shards.
+     * @param lastKey     Der zuletzt geschriebene Schlüssel.
+     * @param spoolLength Die Länge der Zwischendatei nach dem Schreiben des Abschnitts.
+     */
+    public void advance(String shard, String lastKey, long spoolLength) {
+        properties.setProperty(KEY_SHARD + shard + ".after", lastKey);
+        properties.setProperty(KEY_SPOOL_LENGTH, String.valueOf(spoolLength));
+        save();
+    }
+
+    /**
+     * Markiert einen Shard als vollständig exportiert und schreibt den Checkpoint.
+     *
+     * @param shard       Der Name des Shards.
+     * @param spoolLength Die Länge der Zwischendatei.
+     */
+    public void complete(String shard, long spoolLength) {
+        properties.setProperty(KEY_SHARD + shard + ".done", "true");
+        properties.setProperty(KEY_SPOOL_LENGTH, String.valueOf(spoolLength));
+        save();
+    }
+
+    /**
+     * Entfernt den Checkpoint nach einem erfolgreich abgeschlossenen Export.
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Checkpoint konnte nicht gelöscht werden: " + e.getMessage());
+        }
+    }
+
+    private void save() {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, "rdfpgmapper export checkpoint");
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Checkpoint konnte nicht geschrieben werden: " + path, e);
+        }
+    }
+}
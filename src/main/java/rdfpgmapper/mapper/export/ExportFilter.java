@@ -0,0 +1,249 @@
+package rdfpgmapper.mapper.export;
+
+import org.apache.jena.vocabulary.RDF;
+import rdfpgmapper.utils.Helper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Filter für den Export eines Teilgraphen.
+ * Schränkt den Export auf Subjekte bestimmter Klassen und Namensräume sowie auf bestimmte Prädikate und
+ * Literal-Datentypen ein. Ein leerer Filteraspekt schränkt nicht ein. Die Mapper übersetzen den Filter in
+ * WHERE-Klauseln bzw. Label- und Relationstyp-Auswahl ihrer Cypher-Queries, sodass nur der benötigte Teilgraph
+ * aus Neo4j gelesen wird.
+ * <p>
+ * Klassen, Prädikate und Datentypen können als vollständige URI ({@code http://xmlns.com/foaf/0.1/Person}),
+ * als CURIE ({@code foaf:Person}) oder in der gespeicherten Form ({@code foaf_Person}) angegeben werden.
+ * Namensräume werden als vollständige Namensraum-URI oder als Präfix ({@code foaf}) angegeben.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ExportFilter {
+
+    private final Set<String> classes = new LinkedHashSet<>();
+    private final Set<String> predicates = new LinkedHashSet<>();
+    private final Set<String> namespaces = new LinkedHashSet<>();
+    private final Set<String> datatypes = new LinkedHashSet<>();
+    private String rdfType = RDF.type.getURI();
+    private Long sinceBatch;
+    private Long untilBatch;
+
+    /**
+     * Erstellt einen Filter, der den gesamten Graphen exportiert.
+     *
+     * @return Ein leerer Filter.
+     */
+    public static ExportFilter all() {
+        return new ExportFilter();
+    }
+
+    /**
+     * Beschränkt den Export auf Subjekte, die Instanz der angegebenen Klasse sind.
+     *
+     * @param cls Die Klasse bzw. das Label.
+     * @return Dieser Filter.
+     */
+    public ExportFilter addClass(String cls) {
+        classes.add(cls);
+        return this;
+    }
+
+    /**
+     * Beschränkt den Export auf Tripel mit dem angegebenen Prädikat bzw. Relationstyp.
+     *
+     * @param predicate Das Prädikat.
+     * @return Dieser Filter.
+     */
+    public ExportFilter addPredicate(String predicate) {
+        predicates.add(predicate);
+        return this;
+    }
+
+    /**
+     * Beschränkt den Export auf Subjekte aus dem angegebenen Namensraum.
+     * Blank Nodes gehören keinem Namensraum an und werden bei gesetztem Namensraum-Filter nicht exportiert.
+     *
+     * @param namespace Die Namensraum-URI oder das Präfix.
+     * @return Dieser Filter.
+     */
+    public ExportFilter addNamespace(String namespace) {
+        namespaces.add(namespace);
+        return this;
+    }
+
+    /**
+     * Beschränkt exportierte Literale auf den angegebenen Datentyp. Tripel mit Ressourcen als Objekt bleiben erhalten.
+     *
+     * @param datatype Der Datentyp, z.B. {@code xsd:string}.
+     * @return Dieser Filter.
+     */
+    public ExportFilter addDatatype(String datatype) {
+        datatypes.add(datatype);
+        return this;
+    }
+
+    /**
+     * Beschränkt den Export auf Tripel, die nach dem angegebenen Import-Batch hinzugefügt wurden.
+     * Setzt voraus, dass die Daten mit aktivierter Änderungsverfolgung importiert wurden.
+     *
+     * @param batch Die letzte bereits exportierte Batch-ID.
+     * @return Dieser Filter.
+     */
+    public ExportFilter since(long batch) {
+        sinceBatch = batch;
+        return this;
+    }
+
+    /**
+     * Beschränkt den Export der Änderungen auf Tripel bis einschließlich des angegebenen Import-Batches, sodass
+     * Importe, die während des Exports laufen, nicht teilweise übernommen werden.
+     *
+     * @param batch Die höchste exportierte Batch-ID.
+     * @return Dieser Filter.
+     */
+    public ExportFilter until(long batch) {
+        untilBatch = batch;
+        return this;
+    }
+
+    /**
+     * Übersetzt alle Filterwerte in die präfixierte Form, in der sie in Neo4j gespeichert sind.
+     *
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @return Ein neuer Filter mit aufgelösten Werten.
+     */
+    public ExportFilter resolve(Map<String, Object> nsPrefixUri) {
+        ExportFilter resolved = new ExportFilter();
+        classes.forEach(cls -> resolved.classes.add(resolveName(cls, nsPrefixUri)));
+        predicates.forEach(predicate -> resolved.predicates.add(resolveName(predicate, nsPrefixUri)));
+        datatypes.forEach(datatype -> resolved.datatypes.add(resolveName(datatype, nsPrefixUri)));
+        for (String namespace : namespaces) {
+            if (nsPrefixUri.containsKey(namespace)) {
+                resolved.namespaces.add(namespace + "_");
+            } else {
+                resolved.namespaces.add(resolveName(namespace, nsPrefixUri));
+            }
+        }
+        resolved.rdfType = Helper.getPrefixedName(RDF.type.getURI(), nsPrefixUri);
+        resolved.sinceBatch = sinceBatch;
+        resolved.untilBatch = untilBatch;
+        return resolved;
+    }
+
+    private static String resolveName(String name, Map<String, Object> nsPrefixUri) {
+        int colon = name.indexOf(':');
+        if (colon > 0 && nsPrefixUri.containsKey(name.substring(0, colon)) && !name.startsWith("//", colon + 1)) {
+            return name.substring(0, colon) + "_" + name.substring(colon + 1);
+        }
+        return Helper.getPrefixedName(name, nsPrefixUri);
+    }
+
+    /**
+     * Gibt zurück, ob der Filter keinerlei Einschränkung enthält.
+     *
+     * @return true, wenn der gesamte Graph exportiert wird.
+     */
+    public boolean isEmpty() {
+        return classes.isEmpty() && predicates.isEmpty() && namespaces.isEmpty() && datatypes.isEmpty() && sinceBatch == null;
+    }
+
+    /**
+     * Gibt zurück, ob Blank Nodes als Subjekte durch den Filter ausgeschlossen sind.
+     *
+     * @return true, wenn ein Namensraum-Filter gesetzt ist.
+     */
+    public boolean excludesBlankNodes() {
+        return !namespaces.isEmpty();
+    }
+
+    /**
+     * Gibt zurück, ob der Export auf Änderungen seit einem Import-Batch beschränkt ist.
+     *
+     * @return true, wenn ein Batch-Filter gesetzt ist.
+     */
+    public boolean hasSinceBatch() {
+        return sinceBatch != null;
+    }
+
+    /**
+     * Erstellt die Cypher-Parameter eines Export-Abschnitts inklusive der Filterwerte.
+     *
+     * @param afterKey Der zuletzt gelesene Schlüssel.
+     * @param pageSize Die maximale Anzahl an Subjekt-Knoten pro Abschnitt.
+     * @return Eine Map mit den Parametern {@code after}, {@code limit}, {@code classes}, {@code predicates},
+     * {@code namespaces}, {@code datatypes}, {@code rdfType}, {@code since} und {@code until}.
+     */
+    public Map<String, Object> pageParameters(String afterKey, int pageSize) {
+        return Map.of(
+                "after", afterKey,
+                "limit", pageSize,
+                "classes", new ArrayList<>(classes),
+                "predicates", new ArrayList<>(predicates),
+                "namespaces", new ArrayList<>(namespaces),
+                "datatypes", new ArrayList<>(datatypes),
+                "rdfType", rdfType,
+                "since", sinceBatch == null ? -1L : sinceBatch,
+                "until", untilBatch == null ? Long.MAX_VALUE : untilBatch);
+    }
+
+    /**
+     * Erstellt eine stabile Textdarstellung des Filters, z.B. zur Zuordnung von Checkpoints.
+     *
+     * @return Die Textdarstellung des Filters.
+     */
+    public String fingerprint() {
+        return "classes=" + classes + ";predicates=" + predicates + ";namespaces=" + namespaces + ";datatypes=" + datatypes + ";since=" + sinceBatch + ";until=" + untilBatch;
+    }
+
+    /**
+     * Gibt die Klassen zurück, auf die der Export beschränkt ist.
+     *
+     * @return Die Klassen bzw. Labels.
+     */
+    public Set<String> getClasses() {
+        return classes;
+    }
+
+    /**
+     * Gibt die Prädikate zurück, auf die der Export beschränkt ist.
+     *
+     * @return Die Prädikate bzw. Relationstypen.
+     */
+    public Set<String> getPredicates() {
+        return predicates;
+    }
+
+    /**
+     * Gibt die Namensräume zurück, auf die der Export beschränkt ist.
+     *
+     * @return Die Namensräume.
+     */
+    public Set<String> getNamespaces() {
+        return namespaces;
+    }
+
+    /**
+     * Gibt die Literal-Datentypen zurück, auf die der Export beschränkt ist.
+     *
+     * @return Die Datentypen.
+     */
+    public Set<String> getDatatypes() {
+        return datatypes;
+    }
+
+    /**
+     * Verbindet Cypher-Bedingungen mit AND.
+     *
+     * @param keyword    Das einleitende Schlüsselwort, z.B. WHERE.
+     * @param conditions Die Bedingungen; leere Liste bedeutet keine Einschränkung.
+     * @return Die verbundene Bedingung mit führendem Schlüsselwort oder ein Leerzeichen.
+     */
+    public static String where(String keyword, List<String> conditions) {
+        return conditions.isEmpty() ? " " : " " + keyword + " " + String.join(" AND ", conditions) + " ";
+    }
+}
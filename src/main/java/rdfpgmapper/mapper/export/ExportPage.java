@@ -0,0 +1,24 @@
+package rdfpgmapper.mapper.export;
+
+import org.apache.jena.rdf.model.Model;
+
+/**
+ * Ein Abschnitt eines seitenweisen Exports.
+ * Enthält die Tripel eines Abschnitts sowie den letzten gelesenen Schlüssel, ab dem der nächste Abschnitt beginnt.
+ *
+ * @param model   Das RDF-Modell mit den Tripeln dieses Abschnitts.
+ * @param lastKey Der größte Schlüssel dieses Abschnitts oder null, wenn der Shard vollständig gelesen ist.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record ExportPage(Model model, String lastKey) {
+
+    /**
+     * Gibt zurück, ob dieser Abschnitt das Ende des Shards markiert.
+     *
+     * @return true, wenn keine weiteren Daten im Shard vorhanden sind.
+     */
+    public boolean isLast() {
+        return lastKey == null;
+    }
+}
@@ -0,0 +1,165 @@
+package rdfpgmapper.mapper.export;
+
+import io.micrometer.core.instrument.Timer;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.metrics.MapperMetrics;
+import rdfpgmapper.neo4j.Neo4jClient;
+import rdfpgmapper.rdf.JenaClient;
+import rdfpgmapper.utils.Helper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Führt Exporte seitenweise über einen stabilen Schlüssel (Keyset-Pagination) aus.
+ * Jeder Abschnitt wird in einer eigenen, kurzen Lese-Transaktion gelesen und sofort als N-Triples
+ * in eine Zwischendatei geschrieben. Der Fortschritt pro Shard wird in einem {@link ExportCheckpoint}
+ * festgehalten, sodass ein abgebrochener Export fortgesetzt werden kann.
+ * <p>
+ * Der Schlüssel eines Abschnitts ist der Schlüssel des Subjekt-Knotens; die Seitengröße begrenzt die Anzahl der Subjekte,
+ * nicht die Anzahl der Tripel. Alle ausgehenden Tripel eines Subjekts liegen in einem Abschnitt, sodass ein Superknoten
+ * einen Abschnitt unbegrenzter Größe ergibt. Ein zweiter Schlüssel innerhalb eines Subjekts ist nicht umgesetzt.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class PagedExporter {
+
+    /**
+     * Standardgröße eines Abschnitts (Anzahl Subjekt-Knoten pro Lese-Transaktion).
+     */
+    public static final int DEFAULT_PAGE_SIZE = 10000;
+
+    private final Neo4jClient neo4jClient;
+    private final JenaClient jenaClient;
+    private final int pageSize;
+
+    /**
+     * Konstruktor für den PagedExporter.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @param jenaClient  Der Client zum Schreiben der RDF-Ausgabe.
+     * @param pageSize    Die maximale Anzahl an Schlüsseln pro Abschnitt.
+     */
+    public PagedExporter(Neo4jClient neo4jClient, JenaClient jenaClient, int pageSize) {
+        this.neo4jClient = neo4jClient;
+        this.jenaClient = jenaClient;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Liest alle Shards eines Mappers seitenweise und sammelt sie in einem einzigen RDF-Modell.
+     *
+     * @param mapper      Der Mapper, dessen Layout gelesen wird.
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @param pageSize    Die maximale Anzahl an Schlüsseln pro Abschnitt.
+     * @param filter      Der Filter, der den exportierten Teilgraphen festlegt.
+     * @return Ein RDF-Modell mit allen exportierten Tripeln.
+     */
+    public static Model collect(Mapper mapper, Neo4jClient neo4jClient, int pageSize, ExportFilter filter) {
+        Model model = ModelFactory.createDefaultModel();
+        Map<String, Object> nsPrefixUri = Helper.readNsPrefixUri(neo4jClient);
+        ExportFilter resolvedFilter = filter.resolve(nsPrefixUri);
+
+        for (Map.Entry<String, Object> prefixUri : nsPrefixUri.entrySet()) {
+            model.setNsPrefix(prefixUri.getKey(), prefixUri.getValue().toString());
+        }
+
+        for (String shard : mapper.getExportShards()) {
+            String lastKey = "";
+            while (true) {
+                Timer.Sample sample = MapperMetrics.start();
+                ExportPage page = mapper.mapPgToRdfPage(shard, lastKey, pageSize, resolvedFilter, nsPrefixUri);
+                MapperMetrics.exported(sample, mapper.getClass().getSimpleName(), shard, page.isLast() ? 0 : page.model().size());
+                if (page.isLast()) {
+                    break;
+                }
+                model.add(page.model());
+                lastKey = page.lastKey();
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Exportiert alle Shards eines Mappers in eine Datei.
+     * Existiert ein passender Checkpoint eines abgebrochenen Exports, wird an der gespeicherten Stelle fortgesetzt.
+     *
+     * @param mapper   Der Mapper, dessen Layout gelesen wird.
+     * @param filePath Pfad, an dem die RDF-Datei gespeichert werden soll.
+     * @param format   Das RDF-Format der Ausgabe.
+     * @param filter   Der Filter, der den exportierten Teilgraphen festlegt.
+     * @throws IOException wenn die Zwischendatei fehlt, nicht geschrieben oder nicht konvertiert werden kann; Zwischendatei
+     *                     und Checkpoint bleiben dann für einen erneuten Aufruf erhalten.
+     */
+    public void export(Mapper mapper, String filePath, RDFFormat format, ExportFilter filter) throws IOException {
+        Path spool = Path.of(filePath + ".part.nt");
+        String exportId = mapper.getClass().getSimpleName() + "|" + filter.fingerprint();
+        ExportCheckpoint checkpoint = ExportCheckpoint.load(Path.of(filePath + ".checkpoint"), exportId);
+
+        if (checkpoint.isResumed()) {
+            // Ohne die bereits geschriebenen Abschnitte würde der fortgesetzte Export sie stillschweigend auslassen.
+            if (!Files.exists(spool) || Files.size(spool) < checkpoint.getSpoolLength()) {
+                throw new IOException("Die Zwischendatei " + spool + " des abgebrochenen Exports fehlt oder ist unvollständig; "
+                        + "der Checkpoint " + filePath + ".checkpoint muss entfernt werden, um neu zu beginnen.");
+            }
+            System.out.println("Setze abgebrochenen Export fort: " + filePath);
+        } else {
+            Files.deleteIfExists(spool);
+        }
+
+        Map<String, Object> nsPrefixUri = Helper.readNsPrefixUri(neo4jClient);
+        ExportFilter resolvedFilter = filter.resolve(nsPrefixUri);
+
+        try (FileChannel channel = FileChannel.open(spool, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Verwirft Daten, die nach dem letzten Checkpoint geschrieben, aber nicht mehr festgehalten wurden.
+            channel.truncate(checkpoint.getSpoolLength());
+            channel.position(channel.size());
+            OutputStream out = Channels.newOutputStream(channel);
+
+            for (String shard : mapper.getExportShards()) {
+                if (checkpoint.isDone(shard)) {
+                    continue;
+                }
+                String lastKey = checkpoint.getLastKey(shard);
+                while (true) {
+                    Timer.Sample sample = MapperMetrics.start();
+                    ExportPage page = mapper.mapPgToRdfPage(shard, lastKey, pageSize, resolvedFilter, nsPrefixUri);
+                    MapperMetrics.exported(sample, mapper.getClass().getSimpleName(), shard, page.isLast() ? 0 : page.model().size());
+                    if (page.isLast()) {
+                        checkpoint.complete(shard, channel.size());
+                        break;
+                    }
+                    RDFDataMgr.write(out, page.model(), RDFFormat.NTRIPLES);
+                    out.flush();
+                    channel.force(false);
+
+                    lastKey = page.lastKey();
+                    checkpoint.advance(shard, lastKey, channel.size());
+                }
+            }
+        }
+
+        Timer.Sample sample = MapperMetrics.start();
+        if (format == RDFFormat.NTRIPLES) {
+            Files.move(spool, Path.of(filePath), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("RDF erfolgreich geschrieben: " + filePath);
+        } else {
+            jenaClient.convertNTriples(spool.toString(), filePath, format, nsPrefixUri);
+            Files.deleteIfExists(spool);
+        }
+        MapperMetrics.exportWritten(sample, format.getLang().getName());
+        checkpoint.delete();
+    }
+}
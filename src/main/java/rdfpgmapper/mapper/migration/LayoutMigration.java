@@ -0,0 +1,194 @@
+package rdfpgmapper.mapper.migration;
+
+import org.apache.jena.rdf.model.ModelFactory;
+import org.neo4j.driver.Record;
+import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.mapper.migration.MigrationLayout.Shard;
+import rdfpgmapper.mapper.migration.MigrationLayout.TermKind;
+import rdfpgmapper.mapper.schema.SchemaPlan;
+import rdfpgmapper.mapper.schema.SchemaPlanner;
+import rdfpgmapper.neo4j.Neo4jClient;
+import rdfpgmapper.utils.Helper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Überführt einen gemappten Graphen direkt in der Datenbank vom Layout eines Mappers in das eines anderen,
+ * ohne ihn als RDF zu exportieren und neu zu importieren. Unterstützt werden alle Paare aus RPT Simple,
+ * RPT Generic (Ziel nur mit dem Literal-Schlüssel VALUE) und PGT Simple (nur mit der Literal-Kodierung STRING).
+ * <p>
+ * Die Subjekt-Knoten der Quelle werden in Abschnitten nach ihrem eindeutigen Schlüssel gelesen. Für jeden Abschnitt
+ * und jede Art von Subjekt und Objekt läuft ein Statement, das die Tripel mit {@code CALL {} IN TRANSACTIONS}
+ * in Transaktionen fester Größe im Ziel-Layout schreibt und aus der Quelle entfernt. Nach jedem Abschnitt wird der
+ * Fortschritt gemeldet. Da bereits migrierte Tripel in der Quelle fehlen, setzt ein erneuter Aufruf eine abgebrochene
+ * Migration fort. Zum Schluss werden verwaiste Knoten der Quelle gelöscht und abgeleitete Strukturen des Ziels angelegt.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class LayoutMigration {
+
+    /**
+     * Standardanzahl der Tripel pro innerer Transaktion.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 10000;
+
+    /**
+     * Anzahl der Transaktionen, für die ein Abschnitt Subjekt-Knoten enthält, sofern jedes Subjekt ein Tripel hat.
+     */
+    private static final int BATCHES_PER_PAGE = 10;
+
+    private static final List<TermKind> OBJECT_KINDS = List.of(TermKind.LITERAL, TermKind.RESOURCE, TermKind.BLANK_NODE);
+
+    private final Neo4jClient neo4jClient;
+    private final Mapper target;
+    private final MigrationLayout sourceLayout;
+    private final MigrationLayout targetLayout;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private Consumer<MigrationProgress> progressListener = LayoutMigration::print;
+
+    /**
+     * Konstruktor für die LayoutMigration.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @param source      Der Mapper, mit dem die Daten importiert wurden.
+     * @param target      Der Mapper, in dessen Layout die Daten überführt werden.
+     * @throws IllegalArgumentException wenn Quelle und Ziel dasselbe Layout haben oder ein Layout nicht unterstützt wird.
+     */
+    public LayoutMigration(Neo4jClient neo4jClient, Mapper source, Mapper target) {
+        if (source.getClass() == target.getClass()) {
+            throw new IllegalArgumentException("Quelle und Ziel der Migration haben dasselbe Layout.");
+        }
+        Map<String, Object> nsPrefixUri = Helper.readNsPrefixUri(neo4jClient);
+        this.neo4jClient = neo4jClient;
+        this.target = target;
+        this.sourceLayout = MigrationLayout.of(source, nsPrefixUri);
+        this.targetLayout = MigrationLayout.of(target, nsPrefixUri);
+    }
+
+    /**
+     * Setzt die Anzahl der Tripel, die pro innerer Transaktion migriert werden.
+     *
+     * @param batchSize Die Größe einer Transaktion.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Setzt den Empfänger der Fortschrittsmeldungen. Standardmäßig wird der Fortschritt auf der Konsole ausgegeben.
+     *
+     * @param progressListener Der Empfänger.
+     */
+    public void setProgressListener(Consumer<MigrationProgress> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Führt die Migration aus. Die Constraints und Indizes des Ziels werden vorher anhand der in der Quelle gezählten
+     * Kennzahlen angelegt, die Schema-Statements des Ziel-Mappers (z.B. Trigger) erst danach.
+     *
+     * @return Das Ergebnis der Migration.
+     * @throws IllegalArgumentException wenn das Ziel-Layout so nicht geschrieben werden kann.
+     */
+    public MigrationResult run() {
+        Map<Shard, List<String>> statements = new HashMap<>();
+        for (Shard shard : sourceLayout.shards()) {
+            List<String> shardStatements = new ArrayList<>();
+            for (TermKind subject : shard.subjects()) {
+                for (TermKind object : OBJECT_KINDS) {
+                    shardStatements.add(statement(shard, subject, object));
+                }
+            }
+            statements.put(shard, shardStatements);
+        }
+
+        SchemaPlanner schemaPlanner = new SchemaPlanner(neo4jClient);
+        SchemaPlan schemaPlan = schemaPlanner.plan(target, sourceLayout.profile(neo4jClient));
+        schemaPlanner.applyImmediate(schemaPlan);
+
+        long triples = 0;
+        for (Shard shard : sourceLayout.shards()) {
+            long total = neo4jClient.readFromNeo4j("MATCH (s:" + shard.label() + ") RETURN count(s) AS total", Map.of())
+                    .getFirst().get("total").asLong();
+            long subjects = 0;
+            String after = "";
+            while (true) {
+                String until = pageEnd(shard, after);
+                Map<String, Object> parameters = new HashMap<>();
+                parameters.put("after", after);
+                parameters.put("until", until);
+                parameters.put("batchSize", batchSize);
+                for (String statement : statements.get(shard)) {
+                    List<Record> records = neo4jClient.writeInTransactions(statement, parameters);
+                    if (records == null) {
+                        System.err.println("Migration abgebrochen, ein erneuter Aufruf setzt sie fort.");
+                        return new MigrationResult(triples, false);
+                    }
+                    triples += records.getFirst().get("triples").asLong();
+                }
+                subjects = until == null ? total : subjects + (long) batchSize * BATCHES_PER_PAGE;
+                progressListener.accept(new MigrationProgress(shard.label(), subjects, total, triples));
+                if (until == null) {
+                    break;
+                }
+                after = until;
+            }
+        }
+
+        List<String> cleanup = new ArrayList<>();
+        for (String label : sourceLayout.labels()) {
+            if (targetLayout.labels().contains(label)) {
+                cleanup.addAll(sourceLayout.cleanShared(label));
+            } else {
+                cleanup.add("MATCH (n:" + label + ") WHERE NOT (n)--() CALL { WITH n DELETE n } IN TRANSACTIONS OF $batchSize ROWS");
+            }
+        }
+        cleanup.addAll(targetLayout.finish());
+        for (String statement : cleanup) {
+            if (neo4jClient.writeInTransactions(statement, Map.of("batchSize", batchSize)) == null) {
+                System.err.println("Bereinigung nach der Migration abgebrochen, ein erneuter Aufruf setzt sie fort.");
+                return new MigrationResult(triples, false);
+            }
+        }
+
+        boolean success = neo4jClient.writeToNeo4j(target.mapRdfToPgSchema(ModelFactory.createDefaultModel()));
+        schemaPlan.print();
+        return new MigrationResult(triples, success);
+    }
+
+    /**
+     * Erstellt das Statement, das die Tripel einer Art von Subjekt und Objekt aus einem Abschnitt der Quelle migriert.
+     */
+    private String statement(Shard shard, TermKind subject, TermKind object) {
+        String key = "s." + shard.key();
+        return "MATCH (s:" + shard.label() + ") WHERE " + key + " > $after AND ($until IS NULL OR " + key + " <= $until) " +
+                sourceLayout.read(shard, subject, object) +
+                "CALL { WITH " + MigrationLayout.TRIPLE_VARIABLES + " " +
+                targetLayout.write(subject, object) +
+                "WITH s, r, p " + sourceLayout.remove(object) +
+                " } IN TRANSACTIONS OF $batchSize ROWS " +
+                "RETURN count(*) AS triples";
+    }
+
+    /**
+     * Gibt den Schlüssel des letzten Subjekt-Knotens im Abschnitt nach dem gegebenen Schlüssel zurück,
+     * oder null, wenn der Abschnitt bis zum Ende reicht.
+     */
+    private String pageEnd(Shard shard, String after) {
+        List<Record> records = neo4jClient.readFromNeo4j(
+                "MATCH (s:" + shard.label() + ") WHERE s." + shard.key() + " > $after " +
+                        "WITH s." + shard.key() + " AS key ORDER BY key SKIP $skip LIMIT 1 RETURN key",
+                Map.of("after", after, "skip", (long) batchSize * BATCHES_PER_PAGE - 1));
+        return records.isEmpty() ? null : records.getFirst().get("key").asString();
+    }
+
+    private static void print(MigrationProgress progress) {
+        System.out.println("Migration " + progress.shard() + ": " + progress.subjects() + "/" + progress.total()
+                + " Subjekte, " + progress.triples() + " Tripel");
+    }
+}
@@ -0,0 +1,190 @@
+package rdfpgmapper.mapper.migration;
+
+import org.neo4j.driver.Record;
+import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.mapper.pgt.LiteralEncoding;
+import rdfpgmapper.mapper.pgt.PgtSimple;
+import rdfpgmapper.mapper.rpt.RptGeneric;
+import rdfpgmapper.mapper.rpt.RptSimple;
+import rdfpgmapper.mapper.schema.DataProfile;
+import rdfpgmapper.neo4j.Neo4jClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Beschreibt, wie ein Layout bei einer {@link LayoutMigration} als Quelle Tripel liefert und als Ziel Tripel schreibt.
+ * Die Tripel werden dabei nur als Cypher-Variablen geführt, in der Kodierung, die alle Layouts teilen: das Subjekt
+ * {@code sk} und ein Knoten-Objekt {@code ok} als präfixierter Name bzw. {@code _:id}, das Prädikat {@code p} als
+ * präfixierter Name und ein Literal-Objekt als Wert {@code lv} und präfixierter Datentyp {@code lt}. Die Variable
+ * {@code s} ist der Subjekt-Knoten der Quelle, {@code r} die gelesene Relation oder null.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+abstract class MigrationLayout {
+
+    /**
+     * Der präfixierte Name von rdf:type, wie ihn die Mapper beim Import prüfen.
+     */
+    static final String RDF_TYPE = "rdf_type";
+
+    /**
+     * Die Variablen, die jedes gelesene Tripel an das Schreiben übergibt.
+     */
+    static final String TRIPLE_VARIABLES = "s, r, sk, p, ok, lv, lt";
+
+    /**
+     * Die Art eines RDF-Terms in Subjekt- oder Objekt-Position.
+     */
+    enum TermKind {
+        RESOURCE, BLANK_NODE, LITERAL
+    }
+
+    /**
+     * Knoten eines Labels, deren Tripel abschnittsweise über ihren eindeutigen Schlüssel gelesen werden.
+     *
+     * @param label    Das Label der Subjekt-Knoten.
+     * @param key      Der eindeutige Schlüssel, nach dem die Abschnitte gebildet werden.
+     * @param subjects Die Arten der Subjekte, die Knoten dieses Labels sein können.
+     */
+    record Shard(String label, String key, List<TermKind> subjects) {
+    }
+
+    /**
+     * Gibt das Layout eines Mappers zurück.
+     *
+     * @param mapper      Der Mapper.
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs aus dem {@code PrefixUriNode}.
+     * @return Das Layout.
+     * @throws IllegalArgumentException wenn das Layout des Mappers nicht migriert werden kann.
+     */
+    static MigrationLayout of(Mapper mapper, Map<String, Object> nsPrefixUri) {
+        if (mapper instanceof RptSimple) {
+            return new RptSimpleMigrationLayout();
+        }
+        if (mapper instanceof RptGeneric rptGeneric) {
+            return new RptGenericMigrationLayout(rptGeneric.getLiteralKeying());
+        }
+        if (mapper instanceof PgtSimple pgtSimple) {
+            if (pgtSimple.getLiteralEncoding() != LiteralEncoding.STRING) {
+                throw new IllegalArgumentException("Migrationen werden für PgtSimple nur mit der Literal-Kodierung STRING unterstützt.");
+            }
+            return new PgtSimpleMigrationLayout(nsPrefixUri);
+        }
+        throw new IllegalArgumentException("Migrationen werden für " + mapper.getClass().getSimpleName() + " nicht unterstützt.");
+    }
+
+    /**
+     * Gibt die Labels zurück, mit denen das Layout RDF-Terme als Knoten ablegt.
+     *
+     * @return Die Labels.
+     */
+    abstract Set<String> labels();
+
+    /**
+     * Gibt die Knoten zurück, deren ausgehende Tripel das Layout als Quelle liefert.
+     *
+     * @return Die Shards.
+     */
+    abstract List<Shard> shards();
+
+    /**
+     * Zählt die Tripel und Terme des Layouts, z.B. für die Planung der Constraints des Ziels.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @return Die Kennzahlen.
+     */
+    DataProfile profile(Neo4jClient neo4jClient) {
+        List<Record> records = neo4jClient.readFromNeo4j(profileQuery(), Map.of());
+        Record record = records.getFirst();
+        return new DataProfile(record.get("statements").asLong(), record.get("uriResources").asLong(),
+                record.get("blankNodes").asLong(), record.get("literals").asLong());
+    }
+
+    /**
+     * Gibt das Query zurück, das die Spalten {@code statements}, {@code uriResources}, {@code blankNodes}
+     * und {@code literals} für {@link #profile(Neo4jClient)} liefert.
+     *
+     * @return Das Cypher-Query.
+     */
+    abstract String profileQuery();
+
+    /**
+     * Liest die Tripel eines Subjekt-Knotens {@code s} mit einer Art von Objekten.
+     *
+     * @param shard   Der Shard des Subjekt-Knotens.
+     * @param subject Die Art des Subjekts.
+     * @param object  Die Art des Objekts.
+     * @return Die Cypher-Klauseln, die mit {@code WITH} und den {@link #TRIPLE_VARIABLES} enden.
+     */
+    abstract String read(Shard shard, TermKind subject, TermKind object);
+
+    /**
+     * Entfernt ein gelesenes Tripel aus dem Layout der Quelle, nachdem es im Ziel geschrieben wurde.
+     * Die Quelle wird dadurch abgebaut, sodass eine abgebrochene Migration mit den verbliebenen Tripeln fortgesetzt werden kann.
+     *
+     * @param object Die Art des Objekts.
+     * @return Die schreibende Cypher-Klausel über {@code s}, {@code r} und {@code p}.
+     */
+    String remove(TermKind object) {
+        return "DELETE r";
+    }
+
+    /**
+     * Schreibt ein Tripel im Layout des Ziels.
+     *
+     * @param subject Die Art des Subjekts.
+     * @param object  Die Art des Objekts.
+     * @return Die schreibenden Cypher-Klauseln über den {@link #TRIPLE_VARIABLES}.
+     */
+    abstract String write(TermKind subject, TermKind object);
+
+    /**
+     * Gibt die Statements zurück, mit denen die Quelle nach dem Lesen aller Tripel ein Label bereinigt, das auch das
+     * Ziel verwendet, z.B. indem sie eigene Properties der Knoten entfernt. Jedes Statement erhält den Parameter
+     * {@code $batchSize}.
+     *
+     * @param label Das gemeinsame Label.
+     * @return Die Statements.
+     */
+    List<String> cleanShared(String label) {
+        return List.of();
+    }
+
+    /**
+     * Gibt die Statements zurück, mit denen das Ziel nach dem Schreiben aller Tripel abgeleitete Strukturen anlegt.
+     * Jedes Statement erhält den Parameter {@code $batchSize}.
+     *
+     * @return Die Statements.
+     */
+    List<String> finish() {
+        return List.of();
+    }
+
+    /**
+     * Mergt einen Ressourcen- oder Blank-Node-Knoten über seinen eindeutigen Schlüssel, wie RPT Generic und PGT Simple ihn ablegen.
+     *
+     * @param variable Die Variable des Knotens.
+     * @param kind     Die Art des Terms.
+     * @param key      Der Cypher-Ausdruck des kodierten Terms.
+     * @return Die MERGE-Klausel.
+     */
+    static String mergeResourceNode(String variable, TermKind kind, String key) {
+        return kind == TermKind.BLANK_NODE
+                ? "MERGE (" + variable + ":BlankNode {id: " + key + "}) "
+                : "MERGE (" + variable + ":Resource {iri: " + key + "}) ";
+    }
+
+    /**
+     * Zerlegt eine Literal-Kodierung {@code wert^^datentyp} am letzten Trennzeichen in Wert und Datentyp.
+     *
+     * @param encoded Die Variable mit der Kodierung.
+     * @return Die Ausdrücke für {@code lv} und {@code lt}, durch Komma getrennt.
+     */
+    static String splitLiteral(String encoded) {
+        String datatype = "last(split(" + encoded + ", '^^'))";
+        return "substring(" + encoded + ", 0, size(" + encoded + ") - size(" + datatype + ") - 2) AS lv, " + datatype + " AS lt";
+    }
+}
@@ -0,0 +1,14 @@
+package rdfpgmapper.mapper.migration;
+
+/**
+ * Fortschritt einer {@link LayoutMigration}, gemeldet nach jedem Abschnitt von Subjekt-Knoten.
+ *
+ * @param shard    Das Label der Subjekt-Knoten, die gerade migriert werden.
+ * @param subjects Die Anzahl der bereits migrierten Subjekt-Knoten dieses Labels.
+ * @param total    Die Anzahl aller Subjekt-Knoten dieses Labels.
+ * @param triples  Die Anzahl der insgesamt migrierten Tripel.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record MigrationProgress(String shard, long subjects, long total, long triples) {
+}
@@ -0,0 +1,12 @@
+package rdfpgmapper.mapper.migration;
+
+/**
+ * Ergebnis einer {@link LayoutMigration}.
+ *
+ * @param triples Die Anzahl der migrierten Tripel.
+ * @param success true, wenn alle Tripel migriert und die Quelle bereinigt wurde.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record MigrationResult(long triples, boolean success) {
+}
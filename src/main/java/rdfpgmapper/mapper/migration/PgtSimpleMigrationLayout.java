@@ -0,0 +1,120 @@
+package rdfpgmapper.mapper.migration;
+
+import org.apache.jena.vocabulary.RDFS;
+import rdfpgmapper.utils.Helper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Das Layout von PGT Simple bei einer Migration: Ressourcen und Blank Nodes sind Knoten, Relationen tragen das Prädikat
+ * als Typ, und Literale sind Properties der Subjekt-Knoten in der Kodierung {@code wert^^datentyp}. Dynamische
+ * Relationstypen und Property-Schlüssel werden über APOC geschrieben. Die Labels aus rdf:type und der Klassen-Hierarchie
+ * werden erst nach allen Tripeln gesetzt, da die rdfs:subClassOf-Tripel dann vollständig im Ziel-Layout vorliegen.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+class PgtSimpleMigrationLayout extends MigrationLayout {
+
+    /**
+     * Die Property-Schlüssel eines Knotens {@code s}, die Literale enthalten, wie beim Export von PGT Simple.
+     */
+    private static final String LITERAL_KEYS = "[k IN keys(s) WHERE NOT k IN ['iri', 'id'] AND NOT k STARTS WITH '__']";
+
+    private final Map<String, Object> nsPrefixUri;
+
+    /**
+     * Konstruktor für das PgtSimpleMigrationLayout.
+     *
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs aus dem {@code PrefixUriNode}.
+     */
+    PgtSimpleMigrationLayout(Map<String, Object> nsPrefixUri) {
+        this.nsPrefixUri = nsPrefixUri;
+    }
+
+    @Override
+    Set<String> labels() {
+        return Set.of("Resource", "BlankNode");
+    }
+
+    @Override
+    List<Shard> shards() {
+        return List.of(new Shard("Resource", "iri", List.of(TermKind.RESOURCE)),
+                new Shard("BlankNode", "id", List.of(TermKind.BLANK_NODE)));
+    }
+
+    @Override
+    String profileQuery() {
+        return "CALL { MATCH (:Resource|BlankNode)-[r]->(:Resource|BlankNode) RETURN count(r) AS relationships } " +
+                "CALL { MATCH (s:Resource|BlankNode) RETURN sum(size(" + LITERAL_KEYS + ")) AS literals } " +
+                "CALL { MATCH (n:Resource) RETURN count(n) AS uriResources } " +
+                "CALL { MATCH (n:BlankNode) RETURN count(n) AS blankNodes } " +
+                "RETURN relationships + literals AS statements, uriResources, blankNodes, literals";
+    }
+
+    /**
+     * Relationen vom Typ {@code ObjectProperty} und {@code DatatypeProperty} gehören zu RPT Generic, das dieselben
+     * Knoten verwendet, und werden bei einer Migration dorthin nicht erneut gelesen.
+     */
+    @Override
+    String read(Shard shard, TermKind subject, TermKind object) {
+        String subjectKey = "s." + shard.key() + " AS sk";
+        return switch (object) {
+            case LITERAL -> "UNWIND " + LITERAL_KEYS + " AS p " +
+                    "WITH s, null AS r, " + subjectKey + ", p, null AS ok, toString(s[p]) AS literal " +
+                    "WITH s, r, sk, p, ok, " + splitLiteral("literal") + " ";
+            case RESOURCE -> "MATCH (s)-[r]->(o:Resource) WHERE NOT type(r) IN ['ObjectProperty', 'DatatypeProperty'] " +
+                    "WITH s, r, " + subjectKey + ", type(r) AS p, o.iri AS ok, null AS lv, null AS lt ";
+            case BLANK_NODE -> "MATCH (s)-[r]->(o:BlankNode) WHERE NOT type(r) IN ['ObjectProperty', 'DatatypeProperty'] " +
+                    "WITH s, r, " + subjectKey + ", type(r) AS p, o.id AS ok, null AS lv, null AS lt ";
+        };
+    }
+
+    @Override
+    String remove(TermKind object) {
+        if (object == TermKind.LITERAL) {
+            return "SET s += apoc.map.fromPairs([[p, null]])";
+        }
+        return super.remove(object);
+    }
+
+    @Override
+    String write(TermKind subject, TermKind object) {
+        if (object == TermKind.LITERAL) {
+            return mergeResourceNode("a", subject, "sk") +
+                    "SET a += apoc.map.fromPairs([[p, lv + '^^' + lt]]) ";
+        }
+        return mergeResourceNode("a", subject, "sk") +
+                mergeResourceNode("b", object, "ok") +
+                "WITH s, r, p, a, b CALL apoc.merge.relationship(a, p, {}, {}, b, {}) YIELD rel ";
+    }
+
+    /**
+     * Entfernt die Labels der Klassen, sodass nur {@code Resource} bzw. {@code BlankNode} bleibt.
+     */
+    @Override
+    List<String> cleanShared(String label) {
+        return List.of("MATCH (n:" + label + ") WHERE size(labels(n)) > 1 " +
+                "CALL { WITH n CALL apoc.create.removeLabels(n, [l IN labels(n) WHERE l <> '" + label + "']) YIELD node " +
+                "RETURN count(node) AS cleaned } IN TRANSACTIONS OF $batchSize ROWS " +
+                "RETURN sum(cleaned) AS cleaned");
+    }
+
+    /**
+     * Setzt wie beim Import das Label jedes Typs eines Subjekts und die Labels aller Oberklassen.
+     */
+    @Override
+    List<String> finish() {
+        String subClassOf = Helper.escapeName(Helper.getPrefixedName(RDFS.subClassOf.getURI(), nsPrefixUri));
+        return List.of("MATCH (s)-[:" + RDF_TYPE + "]->(:Resource) WHERE s:Resource OR s:BlankNode " +
+                "WITH DISTINCT s " +
+                "CALL { WITH s " +
+                "MATCH (s)-[:" + RDF_TYPE + "]->(:Resource)-[:" + subClassOf + "*0..]->(c:Resource) " +
+                "WITH s, collect(DISTINCT c.iri) AS classes " +
+                "CALL apoc.create.addLabels(s, classes) YIELD node " +
+                "RETURN count(node) AS labelled } IN TRANSACTIONS OF $batchSize ROWS " +
+                "RETURN sum(labelled) AS labelled");
+    }
+}
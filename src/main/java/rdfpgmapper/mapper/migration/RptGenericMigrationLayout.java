@@ -0,0 +1,93 @@
+package rdfpgmapper.mapper.migration;
+
+import rdfpgmapper.mapper.rpt.LiteralKeying;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Das Layout von RPT Generic bei einer Migration: Ressourcen, Blank Nodes und Literale sind eigene Knoten,
+ * Tripel sind {@code ObjectProperty}- bzw. {@code DatatypeProperty}-Relationen mit dem Prädikat in {@code type}.
+ * Gelesen werden Literale in beiden Schlüssel-Modi; geschrieben werden sie nur über {@code value} und {@code type},
+ * da der Hash-Schlüssel nicht in Cypher berechnet werden kann.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+class RptGenericMigrationLayout extends MigrationLayout {
+
+    private final LiteralKeying literalKeying;
+
+    /**
+     * Konstruktor für das RptGenericMigrationLayout.
+     *
+     * @param literalKeying Der Schlüssel der Literal-Knoten des Mappers.
+     */
+    RptGenericMigrationLayout(LiteralKeying literalKeying) {
+        this.literalKeying = literalKeying;
+    }
+
+    @Override
+    Set<String> labels() {
+        return Set.of("Resource", "BlankNode", "Literal");
+    }
+
+    @Override
+    List<Shard> shards() {
+        return List.of(new Shard("Resource", "iri", List.of(TermKind.RESOURCE)),
+                new Shard("BlankNode", "id", List.of(TermKind.BLANK_NODE)));
+    }
+
+    @Override
+    String profileQuery() {
+        return "CALL { MATCH ()-[r:ObjectProperty|DatatypeProperty]->() RETURN count(r) AS statements } " +
+                "CALL { MATCH (n:Resource) RETURN count(n) AS uriResources } " +
+                "CALL { MATCH (n:BlankNode) RETURN count(n) AS blankNodes } " +
+                "CALL { MATCH (n:Literal) RETURN count(n) AS literals } " +
+                "RETURN statements, uriResources, blankNodes, literals";
+    }
+
+    @Override
+    String read(Shard shard, TermKind subject, TermKind object) {
+        String subjectKey = "s." + shard.key() + " AS sk";
+        return switch (object) {
+            case LITERAL -> "MATCH (s)-[r:DatatypeProperty]->(o:Literal) " +
+                    "WITH s, r, " + subjectKey + ", r.type AS p, null AS ok, o.value AS lv, o.type AS lt ";
+            case RESOURCE -> "MATCH (s)-[r:ObjectProperty]->(o:Resource) " +
+                    "WITH s, r, " + subjectKey + ", r.type AS p, o.iri AS ok, null AS lv, null AS lt ";
+            case BLANK_NODE -> "MATCH (s)-[r:ObjectProperty]->(o:BlankNode) " +
+                    "WITH s, r, " + subjectKey + ", r.type AS p, o.id AS ok, null AS lv, null AS lt ";
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException wenn Literal-Knoten über einen Hash identifiziert werden.
+     */
+    @Override
+    String write(TermKind subject, TermKind object) {
+        if (literalKeying != LiteralKeying.VALUE) {
+            throw new IllegalArgumentException("Migrationen nach RptGeneric werden nur mit dem Literal-Schlüssel VALUE unterstützt.");
+        }
+        if (object == TermKind.LITERAL) {
+            return mergeResourceNode("a", subject, "sk") +
+                    "MERGE (b:Literal {value: replace(lv, \"'\", '_'), type: lt}) " +
+                    "MERGE (a)-[:DatatypeProperty {type: p}]->(b) ";
+        }
+        return mergeResourceNode("a", subject, "sk") +
+                mergeResourceNode("b", object, "ok") +
+                "MERGE (a)-[:ObjectProperty {type: p}]->(b) " +
+                "SET a.type = CASE WHEN p = '" + RDF_TYPE + "' THEN ok ELSE a.type END ";
+    }
+
+    /**
+     * Entfernt die Property {@code type}, in der RPT Generic den rdf:type eines Subjekts zusätzlich ablegt.
+     */
+    @Override
+    List<String> cleanShared(String label) {
+        if (label.equals("Literal")) {
+            return List.of();
+        }
+        return List.of("MATCH (n:" + label + ") WHERE n.type IS NOT NULL " +
+                "CALL { WITH n REMOVE n.type } IN TRANSACTIONS OF $batchSize ROWS");
+    }
+}
@@ -0,0 +1,63 @@
+package rdfpgmapper.mapper.migration;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Das Layout von RPT Simple bei einer Migration: Alle Terme sind {@code Node}-Knoten mit dem Schlüssel {@code name},
+ * Literale in der Form {@code wert^^datentyp}, und jedes Tripel ist eine {@code Property}-Relation.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+class RptSimpleMigrationLayout extends MigrationLayout {
+
+    @Override
+    Set<String> labels() {
+        return Set.of("Node");
+    }
+
+    @Override
+    List<Shard> shards() {
+        return List.of(new Shard("Node", "name", List.of(TermKind.RESOURCE, TermKind.BLANK_NODE)));
+    }
+
+    @Override
+    String profileQuery() {
+        return "CALL { MATCH ()-[r:Property]->() RETURN count(r) AS statements } " +
+                "OPTIONAL MATCH (n:Node) " +
+                "RETURN statements, " +
+                "count(CASE WHEN " + condition("n", TermKind.RESOURCE) + " THEN 1 END) AS uriResources, " +
+                "count(CASE WHEN " + condition("n", TermKind.BLANK_NODE) + " THEN 1 END) AS blankNodes, " +
+                "count(CASE WHEN " + condition("n", TermKind.LITERAL) + " THEN 1 END) AS literals";
+    }
+
+    @Override
+    String read(Shard shard, TermKind subject, TermKind object) {
+        String triple = "MATCH (s)-[r:Property]->(o:Node) WHERE " + condition("s", subject) + " AND " + condition("o", object) + " " +
+                "WITH s, r, s.name AS sk, r.name AS p, ";
+        if (object == TermKind.LITERAL) {
+            return triple + "null AS ok, " + splitLiteral("o.name") + " ";
+        }
+        return triple + "o.name AS ok, null AS lv, null AS lt ";
+    }
+
+    @Override
+    String write(TermKind subject, TermKind object) {
+        String objectName = object == TermKind.LITERAL ? "replace(lv, \"'\", '_') + '^^' + lt" : "ok";
+        return "MERGE (a:Node {name: sk}) " +
+                "MERGE (b:Node {name: " + objectName + "}) " +
+                "MERGE (a)-[:Property {name: p}]->(b) ";
+    }
+
+    /**
+     * Unterscheidet die Art eines Terms wie der Export von RPT Simple an seinem Namen.
+     */
+    private static String condition(String variable, TermKind kind) {
+        return switch (kind) {
+            case BLANK_NODE -> variable + ".name STARTS WITH '_:'";
+            case LITERAL -> variable + ".name CONTAINS '^^'";
+            case RESOURCE -> "NOT (" + variable + ".name STARTS WITH '_:' OR " + variable + ".name CONTAINS '^^')";
+        };
+    }
+}
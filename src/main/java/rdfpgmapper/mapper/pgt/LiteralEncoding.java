@@ -0,0 +1,23 @@
+package rdfpgmapper.mapper.pgt;
+
+/**
+ * Legt fest, wie die PGT-Mapper Literale als Knoten-Properties ablegen.
+ * Beim Export muss dieselbe Kodierung eingestellt sein wie beim Import.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public enum LiteralEncoding {
+
+    /**
+     * Jedes Literal wird als Zeichenkette {@code 'wert^^präfix_datentyp'} abgelegt (bisheriges Verhalten).
+     */
+    STRING,
+
+    /**
+     * XSD-Datentypen werden auf native Neo4j-Typen abgebildet (Integer, Float, Boolean, Date, DateTime,
+     * Duration und Point für WKT-Punkte); abweichende Datentypen und Sprach-Tags werden in der
+     * Property {@value NativeLiterals#TYPES_PROPERTY} festgehalten. Siehe {@link NativeLiterals}.
+     */
+    NATIVE
+}
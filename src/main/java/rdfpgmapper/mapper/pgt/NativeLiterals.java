@@ -0,0 +1,386 @@
+package rdfpgmapper.mapper.pgt;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.vocabulary.RDF;
+import org.neo4j.driver.types.IsoDuration;
+import org.neo4j.driver.types.Point;
+import rdfpgmapper.utils.Helper;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.Duration;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Kodierung von Literalen als native Neo4j-Werte für {@link LiteralEncoding#NATIVE}.
+ * Ein Literal wird nur dann nativ abgelegt, wenn sich seine lexikalische Form aus dem nativen Wert exakt
+ * wiederherstellen lässt; andernfalls wird es als Zeichenkette gespeichert. Jeder Datentyp, der nicht der
+ * Standard-Datentyp des gespeicherten Werts ist, sowie jedes Sprach-Tag wird als Eintrag {@code 'property datentyp'}
+ * bzw. {@code 'property @sprache'} im Array {@value #TYPES_PROPERTY} des Knotens festgehalten.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public final class NativeLiterals {
+
+    /**
+     * Name des Arrays mit den abweichenden Datentypen und Sprach-Tags eines Knotens.
+     */
+    public static final String TYPES_PROPERTY = "__types";
+
+    private static final String WKT_LITERAL = "http://www.opengis.net/ont/geosparql#wktLiteral";
+
+    private static final Set<String> INTEGER_TYPES = Set.of(
+            XSDDatatype.XSDinteger.getURI(), XSDDatatype.XSDlong.getURI(), XSDDatatype.XSDint.getURI(),
+            XSDDatatype.XSDshort.getURI(), XSDDatatype.XSDbyte.getURI(), XSDDatatype.XSDnonNegativeInteger.getURI(),
+            XSDDatatype.XSDpositiveInteger.getURI(), XSDDatatype.XSDnonPositiveInteger.getURI(),
+            XSDDatatype.XSDnegativeInteger.getURI(), XSDDatatype.XSDunsignedLong.getURI(),
+            XSDDatatype.XSDunsignedInt.getURI(), XSDDatatype.XSDunsignedShort.getURI(), XSDDatatype.XSDunsignedByte.getURI());
+
+    private static final Set<String> FLOAT_TYPES = Set.of(
+            XSDDatatype.XSDdouble.getURI(), XSDDatatype.XSDfloat.getURI(), XSDDatatype.XSDdecimal.getURI());
+
+    private static final Pattern WKT_POINT = Pattern.compile("POINT\\((\\S+) (\\S+)\\)");
+
+    private static final DatatypeFactory DATATYPE_FACTORY;
+
+    static {
+        try {
+            DATATYPE_FACTORY = DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private NativeLiterals() {
+    }
+
+    /**
+     * Ein kodiertes Literal.
+     *
+     * @param value     Der Wert als Cypher-Ausdruck.
+     * @param sideEntry Der Datentyp als Präfix-Name bzw. das Sprach-Tag mit führendem {@code @},
+     *                  oder null für den Standard-Datentyp des Werts.
+     */
+    public record Encoded(String value, String sideEntry) {
+    }
+
+    /**
+     * Kodiert ein Literal als nativen Cypher-Wert.
+     *
+     * @param literal Das Literal.
+     * @param model   Das RDF-Modell, dessen Namensräume die Datentypen präfixieren.
+     * @return Der Cypher-Ausdruck und gegebenenfalls der Eintrag für {@value #TYPES_PROPERTY}.
+     */
+    public static Encoded encode(Literal literal, Model model) {
+        String lexical = literal.getLexicalForm();
+        String datatype = literal.getDatatypeURI();
+
+        if (!literal.getLanguage().isEmpty()) {
+            return new Encoded(quote(lexical), "@" + literal.getLanguage());
+        }
+
+        String value = nativeValue(lexical, datatype);
+        if (value == null) {
+            value = quote(lexical);
+        }
+        return new Encoded(value, datatype.equals(defaultDatatype(value)) ? null : Helper.getPrefixedName(datatype, model));
+    }
+
+    /**
+     * Erstellt die Zuweisungen für eine Literal-Property und den zugehörigen Eintrag in {@value #TYPES_PROPERTY}.
+     * Ein vorhandener Eintrag der Property wird ersetzt bzw. entfernt; das Array wird nur angelegt, wenn es benötigt wird.
+     *
+     * @param variable Die Variable des Knotens.
+     * @param property Der Name der Property.
+     * @param encoded  Das kodierte Literal.
+     * @return Die Zuweisungen für eine SET-Klausel.
+     */
+    public static String set(String variable, String property, Encoded encoded) {
+        String assignment = variable + "." + property + " = " + encoded.value() + ", ";
+        if (encoded.sideEntry() == null) {
+            return assignment + removeSideEntry(variable, property);
+        }
+        return assignment + variable + "." + TYPES_PROPERTY + " = " + otherEntries(variable, property)
+                + " + ['" + Helper.escapeString(property + " " + encoded.sideEntry()) + "']";
+    }
+
+    /**
+     * Erstellt eine Zuweisung, die den Eintrag einer Property aus {@value #TYPES_PROPERTY} entfernt.
+     *
+     * @param variable Die Variable des Knotens.
+     * @param property Der Name der Property.
+     * @return Die Zuweisung für eine SET-Klausel.
+     */
+    public static String removeSideEntry(String variable, String property) {
+        return variable + "." + TYPES_PROPERTY + " = CASE WHEN " + variable + "." + TYPES_PROPERTY + " IS NULL THEN null ELSE "
+                + otherEntries(variable, property) + " END";
+    }
+
+    /**
+     * Erstellt einen Cypher-Ausdruck, der den Eintrag einer Property aus {@value #TYPES_PROPERTY} liefert.
+     *
+     * @param variable Die Variable des Knotens.
+     * @param key      Der Name der Property als Cypher-Ausdruck.
+     * @return Der Ausdruck; null, wenn kein Eintrag existiert.
+     */
+    public static String sideEntryExpression(String variable, String key) {
+        return "[t IN coalesce(" + variable + "." + TYPES_PROPERTY + ", []) WHERE t STARTS WITH " + key + " + ' ' | substring(t, size(" + key + ") + 1)][0]";
+    }
+
+    /**
+     * Erstellt einen Cypher-Ausdruck, der den Präfix-Namen des Datentyps einer Literal-Property liefert,
+     * z.B. für Datentyp-Filter beim Export und die Datentyp-Prüfung in Triggern.
+     *
+     * @param variable    Die Variable des Knotens.
+     * @param key         Der Name der Property als Cypher-Ausdruck.
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @return Der Cypher-Ausdruck.
+     */
+    public static String datatypeExpression(String variable, String key, Map<String, Object> nsPrefixUri) {
+        String sideEntry = sideEntryExpression(variable, key);
+        return "coalesce(CASE WHEN " + sideEntry + " STARTS WITH '@' THEN '" + prefixed(RDF.dtLangString.getURI(), nsPrefixUri) + "' ELSE " + sideEntry + " END, " +
+                "CASE valueType(" + variable + "[" + key + "]) " +
+                "WHEN 'INTEGER NOT NULL' THEN '" + prefixed(XSDDatatype.XSDinteger.getURI(), nsPrefixUri) + "' " +
+                "WHEN 'FLOAT NOT NULL' THEN '" + prefixed(XSDDatatype.XSDdouble.getURI(), nsPrefixUri) + "' " +
+                "WHEN 'BOOLEAN NOT NULL' THEN '" + prefixed(XSDDatatype.XSDboolean.getURI(), nsPrefixUri) + "' " +
+                "WHEN 'DATE NOT NULL' THEN '" + prefixed(XSDDatatype.XSDdate.getURI(), nsPrefixUri) + "' " +
+                "WHEN 'ZONED DATETIME NOT NULL' THEN '" + prefixed(XSDDatatype.XSDdateTime.getURI(), nsPrefixUri) + "' " +
+                "WHEN 'LOCAL DATETIME NOT NULL' THEN '" + prefixed(XSDDatatype.XSDdateTime.getURI(), nsPrefixUri) + "' " +
+                "WHEN 'DURATION NOT NULL' THEN '" + prefixed(XSDDatatype.XSDduration.getURI(), nsPrefixUri) + "' " +
+                "WHEN 'POINT NOT NULL' THEN '" + prefixed(WKT_LITERAL, nsPrefixUri) + "' " +
+                "ELSE '" + prefixed(XSDDatatype.XSDstring.getURI(), nsPrefixUri) + "' END)";
+    }
+
+    /**
+     * Stellt ein Literal aus einem nativen Wert und dem Eintrag in {@value #TYPES_PROPERTY} wieder her.
+     *
+     * @param model       Das Modell, in dem das Literal erstellt wird.
+     * @param value       Der vom Treiber gelesene Wert.
+     * @param sideEntry   Der Eintrag der Property oder null.
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @return Das Literal.
+     */
+    public static Literal decode(Model model, Object value, String sideEntry, Map<String, Object> nsPrefixUri) {
+        String lexical = lexicalForm(value);
+        if (sideEntry == null) {
+            return model.createTypedLiteral(lexical, defaultDatatype(value));
+        }
+        if (sideEntry.startsWith("@")) {
+            return model.createLiteral(lexical, sideEntry.substring(1));
+        }
+        return model.createTypedLiteral(lexical, Helper.getUri(sideEntry, nsPrefixUri));
+    }
+
+    /**
+     * Bildet eine lexikalische Form auf einen nativen Cypher-Wert ab, sofern der Datentyp unterstützt wird
+     * und die lexikalische Form kanonisch ist.
+     */
+    private static String nativeValue(String lexical, String datatype) {
+        try {
+            if (INTEGER_TYPES.contains(datatype)) {
+                BigInteger integer = new BigInteger(lexical);
+                return integer.bitLength() < 64 && integer.toString().equals(lexical) ? lexical : null;
+            }
+            if (FLOAT_TYPES.contains(datatype)) {
+                double number = Double.parseDouble(lexical);
+                return Double.isFinite(number) && Double.toString(number).equals(lexical) ? lexical : null;
+            }
+            if (datatype.equals(XSDDatatype.XSDboolean.getURI())) {
+                return lexical.equals("true") || lexical.equals("false") ? lexical : null;
+            }
+            if (datatype.equals(XSDDatatype.XSDdate.getURI())) {
+                return LocalDate.parse(lexical).toString().equals(lexical) ? "date('" + lexical + "')" : null;
+            }
+            if (datatype.equals(XSDDatatype.XSDdateTime.getURI())) {
+                try {
+                    OffsetDateTime dateTime = OffsetDateTime.parse(lexical);
+                    return format(dateTime).equals(lexical) ? "datetime('" + lexical + "')" : null;
+                } catch (DateTimeParseException e) {
+                    LocalDateTime dateTime = LocalDateTime.parse(lexical);
+                    return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime).equals(lexical) ? "localdatetime('" + lexical + "')" : null;
+                }
+            }
+            if (datatype.equals(XSDDatatype.XSDduration.getURI())) {
+                return durationValue(lexical);
+            }
+            if (datatype.equals(WKT_LITERAL)) {
+                return pointValue(lexical);
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static String durationValue(String lexical) {
+        Duration duration;
+        try {
+            duration = DATATYPE_FACTORY.newDuration(lexical);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (duration.getSign() < 0) {
+            return null;
+        }
+        BigDecimal secondField = (BigDecimal) duration.getField(DatatypeConstants.SECONDS);
+        BigDecimal fraction = secondField == null ? BigDecimal.ZERO : secondField.remainder(BigDecimal.ONE);
+        long months = duration.getYears() * 12L + duration.getMonths();
+        long days = duration.getDays();
+        long seconds = duration.getHours() * 3600L + duration.getMinutes() * 60L + duration.getSeconds();
+        int nanos = fraction.movePointRight(9).intValue();
+        if (!formatDuration(months, days, seconds, nanos).equals(lexical)) {
+            return null;
+        }
+        return "duration({months: " + months + ", days: " + days + ", seconds: " + seconds + ", nanoseconds: " + nanos + "})";
+    }
+
+    private static String pointValue(String lexical) {
+        Matcher matcher = WKT_POINT.matcher(lexical);
+        if (!matcher.matches()) {
+            return null;
+        }
+        double longitude = Double.parseDouble(matcher.group(1));
+        double latitude = Double.parseDouble(matcher.group(2));
+        if (Math.abs(longitude) > 180 || Math.abs(latitude) > 90 || !formatPoint(longitude, latitude).equals(lexical)) {
+            return null;
+        }
+        return "point({longitude: " + longitude + ", latitude: " + latitude + "})";
+    }
+
+    private static String lexicalForm(Object value) {
+        if (value instanceof ZonedDateTime dateTime) {
+            return format(dateTime.toOffsetDateTime());
+        }
+        if (value instanceof OffsetDateTime dateTime) {
+            return format(dateTime);
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+        }
+        if (value instanceof IsoDuration duration) {
+            return formatDuration(duration.months(), duration.days(), duration.seconds(), duration.nanoseconds());
+        }
+        if (value instanceof Point point) {
+            return formatPoint(point.x(), point.y());
+        }
+        return value.toString();
+    }
+
+    /**
+     * Gibt den Standard-Datentyp eines vom Treiber gelesenen Werts zurück, für den kein Eintrag
+     * in {@value #TYPES_PROPERTY} nötig ist.
+     */
+    private static String defaultDatatype(Object value) {
+        if (value instanceof Long) {
+            return XSDDatatype.XSDinteger.getURI();
+        }
+        if (value instanceof Double) {
+            return XSDDatatype.XSDdouble.getURI();
+        }
+        if (value instanceof Boolean) {
+            return XSDDatatype.XSDboolean.getURI();
+        }
+        if (value instanceof LocalDate) {
+            return XSDDatatype.XSDdate.getURI();
+        }
+        if (value instanceof ZonedDateTime || value instanceof OffsetDateTime || value instanceof LocalDateTime) {
+            return XSDDatatype.XSDdateTime.getURI();
+        }
+        if (value instanceof IsoDuration) {
+            return XSDDatatype.XSDduration.getURI();
+        }
+        if (value instanceof Point) {
+            return WKT_LITERAL;
+        }
+        return XSDDatatype.XSDstring.getURI();
+    }
+
+    /**
+     * Gibt den Standard-Datentyp des Werts eines beim Import erzeugten Cypher-Ausdrucks zurück.
+     */
+    private static String defaultDatatype(String expression) {
+        if (expression.startsWith("'")) {
+            return XSDDatatype.XSDstring.getURI();
+        }
+        if (expression.startsWith("date(")) {
+            return XSDDatatype.XSDdate.getURI();
+        }
+        if (expression.startsWith("datetime(") || expression.startsWith("localdatetime(")) {
+            return XSDDatatype.XSDdateTime.getURI();
+        }
+        if (expression.startsWith("duration(")) {
+            return XSDDatatype.XSDduration.getURI();
+        }
+        if (expression.startsWith("point(")) {
+            return WKT_LITERAL;
+        }
+        if (expression.equals("true") || expression.equals("false")) {
+            return XSDDatatype.XSDboolean.getURI();
+        }
+        if (expression.contains(".") || expression.contains("E")) {
+            return XSDDatatype.XSDdouble.getURI();
+        }
+        return XSDDatatype.XSDinteger.getURI();
+    }
+
+    private static String format(OffsetDateTime dateTime) {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime);
+    }
+
+    private static String formatDuration(long months, long days, long seconds, int nanos) {
+        StringBuilder lexical = new StringBuilder("P");
+        if (months / 12 != 0) {
+            lexical.append(months / 12).append('Y');
+        }
+        if (months % 12 != 0) {
+            lexical.append(months % 12).append('M');
+        }
+        if (days != 0) {
+            lexical.append(days).append('D');
+        }
+        if (seconds != 0 || nanos != 0 || lexical.length() == 1) {
+            lexical.append('T');
+            if (seconds / 3600 != 0) {
+                lexical.append(seconds / 3600).append('H');
+            }
+            if (seconds % 3600 / 60 != 0) {
+                lexical.append(seconds % 3600 / 60).append('M');
+            }
+            if (seconds % 60 != 0 || nanos != 0 || lexical.charAt(lexical.length() - 1) == 'T') {
+                lexical.append(BigDecimal.valueOf(seconds % 60).add(BigDecimal.valueOf(nanos, 9)).stripTrailingZeros().toPlainString()).append('S');
+            }
+        }
+        return lexical.toString();
+    }
+
+    private static String formatPoint(double longitude, double latitude) {
+        return "POINT(" + longitude + " " + latitude + ")";
+    }
+
+    private static String otherEntries(String variable, String property) {
+        return "[t IN coalesce(" + variable + "." + TYPES_PROPERTY + ", []) WHERE NOT t STARTS WITH '" + Helper.escapeString(property) + " ']";
+    }
+
+    private static String quote(String value) {
+        return "'" + Helper.escapeString(value) + "'";
+    }
+
+    private static String prefixed(String uri, Map<String, Object> nsPrefixUri) {
+        return Helper.escapeString(Helper.getPrefixedName(uri, nsPrefixUri));
+    }
+}
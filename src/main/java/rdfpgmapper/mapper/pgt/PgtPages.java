@@ -0,0 +1,170 @@
+package rdfpgmapper.mapper.pgt;
+
+import org.apache.jena.rdf.model.AnonId;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.neo4j.driver.Record;
+import rdfpgmapper.mapper.changelog.ChangeLog;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.mapper.export.ExportPage;
+import rdfpgmapper.neo4j.Neo4jClient;
+import rdfpgmapper.utils.Helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Liest für {@link PgtSimple} und {@link rdfpgmapper.mapper.pgt.pgtcomplete.PgtComplete} seitenweise RDF aus dem
+ * gemeinsamen PGT-Layout: Ressourcen und Blank Nodes als Knoten, Literale als Properties und Objekt-Beziehungen als
+ * Relationen.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public final class PgtPages {
+
+    private PgtPages() {
+    }
+
+    /**
+     * Liest einen Abschnitt von Ressourcen bzw. Blank Nodes, geordnet nach IRI bzw. ID,
+     * samt ihrer Literal-Properties und ausgehenden Relationen.
+     *
+     * @param neo4jClient     Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @param literalEncoding Die Kodierung, mit der die Literale gespeichert wurden.
+     * @param shard           Der Name des Shards ("Resource" oder "BlankNode").
+     * @param afterKey        Der zuletzt gelesene Schlüssel.
+     * @param pageSize        Die maximale Anzahl an Subjekt-Knoten pro Abschnitt.
+     * @param filter          Der bereits aufgelöste Export-Filter.
+     * @param nsPrefixUri     Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @return Der gelesene Abschnitt.
+     */
+    public static ExportPage read(Neo4jClient neo4jClient, LiteralEncoding literalEncoding, String shard, String afterKey,
+                                  int pageSize, ExportFilter filter, Map<String, Object> nsPrefixUri) {
+        Model model = ModelFactory.createDefaultModel();
+
+        if (shard.equals("BlankNode") && filter.excludesBlankNodes()) {
+            return new ExportPage(model, null);
+        }
+
+        String key = shard.equals("BlankNode") ? "id" : "iri";
+
+        List<String> subjectConditions = new ArrayList<>(List.of("n." + key + " > $after"));
+        if (!filter.getNamespaces().isEmpty()) {
+            subjectConditions.add("any(ns IN $namespaces WHERE n.iri STARTS WITH ns)");
+        }
+        if (!filter.getClasses().isEmpty()) {
+            subjectConditions.add("(" + filter.getClasses().stream()
+                    .map(cls -> "n:" + Helper.escapeName(cls))
+                    .collect(Collectors.joining(" OR ")) + ")");
+        }
+        if (filter.hasSinceBatch()) {
+            subjectConditions.add("n." + ChangeLog.BATCH_PROPERTY + " > $since");
+        }
+
+        String relationshipTypes = filter.getPredicates().stream()
+                .map(Helper::escapeName)
+                .collect(Collectors.joining("|"));
+
+        List<String> relationshipConditions = new ArrayList<>();
+        if (filter.hasSinceBatch()) {
+            relationshipConditions.add("r." + ChangeLog.BATCH_PROPERTY + " > $since AND r." + ChangeLog.BATCH_PROPERTY + " <= $until");
+        }
+
+        List<String> literalConditions = new ArrayList<>(List.of("NOT k IN ['iri', 'id']", "NOT k STARTS WITH '__'"));
+        if (!filter.getPredicates().isEmpty()) {
+            literalConditions.add("k IN $predicates");
+        }
+        if (!filter.getDatatypes().isEmpty()) {
+            literalConditions.add(literalEncoding == LiteralEncoding.NATIVE
+                    ? NativeLiterals.datatypeExpression("n", "k", nsPrefixUri) + " IN $datatypes"
+                    : "any(dt IN $datatypes WHERE toString(n[k]) ENDS WITH '^^' + dt)");
+        }
+        if (filter.hasSinceBatch()) {
+            // Daten, die vor Einführung der Property-Stempel importiert wurden, fallen auf den Knoten-Stempel zurück.
+            String literalBatch = "coalesce(n['" + ChangeLog.PROPERTY_BATCH_PREFIX + "' + k], n." + ChangeLog.BATCH_PROPERTY + ")";
+            literalConditions.add(literalBatch + " > $since AND " + literalBatch + " <= $until");
+        }
+
+        List<Record> results = neo4jClient.readFromNeo4j(
+                "MATCH (n:" + shard + ")" + ExportFilter.where("WHERE", subjectConditions) +
+                        "WITH n ORDER BY n." + key + " LIMIT $limit " +
+                        "OPTIONAL MATCH (n)-[r" + (relationshipTypes.isEmpty() ? "" : ":" + relationshipTypes) + "]->(m)" + ExportFilter.where("WHERE", relationshipConditions) +
+                        "RETURN n." + key + " AS subjectKey, n.iri AS subjectIri, n.id AS subjectId, " +
+                        "[k IN keys(n)" + ExportFilter.where("WHERE", literalConditions) + "| [k, n[k]" + (literalEncoding == LiteralEncoding.NATIVE ? ", " + NativeLiterals.sideEntryExpression("n", "k") : "") + "]] AS subjectLiterals, " +
+                        "TYPE(r) AS predicateUri, m.iri AS objectIri, m.id AS objectId " +
+                        "ORDER BY subjectKey",
+                filter.pageParameters(afterKey, pageSize)
+        );
+
+        if (results.isEmpty()) {
+            return new ExportPage(model, null);
+        }
+
+        for (Record result : results) {
+            String subjectIri = result.get("subjectIri").asString();
+            String subjectId = result.get("subjectId").asString();
+            List<Object> subjectLiterals = result.get("subjectLiterals").asList();
+
+            Resource subject = resource(model, nsPrefixUri, subjectIri, subjectId);
+            for (Object entry : subjectLiterals) {
+                List<?> keyValue = (List<?>) entry;
+                Property property = model.createProperty(Helper.getUri(keyValue.get(0).toString(), nsPrefixUri));
+                String side = literalEncoding == LiteralEncoding.NATIVE ? (String) keyValue.get(2) : null;
+                subject.addLiteral(property, decodeLiteral(model, literalEncoding, keyValue.get(1), side, nsPrefixUri));
+            }
+
+            String predicateUri = Helper.getString(result, "predicateUri");
+            String objectIri = result.get("objectIri").asString();
+            String objectId = result.get("objectId").asString();
+
+            if (predicateUri != null && (!objectId.equals("null") || !objectIri.equals("null"))) {
+                Property predicate = model.createProperty(Helper.getUri(predicateUri, nsPrefixUri));
+                Resource object = resource(model, nsPrefixUri, objectIri, objectId);
+                model.add(subject, predicate, object);
+            }
+        }
+
+        return new ExportPage(model, results.getLast().get("subjectKey").asString());
+    }
+
+    /**
+     * Wandelt den Wert einer Literal-Property zurück in ein RDF-Literal.
+     *
+     * @param model           Das Modell, in dem das Literal erzeugt wird.
+     * @param literalEncoding Die Kodierung, mit der das Literal gespeichert wurde.
+     * @param value           Der Wert der Property.
+     * @param side            Der Eintrag der Seiten-Property bei nativer Kodierung, sonst null.
+     * @param nsPrefixUri     Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @return Das Literal.
+     */
+    public static Literal decodeLiteral(Model model, LiteralEncoding literalEncoding, Object value, String side,
+                                        Map<String, Object> nsPrefixUri) {
+        if (literalEncoding == LiteralEncoding.NATIVE) {
+            return NativeLiterals.decode(model, value, side, nsPrefixUri);
+        }
+        String[] parts = value.toString().split("\\^\\^");
+        return model.createTypedLiteral(parts[0], Helper.getUri(parts[1], nsPrefixUri));
+    }
+
+    /**
+     * Erstellt die Ressource eines Knotens.
+     *
+     * @param model       Das Modell, in dem die Ressource erzeugt wird.
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @param resourceIri Die IRI des Knotens als Präfix-Name oder "null" für einen Blank Node.
+     * @param resourceId  Die ID eines Blank Nodes oder "null".
+     * @return Die Ressource.
+     */
+    public static Resource resource(Model model, Map<String, Object> nsPrefixUri, String resourceIri, String resourceId) {
+        if (!resourceId.equals("null")) {
+            return model.createResource(new AnonId(resourceId));
+        }
+        return model.createResource(Helper.getUri(resourceIri, nsPrefixUri));
+    }
+}
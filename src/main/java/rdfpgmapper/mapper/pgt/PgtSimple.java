@@ -1,6 +1,5 @@
 package rdfpgmapper.mapper.pgt;
 
-import org.apache.jena.rdf.model.AnonId;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
@@ -8,8 +7,13 @@ import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
-import org.neo4j.driver.Record;
 import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.mapper.changelog.ChangeLog;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.mapper.export.ExportPage;
+import rdfpgmapper.mapper.export.PagedExporter;
+import rdfpgmapper.mapper.schema.DataProfile;
+import rdfpgmapper.mapper.schema.IndexRequirement;
 import rdfpgmapper.neo4j.Neo4jClient;
 import rdfpgmapper.utils.Helper;
 
@@ -17,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -28,6 +33,9 @@ import java.util.stream.Collectors;
 public class PgtSimple implements Mapper {
 
     private final Neo4jClient neo4jClient;
+    private Long changeBatch;
+    private Model context;
+    private LiteralEncoding literalEncoding = LiteralEncoding.STRING;
 
     /**
      * Konstruktor, der den Neo4jClient initialisiert.
@@ -38,16 +46,16 @@ public class PgtSimple implements Mapper {
         this.neo4jClient = client;
     }
 
+    /**
+     * Erstellt ein Schema für Property Graphen in Neo4j. Constraints und Indizes für Ressourcen und Blank Nodes
+     * werden über {@link #getIndexRequirements(DataProfile)} geplant, sodass keine weiteren Statements nötig sind.
+     *
+     * @param model Das RDF-Modell, aus dem das Schema erstellt wird.
+     * @return Eine Liste von Cypher-Statements, die das Schema in Neo4j definieren.
+     */
     @Override
     public List<String> mapRdfToPgSchema(Model model) {
-        List<String> cypher = new ArrayList<>();
-        cypher.add("CREATE CONSTRAINT FOR (r:Resource) REQUIRE r.iri IS NOT NULL;");
-        cypher.add("CREATE CONSTRAINT FOR (b:BlankNode) REQUIRE b.id IS NOT NULL;");
-
-        cypher.add("CREATE CONSTRAINT FOR (r:Resource) REQUIRE r.iri IS UNIQUE;");
-        cypher.add("CREATE CONSTRAINT FOR (b:BlankNode) REQUIRE b.id IS UNIQUE;");
-
-        return cypher;
+        return new ArrayList<>();
     }
 
     /**
@@ -112,15 +120,68 @@ public class PgtSimple implements Mapper {
     }
 
     /**
-     * Konvertiert ein RDF-Modell in Cypher-Statements zur Erstellung von Instanzen in Neo4j.
-     * Diese Methode wandelt RDF-Statements in entsprechende Neo4j Graph-Strukturen um,
-     * einschließlich Ressourcen, Blank Nodes, Literale und Relationen zwischen diesen.
+     * Konvertiert entfernte RDF-Tripel in Cypher-Statements, die die entsprechenden Literal-Properties
+     * bzw. Relationen löschen. Bei entfernten rdf:type- und rdfs:subClassOf-Tripeln werden die Labels der betroffenen
+     * Knoten entfernt, die sich nicht mehr aus ihren verbleibenden Typen und deren Oberklassen im Kontext ergeben.
      *
-     * @param model Das RDF-Modell, das in Neo4j-Instanzdaten gemappt wird.
-     * @return Eine Liste von Cypher-Statements, die die Instanzdaten in Neo4j darstellen.
+     * @param model Das RDF-Modell mit den zu entfernenden Tripeln.
+     * @return Eine Liste von Cypher-Statements, die die Tripel aus Neo4j entfernen.
      */
+    @Override
+    public List<String> mapRdfToPgDelete(Model model) {
+        List<String> cypher = new ArrayList<>();
+
+        Iterator<Statement> statementIterator = model.listStatements();
+
+        while (statementIterator.hasNext()) {
+            Statement statement = statementIterator.next();
+
+            Resource subject = statement.getSubject();
+            RDFNode object = statement.getObject();
+            String propertyName = Helper.getPrefixedName(statement.getPredicate().getURI(), model);
+
+            String[] subjectArr = subject.isURIResource() ? mergeResource(subject, 'a', model) : mergeBlankNode(subject, 'a');
+
+            if (object.isLiteral()) {
+                cypher.add(Helper.mergeToMatch(subjectArr[1]) + "\n" +
+                        "WHERE " + subjectArr[0] + "." + propertyName + " = " + literalValue((Literal) object, model) + "\n" +
+                        "REMOVE " + subjectArr[0] + "." + propertyName +
+                        (literalEncoding == LiteralEncoding.NATIVE ? "\nSET " + NativeLiterals.removeSideEntry(subjectArr[0], propertyName) : "") +
+                        ChangeLog.recordDeletion(statement, changeBatch));
+            } else {
+                String[] objectArr = object.isURIResource() ? mergeResource((Resource) object, 'b', model) : mergeBlankNode((Resource) object, 'b');
+
+                String removeLabel = "";
+                if (propertyName.equals("rdf_type") && object.isURIResource()) {
+                    removeLabel = "\nREMOVE " + subjectArr[0] + ":" + Helper.getPrefixedName(((Resource) object).getURI(), model);
+                }
+
+                cypher.add(Helper.mergeToMatch(subjectArr[1]) + "\n" +
+                        Helper.mergeToMatch(objectArr[1]) + "\n" +
+                        "MATCH (" + subjectArr[0] + ")-[r:" + propertyName + "]->(" + objectArr[0] + ")\n" +
+                        "DELETE r" + removeLabel +
+                        ChangeLog.recordDeletion(statement, changeBatch));
+            }
+        }
+
+        if (context == null) {
+            return cypher;
+        }
+        for (Map.Entry<Resource, Set<String>> stale : TypeLabels.staleTypes(model, context, subject -> TypeLabels.closure(subject, context)).entrySet()) {
+            Resource subject = stale.getKey();
+            String[] subjectArr = subject.isURIResource() ? mergeResource(subject, 'a', model) : mergeBlankNode(subject, 'a');
+            cypher.add(Helper.mergeToMatch(subjectArr[1]) + "\n" +
+                    "REMOVE " + stale.getValue().stream()
+                    .map(type -> subjectArr[0] + ":" + Helper.getPrefixedName(type, model))
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+
+        return cypher;
+    }
+
     private String mergeResourceLabel(Resource resource, Resource type, Model model) {
-        List<String> classHierarchy = Helper.getClassHierarchy(type, model);
+        List<String> classHierarchy = Helper.getClassHierarchy(type, withContext(model));
 
         String labelsCypher = classHierarchy.stream()
                 .map(uri -> Helper.getPrefixedName(uri, model))
@@ -135,16 +196,23 @@ public class PgtSimple implements Mapper {
     }
 
     private String mergeBlankNodeLabel(Resource resource, Resource type, Model model) {
-        List<String> classHierarchy = Helper.getClassHierarchy(type, model);
+        List<String> classHierarchy = Helper.getClassHierarchy(type, withContext(model));
         String labelsCypher = classHierarchy.stream()
                 .map(uri -> Helper.getPrefixedName(uri, model))
-                .map(label -> "SET b:" + label)
-                .collect(Collectors.joining(" "));
+                .map(label -> "b:" + label)
+                .collect(Collectors.joining(","));
+        if (!labelsCypher.isEmpty()) {
+            labelsCypher = "," + labelsCypher;
+        }
 
         return "MERGE (b" + ":BlankNode {id: '_:" + resource.getId() + "'})" +
                 "SET b:" + Helper.getPrefixedName(type.getURI(), model) + labelsCypher;
     }
 
+    private Model withContext(Model model) {
+        return context != null ? ModelFactory.createUnion(model, context) : model;
+    }
+
     private String[] mergeResource(Resource resource, char postfix, Model model) {
         return new String[]{"res" + postfix, "MERGE (res" + postfix + ":Resource {iri: '" + Helper.getPrefixedName(resource.getURI(), model) + "'})"};
     }
@@ -154,89 +222,136 @@ public class PgtSimple implements Mapper {
     }
 
     private String mergeRessourceLiteral(Resource resource, Property predicate, Literal literal, Model model) {
-        return "MERGE (res:Resource {iri: '" + Helper.getPrefixedName(resource.getURI(), model) + "'})" +
-                "SET res." + Helper.getPrefixedName(predicate.getURI(), model) + " = '" + literal.getValue() + "^^" + Helper.getPrefixedName(literal.getDatatypeURI(), model) + "'";
+        String propertyName = Helper.getPrefixedName(predicate.getURI(), model);
+        String value = literalValue(literal, model);
+        String iri = Helper.getPrefixedName(resource.getURI(), model);
+        return "MERGE (res:Resource {iri: '" + iri + "'})" + recordReplacement("res", iri, propertyName, value, literal, model) +
+                "SET " + stampOnChange("res", propertyName, value, literal, model) + setLiteral("res", propertyName, literal, model);
     }
 
     private String mergeBlankNodeLiteral(Resource resource, Property predicate, Literal literal, Model model) {
-        return "MERGE (b:BlankNode {id: '_:" + resource.getId() + "'})" +
-                "SET b." + Helper.getPrefixedName(predicate.getURI(), model) + " = '" + literal.getValue() + "^^" + Helper.getPrefixedName(literal.getDatatypeURI(), model) + "'";
+        String propertyName = Helper.getPrefixedName(predicate.getURI(), model);
+        String value = literalValue(literal, model);
+        return "MERGE (b:BlankNode {id: '_:" + resource.getId() + "'})" + recordReplacement("b", "_:" + resource.getId(), propertyName, value, literal, model) +
+                "SET " + stampOnChange("b", propertyName, value, literal, model) + setLiteral("b", propertyName, literal, model);
     }
 
-    private String mergeProperty(Property property, String subject, String object, Model model) {
+    private String stampOnChange(String variable, String propertyName, String value, Literal literal, Model model) {
+        if (literalEncoding == LiteralEncoding.NATIVE) {
+            return ChangeLog.stampOnChange(variable, propertyName, value, sideEntry(variable, propertyName),
+                    NativeLiterals.encode(literal, model).sideEntry(), changeBatch);
+        }
+        return ChangeLog.stampOnChange(variable, propertyName, value, changeBatch);
+    }
 
-        return "MERGE (" + subject + ")-[:" + Helper.getPrefixedName(property.getURI(), model) + "]->(" + object + ")";
+    private String recordReplacement(String variable, String subject, String propertyName, String value, Literal literal, Model model) {
+        if (literalEncoding == LiteralEncoding.NATIVE) {
+            return ChangeLog.recordReplacement(variable, subject, propertyName, value, sideEntry(variable, propertyName),
+                    NativeLiterals.encode(literal, model).sideEntry(), literalEncoding.name(), changeBatch);
+        }
+        return ChangeLog.recordReplacement(variable, subject, propertyName, value, null, null, literalEncoding.name(), changeBatch);
     }
 
-    /**
-     * Mappt Daten aus einem Neo4j Property Graph zurück in ein RDF-Modell.
-     * Diese Methode liest Daten aus Neo4j und erstellt ein RDF-Modell, das diese Daten repräsentiert.
-     *
-     * @return Ein Jena Model, das die aus Neo4j gelesenen Daten repräsentiert.
-     */
-    @Override
-    public Model mapPgToRdf() {
-        Model model = ModelFactory.createDefaultModel();
+    private String sideEntry(String variable, String propertyName) {
+        return NativeLiterals.sideEntryExpression(variable, "'" + Helper.escapeString(propertyName) + "'");
+    }
 
+    private String setLiteral(String variable, String propertyName, Literal literal, Model model) {
+        if (literalEncoding == LiteralEncoding.NATIVE) {
+            return NativeLiterals.set(variable, propertyName, NativeLiterals.encode(literal, model));
+        }
+        return variable + "." + propertyName + " = " + literalValue(literal, model);
+    }
 
-        List<Record> results = neo4jClient.readFromNeo4j(
-                "MATCH (n)-[r]->(m) " +
-                        "RETURN n.iri AS subjectIri, n.id AS subjectId, properties(n) as subjectProperties, " +
-                        "TYPE(r) AS predicateUri, " +
-                        "m.iri AS objectIri, m.id AS objectId, properties(m) as objectProperties"
-        );
+    private String literalValue(Literal literal, Model model) {
+        if (literalEncoding == LiteralEncoding.NATIVE) {
+            return NativeLiterals.encode(literal, model).value();
+        }
+        return "'" + literal.getValue() + "^^" + Helper.getPrefixedName(literal.getDatatypeURI(), model) + "'";
+    }
 
-        List<Record> nsPrefixUriRecord = neo4jClient.readFromNeo4j("MATCH (n:PrefixUriNode) RETURN properties(n) as nsPrefixUri");
+    private String mergeProperty(Property property, String subject, String object, Model model) {
 
-        Map<String, Object> nsPrefixUri = nsPrefixUriRecord.getFirst().get("nsPrefixUri").asMap();
+        return "MERGE (" + subject + ")-[r:" + Helper.getPrefixedName(property.getURI(), model) + "]->(" + object + ")" + ChangeLog.stampOnCreate("r", subject, changeBatch);
+    }
 
-        for (Map.Entry<String, Object> prefixUri : nsPrefixUri.entrySet()) {
-            model.setNsPrefix(prefixUri.getKey(), prefixUri.getValue().toString());
+    @Override
+    public List<IndexRequirement> getIndexRequirements(DataProfile profile) {
+        List<IndexRequirement> requirements = new ArrayList<>();
+        requirements.add(IndexRequirement.unique("Resource", "MERGE (:Resource {iri})", "iri"));
+        requirements.add(IndexRequirement.notNull("Resource", "iri"));
+        if (profile.blankNodes() > 0) {
+            requirements.add(IndexRequirement.unique("BlankNode", "MERGE (:BlankNode {id})", "id"));
+            requirements.add(IndexRequirement.notNull("BlankNode", "id"));
         }
+        if (changeBatch != null) {
+            requirements.add(IndexRequirement.nodeRange("Resource", ChangeLog.BATCH_PROPERTY, "MATCH (:Resource) WHERE __batch > $since (Export der Änderungen)"));
+            if (profile.blankNodes() > 0) {
+                requirements.add(IndexRequirement.nodeRange("BlankNode", ChangeLog.BATCH_PROPERTY, "MATCH (:BlankNode) WHERE __batch > $since (Export der Änderungen)"));
+            }
+            requirements.add(ChangeLog.deletionIndex());
+        }
+        return requirements;
+    }
 
-        for (Record result : results) {
-            String subjectIri = result.get("subjectIri").asString();
-            String subjectId = result.get("subjectId").asString();
-            Map<String, Object> subjectProperties = result.get("subjectProperties").asMap();
-
-            String predicateUri = result.get("predicateUri").asString();
-
-            String objectIri = result.get("objectIri").asString();
-            String objectId = result.get("objectId").asString();
-            Map<String, Object> objectProperties = result.get("objectProperties").asMap();
+    @Override
+    public void setChangeBatch(Long batch) {
+        this.changeBatch = batch;
+    }
 
-            Resource subject;
-            Property predicate = model.createProperty(Helper.getUri(predicateUri, nsPrefixUri));
-            Resource object;
+    @Override
+    public void setContext(Model context) {
+        this.context = context;
+    }
 
-            if (!subjectId.equals("null") || !subjectIri.equals("null")) {
+    /**
+     * Legt fest, wie Literale als Knoten-Properties abgelegt werden. Beim Export muss dieselbe Kodierung
+     * eingestellt sein wie beim Import.
+     *
+     * @param literalEncoding Die Kodierung der Literale.
+     */
+    public void setLiteralEncoding(LiteralEncoding literalEncoding) {
+        this.literalEncoding = literalEncoding;
+    }
 
-                subject = addResourceWithLiterals(model, nsPrefixUri, subjectIri, subjectId, subjectProperties);
+    /**
+     * Gibt zurück, wie Literale als Knoten-Properties abgelegt werden.
+     *
+     * @return Die Kodierung der Literale.
+     */
+    public LiteralEncoding getLiteralEncoding() {
+        return literalEncoding;
+    }
 
-                object = addResourceWithLiterals(model, nsPrefixUri, objectIri, objectId, objectProperties);
+    /**
+     * Mappt Daten aus einem Neo4j Property Graph zurück in ein RDF-Modell.
+     * Diese Methode liest Daten aus Neo4j und erstellt ein RDF-Modell, das diese Daten repräsentiert.
+     *
+     * @return Ein Jena Model, das die aus Neo4j gelesenen Daten repräsentiert.
+     */
+    @Override
+    public Model mapPgToRdf() {
+        return PagedExporter.collect(this, neo4jClient, PagedExporter.DEFAULT_PAGE_SIZE, ExportFilter.all());
+    }
 
-                model.add(subject, predicate, object);
-            }
-        }
-        return model;
+    @Override
+    public List<String> getExportShards() {
+        return List.of("Resource", "BlankNode");
     }
 
-    private Resource addResourceWithLiterals(Model model, Map<String, Object> nsPrefixUri, String resourceIri, String resourceId, Map<String, Object> objectProperties) {
-        Resource resource;
-        if (!resourceId.equals("null")) {
-            resource = model.createResource(new AnonId(resourceId));
-        } else {
-            resource = model.createResource(Helper.getUri(resourceIri, nsPrefixUri));
-        }
-        for (Map.Entry<String, Object> entry : objectProperties.entrySet()) {
-            if (!entry.getKey().equals("iri") && !entry.getKey().equals("id")) {
-                String[] parts = entry.getValue().toString().split("\\^\\^");
-                String dataType = Helper.getUri(parts[1], nsPrefixUri);
-                Literal literal = model.createTypedLiteral(parts[0], dataType);
-                Property property = model.createProperty(Helper.getUri(entry.getKey(), nsPrefixUri));
-                resource.addLiteral(property, literal);
-            }
-        }
-        return resource;
+    /**
+     * Liest einen Abschnitt von Ressourcen bzw. Blank Nodes, geordnet nach IRI bzw. ID,
+     * samt ihrer Literal-Properties und ausgehenden Relationen.
+     *
+     * @param shard       Der Name des Shards ("Resource" oder "BlankNode").
+     * @param afterKey    Der zuletzt gelesene Schlüssel.
+     * @param pageSize    Die maximale Anzahl an Subjekt-Knoten pro Abschnitt.
+     * @param filter      Der bereits aufgelöste Export-Filter.
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @return Der gelesene Abschnitt.
+     */
+    @Override
+    public ExportPage mapPgToRdfPage(String shard, String afterKey, int pageSize, ExportFilter filter, Map<String, Object> nsPrefixUri) {
+        return PgtPages.read(neo4jClient, literalEncoding, shard, afterKey, pageSize, filter, nsPrefixUri);
     }
 }
@@ -0,0 +1,104 @@
+package rdfpgmapper.mapper.pgt;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import rdfpgmapper.utils.Helper;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Berechnet beim Delta-Import, welche Typ-Labels der PGT-Layouts nach entfernten Tripeln nicht mehr begründet sind.
+ * Ein Knoten trägt das Label jedes Typs und aller seiner Oberklassen. Wird ein rdf:type- oder rdfs:subClassOf-Tripel
+ * entfernt, werden die Labels des alten Stands mit den Labels verglichen, die sich aus den verbleibenden Typen und der
+ * verbleibenden Klassen-Hierarchie ergeben; nur die Differenz wird entfernt.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public final class TypeLabels {
+
+    private TypeLabels() {
+    }
+
+    /**
+     * Ermittelt die Typen, deren Labels von Knoten zu entfernen sind.
+     *
+     * @param removed      Die entfernten Tripel.
+     * @param context      Das vollständige Modell des neuen Stands.
+     * @param currentTypes Die Typen eines Knotens im neuen Stand einschließlich aller Oberklassen, aus denen seine
+     *                     Labels bestehen.
+     * @return Je betroffenem Subjekt die URIs der Typen, deren Labels nicht mehr begründet sind.
+     */
+    public static Map<Resource, Set<String>> staleTypes(Model removed, Model context, Function<Resource, Set<String>> currentTypes) {
+        Model previous = ModelFactory.createUnion(context, removed);
+        Map<String, List<String>> previousHierarchy = new HashMap<>();
+
+        Set<Resource> affected = new HashSet<>();
+        removed.listStatements(null, RDF.type, (RDFNode) null).forEachRemaining(statement -> affected.add(statement.getSubject()));
+
+        // Eine entfernte Oberklassen-Beziehung betrifft alle Instanzen der Klasse und ihrer Unterklassen.
+        Set<String> detachedClasses = new HashSet<>();
+        removed.listStatements(null, RDFS.subClassOf, (RDFNode) null).forEachRemaining(statement -> {
+            if (statement.getSubject().isURIResource()) {
+                detachedClasses.add(statement.getSubject().getURI());
+            }
+        });
+        if (!detachedClasses.isEmpty()) {
+            context.listStatements(null, RDF.type, (RDFNode) null).forEachRemaining(statement -> {
+                if (statement.getObject().isURIResource() && hierarchy(statement.getResource(), previous, previousHierarchy)
+                        .stream().anyMatch(detachedClasses::contains)) {
+                    affected.add(statement.getSubject());
+                }
+            });
+        }
+
+        Map<Resource, Set<String>> stale = new LinkedHashMap<>();
+        for (Resource subject : affected) {
+            Set<String> types = new HashSet<>();
+            for (Model model : List.of(context, removed)) {
+                for (Statement statement : model.listStatements(subject, RDF.type, (RDFNode) null).toList()) {
+                    if (statement.getObject().isURIResource()) {
+                        types.addAll(hierarchy(statement.getResource(), previous, previousHierarchy));
+                    }
+                }
+            }
+            types.removeAll(currentTypes.apply(subject));
+            if (!types.isEmpty()) {
+                stale.put(subject, types);
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * Gibt die Typen eines Knotens samt aller Oberklassen zurück.
+     *
+     * @param subject Der Knoten.
+     * @param model   Das Modell mit seinen rdf:type-Tripeln und der Klassen-Hierarchie.
+     * @return Die URIs der Typen.
+     */
+    public static Set<String> closure(Resource subject, Model model) {
+        Set<String> types = new HashSet<>();
+        model.listObjectsOfProperty(subject, RDF.type).forEachRemaining(type -> {
+            if (type.isURIResource()) {
+                types.addAll(Helper.getClassHierarchy(type.asResource(), model));
+            }
+        });
+        return types;
+    }
+
+    private static List<String> hierarchy(Resource type, Model model, Map<String, List<String>> cache) {
+        return cache.computeIfAbsent(type.getURI(), uri -> Helper.getClassHierarchy(type, model));
+    }
+}
@@ -1,6 +1,5 @@
 package rdfpgmapper.mapper.pgt.pgtcomplete;
 
-import org.apache.jena.rdf.model.AnonId;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
@@ -9,28 +8,51 @@ import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.out.NodeFormatterNT;
 import org.apache.jena.vocabulary.RDF;
 import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
 import rdfpgmapper.mapper.Mapper;
-import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.RDFClass;
-import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.RDFGraphModel;
+import rdfpgmapper.mapper.changelog.ChangeLog;
+import rdfpgmapper.mapper.checkpoint.ImportCheckpoint;
+import rdfpgmapper.mapper.delta.TripleFingerprintStore;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.mapper.export.ExportPage;
+import rdfpgmapper.mapper.export.PagedExporter;
+import rdfpgmapper.mapper.pgt.LiteralEncoding;
+import rdfpgmapper.mapper.pgt.NativeLiterals;
+import rdfpgmapper.mapper.pgt.PgtPages;
+import rdfpgmapper.mapper.pgt.TypeLabels;
+import rdfpgmapper.mapper.schema.DataProfile;
+import rdfpgmapper.mapper.schema.IndexRequirement;
+import rdfpgmapper.mapper.pgt.pgtcomplete.inference.RdfsMaterializer;
+import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.CompiledSchema;
 import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.RDFModelBuilder;
-import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.RDFProperty;
+import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.SchemaCache;
+import rdfpgmapper.mapper.pgt.pgtcomplete.validation.SchemaValidator;
+import rdfpgmapper.mapper.pgt.pgtcomplete.validation.ValidationMode;
+import rdfpgmapper.mapper.pgt.pgtcomplete.validation.ValidationReport;
 import rdfpgmapper.neo4j.Neo4jClient;
 import rdfpgmapper.utils.Helper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
  * Eine Implementierung des {@link Mapper} Interfaces, die komplexe PGT-Transformationen von RDF zu Property Graphen ermöglicht.
- * Diese Klasse unterstützt erweiterte Mapping-Strategien, einschließlich Trigger für Domain- und Range-Validierung,
+ * Diese Klasse unterstützt erweiterte Mapping-Strategien, einschließlich Domain-, Range- und Datentyp-Validierung,
  * sowie die Behandlung von Subklassen- und Subeigenschaften-Beziehungen.
+ * Die Validierung erfolgt standardmäßig im Mapper über einen {@link SchemaValidator}, der Verletzungen nur meldet;
+ * verletzende Tripel werden nur auf Wunsch verworfen oder in Quarantäne gelegt. Die früheren Server-Trigger können
+ * optional weiterhin installiert werden.
  *
  * @author Hannes Kollert
  * @version 1.0
@@ -38,6 +60,15 @@ import java.util.stream.Collectors;
 public class PgtComplete implements Mapper {
 
     private final Neo4jClient neo4jClient;
+    private Long changeBatch;
+    private Model context;
+    private ValidationMode validationMode = ValidationMode.REPORT;
+    private boolean serverSideValidation = false;
+    private ValidationReport lastValidationReport;
+    private boolean materializeEntailment = false;
+    private boolean inferDomainRange = false;
+    private LiteralEncoding literalEncoding = LiteralEncoding.STRING;
+    private SchemaCache schemaCache = new SchemaCache(SchemaCache.defaultDirectory());
 
     /**
      * Konstruktor, der den Neo4jClient initialisiert.
@@ -50,118 +81,211 @@ public class PgtComplete implements Mapper {
 
     /**
      * Erstellt ein Schema für Property Graphen in Neo4j, basierend auf RDF-Daten.
-     * Generiert Cypher-Statements für die Erstellung von Constraints und Triggern, die Datenintegrität gewährleisten.
+     * Generiert Cypher-Statements für die Erstellung von Triggern, die Datenintegrität gewährleisten;
+     * Constraints und Indizes werden über {@link #getIndexRequirements(DataProfile)} geplant.
+     * Kompiliertes Schema und Statements werden im {@link SchemaCache} abgelegt; Statements, die laut
+     * {@code SchemaRegistry}-Knoten bereits in der Datenbank angewendet wurden, werden übersprungen.
      *
      * @param model Das RDF-Modell, aus dem das Schema erstellt wird.
      * @return Eine Liste von Cypher-Statements, die das Schema in Neo4j definieren.
      */
     @Override
     public List<String> mapRdfToPgSchema(Model model) {
-        List<String> cypher = new ArrayList<>();
-        cypher.add("CREATE CONSTRAINT FOR (r:Resource) REQUIRE r.iri IS NOT NULL;");
-        cypher.add("CREATE CONSTRAINT FOR (b:BlankNode) REQUIRE b.id IS NOT NULL;");
-
-        cypher.add("CREATE CONSTRAINT FOR (r:Resource) REQUIRE r.iri IS UNIQUE;");
-        cypher.add("CREATE CONSTRAINT FOR (b:BlankNode) REQUIRE b.id IS UNIQUE;");
-
-        RDFGraphModel graphModel = RDFModelBuilder.buildGraphModel(model);
+        if (schemaCache == null) {
+            return createSchemaStatements(RDFModelBuilder.compile(model), model);
+        }
 
-        for (RDFProperty property : graphModel.getProperties()) {
-            if (!property.isLiteral()) {
-                String domainTrigger = createObjectDomainTrigger(property, graphModel);
-                String rangeTrigger = createObjectRangeTrigger(property, graphModel);
-                if (domainTrigger != null) cypher.add(domainTrigger);
-                if (rangeTrigger != null) cypher.add(rangeTrigger);
-            } else {
-                String literalTrigger = createLiteralTrigger(property, graphModel);
-                if (literalTrigger != null) cypher.add(literalTrigger);
-            }
+        SchemaCache.Entry entry = schemaCache.get(model);
+        String variant = "materialize=" + materializeEntailment + ";serverSideValidation=" + serverSideValidation
+                + ";literals=" + literalEncoding;
+        List<String> cypher = entry.getStatements(variant);
+        if (cypher == null) {
+            cypher = createSchemaStatements(entry.getSchema(), model);
+            schemaCache.putStatements(entry, variant, cypher);
         }
+        return skipAppliedStatements(cypher);
+    }
 
-        for (RDFClass rdfClass : graphModel.getClasses()) {
-            for (String subclass : rdfClass.getSubclasses()) {
-                String triggerCypher = String.format("CALL apoc.trigger.add('superclass_%s', " + "'MATCH (n:%s) WHERE NOT n:%s " + "SET n:%s'," + "{phase:'before'});", subclass, subclass, rdfClass.getUri(), rdfClass.getUri());
-                cypher.add(triggerCypher);
-            }
+    /**
+     * Entfernt die Statements, die bereits angewendet wurden. Der {@code SchemaRegistry}-Knoten enthält die Hashes
+     * der zuletzt vollständig angewendeten Statements; jeder Trigger kommt darin höchstens einmal vor, sodass ein
+     * unverändertes Statement den aktuellen Zustand seines Triggers beschreibt. Das abschließende Statement
+     * aktualisiert den Knoten erst, nachdem alle vorherigen Statements erfolgreich waren.
+     */
+    private List<String> skipAppliedStatements(List<String> statements) {
+        List<String> hashes = statements.stream().map(statement -> ImportCheckpoint.digest(List.of(statement))).toList();
+        Set<String> applied = new HashSet<>();
+        for (Record record : neo4jClient.readFromNeo4j(
+                "MATCH (r:SchemaRegistry {mapper: 'PgtComplete'}) UNWIND r.applied AS hash RETURN hash")) {
+            applied.add(record.get("hash").asString());
         }
 
-        for (RDFProperty rdfProperty : graphModel.getProperties()) {
-            for (String subProperty : rdfProperty.getSubproperties()) {
-                String triggerCypher = String.format("CALL apoc.trigger.add('superproperty_%s', " + "'MATCH (n)-[r:%s]->(m) " + "WHERE NOT (n)-[:%s]->(m) " + "MERGE (n)-[:%s]->(m)', " + "{phase:'before'});", subProperty, subProperty, rdfProperty.getUri(), rdfProperty.getUri());
-                cypher.add(triggerCypher);
+        List<String> pending = new ArrayList<>();
+        for (int i = 0; i < statements.size(); i++) {
+            if (!applied.contains(hashes.get(i))) {
+                pending.add(statements.get(i));
             }
         }
-
-        return cypher;
+        if (pending.isEmpty() && applied.equals(new HashSet<>(hashes))) {
+            System.out.println("Schema unverändert, " + statements.size() + " Statements übersprungen.");
+            return pending;
+        }
+        pending.add("MERGE (r:SchemaRegistry {mapper: 'PgtComplete'}) SET r.applied = " + Helper.toCypherList(hashes));
+        return pending;
     }
 
-    private String createObjectDomainTrigger(RDFProperty property, RDFGraphModel graphModel) {
-        List<String> domainConditions = property.getDomains().stream().map(domain -> {
-            Set<String> validClasses = new HashSet<>();
-            collectSubclasses(domain, graphModel, validClasses);
-            return validClasses.stream().map(cls -> "n:" + cls).collect(Collectors.joining(" OR "));
-        }).map(condition -> "(" + condition + ")").collect(Collectors.toList());
+    private List<String> createSchemaStatements(CompiledSchema schema, Model model) {
+        List<String> cypher = new ArrayList<>();
+        SchemaValidator validator = new SchemaValidator(schema);
 
-        domainConditions.removeIf(condition -> condition.equals("()"));
-        domainConditions.removeIf(condition -> condition.equals(""));
+        cypher.addAll(removeLegacyTriggers(schema));
 
-        if (domainConditions.isEmpty()) {
-            return null;
+        Map<String, Set<String>> superclasses = new TreeMap<>();
+        for (int id = 0; id < schema.classCount(); id++) {
+            Set<String> closure = new TreeSet<>(schema.classNames(schema.superclasses(id)));
+            closure.remove(schema.className(id));
+            if (!closure.isEmpty()) {
+                superclasses.put(schema.className(id), closure);
+            }
+        }
+        if (materializeEntailment) {
+            cypher.add(Helper.removeTrigger("pgt_superclass"));
+        } else if (!superclasses.isEmpty()) {
+            cypher.add(Helper.addTrigger("pgt_superclass", createSuperclassTrigger(superclasses)));
         }
 
-        String combinedConditions = String.join(" AND ", domainConditions);
-
-        return String.format("CALL apoc.trigger.add('domain_%s', " + "'MATCH (n)-[r:%s]->(m) " +
-                //"WHERE NOT %s DELETE r', " +
-                "CALL apoc.util.validate(NOT (%s), \\\"Violation of domain constraints for %s\\\", NULL)', " + "{phase:'before'});", property.getUri(), property.getUri(), combinedConditions, property.getUri());
-    }
-
-    private String createObjectRangeTrigger(RDFProperty property, RDFGraphModel graphModel) {
-        List<String> rangeConditions = property.getRanges().stream().map(range -> {
-            Set<String> validClasses = new HashSet<>();
-            collectSubclasses(range, graphModel, validClasses);
-            return validClasses.stream().map(cls -> "m:" + cls).collect(Collectors.joining(" OR "));
-        }).map(condition -> "(" + condition + ")").collect(Collectors.toList());
-
-        rangeConditions.removeIf(condition -> condition.equals("()"));
-
-        if (rangeConditions.isEmpty()) {
-            return null;
+        Map<String, Set<String>> superproperties = new TreeMap<>();
+        for (int id = 0; id < schema.propertyCount(); id++) {
+            Set<String> closure = new TreeSet<>(schema.propertyNames(schema.superproperties(id)));
+            closure.remove(schema.propertyName(id));
+            if (!closure.isEmpty()) {
+                superproperties.put(schema.propertyName(id), closure);
+            }
+        }
+        if (materializeEntailment) {
+            cypher.add(Helper.removeTrigger("pgt_superproperty"));
+        } else if (!superproperties.isEmpty()) {
+            cypher.add(Helper.addTrigger("pgt_superproperty", createSuperpropertyTrigger(superproperties)));
         }
 
-        String combinedConditions = String.join(" AND ", rangeConditions);
+        if (!serverSideValidation) {
+            cypher.add(Helper.removeTrigger("pgt_domain_range"));
+            cypher.add(Helper.removeTrigger("pgt_datatype"));
+            return cypher;
+        }
 
-        combinedConditions = (combinedConditions + " OR " + "m:BlankNode");
+        List<String> objectRules = new ArrayList<>();
+        List<String> literalRules = new ArrayList<>();
+        for (String property : new TreeSet<>(validator.getConstrainedProperties())) {
+            if (validator.isLiteral(property)) {
+                String datatype = validator.getDatatype(property);
+                literalRules.add(Helper.escapeName(property) + ": {domain: " + toCypherClassLists(validator.getDomains(property)) +
+                        ", datatype: " + (datatype == null ? "null" : "'" + Helper.escapeString(datatype) + "'") + "}");
+            } else {
+                objectRules.add(Helper.escapeName(property) + ": {domain: " + toCypherClassLists(validator.getDomains(property)) +
+                        ", range: " + toCypherClassLists(validator.getRanges(property)) + "}");
+            }
+        }
+        if (!objectRules.isEmpty()) {
+            cypher.add(Helper.addTrigger("pgt_domain_range", createDomainRangeTrigger(String.join(", ", objectRules))));
+        }
+        if (!literalRules.isEmpty()) {
+            cypher.add(Helper.addTrigger("pgt_datatype", createDatatypeTrigger(String.join(", ", literalRules), model)));
+        }
 
-        return String.format("CALL apoc.trigger.add('range_%s', " + "'MATCH (n)-[r:%s]->(m) " +
-                //"WHERE NOT %s DELETE r', " +
-                "CALL apoc.util.validate(NOT (%s), \\\"Violation of range constraints for %s\\\", NULL)', " + "{phase:'before'});", property.getUri(), property.getUri(), combinedConditions, property.getUri());
+        return cypher;
     }
 
-    private void collectSubclasses(String cls, RDFGraphModel graphModel, Set<String> validClasses) {
-        RDFClass rdfClass = graphModel.getClass(cls);
-        if (rdfClass != null && validClasses.add(cls)) {
-            rdfClass.getSubclasses().forEach(subclass -> collectSubclasses(subclass, graphModel, validClasses));
-        }
+    /**
+     * Ergänzt die Labels aller Oberklassen für Labels, die in der aktuellen Transaktion gesetzt wurden.
+     * Die Regeln enthalten bereits die transitive Hülle, sodass ein einziger Durchlauf genügt.
+     */
+    private String createSuperclassTrigger(Map<String, Set<String>> superclasses) {
+        return "WITH " + toCypherRuleMap(superclasses) + " AS rules " +
+                "UNWIND [assigned IN keys($assignedLabels) WHERE assigned IN keys(rules)] AS assigned " +
+                "UNWIND $assignedLabels[assigned] AS n " +
+                "CALL apoc.create.addLabels(n, rules[assigned]) YIELD node " +
+                "RETURN count(node)";
     }
 
-    private String createLiteralTrigger(RDFProperty property, RDFGraphModel graphModel) {
-        List<String> domainConditions = property.getDomains().stream().map(domain -> {
-            Set<String> validClasses = new HashSet<>();
-            collectSubclasses(domain, graphModel, validClasses);
-            return validClasses.stream().map(cls -> "n:" + cls).collect(Collectors.joining(" OR "));
-        }).map(condition -> "(" + condition + ")").collect(Collectors.toList());
+    /**
+     * Ergänzt für jede in der aktuellen Transaktion erstellte Relation die Relationen aller Super-Properties.
+     */
+    private String createSuperpropertyTrigger(Map<String, Set<String>> superproperties) {
+        return "WITH " + toCypherRuleMap(superproperties) + " AS rules " +
+                "UNWIND [rel IN $createdRelationships WHERE type(rel) IN keys(rules)] AS rel " +
+                "UNWIND rules[type(rel)] AS superType " +
+                "WITH startNode(rel) AS n, endNode(rel) AS m, superType " +
+                "CALL apoc.merge.relationship(n, superType, {}, {}, m, {}) YIELD rel AS created " +
+                "RETURN count(created)";
+    }
 
-        String domainCondition = domainConditions.isEmpty() ? "" : String.join(" AND ", domainConditions);
+    /**
+     * Prüft Domain und Range der in der aktuellen Transaktion erstellten Relationen.
+     */
+    private String createDomainRangeTrigger(String rules) {
+        return "WITH {" + rules + "} AS rules " +
+                "UNWIND [rel IN $createdRelationships WHERE type(rel) IN keys(rules)] AS rel " +
+                "WITH rel, rules[type(rel)] AS rule, startNode(rel) AS n, endNode(rel) AS m " +
+                "CALL apoc.util.validate(NOT all(classes IN rule.domain WHERE any(c IN classes WHERE c IN labels(n))), " +
+                "'Violation of domain constraints for %s', [type(rel)]) " +
+                "CALL apoc.util.validate(NOT (m:BlankNode OR all(classes IN rule.range WHERE any(c IN classes WHERE c IN labels(m)))), " +
+                "'Violation of range constraints for %s', [type(rel)]) " +
+                "RETURN count(rel)";
+    }
 
-        String rangeCondition = property.getRanges().stream().findFirst().map(range -> " AND n." + property.getUri() + " ENDS WITH \\\"" + range + "\\\"").orElse("");
+    /**
+     * Prüft Domain und Datentyp der in der aktuellen Transaktion gesetzten Literal-Properties.
+     */
+    private String createDatatypeTrigger(String rules, Model model) {
+        String datatypeCheck = literalEncoding == LiteralEncoding.NATIVE
+                ? NativeLiterals.datatypeExpression("n", "k", new HashMap<>(model.getNsPrefixMap())) + " = rule.datatype"
+                : "toString(value) ENDS WITH '^^' + rule.datatype";
+        return "WITH {" + rules + "} AS rules " +
+                "UNWIND [k IN keys($assignedNodeProperties) WHERE k IN keys(rules)] AS k " +
+                "UNWIND $assignedNodeProperties[k] AS assignment " +
+                "WITH k, rules[k] AS rule, assignment.node AS n, assignment.new AS value " +
+                "CALL apoc.util.validate(NOT (all(classes IN rule.domain WHERE any(c IN classes WHERE c IN labels(n))) " +
+                "AND (rule.datatype IS NULL OR " + datatypeCheck + ")), " +
+                "'Violation of datatype constraints for %s', [k]) " +
+                "RETURN count(n)";
+    }
 
-        if (!domainCondition.isEmpty() || !rangeCondition.isEmpty()) {
-            String conditionString = (domainCondition.isEmpty() ? "" : domainCondition) + (rangeCondition.isEmpty() ? "" : rangeCondition);
-            return String.format("CALL apoc.trigger.add('datatype_%s_validate', " + "'MATCH (n) WHERE n.%s IS NOT NULL " + "CALL apoc.util.validate(NOT (%s), \\\"Violation of datatype constraints for %s\\\", NULL)', " + "{phase:'before'});", property.getUri(), property.getUri(), conditionString, property.getUri());
+    /**
+     * Entfernt die früheren, pro Klasse bzw. Property installierten Trigger, die bei jedem Commit den gesamten Graphen durchsuchten.
+     */
+    private List<String> removeLegacyTriggers(CompiledSchema schema) {
+        List<String> cypher = new ArrayList<>();
+        for (int id = 0; id < schema.propertyCount(); id++) {
+            String property = schema.propertyName(id);
+            if (schema.isLiteral(id)) {
+                cypher.add(Helper.removeTrigger("datatype_" + property + "_validate"));
+            } else {
+                cypher.add(Helper.removeTrigger("domain_" + property));
+                cypher.add(Helper.removeTrigger("range_" + property));
+            }
+            if (schema.superproperties(id).cardinality() > 1) {
+                cypher.add(Helper.removeTrigger("superproperty_" + property));
+            }
+        }
+        for (int id = 0; id < schema.classCount(); id++) {
+            if (schema.superclasses(id).cardinality() > 1) {
+                cypher.add(Helper.removeTrigger("superclass_" + schema.className(id)));
+            }
         }
+        return cypher;
+    }
 
-        return null;
+    private String toCypherRuleMap(Map<String, Set<String>> rules) {
+        return rules.entrySet().stream()
+                .map(entry -> Helper.escapeName(entry.getKey()) + ": " + Helper.toCypherList(entry.getValue()))
+                .collect(Collectors.joining(", ", "{", "}"));
+    }
+
+    private String toCypherClassLists(List<Set<String>> classLists) {
+        return classLists.stream()
+                .map(classes -> Helper.toCypherList(new TreeSet<>(classes)))
+                .collect(Collectors.joining(", ", "[", "]"));
     }
 
     /**
@@ -175,11 +299,32 @@ public class PgtComplete implements Mapper {
     public List<String> mapRdfToPgInstance(Model model) {
         List<String> cypher = new ArrayList<>();
 
+        CompiledSchema schema = compile(context != null ? ModelFactory.createUnion(model, context) : model);
+
+        lastValidationReport = null;
+        if (validationMode != ValidationMode.OFF) {
+            lastValidationReport = new SchemaValidator(schema).validate(model, context, this::storedTypes);
+            lastValidationReport.print();
+        }
+
+        if (materializeEntailment) {
+            model = materialize(model, schema, cypher);
+        }
+
         Iterator<Statement> statementIterator = model.listStatements();
 
         while (statementIterator.hasNext()) {
             Statement statement = statementIterator.next();
 
+            if (lastValidationReport != null && lastValidationReport.isOffending(statement)) {
+                if (validationMode == ValidationMode.QUARANTINE) {
+                    cypher.add(quarantine(statement));
+                }
+                if (validationMode != ValidationMode.REPORT) {
+                    continue;
+                }
+            }
+
             Resource subject = statement.getSubject();
             Property predicate = statement.getPredicate();
             RDFNode object = statement.getObject();
@@ -215,33 +360,216 @@ public class PgtComplete implements Mapper {
         return Helper.addNodeForNsPrefixUriDeclaration(model, cypher);
     }
 
+    /**
+     * Konvertiert entfernte RDF-Tripel in Cypher-Statements, die die entsprechenden Literal-Properties
+     * bzw. Relationen löschen. Bei entfernten rdf:type- und rdfs:subClassOf-Tripeln werden die Labels der betroffenen
+     * Knoten entfernt, die sich nicht mehr aus ihren verbleibenden Typen im Kontext ergeben; bei abgeleiteter
+     * RDFS-Hülle zählen dazu auch die aus Domain und Range abgeleiteten Typen.
+     *
+     * @param model Das RDF-Modell mit den zu entfernenden Tripeln.
+     * @return Eine Liste von Cypher-Statements, die die Tripel aus Neo4j entfernen.
+     */
+    @Override
+    public List<String> mapRdfToPgDelete(Model model) {
+        List<String> cypher = new ArrayList<>();
+
+        Iterator<Statement> statementIterator = model.listStatements();
+
+        while (statementIterator.hasNext()) {
+            Statement statement = statementIterator.next();
+
+            Resource subject = statement.getSubject();
+            RDFNode object = statement.getObject();
+            String propertyName = Helper.getPrefixedName(statement.getPredicate().getURI(), model);
+
+            String subjectVar = subject.isURIResource() ? "resa" : "ba";
+            String matchSubject = Helper.mergeToMatch(subject.isURIResource() ? mergeResourceKey(subject, 'a', model) : mergeBlankNodeKey(subject, 'a'));
+
+            if (object.isLiteral()) {
+                String value = subject.isURIResource() ? resourceLiteralValue((Literal) object, model) : blankNodeLiteralValue((Literal) object, model);
+                cypher.add(matchSubject + "\n" +
+                        "WHERE " + subjectVar + "." + propertyName + " = " + value + "\n" +
+                        "REMOVE " + subjectVar + "." + propertyName +
+                        (literalEncoding == LiteralEncoding.NATIVE ? "\nSET " + NativeLiterals.removeSideEntry(subjectVar, propertyName) : "") +
+                        ChangeLog.recordDeletion(statement, changeBatch));
+            } else {
+                String objectVar = object.isURIResource() ? "resb" : "bb";
+                String matchObject = Helper.mergeToMatch(object.isURIResource() ? mergeResourceKey((Resource) object, 'b', model) : mergeBlankNodeKey((Resource) object, 'b'));
+
+                String removeLabel = "";
+                if (statement.getPredicate().equals(RDF.type) && object.isURIResource()) {
+                    removeLabel = "\nREMOVE " + subjectVar + ":" + Helper.getPrefixedName(((Resource) object).getURI(), model);
+                }
+
+                cypher.add(matchSubject + "\n" +
+                        matchObject + "\n" +
+                        "MATCH (" + subjectVar + ")-[r:" + propertyName + "]->(" + objectVar + ")\n" +
+                        "DELETE r" + removeLabel +
+                        ChangeLog.recordDeletion(statement, changeBatch));
+            }
+        }
+
+        if (context == null) {
+            return cypher;
+        }
+        RdfsMaterializer materializer = materializeEntailment ? new RdfsMaterializer(compile(context), context, inferDomainRange) : null;
+        for (Map.Entry<Resource, Set<String>> stale : TypeLabels.staleTypes(model, context, subject -> currentTypes(subject, materializer)).entrySet()) {
+            Resource subject = stale.getKey();
+            String subjectVar = subject.isURIResource() ? "resa" : "ba";
+            cypher.add(Helper.mergeToMatch(subject.isURIResource() ? mergeResourceKey(subject, 'a', model) : mergeBlankNodeKey(subject, 'a')) + "\n" +
+                    "REMOVE " + stale.getValue().stream()
+                    .map(type -> subjectVar + ":" + Helper.getPrefixedName(type, model))
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+
+        return cypher;
+    }
+
+    /**
+     * Gibt die Typen eines Knotens im Kontext zurück, deren Labels er nach dem Import trägt: seine Typen mit allen
+     * Oberklassen und bei abgeleiteter RDFS-Hülle zusätzlich die aus seinen Tripeln abgeleiteten Typen.
+     */
+    private Set<String> currentTypes(Resource subject, RdfsMaterializer materializer) {
+        if (materializer == null) {
+            return TypeLabels.closure(subject, context);
+        }
+        Model statements = ModelFactory.createDefaultModel();
+        statements.add(context.listStatements(subject, null, (RDFNode) null));
+        statements.add(context.listStatements(null, null, subject));
+        statements.add(materializer.materialize(statements));
+
+        Set<String> types = new HashSet<>();
+        statements.listObjectsOfProperty(subject, RDF.type).forEachRemaining(type -> {
+            if (type.isURIResource()) {
+                types.add(type.asResource().getURI());
+            }
+        });
+        return types;
+    }
+
+    private CompiledSchema compile(Model model) {
+        return schemaCache == null ? RDFModelBuilder.compile(model) : schemaCache.get(model).getSchema();
+    }
+
+    /**
+     * Liest die Typ-Labels bereits importierter Knoten, damit Tripel, deren Subjekt oder Objekt in einem früheren
+     * Import typisiert wurde, nicht als Verletzung gelten.
+     */
+    private Map<Resource, Set<String>> storedTypes(Set<Resource> resources) {
+        Map<String, Resource> byKey = new HashMap<>();
+        List<String> iris = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (Resource resource : resources) {
+            if (resource.isURIResource()) {
+                String iri = Helper.getPrefixedName(resource.getURI(), resource.getModel());
+                byKey.put(iri, resource);
+                iris.add(iri);
+            } else {
+                String id = "_:" + resource.getId();
+                byKey.put(id, resource);
+                ids.add(id);
+            }
+        }
+
+        Map<Resource, Set<String>> types = new HashMap<>();
+        for (Record record : neo4jClient.readFromNeo4j(
+                "UNWIND $iris AS iri MATCH (n:Resource {iri: iri}) RETURN n.iri AS key, labels(n) AS labels "
+                        + "UNION ALL UNWIND $ids AS id MATCH (n:BlankNode {id: id}) RETURN n.id AS key, labels(n) AS labels",
+                Map.of("iris", iris, "ids", ids))) {
+            types.put(byKey.get(record.get("key").asString()), new HashSet<>(record.get("labels").asList(Value::asString)));
+        }
+        return types;
+    }
+
     private String[] mergeResource(Resource resource, char postfix, Model model) {
-        String types = String.valueOf(getRessourceTypes(resource, model));
-        return new String[]{"res" + postfix, "MERGE (res" + postfix + ":Resource" + types + "{ iri: '" + Helper.getPrefixedName(resource.getURI(), model) + "'})"};
+        return new String[]{"res" + postfix, mergeResourceKey(resource, postfix, model) + setLabels("res" + postfix, resource, model)};
     }
 
     private String[] mergeBlankNode(Resource resource, char postfix, Model model) {
-        String types = String.valueOf(getRessourceTypes(resource, model));
-        return new String[]{"b" + postfix, "MERGE (b" + postfix + ":BlankNode" + types + " {id: '_:" + resource.getId() + "'})"};
+        return new String[]{"b" + postfix, mergeBlankNodeKey(resource, postfix) + setLabels("b" + postfix, resource, model)};
+    }
+
+    private String mergeResourceKey(Resource resource, char postfix, Model model) {
+        return "MERGE (res" + postfix + ":Resource { iri: '" + Helper.getPrefixedName(resource.getURI(), model) + "'})";
+    }
+
+    private String mergeBlankNodeKey(Resource resource, char postfix) {
+        return "MERGE (b" + postfix + ":BlankNode {id: '_:" + resource.getId() + "'})";
+    }
+
+    /**
+     * Setzt die Typ-Labels getrennt vom MERGE, damit das MERGE ausschließlich über den eindeutigen Schlüssel
+     * erfolgt und bereits vorhandene Knoten auch bei neu hinzugekommenen Typen wiedergefunden werden.
+     */
+    private String setLabels(String variable, Resource resource, Model model) {
+        StringBuilder types = getRessourceTypes(resource, model);
+        return types.isEmpty() ? "" : " SET " + variable + types;
     }
 
     private String mergeRessourceLiteral(Resource resource, Property predicate, Literal literal, Model model) {
         String types = String.valueOf(getRessourceTypes(resource, model));
-        String litValue = literal.getValue().toString().replace("'", "_");
+        String propertyName = Helper.getPrefixedName(predicate.getURI(), model);
+        String value = resourceLiteralValue(literal, model);
 
-        return "MERGE (res:Resource" + types + " {iri: '" + Helper.getPrefixedName(resource.getURI(), model) + "'})" + "SET res." + Helper.getPrefixedName(predicate.getURI(), model) + " = '" + litValue + "^^" + Helper.getPrefixedName(literal.getDatatypeURI(), model) + "'";
+        String iri = Helper.getPrefixedName(resource.getURI(), model);
+        return "MERGE (res:Resource {iri: '" + iri + "'})" + recordReplacement("res", iri, propertyName, value, literal, model) + "SET " + stampOnChange("res", propertyName, value, literal, model) + setLiteral("res", types, propertyName, value, literal, model);
     }
 
     private String mergeBlankNodeLiteral(Resource resource, Property predicate, Literal literal, Model model) {
         String types = String.valueOf(getRessourceTypes(resource, model));
-        String litValue = literal.getValue().toString().replace("'", "''");
+        String propertyName = Helper.getPrefixedName(predicate.getURI(), model);
+        String value = blankNodeLiteralValue(literal, model);
+
+        return "MERGE (b:BlankNode {id: '_:" + resource.getId() + "'})" + recordReplacement("b", "_:" + resource.getId(), propertyName, value, literal, model) + "SET " + stampOnChange("b", propertyName, value, literal, model) + setLiteral("b", types, propertyName, value, literal, model);
+    }
+
+    private String stampOnChange(String variable, String propertyName, String value, Literal literal, Model model) {
+        if (literalEncoding == LiteralEncoding.NATIVE) {
+            return ChangeLog.stampOnChange(variable, propertyName, value, sideEntry(variable, propertyName),
+                    NativeLiterals.encode(literal, model).sideEntry(), changeBatch);
+        }
+        return ChangeLog.stampOnChange(variable, propertyName, value, changeBatch);
+    }
+
+    private String recordReplacement(String variable, String subject, String propertyName, String value, Literal literal, Model model) {
+        if (literalEncoding == LiteralEncoding.NATIVE) {
+            return ChangeLog.recordReplacement(variable, subject, propertyName, value, sideEntry(variable, propertyName),
+                    NativeLiterals.encode(literal, model).sideEntry(), literalEncoding.name(), changeBatch);
+        }
+        return ChangeLog.recordReplacement(variable, subject, propertyName, value, null, null, literalEncoding.name(), changeBatch);
+    }
+
+    private String sideEntry(String variable, String propertyName) {
+        return NativeLiterals.sideEntryExpression(variable, "'" + Helper.escapeString(propertyName) + "'");
+    }
+
+    private String setLiteral(String variable, String types, String propertyName, String value, Literal literal, Model model) {
+        if (literalEncoding == LiteralEncoding.NATIVE) {
+            return (types.isEmpty() ? "" : variable + types + ", ") + NativeLiterals.set(variable, propertyName, NativeLiterals.encode(literal, model));
+        }
+        return variable + types + (types.isEmpty() ? "" : ", " + variable) + "." + propertyName + " = " + value;
+    }
 
-        return "MERGE (b:BlankNode" + types + " {id: '_:" + resource.getId() + "'})" + "SET b." + Helper.getPrefixedName(predicate.getURI(), model) + " = '" + litValue + "^^" + Helper.getPrefixedName(literal.getDatatypeURI(), model) + "'";
+    private String resourceLiteralValue(Literal literal, Model model) {
+        if (literalEncoding == LiteralEncoding.NATIVE) {
+            return NativeLiterals.encode(literal, model).value();
+        }
+        String litValue = literal.getValue().toString().replace("'", "_");
+        return "'" + litValue + "^^" + Helper.getPrefixedName(literal.getDatatypeURI(), model) + "'";
+    }
+
+    private String blankNodeLiteralValue(Literal literal, Model model) {
+        if (literalEncoding == LiteralEncoding.NATIVE) {
+            return NativeLiterals.encode(literal, model).value();
+        }
+        String litValue = literal.getValue().toString().replace("'", "''");
+        return "'" + litValue + "^^" + Helper.getPrefixedName(literal.getDatatypeURI(), model) + "'";
     }
 
     private String mergeProperty(Property property, String subject, String object, Model model) {
 
-        return "MERGE (" + subject + ")-[:" + Helper.getPrefixedName(property.getURI(), model) + "]->(" + object + ")";
+        return "MERGE (" + subject + ")-[r:" + Helper.getPrefixedName(property.getURI(), model) + "]->(" + object + ")" + ChangeLog.stampOnCreate("r", subject, changeBatch);
     }
 
     private StringBuilder getRessourceTypes(Resource resource, Model model) {
@@ -255,69 +583,162 @@ public class PgtComplete implements Mapper {
     }
 
     /**
-     * Mappt Daten aus einem Neo4j Property Graph zurück in ein RDF-Modell.
-     * Liest Daten aus Neo4j und erstellt ein RDF-Modell, das diese Daten repräsentiert.
-     *
-     * @return Ein Jena Model, das die aus Neo4j gelesenen Daten repräsentiert.
+     * Erstellt ein Arbeitsmodell aus den gültigen Tripeln und ihrer RDFS-Hülle, damit geerbte Labels
+     * und Relationen der Super-Properties direkt mit den Instanzdaten geschrieben werden.
+     * Verworfene Tripel werden vorab entfernt, damit aus ihnen nichts abgeleitet wird.
      */
-    @Override
-    public Model mapPgToRdf() {
-        Model model = ModelFactory.createDefaultModel();
+    private Model materialize(Model model, CompiledSchema schema, List<String> cypher) {
+        Model working = ModelFactory.createDefaultModel();
+        working.setNsPrefixes(model.getNsPrefixMap());
+        working.add(model);
+
+        if (lastValidationReport != null && validationMode != ValidationMode.REPORT) {
+            for (Statement statement : lastValidationReport.getOffendingStatements()) {
+                if (working.contains(statement)) {
+                    if (validationMode == ValidationMode.QUARANTINE) {
+                        cypher.add(quarantine(statement));
+                    }
+                    working.remove(statement);
+                }
+            }
+        }
 
+        Model inferred = new RdfsMaterializer(schema, model, inferDomainRange).materialize(working);
+        System.out.println("RDFS-Hülle: " + inferred.size() + " abgeleitete Tripel.");
+        return working.add(inferred);
+    }
 
-        List<Record> results = neo4jClient.readFromNeo4j("MATCH (n)-[r]->(m) " + "RETURN n.iri AS subjectIri, n.id AS subjectId, properties(n) as subjectProperties, " + "TYPE(r) AS predicateUri, " + "m.iri AS objectIri, m.id AS objectId, properties(m) as objectProperties");
+    private String quarantine(Statement statement) {
+        String triple = TripleFingerprintStore.toNTriples(statement, new NodeFormatterNT());
+        String violations = lastValidationReport.getViolations(statement).stream()
+                .map(violation -> "'" + Helper.escapeString(violation.message()) + "'")
+                .collect(Collectors.joining(", "));
+        return "CREATE (:QuarantinedTriple {triple: '" + Helper.escapeString(triple) + "', violations: [" + violations + "]})";
+    }
 
-        List<Record> nsPrefixUriRecord = neo4jClient.readFromNeo4j("MATCH (n:PrefixUriNode) RETURN properties(n) as nsPrefixUri");
+    /**
+     * Die MERGE-Statements verwenden ausschließlich den eindeutigen Schlüssel; Typ-Labels werden getrennt gesetzt,
+     * sodass der Eindeutigkeits-Constraint auf Resource bzw. BlankNode jedes MERGE vollständig abdeckt.
+     */
+    @Override
+    public List<IndexRequirement> getIndexRequirements(DataProfile profile) {
+        List<IndexRequirement> requirements = new ArrayList<>();
+        requirements.add(IndexRequirement.unique("Resource", "MERGE (:Resource {iri}) SET :Typ", "iri"));
+        requirements.add(IndexRequirement.notNull("Resource", "iri"));
+        if (profile.blankNodes() > 0) {
+            requirements.add(IndexRequirement.unique("BlankNode", "MERGE (:BlankNode {id}) SET :Typ", "id"));
+            requirements.add(IndexRequirement.notNull("BlankNode", "id"));
+        }
+        if (changeBatch != null) {
+            requirements.add(IndexRequirement.nodeRange("Resource", ChangeLog.BATCH_PROPERTY, "MATCH (:Resource) WHERE __batch > $since (Export der Änderungen)"));
+            if (profile.blankNodes() > 0) {
+                requirements.add(IndexRequirement.nodeRange("BlankNode", ChangeLog.BATCH_PROPERTY, "MATCH (:BlankNode) WHERE __batch > $since (Export der Änderungen)"));
+            }
+            requirements.add(ChangeLog.deletionIndex());
+        }
+        return requirements;
+    }
 
-        Map<String, Object> nsPrefixUri = nsPrefixUriRecord.getFirst().get("nsPrefixUri").asMap();
+    @Override
+    public void setChangeBatch(Long batch) {
+        this.changeBatch = batch;
+    }
 
-        for (Map.Entry<String, Object> prefixUri : nsPrefixUri.entrySet()) {
-            model.setNsPrefix(prefixUri.getKey(), prefixUri.getValue().toString());
-        }
+    @Override
+    public void setContext(Model context) {
+        this.context = context;
+    }
 
-        for (Record result : results) {
-            String subjectIri = result.get("subjectIri").asString();
-            String subjectId = result.get("subjectId").asString();
-            Map<String, Object> subjectProperties = result.get("subjectProperties").asMap();
+    /**
+     * Legt fest, wie Verletzungen der Schema-Constraints beim Import behandelt werden.
+     *
+     * @param validationMode Der Validierungsmodus.
+     */
+    public void setValidationMode(ValidationMode validationMode) {
+        this.validationMode = validationMode;
+    }
 
-            String predicateUri = result.get("predicateUri").asString();
+    /**
+     * Legt fest, ob zusätzlich die Domain-, Range- und Datentyp-Trigger in Neo4j installiert werden.
+     * Ist die Option deaktiviert, werden vorhandene Trigger beim Schema-Import entfernt.
+     *
+     * @param serverSideValidation true, um die Server-Trigger zu installieren.
+     */
+    public void setServerSideValidation(boolean serverSideValidation) {
+        this.serverSideValidation = serverSideValidation;
+    }
 
-            String objectIri = result.get("objectIri").asString();
-            String objectId = result.get("objectId").asString();
-            Map<String, Object> objectProperties = result.get("objectProperties").asMap();
+    /**
+     * Legt fest, ob die RDFS-Hülle beim Mapping abgeleitet und mitgeschrieben wird.
+     * Ist die Option aktiv, werden geerbte Labels und Relationen der Super-Properties direkt erzeugt und
+     * die Trigger {@code pgt_superclass} und {@code pgt_superproperty} beim Schema-Import entfernt.
+     *
+     * @param materializeEntailment true, um die RDFS-Hülle im Mapper abzuleiten.
+     * @param inferDomainRange      true, um zusätzlich Typen aus rdfs:domain und rdfs:range abzuleiten.
+     */
+    public void setMaterializeEntailment(boolean materializeEntailment, boolean inferDomainRange) {
+        this.materializeEntailment = materializeEntailment;
+        this.inferDomainRange = inferDomainRange;
+    }
 
-            Resource subject;
-            Property predicate = model.createProperty(Helper.getUri(predicateUri, nsPrefixUri));
-            Resource object;
+    /**
+     * Legt fest, wie Literale als Knoten-Properties abgelegt werden. Beim Export muss dieselbe Kodierung
+     * eingestellt sein wie beim Import; die Datentyp-Trigger prüfen die jeweilige Kodierung.
+     *
+     * @param literalEncoding Die Kodierung der Literale.
+     */
+    public void setLiteralEncoding(LiteralEncoding literalEncoding) {
+        this.literalEncoding = literalEncoding;
+    }
 
-            if (!subjectId.equals("null") || !subjectIri.equals("null")) {
+    /**
+     * Legt den Cache für kompilierte Schemata fest.
+     *
+     * @param schemaCache Der Schema-Cache oder null, um das Schema bei jedem Aufruf neu zu kompilieren
+     *                    und alle Schema-Statements zu senden.
+     */
+    public void setSchemaCache(SchemaCache schemaCache) {
+        this.schemaCache = schemaCache;
+    }
 
-                subject = addResourceWithLiterals(model, nsPrefixUri, subjectIri, subjectId, subjectProperties);
+    /**
+     * Gibt den Bericht der letzten Validierung zurück.
+     *
+     * @return Der Validierungsbericht oder null, wenn keine Validierung durchgeführt wurde.
+     */
+    public ValidationReport getLastValidationReport() {
+        return lastValidationReport;
+    }
 
-                object = addResourceWithLiterals(model, nsPrefixUri, objectIri, objectId, objectProperties);
+    /**
+     * Mappt Daten aus einem Neo4j Property Graph zurück in ein RDF-Modell.
+     * Diese Methode liest Daten aus Neo4j und erstellt ein RDF-Modell, das diese Daten repräsentiert.
+     *
+     * @return Ein Jena Model, das die aus Neo4j gelesenen Daten repräsentiert.
+     */
+    @Override
+    public Model mapPgToRdf() {
+        return PagedExporter.collect(this, neo4jClient, PagedExporter.DEFAULT_PAGE_SIZE, ExportFilter.all());
+    }
 
-                model.add(subject, predicate, object);
-            }
-        }
-        return model;
+    @Override
+    public List<String> getExportShards() {
+        return List.of("Resource", "BlankNode");
     }
 
-    private Resource addResourceWithLiterals(Model model, Map<String, Object> nsPrefixUri, String resourceIri, String resourceId, Map<String, Object> objectProperties) {
-        Resource resource;
-        if (!resourceId.equals("null")) {
-            resource = model.createResource(new AnonId(resourceId));
-        } else {
-            resource = model.createResource(Helper.getUri(resourceIri, nsPrefixUri));
-        }
-        for (Map.Entry<String, Object> entry : objectProperties.entrySet()) {
-            if (!entry.getKey().equals("iri") && !entry.getKey().equals("id")) {
-                String[] parts = entry.getValue().toString().split("\\^\\^");
-                String dataType = Helper.getUri(parts[1], nsPrefixUri);
-                Literal literal = model.createTypedLiteral(parts[0], dataType);
-                Property property = model.createProperty(Helper.getUri(entry.getKey(), nsPrefixUri));
-                resource.addLiteral(property, literal);
-            }
-        }
-        return resource;
+    /**
+     * Liest einen Abschnitt von Ressourcen bzw. Blank Nodes, geordnet nach IRI bzw. ID,
+     * samt ihrer Literal-Properties und ausgehenden Relationen.
+     *
+     * @param shard       Der Name des Shards ("Resource" oder "BlankNode").
+     * @param afterKey    Der zuletzt gelesene Schlüssel.
+     * @param pageSize    Die maximale Anzahl an Subjekt-Knoten pro Abschnitt.
+     * @param filter      Der bereits aufgelöste Export-Filter.
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @return Der gelesene Abschnitt.
+     */
+    @Override
+    public ExportPage mapPgToRdfPage(String shard, String afterKey, int pageSize, ExportFilter filter, Map<String, Object> nsPrefixUri) {
+        return PgtPages.read(neo4jClient, literalEncoding, shard, afterKey, pageSize, filter, nsPrefixUri);
     }
 }
@@ -0,0 +1,191 @@
+package rdfpgmapper.mapper.pgt.pgtcomplete.inference;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.vocabulary.RDF;
+import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.CompiledSchema;
+import rdfpgmapper.utils.Helper;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Leitet die RDFS-Hülle eines RDF-Modells zur Mapping-Zeit ab, anstatt sie über Trigger in Neo4j zu berechnen.
+ * Abgeleitet werden die Typen aller Oberklassen (rdfs9), Tripel der Super-Properties (rdfs7) und optional
+ * Typen aus Domain (rdfs2) und Range (rdfs3). Die Hüllen stammen aus dem {@link CompiledSchema} und werden einmalig in Jena-Ressourcen übersetzt;
+ * die Ableitung läuft parallel über Partitionen der Subjekte.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class RdfsMaterializer {
+
+    private final Map<String, List<Resource>> superclasses = new HashMap<>();
+    private final Map<String, List<Property>> superproperties = new HashMap<>();
+    private final Map<String, List<Resource>> domainTypes = new HashMap<>();
+    private final Map<String, List<Resource>> rangeTypes = new HashMap<>();
+    private final boolean inferDomainRange;
+
+    /**
+     * Erstellt einen Materializer und übersetzt die Klassen- und Property-Hüllen in Jena-Ressourcen.
+     *
+     * @param schema           Das kompilierte Schema mit Klassen- und Property-Hierarchien.
+     * @param model            Das RDF-Modell, dessen Namensräume die präfixierten Namen des Schemas auflösen.
+     * @param inferDomainRange true, um zusätzlich Typen aus rdfs:domain und rdfs:range abzuleiten.
+     */
+    public RdfsMaterializer(CompiledSchema schema, Model model, boolean inferDomainRange) {
+        this.inferDomainRange = inferDomainRange;
+        Map<String, Object> nsPrefixUri = new HashMap<>(model.getNsPrefixMap());
+
+        Resource[] classes = new Resource[schema.classCount()];
+        for (int id = 0; id < classes.length; id++) {
+            classes[id] = model.createResource(Helper.getUri(schema.className(id), nsPrefixUri));
+        }
+
+        for (int id = 0; id < classes.length; id++) {
+            List<Resource> strictSuperclasses = toResources(schema.superclasses(id), id, classes);
+            if (!strictSuperclasses.isEmpty()) {
+                superclasses.put(classes[id].getURI(), strictSuperclasses);
+            }
+        }
+
+        for (int id = 0; id < schema.propertyCount(); id++) {
+            BitSet chain = schema.superproperties(id);
+            String uri = Helper.getUri(schema.propertyName(id), nsPrefixUri);
+
+            List<Property> supers = new ArrayList<>();
+            for (int superProperty = chain.nextSetBit(0); superProperty >= 0; superProperty = chain.nextSetBit(superProperty + 1)) {
+                if (superProperty != id) {
+                    supers.add(model.createProperty(Helper.getUri(schema.propertyName(superProperty), nsPrefixUri)));
+                }
+            }
+            if (!supers.isEmpty()) {
+                superproperties.put(uri, supers);
+            }
+
+            BitSet domainIds = new BitSet(classes.length);
+            BitSet rangeIds = new BitSet(classes.length);
+            Set<String> undeclaredDomains = new LinkedHashSet<>();
+            Set<String> undeclaredRanges = new LinkedHashSet<>();
+            for (int superProperty = chain.nextSetBit(0); superProperty >= 0; superProperty = chain.nextSetBit(superProperty + 1)) {
+                addClosures(schema, schema.domains(superProperty), domainIds, undeclaredDomains);
+                if (!schema.isLiteral(superProperty)) {
+                    addClosures(schema, schema.ranges(superProperty), rangeIds, undeclaredRanges);
+                }
+            }
+            List<Resource> domains = toResources(domainIds, -1, classes, undeclaredDomains, nsPrefixUri, model);
+            if (!domains.isEmpty()) {
+                domainTypes.put(uri, domains);
+            }
+            List<Resource> ranges = toResources(rangeIds, -1, classes, undeclaredRanges, nsPrefixUri, model);
+            if (!ranges.isEmpty()) {
+                rangeTypes.put(uri, ranges);
+            }
+        }
+    }
+
+    /**
+     * Leitet alle noch nicht im Modell enthaltenen Tripel der RDFS-Hülle ab.
+     * Das Modell wird dabei nur gelesen, sodass die Partitionen parallel verarbeitet werden können.
+     *
+     * @param model Das RDF-Modell mit den Instanzdaten.
+     * @return Ein Modell mit ausschließlich den abgeleiteten Tripeln.
+     */
+    public Model materialize(Model model) {
+        List<Resource> subjects = model.listSubjects().toList();
+        int partitions = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), subjects.size()));
+
+        List<List<Statement>> inferred = IntStream.range(0, partitions).parallel()
+                .mapToObj(partition -> {
+                    List<Statement> statements = new ArrayList<>();
+                    for (int i = partition; i < subjects.size(); i += partitions) {
+                        infer(subjects.get(i), model, statements);
+                    }
+                    return statements;
+                })
+                .toList();
+
+        Model result = ModelFactory.createDefaultModel();
+        result.setNsPrefixes(model.getNsPrefixMap());
+        inferred.forEach(result::add);
+        return result;
+    }
+
+    private void infer(Resource subject, Model model, List<Statement> statements) {
+        Set<Resource> types = new LinkedHashSet<>();
+
+        StmtIterator properties = model.listStatements(subject, null, (RDFNode) null);
+        while (properties.hasNext()) {
+            Statement statement = properties.nextStatement();
+            String predicate = statement.getPredicate().getURI();
+            RDFNode object = statement.getObject();
+
+            if (statement.getPredicate().equals(RDF.type) && object.isURIResource()) {
+                types.add(object.asResource());
+            }
+            for (Property superProperty : superproperties.getOrDefault(predicate, List.of())) {
+                add(model, model.createStatement(subject, superProperty, object), statements);
+            }
+            if (inferDomainRange) {
+                types.addAll(domainTypes.getOrDefault(predicate, List.of()));
+                if (object.isResource()) {
+                    for (Resource rangeType : rangeTypes.getOrDefault(predicate, List.of())) {
+                        add(model, model.createStatement(object.asResource(), RDF.type, rangeType), statements);
+                    }
+                }
+            }
+        }
+
+        for (Resource type : types) {
+            add(model, model.createStatement(subject, RDF.type, type), statements);
+            for (Resource superclass : superclasses.getOrDefault(type.getURI(), List.of())) {
+                add(model, model.createStatement(subject, RDF.type, superclass), statements);
+            }
+        }
+    }
+
+    private void add(Model model, Statement statement, List<Statement> statements) {
+        if (!model.contains(statement)) {
+            statements.add(statement);
+        }
+    }
+
+    private void addClosures(CompiledSchema schema, List<String> names, BitSet ids, Set<String> undeclared) {
+        for (String name : names) {
+            int id = schema.classId(name);
+            if (id >= 0) {
+                ids.or(schema.superclasses(id));
+            } else {
+                undeclared.add(name);
+            }
+        }
+    }
+
+    private List<Resource> toResources(BitSet ids, int excluded, Resource[] classes) {
+        List<Resource> resources = new ArrayList<>();
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            if (id != excluded) {
+                resources.add(classes[id]);
+            }
+        }
+        return resources;
+    }
+
+    private List<Resource> toResources(BitSet ids, int excluded, Resource[] classes, Set<String> undeclared,
+                                       Map<String, Object> nsPrefixUri, Model model) {
+        List<Resource> resources = toResources(ids, excluded, classes);
+        undeclared.forEach(name -> resources.add(model.createResource(Helper.getUri(name, nsPrefixUri))));
+        return resources;
+    }
+}
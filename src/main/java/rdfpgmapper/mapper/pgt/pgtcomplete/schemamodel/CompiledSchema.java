@@ -0,0 +1,409 @@
+package rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Kompilierte Darstellung eines RDF-Schemas.
+ * Klassen und Properties erhalten dichte Integer-IDs; die transitiven Hüllen der Unter- und Oberklassen
+ * bzw. Sub- und Super-Properties werden einmalig als Bitsets vorberechnet, sodass Zugehörigkeitstests in O(1) möglich sind.
+ * Alle Hüllen sind reflexiv, enthalten also die Klasse bzw. Property selbst.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class CompiledSchema {
+
+    private final List<String> classNames;
+    private final Map<String, Integer> classIds;
+    private final List<String> propertyNames;
+    private final Map<String, Integer> propertyIds;
+
+    private final BitSet[] subclasses;
+    private final BitSet[] superclasses;
+    private final BitSet[] subproperties;
+    private final BitSet[] superproperties;
+
+    private final BitSet literalProperties;
+    private final List<List<String>> domains;
+    private final List<List<String>> ranges;
+    private final Builder builder;
+
+    CompiledSchema(Builder builder) {
+        this.builder = builder;
+        classNames = builder.classNames;
+        classIds = builder.classIds;
+        propertyNames = builder.propertyNames;
+        propertyIds = builder.propertyIds;
+        literalProperties = builder.literalProperties;
+        domains = builder.domains;
+        ranges = builder.ranges;
+
+        subclasses = closure(builder.directSubclasses);
+        superclasses = closure(builder.directSuperclasses);
+        subproperties = closure(builder.directSubproperties);
+        superproperties = closure(builder.directSuperproperties);
+    }
+
+    /**
+     * Gibt die Anzahl der Klassen zurück.
+     *
+     * @return Die Anzahl der Klassen; gültige IDs liegen zwischen 0 und diesem Wert.
+     */
+    public int classCount() {
+        return classNames.size();
+    }
+
+    /**
+     * Gibt die Anzahl der Properties zurück.
+     *
+     * @return Die Anzahl der Properties; gültige IDs liegen zwischen 0 und diesem Wert.
+     */
+    public int propertyCount() {
+        return propertyNames.size();
+    }
+
+    /**
+     * Gibt die ID einer Klasse zurück.
+     *
+     * @param name Der Präfix-Name der Klasse.
+     * @return Die ID oder -1, wenn die Klasse nicht im Schema enthalten ist.
+     */
+    public int classId(String name) {
+        return classIds.getOrDefault(name, -1);
+    }
+
+    /**
+     * Gibt den Präfix-Namen einer Klasse zurück.
+     *
+     * @param id Die ID der Klasse.
+     * @return Der Präfix-Name.
+     */
+    public String className(int id) {
+        return classNames.get(id);
+    }
+
+    /**
+     * Gibt die ID einer Property zurück.
+     *
+     * @param name Der Präfix-Name der Property.
+     * @return Die ID oder -1, wenn die Property nicht im Schema enthalten ist.
+     */
+    public int propertyId(String name) {
+        return propertyIds.getOrDefault(name, -1);
+    }
+
+    /**
+     * Gibt den Präfix-Namen einer Property zurück.
+     *
+     * @param id Die ID der Property.
+     * @return Der Präfix-Name.
+     */
+    public String propertyName(int id) {
+        return propertyNames.get(id);
+    }
+
+    /**
+     * Gibt die reflexive, transitive Hülle der Unterklassen zurück. Das Bitset darf nicht verändert werden.
+     *
+     * @param classId Die ID der Klasse.
+     * @return Die IDs der Klasse und aller ihrer Unterklassen.
+     */
+    public BitSet subclasses(int classId) {
+        return subclasses[classId];
+    }
+
+    /**
+     * Gibt die reflexive, transitive Hülle der Oberklassen zurück. Das Bitset darf nicht verändert werden.
+     *
+     * @param classId Die ID der Klasse.
+     * @return Die IDs der Klasse und aller ihrer Oberklassen.
+     */
+    public BitSet superclasses(int classId) {
+        return superclasses[classId];
+    }
+
+    /**
+     * Gibt die reflexive, transitive Hülle der Sub-Properties zurück. Das Bitset darf nicht verändert werden.
+     *
+     * @param propertyId Die ID der Property.
+     * @return Die IDs der Property und aller ihrer Sub-Properties.
+     */
+    public BitSet subproperties(int propertyId) {
+        return subproperties[propertyId];
+    }
+
+    /**
+     * Gibt die reflexive, transitive Hülle der Super-Properties zurück. Das Bitset darf nicht verändert werden.
+     *
+     * @param propertyId Die ID der Property.
+     * @return Die IDs der Property und aller ihrer Super-Properties.
+     */
+    public BitSet superproperties(int propertyId) {
+        return superproperties[propertyId];
+    }
+
+    /**
+     * Prüft, ob eine Klasse eine (transitive) Unterklasse einer anderen ist.
+     *
+     * @param subclassId   Die ID der möglichen Unterklasse.
+     * @param superclassId Die ID der möglichen Oberklasse.
+     * @return true, wenn die Unterklassen-Beziehung besteht oder beide IDs gleich sind.
+     */
+    public boolean isSubclassOf(int subclassId, int superclassId) {
+        return superclasses[subclassId].get(superclassId);
+    }
+
+    /**
+     * Gibt zurück, ob eine Property Literal-Werte hat.
+     *
+     * @param propertyId Die ID der Property.
+     * @return true für Literal-Properties.
+     */
+    public boolean isLiteral(int propertyId) {
+        return literalProperties.get(propertyId);
+    }
+
+    /**
+     * Gibt die direkt deklarierten Domains einer Property zurück.
+     *
+     * @param propertyId Die ID der Property.
+     * @return Die Präfix-Namen der Domains.
+     */
+    public List<String> domains(int propertyId) {
+        return domains.get(propertyId);
+    }
+
+    /**
+     * Gibt die direkt deklarierten Ranges einer Property zurück.
+     *
+     * @param propertyId Die ID der Property.
+     * @return Die Präfix-Namen der Ranges.
+     */
+    public List<String> ranges(int propertyId) {
+        return ranges.get(propertyId);
+    }
+
+    /**
+     * Wandelt ein Bitset von Klassen-IDs in die Präfix-Namen der Klassen um.
+     *
+     * @param classIds Die Klassen-IDs.
+     * @return Die Präfix-Namen in ID-Reihenfolge.
+     */
+    public Set<String> classNames(BitSet classIds) {
+        Set<String> names = new LinkedHashSet<>();
+        classIds.stream().forEach(id -> names.add(classNames.get(id)));
+        return names;
+    }
+
+    /**
+     * Wandelt ein Bitset von Property-IDs in die Präfix-Namen der Properties um.
+     *
+     * @param propertyIds Die Property-IDs.
+     * @return Die Präfix-Namen in ID-Reihenfolge.
+     */
+    public Set<String> propertyNames(BitSet propertyIds) {
+        Set<String> names = new LinkedHashSet<>();
+        propertyIds.stream().forEach(id -> names.add(propertyNames.get(id)));
+        return names;
+    }
+
+    BitSet directSubclasses(int classId) {
+        return builder.directSubclasses.get(classId);
+    }
+
+    BitSet directSuperclasses(int classId) {
+        return builder.directSuperclasses.get(classId);
+    }
+
+    BitSet directSubproperties(int propertyId) {
+        return builder.directSubproperties.get(propertyId);
+    }
+
+    BitSet directSuperproperties(int propertyId) {
+        return builder.directSuperproperties.get(propertyId);
+    }
+
+    /**
+     * Schreibt das Schema in einen Stream. Gespeichert werden nur Namen und direkte Beziehungen;
+     * die Hüllen werden beim Lesen neu berechnet.
+     */
+    void write(DataOutputStream out) throws IOException {
+        writeNames(out, classNames);
+        writeNames(out, propertyNames);
+        writeEdges(out, builder.directSuperclasses);
+        writeEdges(out, builder.directSuperproperties);
+        for (int id = 0; id < propertyNames.size(); id++) {
+            writeNames(out, domains.get(id));
+            writeNames(out, ranges.get(id));
+        }
+    }
+
+    /**
+     * Liest ein mit {@link #write(DataOutputStream)} geschriebenes Schema. Die IDs bleiben dabei erhalten.
+     */
+    static CompiledSchema read(DataInputStream in) throws IOException {
+        Builder builder = new Builder();
+        readNames(in).forEach(builder::addClass);
+        readNames(in).forEach(builder::addProperty);
+        for (int id = 0; id < builder.classNames.size(); id++) {
+            for (int superclass : readEdges(in)) {
+                builder.addSubclassOf(builder.classNames.get(id), builder.classNames.get(superclass));
+            }
+        }
+        for (int id = 0; id < builder.propertyNames.size(); id++) {
+            for (int superProperty : readEdges(in)) {
+                builder.addSubpropertyOf(builder.propertyNames.get(id), builder.propertyNames.get(superProperty));
+            }
+        }
+        for (int id = 0; id < builder.propertyNames.size(); id++) {
+            String property = builder.propertyNames.get(id);
+            readNames(in).forEach(domain -> builder.addDomain(property, domain));
+            readNames(in).forEach(range -> builder.addRange(property, range));
+        }
+        return builder.build();
+    }
+
+    private static void writeNames(DataOutputStream out, List<String> names) throws IOException {
+        out.writeInt(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+    }
+
+    private static List<String> readNames(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(in.readUTF());
+        }
+        return names;
+    }
+
+    private static void writeEdges(DataOutputStream out, List<BitSet> edges) throws IOException {
+        for (BitSet targets : edges) {
+            out.writeInt(targets.cardinality());
+            for (int id = targets.nextSetBit(0); id >= 0; id = targets.nextSetBit(id + 1)) {
+                out.writeInt(id);
+            }
+        }
+    }
+
+    private static int[] readEdges(DataInputStream in) throws IOException {
+        int[] targets = new int[in.readInt()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = in.readInt();
+        }
+        return targets;
+    }
+
+    /**
+     * Berechnet die reflexive, transitive Hülle einer Adjazenzliste per Tiefensuche je Knoten.
+     */
+    private static BitSet[] closure(List<BitSet> direct) {
+        int size = direct.size();
+        BitSet[] closure = new BitSet[size];
+        int[] stack = new int[size];
+        for (int start = 0; start < size; start++) {
+            BitSet reached = new BitSet(size);
+            reached.set(start);
+            int top = 0;
+            stack[top++] = start;
+            while (top > 0) {
+                int current = stack[--top];
+                BitSet next = direct.get(current);
+                for (int i = next.nextSetBit(0); i >= 0; i = next.nextSetBit(i + 1)) {
+                    if (!reached.get(i)) {
+                        reached.set(i);
+                        stack[top++] = i;
+                    }
+                }
+            }
+            closure[start] = reached;
+        }
+        return closure;
+    }
+
+    /**
+     * Sammelt Klassen, Properties und ihre direkten Beziehungen während des Durchlaufs über die Schema-Tripel.
+     */
+    static final class Builder {
+        private final List<String> classNames = new ArrayList<>();
+        private final Map<String, Integer> classIds = new HashMap<>();
+        private final List<String> propertyNames = new ArrayList<>();
+        private final Map<String, Integer> propertyIds = new HashMap<>();
+
+        private final List<BitSet> directSubclasses = new ArrayList<>();
+        private final List<BitSet> directSuperclasses = new ArrayList<>();
+        private final List<BitSet> directSubproperties = new ArrayList<>();
+        private final List<BitSet> directSuperproperties = new ArrayList<>();
+
+        private final BitSet literalProperties = new BitSet();
+        private final List<List<String>> domains = new ArrayList<>();
+        private final List<List<String>> ranges = new ArrayList<>();
+
+        int addClass(String name) {
+            Integer id = classIds.get(name);
+            if (id == null) {
+                id = classNames.size();
+                classNames.add(name);
+                classIds.put(name, id);
+                directSubclasses.add(new BitSet());
+                directSuperclasses.add(new BitSet());
+            }
+            return id;
+        }
+
+        int addProperty(String name) {
+            Integer id = propertyIds.get(name);
+            if (id == null) {
+                id = propertyNames.size();
+                propertyNames.add(name);
+                propertyIds.put(name, id);
+                directSubproperties.add(new BitSet());
+                directSuperproperties.add(new BitSet());
+                domains.add(new ArrayList<>());
+                ranges.add(new ArrayList<>());
+            }
+            return id;
+        }
+
+        void addSubclassOf(String subclass, String superclass) {
+            int sub = addClass(subclass);
+            int sup = addClass(superclass);
+            directSubclasses.get(sup).set(sub);
+            directSuperclasses.get(sub).set(sup);
+        }
+
+        void addSubpropertyOf(String subproperty, String superproperty) {
+            int sub = addProperty(subproperty);
+            int sup = addProperty(superproperty);
+            directSubproperties.get(sup).set(sub);
+            directSuperproperties.get(sub).set(sup);
+        }
+
+        void addDomain(String property, String domain) {
+            domains.get(addProperty(property)).add(domain);
+        }
+
+        void addRange(String property, String range) {
+            int id = addProperty(property);
+            ranges.get(id).add(range);
+            if (range.startsWith("xsd") && !range.equalsIgnoreCase("xsd_anyuri")) {
+                literalProperties.set(id);
+            }
+        }
+
+        CompiledSchema build() {
+            return new CompiledSchema(this);
+        }
+    }
+}
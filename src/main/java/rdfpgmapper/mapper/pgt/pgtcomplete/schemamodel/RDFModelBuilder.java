@@ -1,13 +1,18 @@
 package rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel;
 
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import rdfpgmapper.utils.Helper;
 
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Eine Hilfsklasse zur Erstellung eines RDFGraphModel aus einem Jena RDF Model.
  * Diese Klasse verarbeitet ein RDF Model, um daraus ein strukturiertes Schema-Modell
@@ -19,101 +24,86 @@ import rdfpgmapper.utils.Helper;
 public class RDFModelBuilder {
 
     /**
-     * Erstellt ein RDFGraphModel aus einem gegebenen Jena Model. Dieses Modell umfasst
-     * die Definitionen von Klassen, Eigenschaften und deren Hierarchien und Beziehungen
-     * gemäß RDF- und RDFS-Spezifikationen.
+     * Kompiliert das Schema eines Jena Models in einem einzigen Durchlauf über dessen Tripel.
+     * Berücksichtigt werden rdf:type rdfs:Class, rdf:type rdf:Property, rdfs:subClassOf, rdfs:subPropertyOf,
+     * rdfs:domain und rdfs:range. Jede IRI wird dabei nur einmal in ihren Präfix-Namen umgewandelt.
      *
-     * @param model Das RDF Model, aus dem das RDFGraphModel erstellt wird.
-     * @return Ein vollständig aufgebautes RDFGraphModel, das für das Mapping verwendet wird.
+     * @param model Das RDF Model, aus dem das Schema kompiliert wird.
+     * @return Das kompilierte Schema mit dichten IDs und vorberechneten Hüllen.
      */
-    public static RDFGraphModel buildGraphModel(Model model) {
-        RDFGraphModel graphModel = new RDFGraphModel();
+    public static CompiledSchema compile(Model model) {
+        CompiledSchema.Builder builder = new CompiledSchema.Builder();
+        Map<String, String> prefixedNames = new HashMap<>();
 
-        // Extraktion von RDF-Klassen und deren Hierarchien
-        StmtIterator classesStatements = model.listStatements(null, RDF.type, RDFS.Class);
-        while (classesStatements.hasNext()) {
-            Statement stmt = classesStatements.nextStatement();
-            String subjectUri = Helper.getPrefixedName(stmt.getSubject().getURI(), model);
-            RDFClass rdfSubjectClass = graphModel.getClass(subjectUri);
-            if (rdfSubjectClass == null) {
-                rdfSubjectClass = new RDFClass(subjectUri);
-                graphModel.addClass(rdfSubjectClass);
+        StmtIterator statements = model.listStatements();
+        while (statements.hasNext()) {
+            Statement stmt = statements.nextStatement();
+            Property predicate = stmt.getPredicate();
+            RDFNode object = stmt.getObject();
+            if (!stmt.getSubject().isURIResource() || !object.isURIResource()) {
+                continue;
             }
-        }
 
-        // Lesen von RDF-Eigenschaften und deren Hierarchien
-        StmtIterator subClassStatements = model.listStatements(null, RDFS.subClassOf, (Resource) null);
-        while (subClassStatements.hasNext()) {
-            Statement stmt = subClassStatements.nextStatement();
-            String subjectUri = Helper.getPrefixedName(stmt.getSubject().getURI(), model);
-            String objectUri = Helper.getPrefixedName(stmt.getObject().asResource().getURI(), model);
-            RDFClass rdfSubjectClass = graphModel.getClass(subjectUri);
-            if (rdfSubjectClass == null) {
-                rdfSubjectClass = new RDFClass(subjectUri);
-                graphModel.addClass(rdfSubjectClass);
-            }
-            RDFClass rdfObjectClass = graphModel.getClass(subjectUri);
-            if (rdfObjectClass == null) {
-                rdfObjectClass = new RDFClass(objectUri);
-                graphModel.addClass(rdfObjectClass);
+            if (predicate.equals(RDF.type)) {
+                if (object.equals(RDFS.Class)) {
+                    builder.addClass(prefixedName(stmt.getSubject().getURI(), model, prefixedNames));
+                } else if (object.equals(RDF.Property)) {
+                    builder.addProperty(prefixedName(stmt.getSubject().getURI(), model, prefixedNames));
+                }
+            } else if (predicate.equals(RDFS.subClassOf)) {
+                builder.addSubclassOf(prefixedName(stmt.getSubject().getURI(), model, prefixedNames),
+                        prefixedName(object.asResource().getURI(), model, prefixedNames));
+            } else if (predicate.equals(RDFS.subPropertyOf)) {
+                builder.addSubpropertyOf(prefixedName(stmt.getSubject().getURI(), model, prefixedNames),
+                        prefixedName(object.asResource().getURI(), model, prefixedNames));
+            } else if (predicate.equals(RDFS.domain)) {
+                builder.addDomain(prefixedName(stmt.getSubject().getURI(), model, prefixedNames),
+                        prefixedName(object.asResource().getURI(), model, prefixedNames));
+            } else if (predicate.equals(RDFS.range)) {
+                builder.addRange(prefixedName(stmt.getSubject().getURI(), model, prefixedNames),
+                        prefixedName(object.asResource().getURI(), model, prefixedNames));
             }
-            graphModel.getClass(objectUri).addSubclass(subjectUri);
-            graphModel.getClass(subjectUri).addSuperclass(objectUri);
         }
 
-        // Lesen von Subklassen-Beziehungen
-        StmtIterator propertyStatements = model.listStatements(null, RDF.type, RDF.Property);
-        while (propertyStatements.hasNext()) {
-            Statement stmt = propertyStatements.nextStatement();
-            String subjectUri = Helper.getPrefixedName(stmt.getSubject().getURI(), model);
-            if (!graphModel.properties.containsKey(subjectUri)) {
-                graphModel.addProperty(new RDFProperty(subjectUri));
-            }
-        }
+        return builder.build();
+    }
 
-        // Lesen von Subproperty-Beziehungen
-        StmtIterator subPropertyStatements = model.listStatements(null, RDFS.subPropertyOf, (Resource) null);
-        while (subPropertyStatements.hasNext()) {
-            Statement stmt = subPropertyStatements.nextStatement();
-            String subjectUri = Helper.getPrefixedName(stmt.getSubject().getURI(), model);
-            String objectUri = Helper.getPrefixedName(stmt.getObject().asResource().getURI(), model);
-            if (!graphModel.properties.containsKey(subjectUri)) {
-                graphModel.addProperty(new RDFProperty(subjectUri));
-            }
-            if (!graphModel.properties.containsKey(objectUri)) {
-                graphModel.addProperty(new RDFProperty(objectUri));
-            }
-            graphModel.getProperty(objectUri).addSubproperty(subjectUri);
-            graphModel.getProperty(subjectUri).addSuperproperty(objectUri);
-        }
+    /**
+     * Erstellt ein RDFGraphModel aus einem gegebenen Jena Model. Dieses Modell umfasst
+     * die Definitionen von Klassen, Eigenschaften und deren Hierarchien und Beziehungen
+     * gemäß RDF- und RDFS-Spezifikationen. Das Modell wird aus dem {@link #compile(Model) kompilierten Schema} abgeleitet.
+     *
+     * @param model Das RDF Model, aus dem das RDFGraphModel erstellt wird.
+     * @return Ein vollständig aufgebautes RDFGraphModel, das für das Mapping verwendet wird.
+     */
+    public static RDFGraphModel buildGraphModel(Model model) {
+        CompiledSchema schema = compile(model);
+        RDFGraphModel graphModel = new RDFGraphModel();
 
-        // Zuweisung von Domains zu Properties
-        StmtIterator domainStatements = model.listStatements(null, RDFS.domain, (Resource) null);
-        while (domainStatements.hasNext()) {
-            Statement stmt = domainStatements.nextStatement();
-            String propertyUri = Helper.getPrefixedName(stmt.getSubject().getURI(), model);
-            String domainUri = Helper.getPrefixedName(stmt.getObject().asResource().getURI(), model);
-            if (!graphModel.properties.containsKey(propertyUri)) {
-                graphModel.addProperty(new RDFProperty(propertyUri));
-            }
-            graphModel.getProperty(propertyUri).addDomain(domainUri);
+        for (int id = 0; id < schema.classCount(); id++) {
+            RDFClass rdfClass = new RDFClass(schema.className(id));
+            schema.classNames(schema.directSubclasses(id)).forEach(rdfClass::addSubclass);
+            schema.classNames(schema.directSuperclasses(id)).forEach(rdfClass::addSuperclass);
+            graphModel.addClass(rdfClass);
         }
 
-        // Zuweisung von Ranges zu Properties
-        StmtIterator rangeStatements = model.listStatements(null, RDFS.range, (Resource) null);
-        while (rangeStatements.hasNext()) {
-            Statement stmt = rangeStatements.nextStatement();
-            String propertyUri = Helper.getPrefixedName(stmt.getSubject().getURI(), model);
-            String rangeUri = Helper.getPrefixedName(stmt.getObject().asResource().getURI(), model);
-            if (!graphModel.properties.containsKey(propertyUri)) {
-                graphModel.addProperty(new RDFProperty(propertyUri));
-            }
-            graphModel.getProperty(propertyUri).addRange(rangeUri);
-            if (rangeUri.startsWith("xsd") && !rangeUri.equalsIgnoreCase("xsd_anyuri")) {
-                graphModel.getProperty(propertyUri).setIsLiteral();
+        for (int id = 0; id < schema.propertyCount(); id++) {
+            RDFProperty rdfProperty = new RDFProperty(schema.propertyName(id));
+            BitSet subproperties = schema.directSubproperties(id);
+            schema.propertyNames(subproperties).forEach(rdfProperty::addSubproperty);
+            schema.propertyNames(schema.directSuperproperties(id)).forEach(rdfProperty::addSuperproperty);
+            schema.domains(id).forEach(rdfProperty::addDomain);
+            schema.ranges(id).forEach(rdfProperty::addRange);
+            if (schema.isLiteral(id)) {
+                rdfProperty.setIsLiteral();
             }
+            graphModel.addProperty(rdfProperty);
         }
 
         return graphModel;
     }
-}
\ No newline at end of file
+
+    private static String prefixedName(String uri, Model model, Map<String, String> prefixedNames) {
+        return prefixedNames.computeIfAbsent(uri, key -> Helper.getPrefixedName(key, model));
+    }
+}
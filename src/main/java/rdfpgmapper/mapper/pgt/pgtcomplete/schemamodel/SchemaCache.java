@@ -0,0 +1,287 @@
+package rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.out.NodeFormatterNT;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import rdfpgmapper.mapper.delta.TripleFingerprintStore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lokaler Cache kompilierter Ontologie-Schemata.
+ * Ein Eintrag ist über den SHA-256-Hash der Generator-Version, der Schema-Tripel und der Präfix-Zuordnung
+ * identifiziert und enthält das {@link CompiledSchema} sowie die daraus erzeugten Schema-Statements je
+ * Mapper-Konfiguration.
+ * Einträge werden im Speicher gehalten und als Datei im Cache-Verzeichnis abgelegt, sodass auch spätere
+ * Prozesse eine unveränderte Ontologie nicht erneut kompilieren müssen. Im Speicher bleiben höchstens
+ * {@value #MAX_ENTRIES} zuletzt verwendete Einträge; ältere werden bei Bedarf wieder von der Festplatte gelesen.
+ * Jeder Schreibvorgang verwendet eine eigene temporäre Datei, sodass mehrere Caches bzw. Prozesse dasselbe
+ * Verzeichnis nutzen können.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class SchemaCache {
+
+    /**
+     * Die maximale Anzahl der im Speicher gehaltenen Einträge.
+     */
+    public static final int MAX_ENTRIES = 16;
+
+    /**
+     * Die Version der Schema-Kompilierung und der Erzeugung der Schema-Statements. Sie geht in den Schlüssel ein und
+     * muss bei jeder Änderung an {@link RDFModelBuilder}, {@link CompiledSchema} oder den daraus erzeugten Statements
+     * erhöht werden, damit Einträge früherer Versionen nicht mehr verwendet werden.
+     */
+    public static final int GENERATOR_VERSION = 1;
+
+    private static final int MAGIC = 0x52534331;
+
+    private final Path directory;
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    });
+
+    /**
+     * Erstellt einen Cache im gegebenen Verzeichnis. Das Verzeichnis wird beim ersten Schreiben angelegt.
+     *
+     * @param directory Das Cache-Verzeichnis.
+     */
+    public SchemaCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gibt das Standard-Cache-Verzeichnis im Home-Verzeichnis des Benutzers zurück.
+     *
+     * @return Der Pfad {@code ~/.rdfpgmapper/schema-cache}.
+     */
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".rdfpgmapper", "schema-cache");
+    }
+
+    /**
+     * Gibt den Cache-Eintrag für das Schema eines Modells zurück. Fehlt er im Speicher und auf der Festplatte,
+     * wird das Schema kompiliert und der neue Eintrag abgelegt.
+     *
+     * @param model Das RDF-Modell mit dem Schema.
+     * @return Der Cache-Eintrag.
+     */
+    public Entry get(Model model) {
+        String key = key(model);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return entry;
+        }
+
+        // Gelesen und kompiliert wird außerhalb der Sperre, damit verschiedene Schemata sich nicht blockieren.
+        entry = read(key);
+        if (entry == null) {
+            entry = new Entry(key, RDFModelBuilder.compile(model));
+            write(entry);
+        } else {
+            System.out.println("Schema aus Cache geladen: " + key);
+        }
+        Entry existing = entries.putIfAbsent(key, entry);
+        return existing != null ? existing : entry;
+    }
+
+    /**
+     * Legt die Schema-Statements einer Mapper-Konfiguration im Eintrag ab und schreibt ihn auf die Festplatte.
+     *
+     * @param entry      Der Cache-Eintrag.
+     * @param variant    Die Kennung der Mapper-Konfiguration, von der die Statements abhängen.
+     * @param statements Die erzeugten Schema-Statements.
+     */
+    public void putStatements(Entry entry, String variant, List<String> statements) {
+        entry.statements.put(variant, List.copyOf(statements));
+        write(entry);
+    }
+
+    /**
+     * Berechnet den Schlüssel eines Schemas aus der {@link #GENERATOR_VERSION}, den sortierten N-Triples der
+     * Schema-Tripel und der Präfix-Zuordnung.
+     * Die Schema-Tripel werden über die Prädikat-Indizes des Modells gelesen, ohne die Instanzdaten zu durchlaufen.
+     *
+     * @param model Das RDF-Modell mit dem Schema.
+     * @return Der SHA-256-Hash als Hex-String.
+     */
+    public static String key(Model model) {
+        NodeFormatterNT formatter = new NodeFormatterNT();
+        List<String> triples = new ArrayList<>();
+        addTriples(model.listStatements(null, RDF.type, RDFS.Class).toList(), formatter, triples);
+        addTriples(model.listStatements(null, RDF.type, RDF.Property).toList(), formatter, triples);
+        addTriples(model.listStatements(null, RDFS.subClassOf, (RDFNode) null).toList(), formatter, triples);
+        addTriples(model.listStatements(null, RDFS.subPropertyOf, (RDFNode) null).toList(), formatter, triples);
+        addTriples(model.listStatements(null, RDFS.domain, (RDFNode) null).toList(), formatter, triples);
+        addTriples(model.listStatements(null, RDFS.range, (RDFNode) null).toList(), formatter, triples);
+        triples.sort(null);
+
+        MessageDigest digest = sha256();
+        digest.update(("version=" + GENERATOR_VERSION).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        for (String triple : triples) {
+            digest.update(triple.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        for (Map.Entry<String, String> prefix : new TreeMap<>(model.getNsPrefixMap()).entrySet()) {
+            digest.update((prefix.getKey() + "=" + prefix.getValue()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void addTriples(List<Statement> statements, NodeFormatterNT formatter, List<String> triples) {
+        for (Statement statement : statements) {
+            Resource subject = statement.getSubject();
+            if (subject.isURIResource() && statement.getObject().isURIResource()) {
+                triples.add(TripleFingerprintStore.toNTriples(statement, formatter));
+            }
+        }
+    }
+
+    private Entry read(String key) {
+        Path file = directory.resolve(key + ".schema");
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != GENERATOR_VERSION || !in.readUTF().equals(key)) {
+                return null;
+            }
+            Entry entry = new Entry(key, CompiledSchema.read(in));
+            int variants = in.readInt();
+            for (int i = 0; i < variants; i++) {
+                String variant = in.readUTF();
+                List<String> statements = new ArrayList<>();
+                int size = in.readInt();
+                for (int j = 0; j < size; j++) {
+                    byte[] statement = new byte[in.readInt()];
+                    in.readFully(statement);
+                    statements.add(new String(statement, StandardCharsets.UTF_8));
+                }
+                entry.statements.put(variant, List.copyOf(statements));
+            }
+            return entry;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Schema-Cache konnte nicht gelesen werden: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(Entry entry) {
+        synchronized (entry) {
+            writeFile(entry);
+        }
+    }
+
+    private void writeFile(Entry entry) {
+        Path file = directory.resolve(entry.key + ".schema");
+        Path tmp = null;
+        try {
+            Files.createDirectories(directory);
+            tmp = Files.createTempFile(directory, entry.key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(GENERATOR_VERSION);
+                out.writeUTF(entry.key);
+                entry.schema.write(out);
+                out.writeInt(entry.statements.size());
+                for (Map.Entry<String, List<String>> variant : entry.statements.entrySet()) {
+                    out.writeUTF(variant.getKey());
+                    out.writeInt(variant.getValue().size());
+                    for (String statement : variant.getValue()) {
+                        byte[] bytes = statement.getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(bytes.length);
+                        out.write(bytes);
+                    }
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Schema-Cache konnte nicht geschrieben werden: " + e.getMessage());
+            try {
+                if (tmp != null) {
+                    Files.deleteIfExists(tmp);
+                }
+            } catch (IOException deleteError) {
+                System.err.println("Temporäre Cache-Datei konnte nicht gelöscht werden: " + tmp);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Ein Eintrag des Schema-Caches.
+     */
+    public static final class Entry {
+        private final String key;
+        private final CompiledSchema schema;
+        private final Map<String, List<String>> statements = new ConcurrentHashMap<>();
+
+        private Entry(String key, CompiledSchema schema) {
+            this.key = key;
+            this.schema = schema;
+        }
+
+        /**
+         * Gibt den Schlüssel des Eintrags zurück.
+         *
+         * @return Der SHA-256-Hash der Generator-Version, der Schema-Tripel und Präfixe.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Gibt das kompilierte Schema zurück.
+         *
+         * @return Das kompilierte Schema.
+         */
+        public CompiledSchema getSchema() {
+            return schema;
+        }
+
+        /**
+         * Gibt die zwischengespeicherten Schema-Statements einer Mapper-Konfiguration zurück.
+         *
+         * @param variant Die Kennung der Mapper-Konfiguration.
+         * @return Die Statements oder null, wenn sie noch nicht erzeugt wurden.
+         */
+        public List<String> getStatements(String variant) {
+            return statements.get(variant);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package rdfpgmapper.mapper.pgt.pgtcomplete.validation;
+
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.NodeIterator;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.vocabulary.RDF;
+import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.CompiledSchema;
+import rdfpgmapper.utils.Helper;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Prüft Instanz-Tripel im Mapper gegen die RDFS-Constraints eines {@link CompiledSchema}, bevor sie an Neo4j gesendet werden.
+ * Geprüft werden dieselben Regeln wie von den Server-Triggern des {@code PgtComplete}-Mappers:
+ * Domain und Range von Objekt-Properties sowie Domain und Datentyp von Literal-Properties.
+ * Die Typen eines Knotens werden als Bitset der Klassen-IDs gehalten und gegen die vorberechneten
+ * Subklassen-Hüllen geschnitten; Constraints von Super-Properties gelten auch für Relationen ihrer Sub-Properties.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class SchemaValidator {
+
+    private final CompiledSchema schema;
+    private final Map<String, Constraints> constraints = new HashMap<>();
+
+    /**
+     * Erstellt einen Validator für das gegebene Schema und ordnet jeder Property ihre Constraints zu.
+     *
+     * @param schema Das kompilierte Schema mit Klassen- und Property-Hüllen.
+     */
+    public SchemaValidator(CompiledSchema schema) {
+        this.schema = schema;
+
+        for (int id = 0; id < schema.propertyCount(); id++) {
+            Constraints propertyConstraints = new Constraints(schema.isLiteral(id));
+            if (schema.isLiteral(id)) {
+                addDomains(id, propertyConstraints);
+                schema.ranges(id).stream().findFirst().ifPresent(datatype -> propertyConstraints.datatype = datatype);
+            } else {
+                BitSet chain = schema.superproperties(id);
+                for (int superProperty = chain.nextSetBit(0); superProperty >= 0; superProperty = chain.nextSetBit(superProperty + 1)) {
+                    if (!schema.isLiteral(superProperty)) {
+                        addDomains(superProperty, propertyConstraints);
+                        addRanges(superProperty, propertyConstraints);
+                    }
+                }
+            }
+            if (!propertyConstraints.isEmpty()) {
+                constraints.put(schema.propertyName(id), propertyConstraints);
+            }
+        }
+    }
+
+    /**
+     * Prüft alle Tripel eines RDF-Modells und sammelt die Verletzungen in einem Bericht.
+     * Die Typen von Subjekten und Objekten werden nur aus dem Modell gelesen.
+     *
+     * @param model Das RDF-Modell mit den Instanzdaten und deren rdf:type-Angaben.
+     * @return Der Bericht mit allen Verletzungen.
+     */
+    public ValidationReport validate(Model model) {
+        return validate(model, null, resources -> Map.of());
+    }
+
+    /**
+     * Prüft alle Tripel eines RDF-Modells und sammelt die Verletzungen in einem Bericht.
+     * Die Typen von Subjekten und Objekten werden aus dem Modell und dem Kontext gelesen, z.B. den übrigen Dateien eines
+     * Imports. Erst für die Ressourcen, die danach Domain oder Range verletzen, werden die bereits bekannten Typen
+     * einmalig gesammelt nachgeschlagen, z.B. die Labels der Knoten eines früheren Imports; nur was auch dann noch
+     * verletzt, wird gemeldet.
+     *
+     * @param model      Das RDF-Modell mit den Instanzdaten und deren rdf:type-Angaben.
+     * @param context    Weitere Tripel, deren rdf:type-Angaben berücksichtigt werden, oder null.
+     * @param knownTypes Liefert zu Ressourcen die Präfix-Namen ihrer bereits bekannten Klassen.
+     * @return Der Bericht mit allen Verletzungen.
+     */
+    public ValidationReport validate(Model model, Model context, Function<Set<Resource>, Map<Resource, Set<String>>> knownTypes) {
+        ValidationReport report = new ValidationReport();
+        Map<Resource, BitSet> typeCache = new HashMap<>();
+        Map<String, String> prefixedNames = new HashMap<>();
+        List<Candidate> candidates = new ArrayList<>();
+
+        StmtIterator statements = model.listStatements();
+        while (statements.hasNext()) {
+            Statement statement = statements.nextStatement();
+            String property = prefixedNames.computeIfAbsent(statement.getPredicate().getURI(), uri -> Helper.getPrefixedName(uri, model));
+            Constraints propertyConstraints = constraints.get(property);
+            if (propertyConstraints == null || statement.getObject().isLiteral() != propertyConstraints.literal) {
+                continue;
+            }
+            report.countChecked();
+
+            Resource subject = statement.getSubject();
+            BitSet subjectTypes = typeCache.computeIfAbsent(subject, resource -> types(resource, model, context, prefixedNames));
+            if (!satisfiesAll(subjectTypes, propertyConstraints.domains)) {
+                candidates.add(new Candidate(statement, "domain", property, subject, propertyConstraints.domains));
+            }
+
+            RDFNode object = statement.getObject();
+            if (object.isLiteral()) {
+                String datatype = prefixedNames.computeIfAbsent(((Literal) object).getDatatypeURI(), uri -> Helper.getPrefixedName(uri, model));
+                if (propertyConstraints.datatype != null && !propertyConstraints.datatype.equals(datatype)) {
+                    candidates.add(new Candidate(statement, "datatype", property, null, List.of()));
+                }
+            } else if (object.isURIResource()) {
+                BitSet objectTypes = typeCache.computeIfAbsent(object.asResource(), resource -> types(resource, model, context, prefixedNames));
+                if (!satisfiesAll(objectTypes, propertyConstraints.ranges)) {
+                    candidates.add(new Candidate(statement, "range", property, object.asResource(), propertyConstraints.ranges));
+                }
+            }
+        }
+
+        Set<Resource> unresolved = new HashSet<>();
+        candidates.stream().filter(candidate -> candidate.resource() != null).forEach(candidate -> unresolved.add(candidate.resource()));
+        if (!unresolved.isEmpty()) {
+            knownTypes.apply(unresolved).forEach((resource, classes) -> {
+                BitSet types = typeCache.get(resource);
+                for (String cls : classes) {
+                    int id = schema.classId(cls);
+                    if (id >= 0) {
+                        types.set(id);
+                    }
+                }
+            });
+        }
+        for (Candidate candidate : candidates) {
+            if (candidate.resource() == null || !satisfiesAll(typeCache.get(candidate.resource()), candidate.required())) {
+                report.add(new Violation(candidate.statement(), candidate.constraint(), candidate.property()));
+            }
+        }
+
+        return report;
+    }
+
+    /**
+     * Gibt die Präfix-Namen aller Properties zurück, für die Constraints gelten.
+     *
+     * @return Die Properties mit Domain-, Range- oder Datentyp-Constraints.
+     */
+    public Set<String> getConstrainedProperties() {
+        return Collections.unmodifiableSet(constraints.keySet());
+    }
+
+    /**
+     * Gibt zurück, ob die Constraints einer Property für Literal-Werte gelten.
+     *
+     * @param property Der Präfix-Name der Property.
+     * @return true für Literal-Properties, false für Objekt-Properties.
+     */
+    public boolean isLiteral(String property) {
+        return constraints.get(property).literal;
+    }
+
+    /**
+     * Gibt die Domain-Constraints einer Property zurück. Jeder Eintrag ist die Subklassen-Hülle einer Domain;
+     * das Subjekt muss zu jeder Hülle mindestens eine Klasse besitzen.
+     *
+     * @param property Der Präfix-Name der Property.
+     * @return Die Liste der Klassen-Hüllen.
+     */
+    public List<Set<String>> getDomains(String property) {
+        return constraints.get(property).domains.stream().map(schema::classNames).toList();
+    }
+
+    /**
+     * Gibt die Range-Constraints einer Objekt-Property analog zu {@link #getDomains(String)} zurück.
+     *
+     * @param property Der Präfix-Name der Property.
+     * @return Die Liste der Klassen-Hüllen.
+     */
+    public List<Set<String>> getRanges(String property) {
+        return constraints.get(property).ranges.stream().map(schema::classNames).toList();
+    }
+
+    /**
+     * Gibt den erwarteten Datentyp einer Literal-Property zurück.
+     *
+     * @param property Der Präfix-Name der Property.
+     * @return Der Präfix-Name des Datentyps oder null, wenn keiner festgelegt ist.
+     */
+    public String getDatatype(String property) {
+        return constraints.get(property).datatype;
+    }
+
+    private boolean satisfiesAll(BitSet types, List<BitSet> requiredClasses) {
+        for (BitSet validClasses : requiredClasses) {
+            if (!types.intersects(validClasses)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private BitSet types(Resource resource, Model model, Model context, Map<String, String> prefixedNames) {
+        BitSet types = new BitSet(schema.classCount());
+        addTypes(types, model.listObjectsOfProperty(resource, RDF.type), model, prefixedNames);
+        if (context != null) {
+            addTypes(types, context.listObjectsOfProperty(resource, RDF.type), model, prefixedNames);
+        }
+        return types;
+    }
+
+    private void addTypes(BitSet types, NodeIterator typeNodes, Model model, Map<String, String> prefixedNames) {
+        typeNodes.forEachRemaining(type -> {
+            if (type.isURIResource()) {
+                int id = schema.classId(prefixedNames.computeIfAbsent(type.asResource().getURI(), uri -> Helper.getPrefixedName(uri, model)));
+                if (id >= 0) {
+                    types.set(id);
+                }
+            }
+        });
+    }
+
+    private void addDomains(int property, Constraints propertyConstraints) {
+        for (String domain : schema.domains(property)) {
+            int id = schema.classId(domain);
+            if (id >= 0) {
+                propertyConstraints.domains.add(schema.subclasses(id));
+            }
+        }
+    }
+
+    private void addRanges(int property, Constraints propertyConstraints) {
+        for (String range : schema.ranges(property)) {
+            int id = schema.classId(range);
+            if (id >= 0) {
+                propertyConstraints.ranges.add(schema.subclasses(id));
+            }
+        }
+    }
+
+    /**
+     * Eine mögliche Verletzung, die erst nach dem Nachschlagen der bekannten Typen ihrer Ressource feststeht.
+     * Verletzungen des Datentyps haben keine Ressource und stehen sofort fest.
+     */
+    private record Candidate(Statement statement, String constraint, String property, Resource resource,
+                             List<BitSet> required) {
+    }
+
+    private static final class Constraints {
+        private final boolean literal;
+        private final List<BitSet> domains = new ArrayList<>();
+        private final List<BitSet> ranges = new ArrayList<>();
+        private String datatype;
+
+        private Constraints(boolean literal) {
+            this.literal = literal;
+        }
+
+        private boolean isEmpty() {
+            return domains.isEmpty() && ranges.isEmpty() && datatype == null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package rdfpgmapper.mapper.pgt.pgtcomplete.validation;
+
+/**
+ * Legt fest, wie der {@link SchemaValidator} mit Verletzungen von Domain-, Range- und Datentyp-Constraints umgeht.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public enum ValidationMode {
+
+    /**
+     * Keine Validierung im Mapper.
+     */
+    OFF,
+
+    /**
+     * Verletzungen werden gemeldet, alle Tripel werden dennoch importiert.
+     */
+    REPORT,
+
+    /**
+     * Verletzungen werden gemeldet, die betroffenen Tripel werden nicht importiert.
+     */
+    REJECT,
+
+    /**
+     * Verletzungen werden gemeldet, die betroffenen Tripel werden statt als Daten als
+     * {@code QuarantinedTriple}-Knoten abgelegt.
+     */
+    QUARANTINE
+}
@@ -0,0 +1,105 @@
+package rdfpgmapper.mapper.pgt.pgtcomplete.validation;
+
+import org.apache.jena.rdf.model.Statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Sammelt alle Verletzungen einer Validierung, damit sie gebündelt gemeldet werden können.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ValidationReport {
+
+    private final List<Violation> violations = new ArrayList<>();
+    private final Map<Statement, List<Violation>> violationsByStatement = new LinkedHashMap<>();
+    private long checkedStatements;
+
+    void add(Violation violation) {
+        violations.add(violation);
+        violationsByStatement.computeIfAbsent(violation.statement(), statement -> new ArrayList<>()).add(violation);
+    }
+
+    void countChecked() {
+        checkedStatements++;
+    }
+
+    /**
+     * Gibt zurück, ob keine Verletzungen gefunden wurden.
+     *
+     * @return true, wenn alle geprüften Tripel gültig sind.
+     */
+    public boolean isValid() {
+        return violations.isEmpty();
+    }
+
+    /**
+     * Gibt alle gefundenen Verletzungen zurück.
+     *
+     * @return Eine unveränderliche Liste der Verletzungen.
+     */
+    public List<Violation> getViolations() {
+        return Collections.unmodifiableList(violations);
+    }
+
+    /**
+     * Gibt zurück, ob ein Tripel mindestens einen Constraint verletzt.
+     *
+     * @param statement Das zu prüfende Tripel.
+     * @return true, wenn das Tripel verletzend ist.
+     */
+    public boolean isOffending(Statement statement) {
+        return violationsByStatement.containsKey(statement);
+    }
+
+    /**
+     * Gibt alle verletzenden Tripel in der Reihenfolge ihrer ersten Verletzung zurück.
+     *
+     * @return Eine unveränderliche Menge der verletzenden Tripel.
+     */
+    public Set<Statement> getOffendingStatements() {
+        return Collections.unmodifiableSet(violationsByStatement.keySet());
+    }
+
+    /**
+     * Gibt die Verletzungen eines Tripels zurück.
+     *
+     * @param statement Das Tripel.
+     * @return Eine unveränderliche Liste der Verletzungen; leer, wenn das Tripel gültig ist.
+     */
+    public List<Violation> getViolations(Statement statement) {
+        return Collections.unmodifiableList(violationsByStatement.getOrDefault(statement, List.of()));
+    }
+
+    /**
+     * Gibt die Anzahl der Verletzungen je Constraint zurück.
+     *
+     * @return Eine sortierte Map von Meldung zu Anzahl.
+     */
+    public Map<String, Integer> countByConstraint() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Violation violation : violations) {
+            counts.merge(violation.message(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Gibt eine Zusammenfassung der Validierung auf der Konsole aus. Die Aufschlüsselung nach Constraint folgt auf
+     * demselben Ausgabestrom, damit der Bericht zusammenhängend bleibt.
+     */
+    public void print() {
+        System.out.println("Validierung: " + checkedStatements + " Tripel geprüft, "
+                + violationsByStatement.size() + " verletzende Tripel.");
+        for (Map.Entry<String, Integer> entry : countByConstraint().entrySet()) {
+            System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+        }
+    }
+}
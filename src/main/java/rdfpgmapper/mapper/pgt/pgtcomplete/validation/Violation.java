@@ -0,0 +1,24 @@
+package rdfpgmapper.mapper.pgt.pgtcomplete.validation;
+
+import org.apache.jena.rdf.model.Statement;
+
+/**
+ * Eine einzelne Verletzung eines Schema-Constraints.
+ *
+ * @param statement Das verletzende Tripel.
+ * @param kind      Die Art des Constraints ("domain", "range" oder "datatype").
+ * @param property  Der Präfix-Name der Property, deren Constraint verletzt wurde.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record Violation(Statement statement, String kind, String property) {
+
+    /**
+     * Gibt eine lesbare Beschreibung der Verletzung zurück, analog zu den Meldungen der Server-Trigger.
+     *
+     * @return Die Beschreibung der Verletzung.
+     */
+    public String message() {
+        return "Violation of " + kind + " constraints for " + property;
+    }
+}
@@ -0,0 +1,27 @@
+package rdfpgmapper.mapper.rpt;
+
+/**
+ * Legt fest, über welchen Schlüssel der {@link RptGeneric}-Mapper Literal-Knoten identifiziert.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public enum LiteralKeying {
+
+    /**
+     * Literal-Knoten werden über {@code value} und {@code type} gemergt und global geteilt (bisheriges Verhalten).
+     */
+    VALUE,
+
+    /**
+     * Literal-Knoten werden über einen 128-Bit-Hash ihrer N-Triples-Darstellung gemergt und global geteilt.
+     * Wert, Datentyp und Sprach-Tag werden unindiziert gespeichert.
+     */
+    HASH,
+
+    /**
+     * Wie {@link #HASH}, der Hash enthält jedoch zusätzlich den Schlüssel des Subjekts. Jedes Subjekt erhält
+     * eigene Literal-Knoten, sodass häufige Werte keine Superknoten bilden und parallele Schreiber sich nicht sperren.
+     */
+    HASH_PER_SUBJECT
+}
@@ -1,5 +1,6 @@
 package rdfpgmapper.mapper.rpt;
 
+import org.apache.jena.atlas.io.IndentedLineBuffer;
 import org.apache.jena.rdf.model.AnonId;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
@@ -8,16 +9,24 @@ import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.out.NodeFormatterNT;
 import org.neo4j.driver.Record;
 import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.mapper.changelog.ChangeLog;
+import rdfpgmapper.mapper.delta.TripleFingerprintStore;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.mapper.export.ExportPage;
+import rdfpgmapper.mapper.export.PagedExporter;
+import rdfpgmapper.mapper.schema.DataProfile;
+import rdfpgmapper.mapper.schema.IndexRequirement;
 import rdfpgmapper.neo4j.Neo4jClient;
 import rdfpgmapper.utils.Helper;
 
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * Eine Implementierung des {@link Mapper} Interfaces für generisches RPT-Mapping von RDF zu Property Graphen.
@@ -29,6 +38,8 @@ import java.util.Objects;
 public class RptGeneric implements Mapper {
 
     private final Neo4jClient neo4jClient;
+    private Long changeBatch;
+    private LiteralKeying literalKeying = LiteralKeying.VALUE;
 
     /**
      * Konstruktor für RptGeneric, der eine Instanz von {@link Neo4jClient} verwendet.
@@ -41,8 +52,8 @@ public class RptGeneric implements Mapper {
 
     /**
      * Erstellt ein Schema für Property Graphen in Neo4j, basierend auf RDF-Daten.
-     * Diese Methode generiert Cypher-Statements zur Erstellung von Constraints und Triggern für Ressourcen,
-     * Blank Nodes, Literale und Eigenschaften in Neo4j.
+     * Diese Methode generiert die Trigger zur Validierung von Relationen; Constraints und Indizes
+     * werden über {@link #getIndexRequirements(DataProfile)} geplant.
      *
      * @param model Das RDF-Modell, aus dem das Schema erstellt wird.
      * @return Eine Liste von Cypher-Statements, die das Schema in Neo4j definieren.
@@ -50,22 +61,26 @@ public class RptGeneric implements Mapper {
     @Override
     public List<String> mapRdfToPgSchema(Model model) {
         List<String> cypher = new ArrayList<>();
-        cypher.add("CREATE CONSTRAINT FOR (r:Resource) REQUIRE r.iri IS NOT NULL;");
-        cypher.add("CREATE CONSTRAINT FOR (b:BlankNode) REQUIRE b.id IS NOT NULL;");
-        cypher.add("CREATE CONSTRAINT FOR (l:Literal) REQUIRE l.value IS NOT NULL;");
-        cypher.add("CREATE CONSTRAINT FOR (l:Literal) REQUIRE l.type IS NOT NULL;");
-        cypher.add("CREATE CONSTRAINT FOR (op:ObjectProperty) REQUIRE op.type IS NOT NULL;");
-        cypher.add("CREATE CONSTRAINT FOR (dp:DatatypeProperty) REQUIRE dp.type IS NOT NULL;");
-
-        cypher.add("CREATE CONSTRAINT FOR (r:Resource) REQUIRE r.iri IS UNIQUE;");
-        cypher.add("CREATE CONSTRAINT FOR (b:BlankNode) REQUIRE b.id IS UNIQUE;");
-        cypher.add("CREATE CONSTRAINT FOR (l:Literal) REQUIRE (l.value, l.type) IS UNIQUE;");
-        cypher.add("CREATE CONSTRAINT FOR (op:ObjectProperty) REQUIRE op.type IS UNIQUE;");
-        cypher.add("CREATE CONSTRAINT FOR (dp:DatatypeProperty) REQUIRE dp.type IS UNIQUE;");
-
-        cypher.add("CALL apoc.trigger.add('validate_object_domain_range', " + "'MATCH (n)-[r:DatatypeProperty]->(m) " + "WITH r, startNode(r) AS domainNode, endNode(r) AS rangeNode, r.type AS propType " + "WHERE NOT (domainNode:Resource OR domainNode:BlankNode) AND (rangeNode:Resource OR rangeNode:BlankNode) " + "DELETE r', {phase:'before'});");
-
-        cypher.add("CALL apoc.trigger.add('validate_literal_domain_range', " + "'MATCH (n)-[r:ObjectProperty]->(m) " + "WITH r, startNode(r) AS domainNode, endNode(r) AS rangeNode, r.type AS propType " + "WHERE NOT (domainNode:Resource OR domainNode:BlankNode) AND (rangeNode:Literal) " + "DELETE r', {phase:'before'});");
+        cypher.add(Helper.removeTrigger("validate_object_domain_range"));
+        cypher.add(Helper.removeTrigger("validate_literal_domain_range"));
+
+        // Ein einziger Trigger prüft nur die in der aktuellen Transaktion erstellten Relationen.
+        cypher.add(Helper.addTrigger("rpt_generic_domain_range",
+                "UNWIND $createdRelationships AS r " +
+                        "WITH r, startNode(r) AS domainNode, endNode(r) AS rangeNode " +
+                        "WHERE NOT (domainNode:Resource OR domainNode:BlankNode) AND (" +
+                        "(type(r) = 'DatatypeProperty' AND (rangeNode:Resource OR rangeNode:BlankNode)) OR " +
+                        "(type(r) = 'ObjectProperty' AND rangeNode:Literal)) " +
+                        "DELETE r"));
+
+        // Im Hash-Modus darf der frühere Eindeutigkeits-Constraint auf (value, type) nicht bestehen bleiben,
+        // da Literale pro Subjekt mehrfach vorkommen können.
+        if (literalKeying != LiteralKeying.VALUE) {
+            for (Record record : neo4jClient.readFromNeo4j("SHOW CONSTRAINTS YIELD name, type, labelsOrTypes, properties " +
+                    "WHERE type = 'UNIQUENESS' AND labelsOrTypes = ['Literal'] AND 'value' IN properties RETURN name")) {
+                cypher.add("DROP CONSTRAINT " + Helper.escapeName(record.get("name").asString()) + " IF EXISTS");
+            }
+        }
 
         return cypher;
     }
@@ -114,7 +129,7 @@ public class RptGeneric implements Mapper {
             } else if (object.isAnon()) {
                 objectArr = mergeBlankNode((Resource) object, 'b');
             } else {
-                objectArr = mergeLiteral((Literal) object, model);
+                objectArr = mergeLiteral((Literal) object, subjectArr[2], model);
             }
 
 
@@ -128,43 +143,180 @@ public class RptGeneric implements Mapper {
         return Helper.addNodeForNsPrefixUriDeclaration(model, cypher);
     }
 
+    /**
+     * Konvertiert entfernte RDF-Tripel in Cypher-Statements, die die entsprechenden Object- bzw. Datatype-Properties löschen.
+     * Bei entfernten rdf:type-Tripeln wird zusätzlich die type-Property des Subjekts zurückgesetzt.
+     * Knoten, die danach keine Relationen mehr besitzen, werden ebenfalls gelöscht.
+     *
+     * @param model Das RDF-Modell mit den zu entfernenden Tripeln.
+     * @return Eine Liste von Cypher-Statements, die die Tripel aus Neo4j entfernen.
+     */
+    @Override
+    public List<String> mapRdfToPgDelete(Model model) {
+        List<String> cypher = new ArrayList<>();
+
+        Iterator<Statement> statementIterator = model.listStatements();
+
+        while (statementIterator.hasNext()) {
+            Statement statement = statementIterator.next();
+
+            Resource subject = statement.getSubject();
+            RDFNode object = statement.getObject();
+            String propertyName = Helper.getPrefixedName(statement.getPredicate().getURI(), model);
+
+            String[] subjectArr = subject.isURIResource() ? mergeResource(subject, 'a', model) : mergeBlankNode(subject, 'a');
+
+            String[] objectArr;
+            if (object.isURIResource()) {
+                objectArr = mergeResource((Resource) object, 'b', model);
+            } else if (object.isAnon()) {
+                objectArr = mergeBlankNode((Resource) object, 'b');
+            } else {
+                objectArr = matchLiteral((Literal) object, subjectArr[2], model);
+            }
+
+            String relationship = object.isLiteral() ? "DatatypeProperty" : "ObjectProperty";
+
+            StringBuilder statementCypher = new StringBuilder()
+                    .append(Helper.mergeToMatch(subjectArr[1])).append("\n")
+                    .append(object.isLiteral() ? objectArr[1] : Helper.mergeToMatch(objectArr[1])).append("\n")
+                    .append("MATCH (").append(subjectArr[0]).append(")-[r:").append(relationship)
+                    .append(" {type: '").append(propertyName).append("'}]->(").append(objectArr[0]).append(")\n")
+                    .append("DELETE r").append(ChangeLog.recordDeletion(statement, changeBatch)).append("\n");
+
+            if (propertyName.equals("rdf_type") && object.isURIResource()) {
+                String typeString = Helper.getPrefixedName(((Resource) object).getURI(), model);
+                statementCypher.append("SET ").append(subjectArr[0]).append(".type = CASE WHEN ").append(subjectArr[0])
+                        .append(".type = '").append(typeString).append("' THEN null ELSE ").append(subjectArr[0]).append(".type END\n");
+            }
+
+            statementCypher.append(Helper.deleteOrphans(subjectArr[0], objectArr[0]));
+            cypher.add(statementCypher.toString());
+        }
+
+        return cypher;
+    }
+
     private String[] mergeResourceType(Resource resource, char postfix, Resource type, Model model) {
         String iri = Helper.getPrefixedName(resource.getURI(), model);
         String typeString = Helper.getPrefixedName(type.getURI(), model);
-        return new String[]{"res" + postfix, "MERGE (res" + postfix + ":Resource {iri: '" + iri + "'}) " + "SET res" + postfix + ".type = '" + typeString + "'"};
+        return new String[]{"res" + postfix, "MERGE (res" + postfix + ":Resource {iri: '" + iri + "'}) " + "SET res" + postfix + ".type = '" + typeString + "'", iri};
     }
 
     private String[] mergeBlankNodeType(Resource resource, char postfix, Resource type, Model model) {
         String id = resource.getId().toString().replace("'", "_");
         String typeString = Helper.getPrefixedName(type.getURI(), model);
-        return new String[]{"b" + postfix, "MERGE (b" + postfix + ":BlankNode {id: '_:" + id + "'}) " + "SET b" + postfix + ".type = '" + typeString + "'"};
+        return new String[]{"b" + postfix, "MERGE (b" + postfix + ":BlankNode {id: '_:" + id + "'}) " + "SET b" + postfix + ".type = '" + typeString + "'", "_:" + id};
     }
 
     private String[] mergeResource(Resource resource, char postfix, Model model) {
         String iri = Helper.getPrefixedName(resource.getURI(), model);
-        return new String[]{"res" + postfix, "MERGE (res" + postfix + ":Resource {iri: '" + iri + "'})"};
+        return new String[]{"res" + postfix, "MERGE (res" + postfix + ":Resource {iri: '" + iri + "'})", iri};
     }
 
     private String[] mergeBlankNode(Resource resource, char postfix) {
         String id = resource.getId().toString().replace("'", "_");
-        return new String[]{"b" + postfix, "MERGE (b" + postfix + ":BlankNode {id: '_:" + id + "'})"};
+        return new String[]{"b" + postfix, "MERGE (b" + postfix + ":BlankNode {id: '_:" + id + "'})", "_:" + id};
+    }
+
+    private String[] mergeLiteral(Literal literal, String subjectKey, Model model) {
+        if (literalKeying == LiteralKeying.VALUE) {
+            String value = literal.getValue().toString().replace("'", "_");
+            return new String[]{"lit", "MERGE (lit" + ":Literal {value: '" + value + "', type: '" + Helper.getPrefixedName(literal.getDatatypeURI(), model) + "'})"};
+        }
+        String language = literal.getLanguage().isEmpty() ? "" : ", lit.lang = '" + Helper.escapeString(literal.getLanguage()) + "'";
+        return new String[]{"lit", "MERGE (lit:Literal {hash: '" + literalHash(literal, subjectKey) + "'}) " +
+                "ON CREATE SET lit.value = '" + Helper.escapeString(literal.getLexicalForm()) + "', " +
+                "lit.type = '" + Helper.escapeString(Helper.getPrefixedName(literal.getDatatypeURI(), model)) + "'" + language};
     }
 
-    private String[] mergeLiteral(Literal literal, Model model) {
-        String value = literal.getValue().toString().replace("'", "_");
-        return new String[]{"lit", "MERGE (lit" + ":Literal {value: '" + value + "', type: '" + Helper.getPrefixedName(literal.getDatatypeURI(), model) + "'})"};
+    private String[] matchLiteral(Literal literal, String subjectKey, Model model) {
+        if (literalKeying == LiteralKeying.VALUE) {
+            String[] literalArr = mergeLiteral(literal, subjectKey, model);
+            return new String[]{literalArr[0], Helper.mergeToMatch(literalArr[1])};
+        }
+        return new String[]{"lit", "MATCH (lit:Literal {hash: '" + literalHash(literal, subjectKey) + "'})"};
+    }
+
+    /**
+     * Berechnet den Schlüssel eines Literal-Knotens als Hex-Darstellung des 128-Bit-Hashes seiner N-Triples-Form,
+     * bei {@link LiteralKeying#HASH_PER_SUBJECT} zusammen mit dem Schlüssel des Subjekts.
+     */
+    private String literalHash(Literal literal, String subjectKey) {
+        IndentedLineBuffer buffer = new IndentedLineBuffer();
+        new NodeFormatterNT().format(buffer, literal.asNode());
+        String content = literalKeying == LiteralKeying.HASH_PER_SUBJECT ? subjectKey + "\n" + buffer : buffer.toString();
+        long[] hash = TripleFingerprintStore.fingerprint(content);
+        return HexFormat.of().toHexDigits(hash[0]) + HexFormat.of().toHexDigits(hash[1]);
     }
 
     private String mergeDatatypeProperty(Property property, String subject, String object, Model model) {
-        return "MERGE (" + subject + ")-[:DatatypeProperty {type: '" + Helper.getPrefixedName(property.getURI(), model) + "'}]->(" + object + ")";
+        return "MERGE (" + subject + ")-[r:DatatypeProperty {type: '" + Helper.getPrefixedName(property.getURI(), model) + "'}]->(" + object + ")" + ChangeLog.stampOnCreate("r", changeBatch);
     }
 
 
     private String mergeObjectProperty(Property property, String subject, String object, Model model) {
-        return "MERGE (" + subject + ")-[:ObjectProperty {type: '" + Helper.getPrefixedName(property.getURI(), model) + "'}]->(" + object + ")";
+        return "MERGE (" + subject + ")-[r:ObjectProperty {type: '" + Helper.getPrefixedName(property.getURI(), model) + "'}]->(" + object + ")" + ChangeLog.stampOnCreate("r", changeBatch);
 
     }
 
+    @Override
+    public List<IndexRequirement> getIndexRequirements(DataProfile profile) {
+        List<IndexRequirement> requirements = new ArrayList<>();
+        requirements.add(IndexRequirement.unique("Resource", "MERGE (:Resource {iri})", "iri"));
+        requirements.add(IndexRequirement.notNull("Resource", "iri"));
+        if (profile.blankNodes() > 0) {
+            requirements.add(IndexRequirement.unique("BlankNode", "MERGE (:BlankNode {id})", "id"));
+            requirements.add(IndexRequirement.notNull("BlankNode", "id"));
+        }
+        if (profile.literals() > 0 && literalKeying == LiteralKeying.VALUE) {
+            requirements.add(IndexRequirement.unique("Literal", "MERGE (:Literal {value, type})", "value", "type"));
+            requirements.add(IndexRequirement.notNull("Literal", "value", "type"));
+        } else if (profile.literals() > 0) {
+            requirements.add(IndexRequirement.unique("Literal", "MERGE (:Literal {hash})", "hash"));
+            requirements.add(IndexRequirement.notNull("Literal", "hash"));
+        }
+        requirements.add(IndexRequirement.relationshipRange("ObjectProperty", "type", "MATCH ()-[:ObjectProperty {type}]->() (Export-Filter nach Klassen)"));
+        requirements.add(IndexRequirement.relationshipRange("DatatypeProperty", "type", "MATCH ()-[:DatatypeProperty {type}]->() (Export-Filter, Löschen)"));
+        if (changeBatch != null) {
+            requirements.add(IndexRequirement.relationshipRange("ObjectProperty", ChangeLog.BATCH_PROPERTY, "MATCH ()-[:ObjectProperty]->() WHERE __batch > $since (Export der Änderungen)"));
+            requirements.add(IndexRequirement.relationshipRange("DatatypeProperty", ChangeLog.BATCH_PROPERTY, "MATCH ()-[:DatatypeProperty]->() WHERE __batch > $since (Export der Änderungen)"));
+            requirements.add(ChangeLog.deletionIndex());
+        }
+        return requirements;
+    }
+
+    @Override
+    public void setChangeBatch(Long batch) {
+        this.changeBatch = batch;
+    }
+
+    /**
+     * Ohne Wirkung, da das Layout keine aus Typen abgeleiteten Labels oder Relationen kennt.
+     */
+    @Override
+    public void setContext(Model context) {
+    }
+
+    /**
+     * Legt fest, über welchen Schlüssel Literal-Knoten gemergt werden. Die Kodierung wird beim Export
+     * nicht benötigt, sollte aber für eine Datenbank nicht gewechselt werden, da sonst doppelte Literal-Knoten entstehen.
+     *
+     * @param literalKeying Der Schlüssel der Literal-Knoten.
+     */
+    public void setLiteralKeying(LiteralKeying literalKeying) {
+        this.literalKeying = literalKeying;
+    }
+
+    /**
+     * Gibt zurück, über welchen Schlüssel Literal-Knoten gemergt werden.
+     *
+     * @return Der Schlüssel der Literal-Knoten.
+     */
+    public LiteralKeying getLiteralKeying() {
+        return literalKeying;
+    }
+
     /**
      * Mappt Daten aus einem Neo4j Property Graph zurück in ein RDF-Modell.
      * Diese Methode liest Daten aus Neo4j und erstellt ein RDF-Modell, das diese Daten repräsentiert.
@@ -173,28 +325,84 @@ public class RptGeneric implements Mapper {
      */
     @Override
     public Model mapPgToRdf() {
+        return PagedExporter.collect(this, neo4jClient, PagedExporter.DEFAULT_PAGE_SIZE, ExportFilter.all());
+    }
+
+    @Override
+    public List<String> getExportShards() {
+        return List.of("Resource", "BlankNode");
+    }
+
+    /**
+     * Liest einen Abschnitt von Ressourcen bzw. Blank Nodes, geordnet nach IRI bzw. ID,
+     * samt ihrer ausgehenden Object- und Datatype-Properties.
+     *
+     * @param shard       Der Name des Shards ("Resource" oder "BlankNode").
+     * @param afterKey    Der zuletzt gelesene Schlüssel.
+     * @param pageSize    Die maximale Anzahl an Subjekt-Knoten pro Abschnitt.
+     * @param filter      Der bereits aufgelöste Export-Filter.
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @return Der gelesene Abschnitt.
+     */
+    @Override
+    public ExportPage mapPgToRdfPage(String shard, String afterKey, int pageSize, ExportFilter filter, Map<String, Object> nsPrefixUri) {
         Model model = ModelFactory.createDefaultModel();
 
-        List<Record> results = new ArrayList<>();
-        results.addAll(neo4jClient.readFromNeo4j("MATCH (n:Resource)-[r:ObjectProperty]->(m:Resource) RETURN n.iri AS subjectName, r.type AS predicateUri, m.iri AS objectName"));
-        results.addAll(neo4jClient.readFromNeo4j("MATCH (n:Resource)-[r:ObjectProperty]->(m:BlankNode) RETURN n.iri AS subjectName, r.type AS predicateUri, m.id AS objectName"));
-        results.addAll(neo4jClient.readFromNeo4j("MATCH (n:Resource)-[r:DatatypeProperty]->(m:Literal) RETURN n.iri AS subjectName, r.type AS predicateUri, m.value AS literalValue, m.type AS literalType"));
-        results.addAll(neo4jClient.readFromNeo4j("MATCH (n:BlankNode)-[r:ObjectProperty]->(m:Resource) RETURN n.id AS subjectName, r.type AS predicateUri, m.iri AS objectName"));
-        results.addAll(neo4jClient.readFromNeo4j("MATCH (n:BlankNode)-[r:ObjectProperty]->(m:BlankNode) RETURN n.id AS subjectName, r.type AS predicateUri, m.id AS objectName"));
-        results.addAll(neo4jClient.readFromNeo4j("MATCH (n:BlankNode)-[r:DatatypeProperty]->(m:Literal) RETURN n.id AS subjectName, r.type AS predicateUri, m.value AS literalValue, m.type AS literalType"));
+        if (shard.equals("BlankNode") && filter.excludesBlankNodes()) {
+            return new ExportPage(model, null);
+        }
 
-        List<Record> nsPrefixUriRecord = neo4jClient.readFromNeo4j("MATCH (n:PrefixUriNode) RETURN properties(n) as nsPrefixUri");
+        String key = shard.equals("BlankNode") ? "id" : "iri";
 
-        Map<String, Object> nsPrefixUri = nsPrefixUriRecord.getFirst().get("nsPrefixUri").asMap();
+        List<String> subjectConditions = new ArrayList<>(List.of("n." + key + " > $after"));
+        if (!filter.getNamespaces().isEmpty()) {
+            subjectConditions.add("any(ns IN $namespaces WHERE n.iri STARTS WITH ns)");
+        }
+        if (!filter.getClasses().isEmpty()) {
+            subjectConditions.add("EXISTS { (n)-[:ObjectProperty {type: $rdfType}]->(c:Resource) WHERE c.iri IN $classes }");
+        }
 
-        for (Map.Entry<String, Object> prefixUri : nsPrefixUri.entrySet()) {
-            model.setNsPrefix(prefixUri.getKey(), prefixUri.getValue().toString());
+        List<String> propertyConditions = new ArrayList<>();
+        if (!filter.getPredicates().isEmpty()) {
+            propertyConditions.add("r.type IN $predicates");
+        }
+        if (!filter.getDatatypes().isEmpty()) {
+            propertyConditions.add("(NOT m:Literal OR m.type IN $datatypes)");
+        }
+        if (filter.hasSinceBatch()) {
+            propertyConditions.add("r." + ChangeLog.BATCH_PROPERTY + " > $since AND r." + ChangeLog.BATCH_PROPERTY + " <= $until");
+        }
+
+        // Geänderte Subjekte werden je Relationstyp über den Index auf dem Batch-Stempel der Relationen gefunden.
+        String changed = " WHERE x." + ChangeLog.BATCH_PROPERTY + " > $since AND x." + ChangeLog.BATCH_PROPERTY + " <= $until RETURN n";
+        String subjects = filter.hasSinceBatch()
+                ? "CALL { MATCH (n:" + shard + ")-[x:ObjectProperty]->()" + changed + " UNION MATCH (n:" + shard + ")-[x:DatatypeProperty]->()" + changed + " } WITH n"
+                : "MATCH (n:" + shard + ")";
+
+        List<Record> results = neo4jClient.readFromNeo4j(
+                subjects + ExportFilter.where("WHERE", subjectConditions) +
+                        "WITH n ORDER BY n." + key + " LIMIT $limit " +
+                        "OPTIONAL MATCH (n)-[r:ObjectProperty|DatatypeProperty]->(m)" + ExportFilter.where("WHERE", propertyConditions) +
+                        "RETURN n." + key + " AS subjectName, r.type AS predicateUri, " +
+                        "m.iri AS objectIri, m.id AS objectId, m.value AS literalValue, m.type AS literalType, m.lang AS literalLanguage " +
+                        "ORDER BY subjectName",
+                filter.pageParameters(afterKey, pageSize)
+        );
+
+        if (results.isEmpty()) {
+            return new ExportPage(model, null);
         }
 
         for (Record result : results) {
             String subjectName = result.get("subjectName").asString();
-            String predicateUri = result.get("predicateUri").asString();
-            String objectName = result.get("objectName").asString();
+            String predicateUri = Helper.getString(result, "predicateUri");
+            String objectIri = Helper.getString(result, "objectIri");
+            String objectId = Helper.getString(result, "objectId");
+            String literalValue = Helper.getString(result, "literalValue");
+
+            if (predicateUri == null) {
+                continue;
+            }
 
             Resource subject;
             Property predicate = model.createProperty(Helper.getUri(predicateUri, nsPrefixUri));
@@ -207,22 +415,22 @@ public class RptGeneric implements Mapper {
                 subject = model.createResource(Helper.getUri(subjectName, nsPrefixUri));
             }
 
-            if (Objects.equals(objectName, "null")) {
-                String literalValue = result.get("literalValue").asString();
+            if (objectIri != null) {
+                object = model.createResource(Helper.getUri(objectIri, nsPrefixUri));
+            } else if (objectId != null) {
+                object = model.createResource(new AnonId(objectId.replace("_:", "")));
+            } else if (literalValue != null && Helper.getString(result, "literalLanguage") != null) {
+                object = model.createLiteral(literalValue, Helper.getString(result, "literalLanguage"));
+            } else if (literalValue != null) {
                 String literalType = Helper.getUri(result.get("literalType").asString(), nsPrefixUri);
                 object = model.createTypedLiteral(literalValue, literalType);
             } else {
-                if (objectName.contains("_:")) {
-                    String blankNodeId = objectName.replace("_:", "");
-                    object = model.createResource(new AnonId(blankNodeId));
-                } else {
-                    object = model.createResource(Helper.getUri(objectName, nsPrefixUri));
-                }
+                continue;
             }
 
             model.add(subject, predicate, object);
         }
 
-        return model;
+        return new ExportPage(model, results.getLast().get("subjectName").asString());
     }
 }
@@ -10,6 +10,12 @@ import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.neo4j.driver.Record;
 import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.mapper.changelog.ChangeLog;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.mapper.export.ExportPage;
+import rdfpgmapper.mapper.export.PagedExporter;
+import rdfpgmapper.mapper.schema.DataProfile;
+import rdfpgmapper.mapper.schema.IndexRequirement;
 import rdfpgmapper.neo4j.Neo4jClient;
 import rdfpgmapper.utils.Helper;
 
@@ -27,6 +33,7 @@ import java.util.Map;
  */
 public class RptSimple implements Mapper {
     private final Neo4jClient neo4jClient;
+    private Long changeBatch;
 
     /**
      * Konstruktor, der den Neo4jClient initialisiert.
@@ -39,18 +46,15 @@ public class RptSimple implements Mapper {
 
     /**
      * Erstellt Cypher-Statements zur Definition eines einfachen Schemas in Neo4j,
-     * das auf den Namen als Schlüssel basiert.
+     * das auf den Namen als Schlüssel basiert. Constraints und Indizes werden über
+     * {@link #getIndexRequirements(DataProfile)} geplant, sodass keine weiteren Statements nötig sind.
      *
      * @param model Das Jena RDF-Modell, das die RDF-Daten enthält.
      * @return Eine Liste von Cypher-Statements, die das Neo4j Schema definieren.
      */
     @Override
     public List<String> mapRdfToPgSchema(Model model) {
-        List<String> cypher = new ArrayList<>();
-        cypher.add("CREATE CONSTRAINT FOR (r:Node) REQUIRE r.name IS NOT NULL;");
-        cypher.add("CREATE CONSTRAINT FOR (r:Node) REQUIRE r.name IS UNIQUE;");
-
-        return cypher;
+        return new ArrayList<>();
     }
 
     /**
@@ -69,24 +73,8 @@ public class RptSimple implements Mapper {
         while (statementIterator.hasNext()) {
             Statement statement = statementIterator.next();
 
-            String[] subjectArr;
-            Resource subject = statement.getSubject();
-            if (subject.isURIResource()) {
-                subjectArr = mergeRessource(subject, 'a', model);
-            } else {
-                subjectArr = mergeBlankNode(subject, 'a');
-            }
-
-            String[] objectArr;
-            RDFNode object = statement.getObject();
-            if (object.isURIResource()) {
-                objectArr = mergeRessource((Resource) object, 'b', model);
-            } else if (object.isAnon()) {
-                objectArr = mergeBlankNode((Resource) object, 'b');
-            } else {
-                objectArr = mergeLiteral((Literal) object, model);
-            }
-
+            String[] subjectArr = mergeSubject(statement.getSubject(), model);
+            String[] objectArr = mergeObject(statement.getObject(), model);
             Property predicate = statement.getPredicate();
 
             cypher.add(
@@ -99,6 +87,54 @@ public class RptSimple implements Mapper {
         return Helper.addNodeForNsPrefixUriDeclaration(model, cypher);
     }
 
+    /**
+     * Konvertiert entfernte RDF-Tripel in Cypher-Statements, die die entsprechenden Properties löschen.
+     * Knoten, die danach keine Relationen mehr besitzen, werden ebenfalls gelöscht.
+     *
+     * @param model Das RDF-Modell mit den zu entfernenden Tripeln.
+     * @return Eine Liste von Cypher-Statements, die die Tripel aus Neo4j entfernen.
+     */
+    @Override
+    public List<String> mapRdfToPgDelete(Model model) {
+        List<String> cypher = new ArrayList<>();
+
+        Iterator<Statement> statementIterator = model.listStatements();
+
+        while (statementIterator.hasNext()) {
+            Statement statement = statementIterator.next();
+
+            String[] subjectArr = mergeSubject(statement.getSubject(), model);
+            String[] objectArr = mergeObject(statement.getObject(), model);
+            String propertyName = Helper.getPrefixedName(statement.getPredicate().getURI(), model);
+
+            cypher.add(
+                    Helper.mergeToMatch(subjectArr[1]) + "\n" +
+                            Helper.mergeToMatch(objectArr[1]) + "\n" +
+                            "MATCH (" + subjectArr[0] + ")-[r:Property {name: '" + propertyName + "'}]->(" + objectArr[0] + ")\n" +
+                            "DELETE r" +
+                            ChangeLog.recordDeletion(statement, changeBatch) + "\n" +
+                            Helper.deleteOrphans(subjectArr[0], objectArr[0]));
+        }
+
+        return cypher;
+    }
+
+    private String[] mergeSubject(Resource subject, Model model) {
+        if (subject.isURIResource()) {
+            return mergeRessource(subject, 'a', model);
+        }
+        return mergeBlankNode(subject, 'a');
+    }
+
+    private String[] mergeObject(RDFNode object, Model model) {
+        if (object.isURIResource()) {
+            return mergeRessource((Resource) object, 'b', model);
+        } else if (object.isAnon()) {
+            return mergeBlankNode((Resource) object, 'b');
+        }
+        return mergeLiteral((Literal) object, model);
+    }
+
     private String[] mergeRessource(Resource resource, char postfix, Model model) {
         String iri = Helper.getPrefixedName(resource.getURI(), model);
         return new String[]{"res" + postfix, "MERGE (res" + postfix + ":Node {name: '" + iri + "'})"};
@@ -115,7 +151,32 @@ public class RptSimple implements Mapper {
     }
 
     private String mergeProperty(Property property, String subject, String object, Model model) {
-        return "MERGE (" + subject + ")-[:Property {name: '" + Helper.getPrefixedName(property.getURI(), model) + "'}]->(" + object + ")";
+        return "MERGE (" + subject + ")-[r:Property {name: '" + Helper.getPrefixedName(property.getURI(), model) + "'}]->(" + object + ")" + ChangeLog.stampOnCreate("r", changeBatch);
+    }
+
+    @Override
+    public List<IndexRequirement> getIndexRequirements(DataProfile profile) {
+        List<IndexRequirement> requirements = new ArrayList<>(List.of(
+                IndexRequirement.unique("Node", "MERGE (:Node {name})", "name"),
+                IndexRequirement.notNull("Node", "name"),
+                IndexRequirement.relationshipRange("Property", "name", "MATCH ()-[:Property {name}]->() (Export-Filter nach Klassen)")));
+        if (changeBatch != null) {
+            requirements.add(IndexRequirement.relationshipRange("Property", ChangeLog.BATCH_PROPERTY, "MATCH ()-[:Property]->() WHERE __batch > $since (Export der Änderungen)"));
+            requirements.add(ChangeLog.deletionIndex());
+        }
+        return requirements;
+    }
+
+    @Override
+    public void setChangeBatch(Long batch) {
+        this.changeBatch = batch;
+    }
+
+    /**
+     * Ohne Wirkung, da das Layout keine aus Typen abgeleiteten Labels oder Relationen kennt.
+     */
+    @Override
+    public void setContext(Model context) {
     }
 
     /**
@@ -125,27 +186,76 @@ public class RptSimple implements Mapper {
      */
     @Override
     public Model mapPgToRdf() {
+        return PagedExporter.collect(this, neo4jClient, PagedExporter.DEFAULT_PAGE_SIZE, ExportFilter.all());
+    }
+
+    @Override
+    public List<String> getExportShards() {
+        return List.of("Node");
+    }
+
+    /**
+     * Liest einen Abschnitt von Knoten, geordnet nach ihrem eindeutigen Namen, samt ihrer ausgehenden Properties.
+     *
+     * @param shard       Der Name des Shards (immer "Node").
+     * @param afterKey    Der zuletzt gelesene Knotenname.
+     * @param pageSize    Die maximale Anzahl an Subjekt-Knoten pro Abschnitt.
+     * @param filter      Der bereits aufgelöste Export-Filter.
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @return Der gelesene Abschnitt.
+     */
+    @Override
+    public ExportPage mapPgToRdfPage(String shard, String afterKey, int pageSize, ExportFilter filter, Map<String, Object> nsPrefixUri) {
         Model model = ModelFactory.createDefaultModel();
 
-        List<Record> results = neo4jClient.readFromNeo4j(
-                "MATCH (n)-[r]->(m) RETURN n.name AS subjectName, r.name AS predicateUri, m.name AS objectName"
-        );
+        List<String> subjectConditions = new ArrayList<>(List.of("n.name > $after"));
+        if (!filter.getNamespaces().isEmpty()) {
+            subjectConditions.add("any(ns IN $namespaces WHERE n.name STARTS WITH ns)");
+        }
+        if (!filter.getClasses().isEmpty()) {
+            subjectConditions.add("EXISTS { (n)-[:Property {name: $rdfType}]->(c:Node) WHERE c.name IN $classes }");
+        }
 
-        List<Record> nsPrefixUriRecord = neo4jClient.readFromNeo4j("MATCH (n:PrefixUriNode) RETURN properties(n) as nsPrefixUri");
+        List<String> propertyConditions = new ArrayList<>();
+        if (!filter.getPredicates().isEmpty()) {
+            propertyConditions.add("r.name IN $predicates");
+        }
+        if (!filter.getDatatypes().isEmpty()) {
+            propertyConditions.add("(NOT m.name CONTAINS '^^' OR any(dt IN $datatypes WHERE m.name ENDS WITH '^^' + dt))");
+        }
+        if (filter.hasSinceBatch()) {
+            propertyConditions.add("r." + ChangeLog.BATCH_PROPERTY + " > $since AND r." + ChangeLog.BATCH_PROPERTY + " <= $until");
+        }
+
+        // Geänderte Subjekte werden über den Index auf dem Batch-Stempel der Relationen gefunden.
+        String subjects = filter.hasSinceBatch()
+                ? "MATCH (n:Node)-[x:Property]->() WHERE x." + ChangeLog.BATCH_PROPERTY + " > $since AND x." + ChangeLog.BATCH_PROPERTY + " <= $until WITH DISTINCT n"
+                : "MATCH (n:Node)";
 
-        Map<String, Object> nsPrefixUri = nsPrefixUriRecord.getFirst().get("nsPrefixUri").asMap();
+        List<Record> results = neo4jClient.readFromNeo4j(
+                subjects + ExportFilter.where("WHERE", subjectConditions) +
+                        "WITH n ORDER BY n.name LIMIT $limit " +
+                        "OPTIONAL MATCH (n)-[r:Property]->(m:Node)" + ExportFilter.where("WHERE", propertyConditions) +
+                        "RETURN n.name AS subjectName, r.name AS predicateUri, m.name AS objectName " +
+                        "ORDER BY subjectName",
+                filter.pageParameters(afterKey, pageSize)
+        );
 
-        for (Map.Entry<String, Object> prefixUri : nsPrefixUri.entrySet()) {
-            model.setNsPrefix(prefixUri.getKey(), prefixUri.getValue().toString());
+        if (results.isEmpty()) {
+            return new ExportPage(model, null);
         }
 
         for (Record result : results) {
             String subjectName = result.get("subjectName").asString();
-            String predicateUri = result.get("predicateUri").asString();
-            String objectName = result.get("objectName").asString();
+            String predicateUri = Helper.getString(result, "predicateUri");
+            String objectName = Helper.getString(result, "objectName");
+
+            if (predicateUri == null || objectName == null) {
+                continue;
+            }
 
             Resource subject;
-            if (!subjectName.startsWith("_")) {
+            if (!subjectName.startsWith("_:")) {
                 subject = model.createResource(Helper.getUri(subjectName, nsPrefixUri));
             } else {
                 subject = model.createResource(new AnonId(subjectName.replace("_:", "")));
@@ -158,7 +268,7 @@ public class RptSimple implements Mapper {
                 String[] parts = objectName.split("\\^\\^");
                 object = model.createTypedLiteral(parts[0], Helper.getUri(parts[1], nsPrefixUri));
             } else {
-                if (!objectName.startsWith("_")) {
+                if (!objectName.startsWith("_:")) {
                     object = model.createResource(Helper.getUri(objectName, nsPrefixUri));
                 } else {
                     object = model.createResource(new AnonId(objectName.replace("_:", "")));
@@ -168,7 +278,7 @@ public class RptSimple implements Mapper {
             model.add(subject, predicate, object);
         }
 
-        return model;
+        return new ExportPage(model, results.getLast().get("subjectName").asString());
     }
 
 }
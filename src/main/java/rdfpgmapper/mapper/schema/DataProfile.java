@@ -0,0 +1,52 @@
+package rdfpgmapper.mapper.schema;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Kennzahlen eines RDF-Modells, anhand derer der {@link SchemaPlanner} entscheidet, welche Indizes benötigt werden.
+ *
+ * @param statements   Die Anzahl der Tripel.
+ * @param uriResources Die Anzahl der verschiedenen URI-Ressourcen in Subjekt- oder Objekt-Position.
+ * @param blankNodes   Die Anzahl der verschiedenen Blank Nodes.
+ * @param literals     Die Anzahl der verschiedenen Literale.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record DataProfile(long statements, long uriResources, long blankNodes, long literals) {
+
+    /**
+     * Ermittelt die Kennzahlen eines RDF-Modells in einem Durchlauf.
+     *
+     * @param model Das RDF-Modell.
+     * @return Die Kennzahlen.
+     */
+    public static DataProfile of(Model model) {
+        Set<RDFNode> nodes = new HashSet<>();
+        long statements = 0;
+        StmtIterator iterator = model.listStatements();
+        while (iterator.hasNext()) {
+            Statement statement = iterator.nextStatement();
+            nodes.add(statement.getSubject());
+            nodes.add(statement.getObject());
+            statements++;
+        }
+
+        long uriResources = 0, blankNodes = 0, literals = 0;
+        for (RDFNode node : nodes) {
+            if (node.isURIResource()) {
+                uriResources++;
+            } else if (node.isAnon()) {
+                blankNodes++;
+            } else {
+                literals++;
+            }
+        }
+        return new DataProfile(statements, uriResources, blankNodes, literals);
+    }
+}
@@ -0,0 +1,117 @@
+package rdfpgmapper.mapper.schema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Beschreibt einen Constraint oder Index, den ein Mapper für seine Cypher-Statements benötigt.
+ *
+ * @param kind       Die Art des Constraints bzw. Index.
+ * @param target     Das Label bzw. der Relationstyp.
+ * @param properties Die Properties; bei mehreren Properties wird ein zusammengesetzter Index angelegt.
+ * @param essential  true, wenn der Index bereits während des Ladens benötigt wird (z.B. für MERGE-Schlüssel).
+ * @param queryShape Die Form der generierten Queries, die durch den Index unterstützt werden.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record IndexRequirement(Kind kind, String target, List<String> properties, boolean essential, String queryShape) {
+
+    /**
+     * Die Arten von Constraints und Indizes.
+     */
+    public enum Kind {
+        /**
+         * Eindeutigkeits-Constraint auf Knoten, implizit durch einen Index gestützt.
+         */
+        UNIQUE,
+        /**
+         * Existenz-Constraint auf Knoten-Properties.
+         */
+        NOT_NULL,
+        /**
+         * Range-Index auf Knoten-Properties.
+         */
+        NODE_RANGE,
+        /**
+         * Range-Index auf Relations-Properties.
+         */
+        RELATIONSHIP_RANGE
+    }
+
+    /**
+     * Erstellt eine Anforderung für einen Eindeutigkeits-Constraint, der einen MERGE-Schlüssel stützt.
+     *
+     * @param label      Das Label.
+     * @param queryShape Die Form der gestützten Queries.
+     * @param properties Die Schlüssel-Properties.
+     * @return Die Anforderung.
+     */
+    public static IndexRequirement unique(String label, String queryShape, String... properties) {
+        return new IndexRequirement(Kind.UNIQUE, label, List.of(properties), true, queryShape);
+    }
+
+    /**
+     * Erstellt eine Anforderung für Existenz-Constraints, die für das Laden nicht benötigt werden.
+     *
+     * @param label      Das Label.
+     * @param properties Die Properties.
+     * @return Die Anforderung.
+     */
+    public static IndexRequirement notNull(String label, String... properties) {
+        return new IndexRequirement(Kind.NOT_NULL, label, List.of(properties), false, "Datenintegrität");
+    }
+
+    /**
+     * Erstellt eine Anforderung für einen Range-Index auf einer Knoten-Property, die für das Laden nicht benötigt wird.
+     *
+     * @param label      Das Label.
+     * @param property   Die Property.
+     * @param queryShape Die Form der gestützten Queries.
+     * @return Die Anforderung.
+     */
+    public static IndexRequirement nodeRange(String label, String property, String queryShape) {
+        return new IndexRequirement(Kind.NODE_RANGE, label, List.of(property), false, queryShape);
+    }
+
+    /**
+     * Erstellt eine Anforderung für einen Range-Index auf einer Relations-Property, die für das Laden nicht benötigt wird.
+     *
+     * @param type       Der Relationstyp.
+     * @param property   Die Property.
+     * @param queryShape Die Form der gestützten Queries.
+     * @return Die Anforderung.
+     */
+    public static IndexRequirement relationshipRange(String type, String property, String queryShape) {
+        return new IndexRequirement(Kind.RELATIONSHIP_RANGE, type, List.of(property), false, queryShape);
+    }
+
+    /**
+     * Erstellt die Cypher-Statements zum Anlegen des Constraints bzw. Index.
+     *
+     * @return Die Cypher-Statements.
+     */
+    public List<String> toCypher() {
+        String keys = properties.stream().map(property -> "x." + property).collect(Collectors.joining(", "));
+        String composite = properties.size() > 1 ? "(" + keys + ")" : keys;
+        List<String> cypher = new ArrayList<>();
+        switch (kind) {
+            case UNIQUE -> cypher.add("CREATE CONSTRAINT IF NOT EXISTS FOR (x:" + target + ") REQUIRE " + composite + " IS UNIQUE;");
+            case NOT_NULL -> properties.forEach(property ->
+                    cypher.add("CREATE CONSTRAINT IF NOT EXISTS FOR (x:" + target + ") REQUIRE x." + property + " IS NOT NULL;"));
+            case NODE_RANGE -> cypher.add("CREATE INDEX IF NOT EXISTS FOR (x:" + target + ") ON (" + keys + ");");
+            case RELATIONSHIP_RANGE -> cypher.add("CREATE INDEX IF NOT EXISTS FOR ()-[x:" + target + "]-() ON (" + keys + ");");
+        }
+        return cypher;
+    }
+
+    /**
+     * Gibt eine lesbare Beschreibung des Constraints bzw. Index zurück.
+     *
+     * @return Die Beschreibung, z.B. "UNIQUE (:Resource {iri})".
+     */
+    public String describe() {
+        String pattern = kind == Kind.RELATIONSHIP_RANGE ? "()-[:" + target + " {%s}]-()" : "(:" + target + " {%s})";
+        return kind + " " + String.format(pattern, String.join(", ", properties));
+    }
+}
@@ -0,0 +1,79 @@
+package rdfpgmapper.mapper.schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ergebnis der Planung durch den {@link SchemaPlanner}: welche Constraints und Indizes vor dem Laden
+ * und welche erst danach angelegt werden.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class SchemaPlan {
+
+    private final DataProfile profile;
+    private final boolean bulkLoad;
+    private final List<IndexRequirement> immediate;
+    private final List<IndexRequirement> deferred;
+    private final List<String> failed = new ArrayList<>();
+
+    SchemaPlan(DataProfile profile, boolean bulkLoad, List<IndexRequirement> immediate, List<IndexRequirement> deferred) {
+        this.profile = profile;
+        this.bulkLoad = bulkLoad;
+        this.immediate = immediate;
+        this.deferred = deferred;
+    }
+
+    /**
+     * Gibt zurück, ob es sich um ein erstmaliges Laden in eine leere Datenbank handelt.
+     *
+     * @return true bei einem Bulk-Load.
+     */
+    public boolean isBulkLoad() {
+        return bulkLoad;
+    }
+
+    /**
+     * Gibt die vor dem Laden anzulegenden Constraints und Indizes zurück.
+     *
+     * @return Die Anforderungen.
+     */
+    public List<IndexRequirement> getImmediate() {
+        return immediate;
+    }
+
+    /**
+     * Gibt die erst nach dem Laden anzulegenden Constraints und Indizes zurück.
+     *
+     * @return Die Anforderungen.
+     */
+    public List<IndexRequirement> getDeferred() {
+        return deferred;
+    }
+
+    void addFailure(String statement) {
+        failed.add(statement);
+    }
+
+    List<String> getFailed() {
+        return failed;
+    }
+
+    /**
+     * Gibt den Plan auf der Konsole aus: für jeden Index, welche Query-Form er stützt und wann er angelegt wird.
+     */
+    public void print() {
+        System.out.println("Schema-Plan (" + (bulkLoad ? "Bulk-Load" : "inkrementell") + ", " + profile.statements() + " Tripel, "
+                + profile.uriResources() + " Ressourcen, " + profile.blankNodes() + " Blank Nodes, " + profile.literals() + " Literale):");
+        for (IndexRequirement requirement : immediate) {
+            System.out.println("  vor dem Laden:  " + requirement.describe() + " -> " + requirement.queryShape());
+        }
+        for (IndexRequirement requirement : deferred) {
+            System.out.println("  nach dem Laden: " + requirement.describe() + " -> " + requirement.queryShape());
+        }
+        for (String statement : failed) {
+            System.err.println("  nicht angelegt: " + statement);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package rdfpgmapper.mapper.schema;
+
+import org.apache.jena.rdf.model.Model;
+import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.neo4j.Neo4jClient;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plant die Constraints und Indizes eines Imports anhand der Index-Anforderungen des Mappers und der Kennzahlen der Daten.
+ * Beim erstmaligen Laden in eine leere Datenbank werden nur die für MERGE-Schlüssel benötigten Constraints vorab angelegt;
+ * alle übrigen Constraints und Indizes werden nach dem Laden erstellt, anschließend wird gewartet, bis sie online sind.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class SchemaPlanner {
+
+    /**
+     * Maximale Wartezeit in Sekunden, bis nach dem Laden angelegte Indizes online sind.
+     */
+    public static final int AWAIT_INDEXES_SECONDS = 600;
+
+    private final Neo4jClient neo4jClient;
+    private final Boolean sharedBulkLoad;
+    private final Set<String> applied = new HashSet<>();
+    private final Set<IndexRequirement> pendingDeferred = new LinkedHashSet<>();
+
+    /**
+     * Konstruktor für den SchemaPlanner.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     */
+    public SchemaPlanner(Neo4jClient neo4jClient) {
+        this(neo4jClient, null);
+    }
+
+    private SchemaPlanner(Neo4jClient neo4jClient, Boolean sharedBulkLoad) {
+        this.neo4jClient = neo4jClient;
+        this.sharedBulkLoad = sharedBulkLoad;
+    }
+
+    /**
+     * Erstellt einen Planer, den mehrere gleichzeitige Importe eines Jobs teilen.
+     * Ob es sich um einen Bulk-Load handelt, wird einmalig vor dem ersten Import entschieden. Bereits angelegte
+     * Constraints werden nicht erneut angelegt, und zurückgestellte Anforderungen werden nur gesammelt,
+     * bis sie nach dem letzten Import über {@link #applyPendingDeferred()} angelegt werden.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @return Der geteilte Planer.
+     */
+    public static SchemaPlanner shared(Neo4jClient neo4jClient) {
+        return new SchemaPlanner(neo4jClient, isEmptyDatabase(neo4jClient));
+    }
+
+    /**
+     * Plant die Constraints und Indizes für den Import eines RDF-Modells.
+     *
+     * @param mapper Der Mapper, dessen Layout importiert wird.
+     * @param model  Das zu importierende RDF-Modell.
+     * @return Der Plan.
+     */
+    public SchemaPlan plan(Mapper mapper, Model model) {
+        return plan(mapper, DataProfile.of(model));
+    }
+
+    /**
+     * Plant die Constraints und Indizes für Daten mit bereits bekannten Kennzahlen, z.B. bei einer Migration
+     * zwischen Layouts, deren Kennzahlen in der Datenbank gezählt werden.
+     *
+     * @param mapper  Der Mapper, dessen Layout geschrieben wird.
+     * @param profile Die Kennzahlen der Daten.
+     * @return Der Plan.
+     */
+    public SchemaPlan plan(Mapper mapper, DataProfile profile) {
+        boolean bulkLoad = sharedBulkLoad != null ? sharedBulkLoad : isEmptyDatabase(neo4jClient);
+
+        List<IndexRequirement> immediate = new ArrayList<>();
+        List<IndexRequirement> deferred = new ArrayList<>();
+        for (IndexRequirement requirement : mapper.getIndexRequirements(profile)) {
+            if (requirement.essential() || !bulkLoad) {
+                immediate.add(requirement);
+            } else {
+                deferred.add(requirement);
+            }
+        }
+        return new SchemaPlan(profile, bulkLoad, immediate, deferred);
+    }
+
+    /**
+     * Legt die vor dem Laden benötigten Constraints und Indizes an.
+     *
+     * @param plan Der Plan.
+     */
+    public synchronized void applyImmediate(SchemaPlan plan) {
+        apply(plan, plan.getImmediate());
+    }
+
+    /**
+     * Legt die zurückgestellten Constraints und Indizes an und wartet, bis alle Indizes online sind.
+     *
+     * @param plan Der Plan.
+     */
+    public synchronized void applyDeferred(SchemaPlan plan) {
+        if (sharedBulkLoad != null) {
+            pendingDeferred.addAll(plan.getDeferred());
+            return;
+        }
+        if (plan.getDeferred().isEmpty()) {
+            return;
+        }
+        apply(plan, plan.getDeferred());
+        neo4jClient.writeToNeo4j(List.of("CALL db.awaitIndexes(" + AWAIT_INDEXES_SECONDS + ")"));
+    }
+
+    /**
+     * Legt die von einem geteilten Planer gesammelten, zurückgestellten Constraints und Indizes an
+     * und wartet, bis alle Indizes online sind.
+     *
+     * @return Die Statements, die nicht angelegt werden konnten.
+     */
+    public synchronized List<String> applyPendingDeferred() {
+        List<String> failed = new ArrayList<>();
+        if (pendingDeferred.isEmpty()) {
+            return failed;
+        }
+        SchemaPlan plan = new SchemaPlan(new DataProfile(0, 0, 0, 0), true, List.of(), List.copyOf(pendingDeferred));
+        pendingDeferred.clear();
+        apply(plan, plan.getDeferred());
+        neo4jClient.writeToNeo4j(List.of("CALL db.awaitIndexes(" + AWAIT_INDEXES_SECONDS + ")"));
+        return plan.getFailed();
+    }
+
+    /**
+     * Jedes Statement läuft einzeln, damit z.B. in der Community Edition nicht unterstützte
+     * Existenz-Constraints die übrigen Constraints nicht verhindern.
+     */
+    private void apply(SchemaPlan plan, List<IndexRequirement> requirements) {
+        for (IndexRequirement requirement : requirements) {
+            for (String statement : requirement.toCypher()) {
+                if (sharedBulkLoad != null && !applied.add(statement)) {
+                    continue;
+                }
+                if (!neo4jClient.writeToNeo4j(List.of(statement))) {
+                    plan.addFailure(statement);
+                }
+            }
+        }
+    }
+
+    private static boolean isEmptyDatabase(Neo4jClient neo4jClient) {
+        return neo4jClient.readFromNeo4j(
+                "MATCH (n) WHERE NOT (n:ChangeLog OR n:ImportCheckpoint OR n:SchemaRegistry) RETURN 1 LIMIT 1", Map.of()).isEmpty();
+    }
+}
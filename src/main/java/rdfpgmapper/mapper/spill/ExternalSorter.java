@@ -0,0 +1,326 @@
+package rdfpgmapper.mapper.spill;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Sortiert und dedupliziert Schlüssel-Wert-Paare mit begrenztem Heap-Verbrauch.
+ * Einträge werden in einem Puffer gesammelt, bis dessen geschätzte Größe das Speicherbudget erreicht; dann wird der
+ * Puffer sortiert, dedupliziert und als Lauf in eine temporäre Datei geschrieben. Beim Lesen werden alle Läufe und
+ * der restliche Puffer in einem k-Wege-Merge zusammengeführt, sodass eine Menge von Schlüsseln unabhängig von ihrer
+ * Größe als sortierte, duplikatfreie Folge vorliegt. Bei mehr als
+ * {@value #MAX_FAN_IN} Läufen werden zuerst Läufe zu größeren Läufen zusammengefasst.
+ * <p>
+ * Verwendet wird der Sortierer vom {@link rdfpgmapper.mapper.dictionary.NodeDictionary}. Er begrenzt nur den Speicher
+ * dieser Deduplizierung; die Mapper erhalten ihre Eingabe weiterhin als vollständig geladenes Modell.
+ * <p>
+ * Budget und Verzeichnis der temporären Dateien gelten prozessweit und werden z.B. im Job-Modus über
+ * {@link #setDefaults(long, Path)} festgelegt.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ExternalSorter implements AutoCloseable {
+
+    /**
+     * Das Standard-Speicherbudget eines Sortierers in Bytes.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    /**
+     * Die höchste Anzahl an Läufen, die in einem Schritt zusammengeführt werden.
+     */
+    public static final int MAX_FAN_IN = 64;
+
+    private static volatile long defaultMemoryBudget = DEFAULT_MEMORY_BUDGET;
+    private static volatile Path defaultTempDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+
+    private final long memoryBudget;
+    private final Path tempDirectory;
+    private final List<SortedEntry> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+    private long bufferedBytes;
+    private long added;
+
+    /**
+     * Konstruktor für einen ExternalSorter mit dem prozessweiten Budget und Verzeichnis.
+     */
+    public ExternalSorter() {
+        this(defaultMemoryBudget, defaultTempDirectory);
+    }
+
+    /**
+     * Konstruktor für den ExternalSorter.
+     *
+     * @param memoryBudget  Die höchste geschätzte Größe des Puffers in Bytes.
+     * @param tempDirectory Das Verzeichnis für die Läufe.
+     */
+    public ExternalSorter(long memoryBudget, Path tempDirectory) {
+        this.memoryBudget = memoryBudget;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Legt Speicherbudget und Verzeichnis fest, die neue Sortierer ohne eigene Angaben verwenden.
+     *
+     * @param memoryBudget  Das Budget in Bytes.
+     * @param tempDirectory Das Verzeichnis für die Läufe.
+     */
+    public static void setDefaults(long memoryBudget, Path tempDirectory) {
+        defaultMemoryBudget = memoryBudget;
+        defaultTempDirectory = tempDirectory;
+    }
+
+    /**
+     * Gibt das prozessweite Speicherbudget zurück.
+     *
+     * @return Das Budget in Bytes.
+     */
+    public static long getDefaultMemoryBudget() {
+        return defaultMemoryBudget;
+    }
+
+    /**
+     * Fügt einen Schlüssel ohne Wert hinzu, z.B. einen Knoten einer Menge.
+     *
+     * @param key Der Schlüssel.
+     */
+    public void add(String key) {
+        add(key, "");
+    }
+
+    /**
+     * Fügt ein Schlüssel-Wert-Paar hinzu. Wird das Speicherbudget überschritten, wird der Puffer als Lauf geschrieben.
+     *
+     * @param key   Der Schlüssel.
+     * @param value Der Wert.
+     * @throws UncheckedIOException wenn der Lauf nicht geschrieben werden kann.
+     */
+    public void add(String key, String value) {
+        SortedEntry entry = new SortedEntry(key, value);
+        buffer.add(entry);
+        bufferedBytes += entry.estimatedBytes();
+        added++;
+        if (bufferedBytes >= memoryBudget) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Lauf konnte nicht geschrieben werden: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Durchläuft alle Einträge sortiert und ohne Duplikate.
+     *
+     * @param consumer Erhält die Einträge in aufsteigender Reihenfolge.
+     * @throws IOException wenn ein Lauf nicht gelesen werden kann.
+     */
+    public void forEachDistinct(Consumer<SortedEntry> consumer) throws IOException {
+        while (runs.size() > MAX_FAN_IN) {
+            List<Path> group = new ArrayList<>(runs.subList(0, MAX_FAN_IN));
+            runs.subList(0, MAX_FAN_IN).clear();
+            Path merged = Files.createTempFile(tempDirectory, "rdfpgmapper-run-", ".bin");
+            try (DataOutputStream out = open(merged)) {
+                merge(group, Collections.emptyList(), entry -> write(out, entry));
+            }
+            for (Path run : group) {
+                Files.deleteIfExists(run);
+            }
+            runs.add(merged);
+        }
+
+        Collections.sort(buffer);
+        merge(runs, buffer, consumer);
+    }
+
+    /**
+     * Gibt die Anzahl der hinzugefügten Einträge einschließlich Duplikaten zurück.
+     *
+     * @return Die Anzahl der Einträge.
+     */
+    public long size() {
+        return added;
+    }
+
+    /**
+     * Löscht die temporären Dateien der Läufe.
+     */
+    @Override
+    public void close() {
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                System.err.println("Lauf konnte nicht gelöscht werden: " + run);
+            }
+        }
+        runs.clear();
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    private void spill() throws IOException {
+        Collections.sort(buffer);
+        Path run = Files.createTempFile(tempDirectory, "rdfpgmapper-run-", ".bin");
+        try (DataOutputStream out = open(run)) {
+            SortedEntry previous = null;
+            for (SortedEntry entry : buffer) {
+                if (previous == null || previous.compareTo(entry) != 0) {
+                    write(out, entry);
+                }
+                previous = entry;
+            }
+        }
+        runs.add(run);
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    /**
+     * Führt Läufe und einen sortierten Puffer zusammen und überspringt dabei gleiche Einträge.
+     */
+    private static void merge(List<Path> runs, List<SortedEntry> sorted, Consumer<SortedEntry> consumer) throws IOException {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>();
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                readers.add(reader);
+                Cursor cursor = new Cursor(reader);
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+            Cursor buffered = new Cursor(sorted.iterator());
+            if (buffered.advance()) {
+                queue.add(buffered);
+            }
+
+            SortedEntry previous = null;
+            while (!queue.isEmpty()) {
+                Cursor cursor = queue.poll();
+                if (previous == null || previous.compareTo(cursor.current) != 0) {
+                    consumer.accept(cursor.current);
+                    previous = cursor.current;
+                }
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private static DataOutputStream open(Path run) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16));
+    }
+
+    private static void write(DataOutputStream out, SortedEntry entry) {
+        try {
+            writeString(out, entry.key());
+            writeString(out, entry.value());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Liest die Einträge eines Laufs nacheinander. Endet die Datei innerhalb eines Eintrags, schlägt das Lesen fehl,
+     * statt einen abgeschnittenen Lauf als vollständig zu behandeln.
+     */
+    private static final class RunReader implements Iterator<SortedEntry> {
+
+        private final DataInputStream in;
+        private SortedEntry next;
+
+        private RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+            this.next = read();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public SortedEntry next() {
+            SortedEntry current = next;
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return current;
+        }
+
+        private SortedEntry read() throws IOException {
+            int first = in.read();
+            if (first < 0) {
+                return null;
+            }
+            int length = first << 24 | in.readUnsignedByte() << 16 | in.readUnsignedByte() << 8 | in.readUnsignedByte();
+            String key = readString(length);
+            String value = readString(in.readInt());
+            return new SortedEntry(key, value);
+        }
+
+        private String readString(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Der aktuelle Eintrag einer sortierten Folge im k-Wege-Merge.
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+
+        private final Iterator<SortedEntry> entries;
+        private SortedEntry current;
+
+        private Cursor(Iterator<SortedEntry> entries) {
+            this.entries = entries;
+        }
+
+        private boolean advance() {
+            current = entries.hasNext() ? entries.next() : null;
+            return current != null;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return current.compareTo(other.current);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package rdfpgmapper.mapper.spill;
+
+/**
+ * Ein Eintrag eines {@link ExternalSorter}, sortiert nach Schlüssel und anschließend nach Wert.
+ *
+ * @param key   Der Schlüssel, z.B. eine IRI oder ein Subjekt.
+ * @param value Der Wert, z.B. eine Property mit Literal; leer bei reinen Mengen.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record SortedEntry(String key, String value) implements Comparable<SortedEntry> {
+
+    @Override
+    public int compareTo(SortedEntry other) {
+        int cmp = key.compareTo(other.key);
+        return cmp != 0 ? cmp : value.compareTo(other.value);
+    }
+
+    /**
+     * Schätzt den Heap-Verbrauch des Eintrags samt seiner Zeichenketten.
+     *
+     * @return Die geschätzte Größe in Bytes.
+     */
+    long estimatedBytes() {
+        return 96 + 2L * (key.length() + value.length());
+    }
+}
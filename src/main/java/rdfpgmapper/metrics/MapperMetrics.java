@@ -0,0 +1,273 @@
+package rdfpgmapper.metrics;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.jmx.JmxConfig;
+import io.micrometer.jmx.JmxMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kennzahlen der Import- und Export-Phasen: Einlesen, Mapping, Schreiben in Neo4j und Export.
+ * Alle Messpunkte schreiben in die globale Micrometer-Registry, die ohne angemeldete Registries nichts aufzeichnet.
+ * {@link #enable(Path, Duration)} meldet eine JMX-Registry (Domain {@code rdfpgmapper}) und eine Prometheus-Registry an,
+ * deren Text-Format periodisch und beim Abschalten in eine Datei geschrieben wird. Ist die Erfassung aktiv, meldet
+ * auch der Neo4j-Treiber seine Pool-Kennzahlen (z.B. Wartezeiten auf Verbindungen) an die globale Registry.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public final class MapperMetrics {
+
+    /**
+     * Dauer des Einlesens einer RDF-Datei, nach Format.
+     */
+    public static final String PARSE = "rdfpgmapper.parse";
+
+    /**
+     * Durchsatz des Einlesens in Tripel pro Sekunde, je Datei.
+     */
+    public static final String PARSE_THROUGHPUT = "rdfpgmapper.parse.throughput";
+
+    /**
+     * Dauer des Mappings, nach Mapper und Phase.
+     */
+    public static final String MAP = "rdfpgmapper.map";
+
+    /**
+     * Anzahl erzeugter Cypher-Statements, nach Mapper und Phase.
+     */
+    public static final String MAP_STATEMENTS = "rdfpgmapper.map.statements";
+
+    /**
+     * Latenz einer Schreib-Transaktion in Neo4j, einschließlich Wiederholungen.
+     */
+    public static final String NEO4J_WRITE = "rdfpgmapper.neo4j.write";
+
+    /**
+     * Anzahl der in Neo4j übernommenen Statements.
+     */
+    public static final String NEO4J_STATEMENTS = "rdfpgmapper.neo4j.statements";
+
+    /**
+     * Anzahl der vom Treiber wiederholten Transaktionen.
+     */
+    public static final String NEO4J_RETRIES = "rdfpgmapper.neo4j.retries";
+
+    /**
+     * Latenz einer Lese-Abfrage in Neo4j.
+     */
+    public static final String NEO4J_READ = "rdfpgmapper.neo4j.read";
+
+    /**
+     * Anzahl der aus Neo4j gelesenen Zeilen.
+     */
+    public static final String NEO4J_ROWS = "rdfpgmapper.neo4j.rows";
+
+    /**
+     * Dauer des Lesens und Mappings einer Export-Seite, nach Mapper und Shard.
+     */
+    public static final String EXPORT_PAGE = "rdfpgmapper.export.page";
+
+    /**
+     * Anzahl exportierter Tripel, nach Mapper.
+     */
+    public static final String EXPORT_TRIPLES = "rdfpgmapper.export.triples";
+
+    /**
+     * Dauer des Schreibens der Export-Datei im Zielformat.
+     */
+    public static final String EXPORT_WRITE = "rdfpgmapper.export.write";
+
+    private static volatile boolean enabled;
+    private static JmxMeterRegistry jmxRegistry;
+    private static PrometheusMeterRegistry prometheusRegistry;
+    private static ScheduledExecutorService dumper;
+    private static Path prometheusFile;
+
+    private MapperMetrics() {
+    }
+
+    /**
+     * Aktiviert die Erfassung und meldet die JMX- und Prometheus-Registries an.
+     *
+     * @param file     Die Datei, in die das Prometheus-Text-Format geschrieben wird.
+     * @param interval Der Abstand, in dem die Datei neu geschrieben wird.
+     */
+    public static synchronized void enable(Path file, Duration interval) {
+        if (enabled) {
+            return;
+        }
+        JmxConfig jmxConfig = new JmxConfig() {
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public String domain() {
+                return "rdfpgmapper";
+            }
+        };
+        jmxRegistry = new JmxMeterRegistry(jmxConfig, Clock.SYSTEM);
+        prometheusRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        Metrics.addRegistry(jmxRegistry);
+        Metrics.addRegistry(prometheusRegistry);
+        prometheusFile = file;
+
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(MapperMetrics::dump, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        enabled = true;
+    }
+
+    /**
+     * Gibt zurück, ob die Erfassung aktiv ist.
+     *
+     * @return true, wenn Registries angemeldet sind.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Schreibt den aktuellen Stand im Prometheus-Text-Format in die Datei.
+     */
+    public static synchronized void dump() {
+        if (!enabled) {
+            return;
+        }
+        Path tmp = prometheusFile.resolveSibling(prometheusFile.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                prometheusRegistry.scrape(writer);
+            }
+            Files.move(tmp, prometheusFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Kennzahlen konnten nicht geschrieben werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Schreibt den Endstand in die Datei, beendet das periodische Schreiben und meldet die Registries ab.
+     */
+    public static synchronized void disable() {
+        if (!enabled) {
+            return;
+        }
+        dumper.shutdownNow();
+        dump();
+        Metrics.removeRegistry(jmxRegistry);
+        Metrics.removeRegistry(prometheusRegistry);
+        jmxRegistry.close();
+        prometheusRegistry.close();
+        enabled = false;
+    }
+
+    /**
+     * Startet eine Zeitmessung.
+     *
+     * @return Die laufende Messung.
+     */
+    public static Timer.Sample start() {
+        return Timer.start(Metrics.globalRegistry);
+    }
+
+    /**
+     * Erfasst das Einlesen einer RDF-Datei.
+     *
+     * @param sample  Die beim Start des Einlesens begonnene Messung.
+     * @param format  Das Format der Datei.
+     * @param triples Die Anzahl der eingelesenen Tripel.
+     */
+    public static void parsed(Timer.Sample sample, String format, long triples) {
+        long nanos = sample.stop(Timer.builder(PARSE).tag("format", format).register(Metrics.globalRegistry));
+        if (nanos > 0) {
+            DistributionSummary.builder(PARSE_THROUGHPUT).baseUnit("triples/s").tag("format", format)
+                    .register(Metrics.globalRegistry).record(triples * 1e9 / nanos);
+        }
+    }
+
+    /**
+     * Erfasst eine Mapping-Phase.
+     *
+     * @param sample     Die beim Start der Phase begonnene Messung.
+     * @param mapper     Der Name des Mappers.
+     * @param phase      Die Phase, z.B. {@code schema}, {@code instance} oder {@code delete}.
+     * @param statements Die Anzahl der erzeugten Statements.
+     */
+    public static void mapped(Timer.Sample sample, String mapper, String phase, int statements) {
+        sample.stop(Timer.builder(MAP).tag("mapper", mapper).tag("phase", phase).register(Metrics.globalRegistry));
+        Metrics.counter(MAP_STATEMENTS, "mapper", mapper, "phase", phase).increment(statements);
+    }
+
+    /**
+     * Erfasst eine Schreib-Transaktion in Neo4j.
+     *
+     * @param sample     Die beim Start der Transaktion begonnene Messung.
+     * @param statements Die Anzahl der Statements der Transaktion.
+     * @param attempts   Die Anzahl der Versuche, die der Treiber für die Transaktion benötigt hat.
+     * @param success    true, wenn die Transaktion übernommen wurde.
+     */
+    public static void written(Timer.Sample sample, int statements, int attempts, boolean success) {
+        sample.stop(Timer.builder(NEO4J_WRITE).tag("outcome", success ? "success" : "failure")
+                .publishPercentileHistogram().register(Metrics.globalRegistry));
+        if (success) {
+            Metrics.counter(NEO4J_STATEMENTS).increment(statements);
+        }
+        if (attempts > 1) {
+            Counter.builder(NEO4J_RETRIES).register(Metrics.globalRegistry).increment(attempts - 1);
+        }
+    }
+
+    /**
+     * Erfasst eine Lese-Abfrage in Neo4j.
+     *
+     * @param sample Die beim Start der Abfrage begonnene Messung.
+     * @param rows   Die Anzahl der gelesenen Zeilen.
+     */
+    public static void read(Timer.Sample sample, int rows) {
+        sample.stop(Timer.builder(NEO4J_READ).publishPercentileHistogram().register(Metrics.globalRegistry));
+        Metrics.counter(NEO4J_ROWS).increment(rows);
+    }
+
+    /**
+     * Erfasst eine Export-Seite.
+     *
+     * @param sample  Die beim Start der Seite begonnene Messung.
+     * @param mapper  Der Name des Mappers.
+     * @param shard   Der Export-Shard des Mappers.
+     * @param triples Die Anzahl der Tripel der Seite.
+     */
+    public static void exported(Timer.Sample sample, String mapper, String shard, long triples) {
+        sample.stop(Timer.builder(EXPORT_PAGE).tag("mapper", mapper).tag("shard", shard).register(Metrics.globalRegistry));
+        Metrics.counter(EXPORT_TRIPLES, "mapper", mapper).increment(triples);
+    }
+
+    /**
+     * Erfasst das Schreiben einer Export-Datei.
+     *
+     * @param sample Die beim Start des Schreibens begonnene Messung.
+     * @param format Das Zielformat.
+     */
+    public static void exportWritten(Timer.Sample sample, String format) {
+        sample.stop(Timer.builder(EXPORT_WRITE).tag("format", format).register(Metrics.globalRegistry));
+    }
+}
@@ -0,0 +1,14 @@
+package rdfpgmapper.neo4j;
+
+/**
+ * Fortschritt eines {@link DatabaseCleaner}, gemeldet nach jedem Abschnitt gelöschter Relationen bzw. Knoten.
+ *
+ * @param phase   {@code Relationen}, {@code Knoten} oder {@code Datenbank}, wenn die Datenbank neu angelegt wurde.
+ * @param name    Der Relationstyp bzw. das Label, dessen Einträge gerade gelöscht werden, oder null für alle übrigen.
+ * @param deleted Die Anzahl der bereits gelöschten Einträge dieses Typs bzw. Labels.
+ * @param total   Die Anzahl der Einträge dieses Typs bzw. Labels vor dem Löschen.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record ClearProgress(String phase, String name, long deleted, long total) {
+}
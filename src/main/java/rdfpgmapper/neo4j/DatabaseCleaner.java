@@ -0,0 +1,300 @@
+package rdfpgmapper.neo4j;
+
+import org.neo4j.driver.Record;
+import rdfpgmapper.utils.Helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Löscht alle Daten einer Neo4j-Datenbank in Transaktionen begrenzter Größe, statt sie in einer einzigen Transaktion
+ * mit {@code DETACH DELETE} zu entfernen, die bei großen Graphen den Transaktionsspeicher des Servers erschöpft.
+ * <p>
+ * Zuerst werden die APOC-Trigger entfernt. Anschließend werden die Relationen je Typ und danach die Knoten je Label
+ * abschnittsweise mit {@code CALL {} IN TRANSACTIONS} gelöscht, auf Wunsch mehrere Typen bzw. Labels gleichzeitig.
+ * Ein Abschnitt, der z.B. an einem Deadlock zwischen gleichzeitigen Transaktionen scheitert, wird wiederholt; bereits
+ * übernommene Transaktionen bleiben bestehen. Nach jedem Abschnitt wird der Fortschritt gemeldet.
+ * <p>
+ * Constraints und Indizes werden vor dem Löschen entfernt, damit sie nicht für jeden gelöschten Knoten gepflegt werden
+ * müssen. Sollen sie erhalten bleiben, werden sie nur bei großen Graphen entfernt und danach neu angelegt.
+ * Alternativ kann die Datenbank mit {@code CREATE OR REPLACE DATABASE} neu angelegt werden, was die Enterprise
+ * Edition und Rechte auf der System-Datenbank erfordert; andernfalls wird in Batches gelöscht.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class DatabaseCleaner {
+
+    /**
+     * Standardanzahl der Relationen bzw. Knoten pro Transaktion.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 10000;
+
+    /**
+     * Anzahl der Transaktionen pro Abschnitt, nach dem der Fortschritt gemeldet wird.
+     */
+    private static final int BATCHES_PER_PAGE = 10;
+
+    /**
+     * Anzahl der Knoten, ab der zu erhaltende Constraints und Indizes für das Löschen entfernt und danach neu angelegt
+     * werden. Darunter überwiegt der Aufwand, die Indizes neu anzulegen und auf sie zu warten.
+     */
+    private static final long DROP_SCHEMA_THRESHOLD = 100000;
+
+    /**
+     * Anzahl der Versuche für einen Abschnitt, bevor das Löschen abgebrochen wird.
+     */
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final Neo4jClient neo4jClient;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int parallelism = 1;
+    private boolean keepSchema = false;
+    private boolean recreateDatabase = false;
+    private Consumer<ClearProgress> progressListener = DatabaseCleaner::print;
+
+    /**
+     * Konstruktor für den DatabaseCleaner.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     */
+    public DatabaseCleaner(Neo4jClient neo4jClient) {
+        this.neo4jClient = neo4jClient;
+    }
+
+    /**
+     * Setzt die Anzahl der Relationen bzw. Knoten, die pro Transaktion gelöscht werden.
+     *
+     * @param batchSize Die Größe einer Transaktion.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Setzt die Anzahl der Relationstypen bzw. Labels, die gleichzeitig gelöscht werden.
+     *
+     * @param parallelism Die Anzahl gleichzeitiger Lösch-Vorgänge, standardmäßig 1.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Legt fest, ob Constraints und Indizes erhalten bleiben. Standardmäßig werden sie wie die Daten entfernt.
+     *
+     * @param keepSchema true, wenn Constraints und Indizes nach dem Löschen wieder vorhanden sein sollen.
+     */
+    public void setKeepSchema(boolean keepSchema) {
+        this.keepSchema = keepSchema;
+    }
+
+    /**
+     * Legt fest, ob zuerst versucht wird, die Datenbank mit {@code CREATE OR REPLACE DATABASE} neu anzulegen.
+     * Dabei gehen auch die Einstellungen der Datenbank verloren, die nicht zu ihren Daten gehören.
+     *
+     * @param recreateDatabase true, wenn die Datenbank neu angelegt werden soll, sofern die Rechte dafür bestehen.
+     */
+    public void setRecreateDatabase(boolean recreateDatabase) {
+        this.recreateDatabase = recreateDatabase;
+    }
+
+    /**
+     * Setzt den Empfänger der Fortschrittsmeldungen. Standardmäßig wird der Fortschritt auf der Konsole ausgegeben.
+     * Beim gleichzeitigen Löschen wird er aus mehreren Threads aufgerufen.
+     *
+     * @param progressListener Der Empfänger.
+     */
+    public void setProgressListener(Consumer<ClearProgress> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Löscht alle Daten der Datenbank.
+     *
+     * @return true, wenn die Datenbank leer ist, sonst false.
+     */
+    public boolean clear() {
+        if (!neo4jClient.writeToNeo4j(List.of("CALL apoc.trigger.removeAll()"))) {
+            return false;
+        }
+        long nodes = count("MATCH (n) RETURN count(n) AS total");
+
+        List<String> schema = keepSchema ? readSchema() : List.of();
+        if (recreateDatabase && recreate()) {
+            progressListener.accept(new ClearProgress("Datenbank", null, nodes, nodes));
+            return restoreSchema(schema);
+        }
+
+        boolean dropSchema = !keepSchema || nodes >= DROP_SCHEMA_THRESHOLD;
+        if (dropSchema && !neo4jClient.writeToNeo4j(dropSchemaStatements())) {
+            return false;
+        }
+
+        List<DeleteTask> relationshipTasks = new ArrayList<>();
+        for (Record record : neo4jClient.readFromNeo4j("CALL db.relationshipTypes() YIELD relationshipType RETURN relationshipType", Map.of())) {
+            String type = Helper.escapeName(record.get("relationshipType").asString());
+            relationshipTasks.add(new DeleteTask("Relationen", record.get("relationshipType").asString(),
+                    "MATCH ()-[r:" + type + "]->() RETURN count(r) AS total",
+                    "MATCH ()-[r:" + type + "]->() WITH r LIMIT $page CALL { WITH r DELETE r } IN TRANSACTIONS OF $batchSize ROWS RETURN count(*) AS deleted"));
+        }
+        List<DeleteTask> nodeTasks = new ArrayList<>();
+        for (Record record : neo4jClient.readFromNeo4j("CALL db.labels() YIELD label RETURN label", Map.of())) {
+            String label = Helper.escapeName(record.get("label").asString());
+            nodeTasks.add(new DeleteTask("Knoten", record.get("label").asString(),
+                    "MATCH (n:" + label + ") RETURN count(n) AS total",
+                    "MATCH (n:" + label + ") WITH n LIMIT $page CALL { WITH n DETACH DELETE n } IN TRANSACTIONS OF $batchSize ROWS RETURN count(*) AS deleted"));
+        }
+        DeleteTask remaining = new DeleteTask("Knoten", null,
+                "MATCH (n) RETURN count(n) AS total",
+                "MATCH (n) WITH n LIMIT $page CALL { WITH n DETACH DELETE n } IN TRANSACTIONS OF $batchSize ROWS RETURN count(*) AS deleted");
+
+        boolean success = runAll(relationshipTasks) && runAll(nodeTasks) && run(remaining);
+        if (dropSchema) {
+            success = restoreSchema(schema) && success;
+        }
+        return success;
+    }
+
+    /**
+     * Führt die Lösch-Vorgänge mit der eingestellten Anzahl von Threads aus.
+     */
+    private boolean runAll(List<DeleteTask> tasks) {
+        if (parallelism <= 1 || tasks.size() <= 1) {
+            return tasks.stream().allMatch(this::run);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()));
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (DeleteTask task : tasks) {
+                futures.add(executor.submit(() -> run(task)));
+            }
+            boolean success = true;
+            for (Future<Boolean> future : futures) {
+                success = future.get() && success;
+            }
+            return success;
+        } catch (ExecutionException e) {
+            System.err.println("Löschen fehlgeschlagen: " + e.getCause().getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Löschen unterbrochen.");
+            return false;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Versucht, die aktuelle Datenbank neu anzulegen.
+     *
+     * @return true, wenn die Datenbank neu angelegt wurde.
+     */
+    private boolean recreate() {
+        List<Record> edition = neo4jClient.readFromNeo4j("CALL dbms.components() YIELD edition RETURN edition", Map.of());
+        if (edition.isEmpty() || !edition.getFirst().get("edition").asString().equals("enterprise")) {
+            System.out.println("Neuanlegen der Datenbank erfordert die Enterprise Edition, es wird in Batches gelöscht.");
+            return false;
+        }
+        String database = neo4jClient.readFromNeo4j("CALL db.info() YIELD name RETURN name", Map.of())
+                .getFirst().get("name").asString();
+        if (!neo4jClient.writeToSystemDatabase("CREATE OR REPLACE DATABASE " + Helper.escapeName(database) + " WAIT")) {
+            System.out.println("Neuanlegen der Datenbank nicht möglich, es wird in Batches gelöscht.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Liest die Statements, mit denen die Constraints und Indizes der Datenbank angelegt werden können.
+     * Indizes, die zu einem Constraint gehören, entstehen mit diesem; die Token-Lookup-Indizes werden nie entfernt.
+     */
+    private List<String> readSchema() {
+        List<String> schema = new ArrayList<>();
+        for (Record record : neo4jClient.readFromNeo4j("SHOW CONSTRAINTS YIELD createStatement RETURN createStatement", Map.of())) {
+            schema.add(record.get("createStatement").asString());
+        }
+        for (Record record : neo4jClient.readFromNeo4j("SHOW INDEXES YIELD type, owningConstraint, createStatement " +
+                "WHERE owningConstraint IS NULL AND type <> 'LOOKUP' RETURN createStatement", Map.of())) {
+            schema.add(record.get("createStatement").asString());
+        }
+        return schema;
+    }
+
+    private List<String> dropSchemaStatements() {
+        List<String> statements = new ArrayList<>();
+        for (Record record : neo4jClient.readFromNeo4j("SHOW CONSTRAINTS YIELD name RETURN name", Map.of())) {
+            statements.add("DROP CONSTRAINT " + Helper.escapeName(record.get("name").asString()) + " IF EXISTS");
+        }
+        for (Record record : neo4jClient.readFromNeo4j("SHOW INDEXES YIELD name, type, owningConstraint " +
+                "WHERE owningConstraint IS NULL AND type <> 'LOOKUP' RETURN name", Map.of())) {
+            statements.add("DROP INDEX " + Helper.escapeName(record.get("name").asString()) + " IF EXISTS");
+        }
+        return statements;
+    }
+
+    private boolean restoreSchema(List<String> schema) {
+        if (schema.isEmpty()) {
+            return true;
+        }
+        List<String> statements = new ArrayList<>(schema);
+        statements.add("CALL db.awaitIndexes(300)");
+        return neo4jClient.writeToNeo4j(statements);
+    }
+
+    private long count(String query) {
+        return neo4jClient.readFromNeo4j(query, Map.of()).getFirst().get("total").asLong();
+    }
+
+    private static void print(ClearProgress progress) {
+        System.out.println("Löschen " + progress.phase() + (progress.name() != null ? " " + progress.name() : "") + ": "
+                + progress.deleted() + "/" + progress.total());
+    }
+
+    /**
+     * Führt einen Lösch-Vorgang aus.
+     *
+     * @return true, wenn alle Einträge gelöscht wurden.
+     */
+    private boolean run(DeleteTask task) {
+        long total = count(task.countQuery());
+        Map<String, Object> parameters = Map.of("page", (long) batchSize * BATCHES_PER_PAGE, "batchSize", batchSize);
+        long deleted = 0;
+        int failures = 0;
+        while (true) {
+            List<Record> records = neo4jClient.writeInTransactions(task.deleteQuery(), parameters);
+            if (records == null) {
+                if (++failures >= MAX_ATTEMPTS || Thread.currentThread().isInterrupted()) {
+                    System.err.println("Löschen von " + task.phase() + (task.name() != null ? " " + task.name() : "") + " abgebrochen.");
+                    return false;
+                }
+                continue;
+            }
+            failures = 0;
+            long page = records.getFirst().get("deleted").asLong();
+            if (page == 0) {
+                return true;
+            }
+            deleted += page;
+            progressListener.accept(new ClearProgress(task.phase(), task.name(), Math.min(deleted, total), total));
+        }
+    }
+
+    /**
+     * Löscht die Relationen eines Typs bzw. die Knoten eines Labels abschnittsweise, bis keine mehr vorhanden sind.
+     *
+     * @param phase       Die Phase für die Fortschrittsmeldung.
+     * @param name        Der Relationstyp bzw. das Label.
+     * @param countQuery  Das Query, das die Anzahl in der Spalte {@code total} liefert.
+     * @param deleteQuery Das Query, das einen Abschnitt löscht und dessen Größe in der Spalte {@code deleted} liefert.
+     */
+    private record DeleteTask(String phase, String name, String countQuery, String deleteQuery) {
+    }
+}
@@ -1,15 +1,26 @@
 package rdfpgmapper.neo4j;
 
+import io.micrometer.core.instrument.Timer;
+import org.neo4j.driver.AccessMode;
 import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Config;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.MetricsAdapter;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Result;
 import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
 import org.neo4j.driver.Transaction;
+import rdfpgmapper.metrics.MapperMetrics;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Diese Klasse bietet eine Schnittstelle zur Interaktion mit einer Neo4j-Datenbank.
@@ -20,10 +31,18 @@ import java.util.List;
  */
 public class Neo4jClient implements AutoCloseable {
 
+    /**
+     * Platzhalter ohne praktische Begrenzung, wenn keine Anzahl gleichzeitiger Schreib- bzw. Lesevorgänge gesetzt ist.
+     */
+    private static final Semaphore UNLIMITED = new Semaphore(Integer.MAX_VALUE);
+
     private Driver driver;
     private final String databaseUri;
     private final String databaseUser;
     private final String databasePassword;
+    private final int maxConnectionPool;
+    private volatile Semaphore writePermits;
+    private volatile Semaphore readPermits;
 
 
     /**
@@ -34,24 +53,85 @@ public class Neo4jClient implements AutoCloseable {
      * @param password Das Passwort für die Authentifizierung.
      */
     public Neo4jClient(String uri, String user, String password) {
+        this(uri, user, password, 0);
+    }
+
+    /**
+     * Konstruktor zur Initialisierung eines Neo4jClient-Objekts mit begrenztem Verbindungs-Pool.
+     * Der Client ist thread-sicher und kann von mehreren gleichzeitigen Importen geteilt werden;
+     * die Sessions erhalten ihre Verbindungen aus dem gemeinsamen Pool des Treibers.
+     *
+     * @param uri               Die URI der Neo4j-Datenbank.
+     * @param user              Der Benutzername für die Authentifizierung.
+     * @param password          Das Passwort für die Authentifizierung.
+     * @param maxConnectionPool Die maximale Anzahl an Verbindungen im Pool oder 0 für die Voreinstellung des Treibers.
+     */
+    public Neo4jClient(String uri, String user, String password, int maxConnectionPool) {
         databaseUri = uri;
         databaseUser = user;
         databasePassword = password;
+        this.maxConnectionPool = maxConnectionPool;
     }
 
     /**
      * Schreibt eine Liste von Cypher-Statements in die Neo4j-Datenbank.
      *
      * @param cypherStatements Eine Liste von Cypher-Statements, die in Neo4j ausgeführt werden sollen.
+     * @return true, wenn alle Statements ausgeführt wurden, sonst false.
      */
-    public void writeToNeo4j(List<String> cypherStatements) {
-        driver = GraphDatabase.driver(databaseUri, AuthTokens.basic(databaseUser, databasePassword));
-        try (Session session = driver.session()) {
+    public boolean writeToNeo4j(List<String> cypherStatements) {
+        Semaphore permits = acquireWrite();
+        if (permits == null) {
+            return false;
+        }
+        Timer.Sample sample = MapperMetrics.start();
+        try (Session session = getDriver().session()) {
             for (String statement : cypherStatements) {
-                session.run(statement);
+                session.run(statement).consume();
             }
+            MapperMetrics.written(sample, cypherStatements.size(), 1, true);
+            return true;
         } catch (Exception e) {
+            MapperMetrics.written(sample, cypherStatements.size(), 1, false);
             System.err.println("Ein Fehler ist aufgetreten: " + e.getMessage());
+            return false;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Schreibt eine Liste von Cypher-Statements zusammen mit einem abschließenden, parametrisierten Statement
+     * in einer einzigen Transaktion in die Neo4j-Datenbank. Schlägt ein Statement fehl, wird keines übernommen.
+     *
+     * @param cypherStatements Eine Liste von Cypher-Statements, die in Neo4j ausgeführt werden sollen.
+     * @param finalStatement   Das Statement, das als letztes in derselben Transaktion ausgeführt wird.
+     * @param parameters       Die Parameter des abschließenden Statements.
+     * @return true, wenn die Transaktion übernommen wurde, sonst false.
+     */
+    public boolean writeToNeo4j(List<String> cypherStatements, String finalStatement, Map<String, Object> parameters) {
+        Semaphore permits = acquireWrite();
+        if (permits == null) {
+            return false;
+        }
+        Timer.Sample sample = MapperMetrics.start();
+        AtomicInteger attempts = new AtomicInteger();
+        try (Session session = getDriver().session()) {
+            session.executeWriteWithoutResult(tx -> {
+                attempts.incrementAndGet();
+                for (String statement : cypherStatements) {
+                    tx.run(statement).consume();
+                }
+                tx.run(finalStatement, parameters).consume();
+            });
+            MapperMetrics.written(sample, cypherStatements.size() + 1, attempts.get(), true);
+            return true;
+        } catch (Exception e) {
+            MapperMetrics.written(sample, cypherStatements.size() + 1, attempts.get(), false);
+            System.err.println("Ein Fehler ist aufgetreten: " + e.getMessage());
+            return false;
+        } finally {
+            permits.release();
         }
     }
 
@@ -62,10 +142,10 @@ public class Neo4jClient implements AutoCloseable {
      * @return Eine Liste von Records, die die Ergebnisse des Queries enthalten.
      */
     public List<Record> readFromNeo4j(String cypherQuery) {
-        driver = GraphDatabase.driver(databaseUri, AuthTokens.basic(databaseUser, databasePassword));
-
         List<Record> records = new ArrayList<>();
-        try (Session session = driver.session()) {
+        Semaphore permits = acquireRead();
+        Timer.Sample sample = MapperMetrics.start();
+        try (Session session = getDriver().session()) {
             try (Transaction tx = session.beginTransaction()) {
                 Result result = tx.run(cypherQuery);
                 while (result.hasNext()) {
@@ -75,16 +155,207 @@ public class Neo4jClient implements AutoCloseable {
             } catch (Exception e) {
                 System.err.println("Ein Fehler ist aufgetreten beim Lesen von Daten aus Neo4j: " + e.getMessage());
             }
+        } finally {
+            permits.release();
         }
+        MapperMetrics.read(sample, records.size());
         return records;
     }
 
+    /**
+     * Liest Daten aus der Neo4j-Datenbank mit einem parametrisierten Cypher-Query.
+     * Jeder Aufruf läuft in einer eigenen, kurzen Lese-Transaktion, sodass große Exporte
+     * in mehrere unabhängige Abschnitte zerlegt werden können.
+     *
+     * @param cypherQuery Das Cypher-Query, das ausgeführt werden soll.
+     * @param parameters  Die Parameter des Queries.
+     * @return Eine Liste von Records, die die Ergebnisse des Queries enthalten.
+     */
+    public List<Record> readFromNeo4j(String cypherQuery, Map<String, Object> parameters) {
+        Semaphore permits = acquireRead();
+        Timer.Sample sample = MapperMetrics.start();
+        try (Session session = getDriver().session()) {
+            List<Record> records = session.executeRead(tx -> tx.run(cypherQuery, parameters).list());
+            MapperMetrics.read(sample, records.size());
+            return records;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Liest Daten aus der Neo4j-Datenbank mit einem parametrisierten Cypher-Query und übergibt die Records als Strom,
+     * ohne sie vorher zu sammeln. Das Query läuft als Auto-Commit-Transaktion ohne Wiederholung, da bereits
+     * verarbeitete Records nicht zurückgenommen werden können.
+     *
+     * @param cypherQuery Das Cypher-Query, das ausgeführt werden soll.
+     * @param parameters  Die Parameter des Queries.
+     * @param reader      Verarbeitet die Records, solange die Transaktion offen ist.
+     * @param <T>         Der Typ des Ergebnisses.
+     * @return Das Ergebnis des Readers.
+     */
+    public <T> T readFromNeo4j(String cypherQuery, Map<String, Object> parameters, Function<Iterator<Record>, T> reader) {
+        Semaphore permits = acquireRead();
+        Timer.Sample sample = MapperMetrics.start();
+        AtomicInteger rows = new AtomicInteger();
+        try (Session session = getDriver().session(SessionConfig.builder().withDefaultAccessMode(AccessMode.READ).build())) {
+            Result result = session.run(cypherQuery, parameters);
+            T value = reader.apply(new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return result.hasNext();
+                }
+
+                @Override
+                public Record next() {
+                    rows.incrementAndGet();
+                    return result.next();
+                }
+            });
+            result.consume();
+            return value;
+        } finally {
+            permits.release();
+            MapperMetrics.read(sample, rows.get());
+        }
+    }
+
+    /**
+     * Führt ein parametrisiertes, schreibendes Cypher-Query als Auto-Commit-Transaktion aus und gibt dessen Ergebnis zurück.
+     * Nur so kann das Query selbst mit {@code CALL {} IN TRANSACTIONS} in mehreren Transaktionen schreiben; es wird daher
+     * nicht wiederholt, und bei einem Fehler bleiben die bereits übernommenen inneren Transaktionen bestehen.
+     *
+     * @param cypherQuery Das Cypher-Query, das ausgeführt werden soll.
+     * @param parameters  Die Parameter des Queries.
+     * @return Die Records des Ergebnisses oder null, wenn das Query fehlgeschlagen ist.
+     */
+    public List<Record> writeInTransactions(String cypherQuery, Map<String, Object> parameters) {
+        Semaphore permits = acquireWrite();
+        if (permits == null) {
+            return null;
+        }
+        Timer.Sample sample = MapperMetrics.start();
+        try (Session session = getDriver().session()) {
+            List<Record> records = session.run(cypherQuery, parameters).list();
+            MapperMetrics.written(sample, 1, 1, true);
+            return records;
+        } catch (Exception e) {
+            MapperMetrics.written(sample, 1, 1, false);
+            System.err.println("Ein Fehler ist aufgetreten: " + e.getMessage());
+            return null;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Führt ein parametrisiertes, schreibendes Cypher-Query in einer eigenen Transaktion aus und gibt dessen Ergebnis zurück.
+     *
+     * @param cypherQuery Das Cypher-Query, das ausgeführt werden soll.
+     * @param parameters  Die Parameter des Queries.
+     * @return Eine Liste von Records, die die Ergebnisse des Queries enthalten.
+     */
+    public List<Record> writeAndReadFromNeo4j(String cypherQuery, Map<String, Object> parameters) {
+        Semaphore permits = acquireRead();
+        try (Session session = getDriver().session()) {
+            return session.executeWrite(tx -> tx.run(cypherQuery, parameters).list());
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Führt ein Verwaltungs-Statement, z.B. {@code CREATE OR REPLACE DATABASE}, auf der System-Datenbank aus.
+     *
+     * @param statement Das Statement, das ausgeführt werden soll.
+     * @return true, wenn das Statement ausgeführt wurde, sonst false.
+     */
+    public boolean writeToSystemDatabase(String statement) {
+        try (Session session = getDriver().session(SessionConfig.forDatabase("system"))) {
+            session.run(statement).consume();
+            return true;
+        } catch (Exception e) {
+            System.err.println("Ein Fehler ist aufgetreten: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Begrenzt die Anzahl gleichzeitiger Schreibvorgänge über {@code writeToNeo4j} aller Threads, die diesen Client
+     * teilen. Weitere Schreibvorgänge warten, bis ein laufender beendet ist; ein unterbrochener Thread bricht das
+     * Warten ab und der Schreibvorgang schlägt fehl. Lesende Zugriffe und die kurzen Verwaltungs-Transaktionen von
+     * {@link #writeAndReadFromNeo4j(String, Map)} begrenzt {@link #setReadConcurrency(int)}.
+     *
+     * @param writeConcurrency Die Anzahl gleichzeitiger Schreib-Transaktionen oder 0 für keine Begrenzung.
+     */
+    public void setWriteConcurrency(int writeConcurrency) {
+        writePermits = writeConcurrency > 0 ? new Semaphore(writeConcurrency, true) : null;
+    }
+
+    /**
+     * Begrenzt die Anzahl gleichzeitiger Lesevorgänge über {@code readFromNeo4j} sowie der kurzen
+     * Verwaltungs-Transaktionen von {@link #writeAndReadFromNeo4j(String, Map)} aller Threads, die diesen Client teilen.
+     * Zusammen mit {@link #setWriteConcurrency(int)} lässt sich so der Verbindungs-Pool zwischen Schreib- und
+     * Lesezugriffen aufteilen, ohne dass Lesezugriffe die Verbindungen der Schreib-Transaktionen belegen. Das Warten auf
+     * einen freien Lesevorgang wird durch Unterbrechung nicht abgebrochen.
+     *
+     * @param readConcurrency Die Anzahl gleichzeitiger Lesevorgänge oder 0 für keine Begrenzung.
+     */
+    public void setReadConcurrency(int readConcurrency) {
+        readPermits = readConcurrency > 0 ? new Semaphore(readConcurrency, true) : null;
+    }
+
+    /**
+     * Wartet auf eine freie Schreib-Transaktion.
+     *
+     * @return Die Semaphore, die nach dem Schreiben freigegeben werden muss, oder null, wenn der Thread unterbrochen wurde.
+     */
+    private Semaphore acquireWrite() {
+        Semaphore permits = writePermits != null ? writePermits : UNLIMITED;
+        try {
+            permits.acquire();
+            return permits;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Schreibvorgang abgebrochen, der Thread wurde unterbrochen.");
+            return null;
+        }
+    }
+
+    /**
+     * Wartet auf einen freien Lesevorgang.
+     *
+     * @return Die Semaphore, die nach dem Lesen freigegeben werden muss.
+     */
+    private Semaphore acquireRead() {
+        Semaphore permits = readPermits != null ? readPermits : UNLIMITED;
+        permits.acquireUninterruptibly();
+        return permits;
+    }
+
+    private synchronized Driver getDriver() {
+        if (driver == null) {
+            Config.ConfigBuilder config = Config.builder();
+            if (maxConnectionPool > 0) {
+                config.withMaxConnectionPoolSize(maxConnectionPool);
+            }
+            if (MapperMetrics.isEnabled()) {
+                config.withMetricsAdapter(MetricsAdapter.MICROMETER);
+            }
+            driver = GraphDatabase.driver(databaseUri, AuthTokens.basic(databaseUser, databasePassword), config.build());
+        }
+        return driver;
+    }
+
     /**
      * Schließt die Verbindung zur Neo4j-Datenbank.
      * Muss aufgerufen werden, um Ressourcen ordnungsgemäß freizugeben.
      */
     @Override
-    public void close() throws RuntimeException {
-        driver.close();
+    public synchronized void close() throws RuntimeException {
+        if (driver != null) {
+            driver.close();
+            driver = null;
+        }
     }
 }
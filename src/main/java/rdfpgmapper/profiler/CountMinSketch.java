@@ -0,0 +1,108 @@
+package rdfpgmapper.profiler;
+
+/**
+ * Schätzt die Häufigkeit von Elementen eines Datenstroms mit festem Speicher (Count-Min-Sketch).
+ * Jedes Element erhöht in jeder Zeile einen über seinen Hash gewählten Zähler; die Häufigkeit ist das Minimum dieser
+ * Zähler. Schätzungen sind nie zu niedrig und höchstens um einen Bruchteil der Gesamtzahl zu hoch. Mit dem
+ * konservativen Erhöhen werden nur die Zähler erhöht, die gerade das Minimum bilden, was Überschätzungen verringert.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class CountMinSketch {
+
+    /**
+     * Standardbreite einer Zeile.
+     */
+    public static final int DEFAULT_WIDTH = 1 << 16;
+
+    /**
+     * Standardanzahl der Zeilen.
+     */
+    public static final int DEFAULT_DEPTH = 4;
+
+    private final int mask;
+    private final long[][] counters;
+
+    /**
+     * Konstruktor für einen Count-Min-Sketch mit Standardbreite und -tiefe (2 MB).
+     */
+    public CountMinSketch() {
+        this(DEFAULT_WIDTH, DEFAULT_DEPTH);
+    }
+
+    /**
+     * Konstruktor für einen Count-Min-Sketch.
+     *
+     * @param width Die Anzahl der Zähler pro Zeile, eine Zweierpotenz.
+     * @param depth Die Anzahl der Zeilen.
+     * @throws IllegalArgumentException wenn die Breite keine Zweierpotenz oder die Tiefe kleiner als 1 ist.
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || Integer.bitCount(width) != 1 || depth < 1) {
+            throw new IllegalArgumentException("Die Breite muss eine Zweierpotenz und die Tiefe mindestens 1 sein.");
+        }
+        this.mask = width - 1;
+        this.counters = new long[depth][width];
+    }
+
+    /**
+     * Zählt ein Vorkommen einer Zeichenkette.
+     *
+     * @param value Die Zeichenkette.
+     * @return Die geschätzte Häufigkeit einschließlich dieses Vorkommens.
+     */
+    public long add(String value) {
+        return addHash(Hashing.hash(value));
+    }
+
+    /**
+     * Zählt ein Vorkommen eines Elements über seinen gleichmäßig verteilten 64-Bit-Hash.
+     *
+     * @param hash Der Hash des Elements.
+     * @return Die geschätzte Häufigkeit einschließlich dieses Vorkommens.
+     */
+    public long addHash(long hash) {
+        long count = estimateHash(hash) + 1;
+        for (int row = 0; row < counters.length; row++) {
+            int index = index(hash, row);
+            if (counters[row][index] < count) {
+                counters[row][index] = count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Schätzt die Häufigkeit einer Zeichenkette.
+     *
+     * @param value Die Zeichenkette.
+     * @return Die geschätzte Häufigkeit.
+     */
+    public long estimate(String value) {
+        return estimateHash(Hashing.hash(value));
+    }
+
+    /**
+     * Schätzt die Häufigkeit eines Elements über seinen Hash.
+     *
+     * @param hash Der Hash des Elements.
+     * @return Die geschätzte Häufigkeit.
+     */
+    public long estimateHash(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            min = Math.min(min, counters[row][index(hash, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Leitet den Zähler einer Zeile aus den beiden Hälften des Hashes ab (Kirsch-Mitzenmacher).
+     */
+    private int index(long hash, int row) {
+        int low = (int) hash;
+        int high = (int) (hash >>> 32);
+        return (low + row * high) & mask;
+    }
+}
@@ -0,0 +1,526 @@
+package rdfpgmapper.profiler;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import rdfpgmapper.job.JobConfig;
+import rdfpgmapper.mapper.rpt.LiteralKeying;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ermittelt vor einem Import in einem Durchlauf über die Eingabedaten, wie groß der Graph jedes Mappers wird und welcher
+ * Mapper sich eignet. Die Dateien werden als Strom gelesen, ohne ein Jena-Model aufzubauen; verschiedene Subjekte,
+ * Prädikate, Ressourcen, Blank Nodes, Literale, Klassen und Tripel werden mit {@link HyperLogLog}-Skizzen gezählt,
+ * die Relationen je Knoten und die Vorkommen je Literal mit {@link CountMinSketch}es. Subjekt-Prädikat-Paare mit
+ * mehreren Literalen erkennt ein {@link MultiValueFilter}, der kein solches Paar übersieht. Der Speicherbedarf ist
+ * daher unabhängig von der Größe der Eingabe.
+ * <p>
+ * Aus den Kennzahlen werden Knoten, Relationen, Properties und die ungefähre Store-Größe für alle vier Mapper
+ * geschätzt, Superknoten und für einen Index zu lange Literale gemeldet und ein Mapper samt Batch-Größen empfohlen.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class DataProfiler {
+
+    /**
+     * Standardanzahl der Relationen bzw. Vorkommen, ab der ein Term als Superknoten gemeldet wird.
+     */
+    public static final long DEFAULT_SUPERNODE_THRESHOLD = 10000;
+
+    /**
+     * Standardlänge in Bytes, ab der ein Literal als zu lang für einen Index-Schlüssel gilt. Neo4j legt in einem
+     * Range-Index Schlüssel bis etwa 8 KB ab; RPT Simple und RPT Generic mit {@code VALUE} indizieren Literal-Werte.
+     */
+    public static final int DEFAULT_LONG_LITERAL_BYTES = 8000;
+
+    /**
+     * Anzahl der gemeldeten Superknoten, häufigen Literale und Beispiele langer Literale.
+     */
+    private static final int MAX_REPORTED = 10;
+
+    /**
+     * Anzahl der Kandidaten, unter denen die häufigsten Terme gesucht werden.
+     */
+    private static final int MAX_CANDIDATES = 1000;
+
+    /**
+     * Anteil der Literal-Tripel, um den die Subjekt-Prädikat-Paare weniger sein müssen, damit die Anzahl mehrwertiger
+     * Literal-Tripel aus den beiden Skizzen statt aus dem {@link MultiValueFilter} geschätzt wird. Er liegt über dem
+     * Schätzfehler beider Skizzen.
+     */
+    private static final double MULTI_VALUED_TOLERANCE = 0.02;
+
+    /**
+     * Fehlalarmrate des {@link MultiValueFilter}, ab der gemeldete mehrwertige Literal-Properties als unsicher gelten.
+     */
+    private static final double MULTI_VALUED_FALSE_POSITIVES = 0.01;
+
+    // Näherungen der Record-Größen von Neo4j für die Schätzung der Store-Größe.
+    private static final int NODE_RECORD_BYTES = 15;
+    private static final int RELATIONSHIP_RECORD_BYTES = 34;
+    private static final double PROPERTY_BLOCK_BYTES = 41 / 4.0;
+    private static final int SHORT_STRING_BYTES = 24;
+    private static final int DYNAMIC_RECORD_BYTES = 128;
+    private static final int DYNAMIC_RECORD_PAYLOAD = 120;
+    private static final int INDEX_ENTRY_OVERHEAD = 32;
+
+    /**
+     * Zeichen eines Cypher-Statements ohne Terme, mit denen die Größe einer Import-Transaktion geschätzt wird.
+     */
+    private static final int STATEMENT_OVERHEAD = 160;
+
+    /**
+     * Angestrebte Größe der Statements einer Import-Transaktion in Zeichen.
+     */
+    private static final int TRANSACTION_CHARS = 8 * 1024 * 1024;
+
+    /**
+     * Angestrebte Anzahl der Tripel eines Export-Abschnitts.
+     */
+    private static final int EXPORT_TRIPLES_PER_PAGE = 100000;
+
+    private static final Set<Node> SCHEMA_PREDICATES = Set.of(RDFS.subClassOf.asNode(), RDFS.subPropertyOf.asNode(),
+            RDFS.domain.asNode(), RDFS.range.asNode());
+    private static final Set<Node> SCHEMA_TYPES = Set.of(RDFS.Class.asNode(), OWL.Class.asNode(), RDF.Property.asNode(),
+            OWL.ObjectProperty.asNode(), OWL.DatatypeProperty.asNode());
+
+    private long supernodeThreshold = DEFAULT_SUPERNODE_THRESHOLD;
+    private int longLiteralBytes = DEFAULT_LONG_LITERAL_BYTES;
+
+    private final HyperLogLog distinctTriples = new HyperLogLog();
+    private final HyperLogLog subjects = new HyperLogLog();
+    private final HyperLogLog predicates = new HyperLogLog();
+    private final HyperLogLog uriResources = new HyperLogLog();
+    private final HyperLogLog blankNodes = new HyperLogLog();
+    private final HyperLogLog literals = new HyperLogLog();
+    private final HyperLogLog classes = new HyperLogLog();
+    private final HyperLogLog typedSubjects = new HyperLogLog();
+    private final HyperLogLog literalTriples = new HyperLogLog();
+    private final HyperLogLog literalPairs = new HyperLogLog();
+    private final CountMinSketch degrees = new CountMinSketch();
+    private final CountMinSketch literalOccurrences = new CountMinSketch();
+    private final MultiValueFilter literalValues = new MultiValueFilter();
+    private final Map<String, Long> supernodeCandidates = new HashMap<>();
+    private final Map<String, Long> literalCandidates = new HashMap<>();
+    private final List<LongLiteral> longLiterals = new ArrayList<>();
+    private final Map<String, String> prefixes = new HashMap<>();
+
+    private long triples;
+    private long schemaTriples;
+    private long multiValuedConflicts;
+    private long longLiteralCount;
+    private int maxLiteralLength;
+    private long iriChars;
+    private long iriCount;
+    private long blankNodeChars;
+    private long blankNodeCount;
+    private long predicateChars;
+    private long literalChars;
+    private long datatypeChars;
+    private long literalCount;
+
+    private final StreamRDF sink = new StreamRDFBase() {
+        @Override
+        public void triple(Triple triple) {
+            add(triple);
+        }
+
+        @Override
+        public void prefix(String prefix, String iri) {
+            prefixes.put(iri, prefix);
+        }
+    };
+
+    /**
+     * Liest die Konfiguration aus den Argumenten, profiliert die Eingaben und gibt den Bericht aus.
+     *
+     * @param args Die Argumente (siehe {@link ProfilerConfig#parse(String[])}).
+     * @return 0, wenn alle Eingaben gelesen wurden, 1 bei einem Fehler und 2 bei ungültigen Argumenten.
+     */
+    public static int run(String[] args) {
+        ProfilerConfig config;
+        List<Path> files;
+        try {
+            config = ProfilerConfig.parse(args);
+            files = JobConfig.resolve(config.inputs());
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Aufruf: java -jar rdfpgmapper.jar profile --input <dateien> [--format AUTO|TTL|RDF/XML|N-TRIPLE]"
+                    + " [--supernode-threshold <n>] [--long-literal-bytes <n>]");
+            return 2;
+        }
+        if (files.isEmpty()) {
+            System.err.println("Keine Eingabedateien gefunden: " + String.join(", ", config.inputs()));
+            return 2;
+        }
+
+        DataProfiler profiler = new DataProfiler();
+        profiler.setSupernodeThreshold(config.supernodeThreshold());
+        profiler.setLongLiteralBytes(config.longLiteralBytes());
+        long start = System.nanoTime();
+        for (Path file : files) {
+            if (!Files.isRegularFile(file)) {
+                System.err.println("Datei: " + file + " nicht gefunden.");
+                return 2;
+            }
+            String format = config.formatFor(file);
+            if (format == null) {
+                System.err.println("Format von " + file + " nicht erkannt.");
+                return 2;
+            }
+            try {
+                profiler.add(file, format);
+            } catch (RuntimeException e) {
+                System.err.println("Profiling von " + file + " fehlgeschlagen: " + e.getMessage());
+                return 1;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        ProfileReport report = profiler.report();
+        System.out.printf("%d Tripel aus %d Dateien in %.1f s gelesen (%.0f Tripel/s)%n", report.triples(), files.size(),
+                seconds, report.triples() / seconds);
+        report.print();
+        return 0;
+    }
+
+    /**
+     * Setzt die Anzahl der Relationen bzw. Vorkommen, ab der ein Term als Superknoten gemeldet wird.
+     *
+     * @param supernodeThreshold Der Schwellwert.
+     */
+    public void setSupernodeThreshold(long supernodeThreshold) {
+        this.supernodeThreshold = supernodeThreshold;
+    }
+
+    /**
+     * Setzt die Länge in Bytes, ab der ein Literal als zu lang für einen Index-Schlüssel gilt.
+     *
+     * @param longLiteralBytes Die Länge in Bytes.
+     */
+    public void setLongLiteralBytes(int longLiteralBytes) {
+        this.longLiteralBytes = longLiteralBytes;
+    }
+
+    /**
+     * Liest eine RDF-Datei als Strom und nimmt ihre Tripel in das Profil auf. Blank Nodes werden wie beim Import
+     * über ihre Bezeichner in der Datei identifiziert.
+     *
+     * @param file   Die Datei.
+     * @param format Das Format der Datei (z.B. "TTL").
+     * @throws org.apache.jena.riot.RiotException wenn die Datei nicht gelesen werden kann.
+     */
+    public void add(Path file, String format) {
+        RDFParser.source(file)
+                .lang(RDFLanguages.nameToLang(format))
+                .labelToNode(LabelToNode.createUseLabelEncoded())
+                .parse(sink);
+    }
+
+    /**
+     * Nimmt ein Tripel in das Profil auf.
+     *
+     * @param triple Das Tripel.
+     */
+    public void add(Triple triple) {
+        Node subject = triple.getSubject();
+        Node predicate = triple.getPredicate();
+        Node object = triple.getObject();
+        String subjectKey = key(subject);
+        String objectKey = key(object);
+        long subjectHash = Hashing.hash(subjectKey);
+        long predicateHash = Hashing.hash(predicate.getURI());
+        long objectHash = Hashing.hash(objectKey);
+        long pairHash = Hashing.combine(subjectHash, predicateHash);
+        long tripleHash = Hashing.combine(pairHash, objectHash);
+
+        triples++;
+        distinctTriples.addHash(tripleHash);
+        subjects.addHash(subjectHash);
+        predicates.addHash(predicateHash);
+        predicateChars += prefixedLength(predicate.getURI());
+        addNode(subject, subjectHash);
+
+        if (object.isLiteral()) {
+            literals.addHash(objectHash);
+            literalTriples.addHash(tripleHash);
+            literalPairs.addHash(pairHash);
+            if (literalValues.add(pairHash, objectHash)) {
+                multiValuedConflicts++;
+            }
+            addLiteral(subject, predicate, object, objectKey, objectHash);
+        } else {
+            addNode(object, objectHash);
+            track(supernodeCandidates, subjectKey, degrees.addHash(subjectHash), supernodeThreshold);
+            track(supernodeCandidates, objectKey, degrees.addHash(objectHash), supernodeThreshold);
+            if (predicate.equals(RDF.type.asNode())) {
+                classes.addHash(objectHash);
+                typedSubjects.addHash(subjectHash);
+            }
+        }
+
+        if (SCHEMA_PREDICATES.contains(predicate) || predicate.equals(RDF.type.asNode()) && SCHEMA_TYPES.contains(object)) {
+            schemaTriples++;
+        }
+    }
+
+    /**
+     * Erstellt den Bericht aus den bisher aufgenommenen Tripeln.
+     *
+     * @return Der Bericht.
+     */
+    public ProfileReport report() {
+        long uris = uriResources.estimate();
+        long blanks = blankNodes.estimate();
+        long literalTerms = literals.estimate();
+        long distinct = Math.min(distinctTriples.estimate(), triples);
+        long literalStatements = Math.min(literalTriples.estimate(), distinct);
+        long pairs = Math.min(literalPairs.estimate(), literalStatements);
+        // Der Filter übersieht kein mehrwertiges Paar; seine Anzahl enthält aber bei großen Eingaben Fehlalarme, die
+        // Differenz der Skizzen dagegen erst oberhalb ihres Schätzfehlers aussagekräftig.
+        long multiValued = 0;
+        if (multiValuedConflicts > 0) {
+            multiValued = literalStatements - pairs > MULTI_VALUED_TOLERANCE * literalStatements
+                    ? literalStatements - pairs : multiValuedConflicts;
+        }
+
+        List<MapperEstimate> estimates = estimate(uris, blanks, literalTerms, distinct, literalStatements, pairs);
+        List<HeavyHitter> supernodes = top(supernodeCandidates);
+        List<HeavyHitter> frequentLiterals = top(literalCandidates);
+        Recommendation recommendation = recommend(estimates, distinct, multiValued, supernodes, frequentLiterals);
+
+        return new ProfileReport(triples, distinct, subjects.estimate(), predicates.estimate(), uris, blanks, literalTerms,
+                classes.estimate(), literalStatements, multiValued, schemaTriples, maxLiteralLength, longLiteralCount,
+                List.copyOf(longLiterals), supernodes, frequentLiterals, estimates, recommendation);
+    }
+
+    /**
+     * Schätzt die Größe des Graphen je Mapper aus der Anzahl der Terme und den mittleren Längen ihrer Schlüssel.
+     */
+    private List<MapperEstimate> estimate(long uris, long blanks, long literalTerms, long distinct, long literalStatements, long pairs) {
+        double iri = average(iriChars, iriCount);
+        double blank = average(blankNodeChars, blankNodeCount);
+        double predicate = average(predicateChars, triples);
+        double literal = average(literalChars, literalCount);
+        double datatype = average(datatypeChars, literalCount);
+        double encodedLiteral = literal + 2 + datatype;
+        long resourceStatements = distinct - literalStatements;
+        long typed = typedSubjects.estimate();
+        long keyBytes = properties(uris, iri, true) + properties(blanks, blank, true);
+
+        List<MapperEstimate> estimates = new ArrayList<>();
+        long terms = uris + blanks + literalTerms;
+        double name = terms == 0 ? 0 : (uris * iri + blanks * blank + literalTerms * encodedLiteral) / terms;
+        estimates.add(new MapperEstimate("RptSimple", terms + 1, distinct, terms + distinct,
+                records(terms + 1, distinct) + properties(terms, name, true) + properties(distinct, predicate, false)));
+        estimates.add(new MapperEstimate("RptGeneric", terms + 1, distinct, uris + blanks + 2 * literalTerms + distinct + typed,
+                records(terms + 1, distinct) + keyBytes + properties(literalTerms, literal + datatype, true)
+                        + properties(literalTerms, datatype, false) + properties(distinct, predicate, false)
+                        + properties(typed, iri, false)));
+        long pgtBytes = records(uris + blanks + 1, resourceStatements) + keyBytes + properties(pairs, encodedLiteral, false);
+        estimates.add(new MapperEstimate("PgtSimple", uris + blanks + 1, resourceStatements, uris + blanks + pairs, pgtBytes));
+        estimates.add(new MapperEstimate("PgtComplete", uris + blanks + 1, resourceStatements, uris + blanks + pairs, pgtBytes));
+        return estimates;
+    }
+
+    /**
+     * Empfiehlt einen Mapper, der die Daten verlustfrei abbildet und den kleinsten Store erzeugt, sowie Batch-Größen.
+     * Die PGT-Mapper gelten nur als verlustfrei, wenn kein Subjekt-Prädikat-Paar mit mehreren Literalen gesehen wurde.
+     * Sind RDFS-Schema-Tripel vorhanden und ist PGT Complete verlustfrei, wird es bevorzugt, da es sie für Validierung
+     * und Inferenz nutzt.
+     */
+    private Recommendation recommend(List<MapperEstimate> estimates, long distinct, long multiValued,
+                                     List<HeavyHitter> supernodes, List<HeavyHitter> frequentLiterals) {
+        List<String> reasons = new ArrayList<>();
+        List<MapperEstimate> candidates = new ArrayList<>(estimates);
+        if (multiValued > 0) {
+            candidates.removeIf(estimate -> estimate.mapper().startsWith("Pgt"));
+            reasons.add("Etwa " + multiValued + " Literal-Tripel teilen Subjekt und Prädikat mit einem anderen Literal; "
+                    + "die PGT-Mapper speichern davon nur einen Wert.");
+            if (literalValues.falsePositiveRate() > MULTI_VALUED_FALSE_POSITIVES) {
+                reasons.add("Bei dieser Datenmenge kann die Erkennung mehrwertiger Literal-Properties auch ohne solche "
+                        + "Tripel anschlagen; die PGT-Mapper werden dennoch nicht als verlustfrei empfohlen.");
+            }
+        }
+        if (longLiteralCount > 0) {
+            candidates.removeIf(estimate -> estimate.mapper().equals("RptSimple"));
+            reasons.add(longLiteralCount + " Literale sind länger als " + longLiteralBytes + " Bytes und können nicht "
+                    + "in den Index von RPT Simple bzw. RPT Generic mit LiteralKeying.VALUE aufgenommen werden.");
+        }
+
+        MapperEstimate chosen;
+        if (schemaTriples > 0 && candidates.contains(estimates.get(3))) {
+            chosen = estimates.get(3);
+            reasons.add(schemaTriples + " RDFS-Schema-Tripel: PGT Complete bildet Klassen-Hierarchie, Domain und Range ab.");
+            reasons.add("Mit der Validierung REJECT verwirft PGT Complete Tripel, die Domain, Range oder Datentyp "
+                    + "verletzen; verlustfrei ist der Import nur mit REPORT (Standard) oder QUARANTINE.");
+        } else {
+            chosen = candidates.stream().min(Comparator.comparingLong(MapperEstimate::storeBytes)).orElseThrow();
+            reasons.add(chosen.mapper() + " erzeugt unter den verlustfreien Mappern den kleinsten Store.");
+        }
+        int mapper = estimates.indexOf(chosen) + 1;
+
+        LiteralKeying literalKeying = null;
+        if (chosen.mapper().equals("RptGeneric")) {
+            literalKeying = LiteralKeying.VALUE;
+            if (!frequentLiterals.isEmpty()) {
+                literalKeying = LiteralKeying.HASH_PER_SUBJECT;
+                reasons.add(frequentLiterals.size() + " Literale kommen mindestens " + supernodeThreshold + "-mal vor und "
+                        + "würden als gemeinsame Literal-Knoten zu Superknoten.");
+            } else if (longLiteralCount > 0) {
+                literalKeying = LiteralKeying.HASH;
+            }
+        }
+
+        double statementChars = STATEMENT_OVERHEAD + 2 * average(iriChars, iriCount) + average(predicateChars, triples)
+                + average(literalChars, literalCount) * literalCount / Math.max(1, triples);
+        int importBatchSize = roundDown(clamp(TRANSACTION_CHARS / statementChars, 500, 20000), 500);
+        if (!supernodes.isEmpty()) {
+            importBatchSize = Math.min(importBatchSize, 1000);
+            reasons.add(supernodes.size() + " Knoten haben mindestens " + supernodeThreshold + " Relationen; kleinere "
+                    + "Transaktionen verkürzen die Sperren, auf die parallele Importe an diesen Knoten warten.");
+        }
+        double triplesPerSubject = (double) distinct / Math.max(1, subjects.estimate());
+        int exportPageSize = roundDown(clamp(EXPORT_TRIPLES_PER_PAGE / Math.max(1, triplesPerSubject), 1000, 50000), 1000);
+
+        return new Recommendation(mapper, chosen.mapper(), literalKeying, importBatchSize, exportPageSize, List.copyOf(reasons));
+    }
+
+    private void addNode(Node node, long hash) {
+        if (node.isURI()) {
+            uriResources.addHash(hash);
+            iriChars += prefixedLength(node.getURI());
+            iriCount++;
+        } else {
+            blankNodes.addHash(hash);
+            blankNodeChars += node.getBlankNodeLabel().length() + 2;
+            blankNodeCount++;
+        }
+    }
+
+    private void addLiteral(Node subject, Node predicate, Node literal, String key, long hash) {
+        String lexicalForm = literal.getLiteralLexicalForm();
+        int length = lexicalForm.length();
+        literalChars += length;
+        datatypeChars += prefixedLength(literal.getLiteralDatatypeURI());
+        literalCount++;
+        maxLiteralLength = Math.max(maxLiteralLength, length);
+        track(literalCandidates, key, literalOccurrences.addHash(hash), supernodeThreshold);
+
+        // Ein Zeichen belegt in UTF-8 höchstens 3 Bytes; nur längere Werte werden kodiert.
+        if ((long) length * 3 >= longLiteralBytes) {
+            int bytes = lexicalForm.getBytes(StandardCharsets.UTF_8).length;
+            if (bytes >= longLiteralBytes) {
+                longLiteralCount++;
+                if (longLiterals.size() < MAX_REPORTED) {
+                    longLiterals.add(new LongLiteral(display(subject), predicate.getURI(), bytes));
+                }
+            }
+        }
+    }
+
+    /**
+     * Gibt die Länge einer IRI in der präfixierten Form zurück, in der die Mapper sie speichern, sofern der
+     * Namensraum in den Eingaben deklariert ist.
+     */
+    private int prefixedLength(String iri) {
+        int split = Math.max(iri.lastIndexOf('#'), iri.lastIndexOf('/')) + 1;
+        String prefix = prefixes.get(iri.substring(0, split));
+        return prefix == null ? iri.length() : prefix.length() + 1 + iri.length() - split;
+    }
+
+    /**
+     * Nimmt einen Term unter die Kandidaten der häufigsten Terme auf, sobald seine Häufigkeit den Schwellwert erreicht.
+     * Ist die Liste voll, wird der seltenste Kandidat verdrängt.
+     */
+    private static void track(Map<String, Long> candidates, String term, long count, long threshold) {
+        if (count < threshold) {
+            return;
+        }
+        if (candidates.put(term, count) == null && candidates.size() > MAX_CANDIDATES) {
+            candidates.entrySet().stream().min(Map.Entry.comparingByValue())
+                    .ifPresent(entry -> candidates.remove(entry.getKey()));
+        }
+    }
+
+    private static List<HeavyHitter> top(Map<String, Long> candidates) {
+        return candidates.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(MAX_REPORTED)
+                .map(entry -> new HeavyHitter(display(entry.getKey()), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Kodiert einen Term so, dass gleiche Terme denselben Schlüssel erhalten. Literale beginnen mit einem Anführungszeichen.
+     */
+    private static String key(Node node) {
+        if (node.isURI()) {
+            return node.getURI();
+        }
+        if (node.isBlank()) {
+            return "_:" + node.getBlankNodeLabel();
+        }
+        return "\"" + node.getLiteralLexicalForm() + "\"\u0000" + node.getLiteralDatatypeURI() + "\u0000" + node.getLiteralLanguage();
+    }
+
+    private static String display(Node node) {
+        return display(key(node));
+    }
+
+    private static String display(String key) {
+        String term = key.startsWith("\"") ? key.substring(0, key.indexOf('\u0000')) + "^^<" + key.substring(key.indexOf('\u0000') + 1,
+                key.lastIndexOf('\u0000')) + ">" : key;
+        return term.length() > 100 ? term.substring(0, 97) + "..." : term;
+    }
+
+    /**
+     * Schätzt die Bytes für Knoten- und Relations-Records.
+     */
+    private static long records(long nodes, long relationships) {
+        return nodes * NODE_RECORD_BYTES + relationships * RELATIONSHIP_RECORD_BYTES;
+    }
+
+    /**
+     * Schätzt die Bytes für Zeichenketten-Properties einer mittleren Länge: kurze Werte stehen im Property-Record,
+     * längere belegen zusätzlich dynamische Records. Indizierte Werte werden zusätzlich im Index abgelegt.
+     */
+    private static long properties(long count, double length, boolean indexed) {
+        double bytes = length <= SHORT_STRING_BYTES
+                ? 2 * PROPERTY_BLOCK_BYTES
+                : PROPERTY_BLOCK_BYTES + Math.ceil(length / DYNAMIC_RECORD_PAYLOAD) * DYNAMIC_RECORD_BYTES;
+        if (indexed) {
+            bytes += length + INDEX_ENTRY_OVERHEAD;
+        }
+        return Math.round(count * bytes);
+    }
+
+    private static double average(long sum, long count) {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    private static double clamp(double value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static int roundDown(double value, int step) {
+        return Math.max(step, (int) (value / step) * step);
+    }
+}
@@ -0,0 +1,49 @@
+package rdfpgmapper.profiler;
+
+/**
+ * 64-Bit-Hashes für die Skizzen des {@link DataProfiler}. Sie müssen nicht kryptografisch sicher sein, aber alle Bits
+ * gleichmäßig verteilen, da die {@link HyperLogLog}-Skizze die führenden Bits als Register-Index verwendet.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Berechnet den Hash einer Zeichenkette (FNV-1a über die Zeichen, gefolgt vom Finalisierer von MurmurHash3).
+     *
+     * @param value Die Zeichenkette.
+     * @return Der Hash.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Verknüpft zwei Hashes, z.B. von Subjekt und Prädikat, zu einem Hash des Paares.
+     *
+     * @param first  Der erste Hash.
+     * @param second Der zweite Hash.
+     * @return Der Hash des Paares.
+     */
+    static long combine(long first, long second) {
+        return mix(first * 0x9e3779b97f4a7c15L + second);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
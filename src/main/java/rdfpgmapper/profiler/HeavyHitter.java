@@ -0,0 +1,12 @@
+package rdfpgmapper.profiler;
+
+/**
+ * Ein Term, der im Datenstrom auffällig häufig vorkommt, z.B. ein Superknoten mit sehr vielen Relationen.
+ *
+ * @param term  Der Term in N-Triples-ähnlicher Schreibweise, lange Literale gekürzt.
+ * @param count Die geschätzte Häufigkeit; sie kann durch Kollisionen im Count-Min-Sketch leicht zu hoch sein.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record HeavyHitter(String term, long count) {
+}
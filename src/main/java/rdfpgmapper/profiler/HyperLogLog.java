@@ -0,0 +1,132 @@
+package rdfpgmapper.profiler;
+
+/**
+ * Schätzt die Anzahl verschiedener Elemente eines Datenstroms mit festem Speicher (HyperLogLog).
+ * Jedes Element wird über seinen 64-Bit-Hash einem von {@code 2^precision} Registern zugeordnet, das die größte
+ * Anzahl führender Nullen der übrigen Bits festhält. Der relative Standardfehler beträgt {@code 1.04 / sqrt(2^precision)}.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class HyperLogLog {
+
+    /**
+     * Standardgenauigkeit: 65536 Register (64 KB), relativer Standardfehler etwa 0,4 %.
+     */
+    public static final int DEFAULT_PRECISION = 16;
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Konstruktor für eine HyperLogLog-Skizze mit der Standardgenauigkeit.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Konstruktor für eine HyperLogLog-Skizze.
+     *
+     * @param precision Die Anzahl der Bits des Register-Index (4 bis 18).
+     * @throws IllegalArgumentException wenn die Genauigkeit außerhalb des Bereichs liegt.
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Die Genauigkeit muss zwischen 4 und 18 liegen.");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Fügt eine Zeichenkette hinzu.
+     *
+     * @param value Die Zeichenkette.
+     */
+    public void add(String value) {
+        addHash(Hashing.hash(value));
+    }
+
+    /**
+     * Fügt ein Element über seinen gleichmäßig verteilten 64-Bit-Hash hinzu.
+     *
+     * @param hash Der Hash des Elements.
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Übernimmt die Elemente einer anderen Skizze gleicher Genauigkeit, z.B. eines anderen Threads.
+     *
+     * @param other Die andere Skizze.
+     * @throws IllegalArgumentException wenn die Genauigkeit abweicht.
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Skizzen unterschiedlicher Genauigkeit können nicht zusammengeführt werden.");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+    }
+
+    /**
+     * Schätzt die Anzahl verschiedener Elemente mit dem verbesserten Schätzer nach Ertl, der aus der Verteilung der
+     * Registerwerte ohne Korrekturtabellen über den gesamten Bereich erwartungstreu schätzt. Der ursprüngliche Schätzer
+     * mit Wechsel auf Linear Counting überschätzt um das Zwei- bis Fünffache der Registeranzahl um mehrere Prozent.
+     *
+     * @return Die geschätzte Anzahl.
+     */
+    public long estimate() {
+        int m = registers.length;
+        int q = 64 - precision;
+        int[] histogram = new int[q + 2];
+        for (byte register : registers) {
+            histogram[register]++;
+        }
+        double z = m * tau(1 - (double) histogram[q + 1] / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma((double) histogram[0] / m);
+        return Math.round((double) m * m / (2 * Math.log(2) * z));
+    }
+
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= Math.pow(1 - x, 2) * y;
+        } while (z != previous);
+        return z / 3;
+    }
+}
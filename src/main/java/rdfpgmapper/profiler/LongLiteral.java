@@ -0,0 +1,13 @@
+package rdfpgmapper.profiler;
+
+/**
+ * Ein Literal, dessen Wert länger ist als die Schlüssel, die Neo4j in einem Index ablegen kann.
+ *
+ * @param subject   Das Subjekt des Tripels.
+ * @param predicate Das Prädikat des Tripels.
+ * @param bytes     Die Länge des Werts in Bytes (UTF-8).
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record LongLiteral(String subject, String predicate, int bytes) {
+}
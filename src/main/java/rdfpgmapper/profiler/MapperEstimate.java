@@ -0,0 +1,15 @@
+package rdfpgmapper.profiler;
+
+/**
+ * Geschätzte Größe des Graphen, den ein Mapper aus den profilierten Daten erzeugt.
+ *
+ * @param mapper        Der Name des Mappers, z.B. {@code RptSimple}.
+ * @param nodes         Die Anzahl der Knoten.
+ * @param relationships Die Anzahl der Relationen.
+ * @param properties    Die Anzahl der Properties von Knoten und Relationen.
+ * @param storeBytes    Die ungefähre Größe des Stores einschließlich der Indizes der MERGE-Schlüssel in Bytes.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record MapperEstimate(String mapper, long nodes, long relationships, long properties, long storeBytes) {
+}
@@ -0,0 +1,112 @@
+package rdfpgmapper.profiler;
+
+/**
+ * Erkennt mit festem Speicher, ob ein Schlüssel eines Datenstroms mit verschiedenen Werten vorkommt, z.B. ein
+ * Subjekt-Prädikat-Paar mit mehreren Literalen. Jede Zeile hält je Fach den Hash des ersten Schlüssel-Wert-Paares,
+ * das dorthin fällt; ein Paar gilt als Konflikt, wenn es in keiner seiner Fächer steht und diese bereits belegt sind.
+ * <p>
+ * Der Fehler ist wie bei einem Bloom-Filter einseitig: Hat ein Schlüssel tatsächlich mehrere Werte, wird das immer
+ * erkannt, da keines seiner Fächer den später gelesenen Wert als ersten enthalten kann. Ein Schlüssel mit nur einem
+ * Wert wird dagegen fälschlich gemeldet, wenn alle seine Fächer schon von anderen Paaren belegt sind; die Rate dieser
+ * Fehlalarme gibt {@link #falsePositiveRate()} an.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class MultiValueFilter {
+
+    /**
+     * Standardbreite einer Zeile.
+     */
+    public static final int DEFAULT_WIDTH = 1 << 18;
+
+    /**
+     * Standardanzahl der Zeilen.
+     */
+    public static final int DEFAULT_DEPTH = 4;
+
+    private final int mask;
+    private final long[][] entries;
+    private final long[] occupied;
+
+    /**
+     * Konstruktor für einen Filter mit Standardbreite und -tiefe (8 MB).
+     */
+    public MultiValueFilter() {
+        this(DEFAULT_WIDTH, DEFAULT_DEPTH);
+    }
+
+    /**
+     * Konstruktor für einen Filter.
+     *
+     * @param width Die Anzahl der Fächer pro Zeile, eine Zweierpotenz.
+     * @param depth Die Anzahl der Zeilen.
+     * @throws IllegalArgumentException wenn die Breite keine Zweierpotenz oder die Tiefe kleiner als 1 ist.
+     */
+    public MultiValueFilter(int width, int depth) {
+        if (width < 1 || Integer.bitCount(width) != 1 || depth < 1) {
+            throw new IllegalArgumentException("Die Breite muss eine Zweierpotenz und die Tiefe mindestens 1 sein.");
+        }
+        this.mask = width - 1;
+        this.entries = new long[depth][width];
+        this.occupied = new long[depth];
+    }
+
+    /**
+     * Nimmt ein Schlüssel-Wert-Paar über die gleichmäßig verteilten 64-Bit-Hashes von Schlüssel und Wert auf.
+     *
+     * @param keyHash   Der Hash des Schlüssels.
+     * @param valueHash Der Hash des Wertes.
+     * @return true, wenn der Schlüssel möglicherweise schon mit einem anderen Wert vorkam; false, wenn das Paar bereits
+     * aufgenommen wurde oder der Schlüssel sicher noch keinen anderen Wert hatte.
+     */
+    public boolean add(long keyHash, long valueHash) {
+        // 0 markiert ein leeres Fach und wird daher auf einen anderen Wert abgebildet.
+        long entry = Hashing.combine(keyHash, valueHash);
+        if (entry == 0) {
+            entry = 1;
+        }
+        boolean free = false;
+        for (int row = 0; row < entries.length; row++) {
+            long current = entries[row][index(keyHash, row)];
+            if (current == entry) {
+                return false;
+            }
+            free |= current == 0;
+        }
+        if (free) {
+            // Ein freies Fach bedeutet, dass der Schlüssel noch nie aufgenommen wurde.
+            for (int row = 0; row < entries.length; row++) {
+                int index = index(keyHash, row);
+                if (entries[row][index] == 0) {
+                    entries[row][index] = entry;
+                    occupied[row]++;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Schätzt die Wahrscheinlichkeit, dass ein neuer Schlüssel mit nur einem Wert fälschlich gemeldet wird.
+     *
+     * @return Das Produkt der Belegung aller Zeilen.
+     */
+    public double falsePositiveRate() {
+        double rate = 1;
+        for (long count : occupied) {
+            rate *= (double) count / (mask + 1);
+        }
+        return rate;
+    }
+
+    /**
+     * Leitet das Fach einer Zeile aus den beiden Hälften des Hashes ab (Kirsch-Mitzenmacher).
+     */
+    private int index(long hash, int row) {
+        int low = (int) hash;
+        int high = (int) (hash >>> 32);
+        return (low + row * high) & mask;
+    }
+}
@@ -0,0 +1,96 @@
+package rdfpgmapper.profiler;
+
+import rdfpgmapper.mapper.schema.DataProfile;
+
+import java.util.List;
+
+/**
+ * Ergebnis eines {@link DataProfiler}: Kennzahlen der Eingabedaten, die geschätzte Größe des Graphen je Mapper,
+ * auffällige Terme und eine Empfehlung für den Import. Anzahlen verschiedener Terme sind Schätzungen.
+ *
+ * @param triples             Die Anzahl der gelesenen Tripel einschließlich Duplikaten.
+ * @param distinctTriples     Die Anzahl verschiedener Tripel.
+ * @param subjects            Die Anzahl verschiedener Subjekte.
+ * @param predicates          Die Anzahl verschiedener Prädikate.
+ * @param uriResources        Die Anzahl verschiedener URI-Ressourcen in Subjekt- oder Objekt-Position.
+ * @param blankNodes          Die Anzahl verschiedener Blank Nodes.
+ * @param literals            Die Anzahl verschiedener Literale.
+ * @param classes             Die Anzahl verschiedener Objekte von rdf:type.
+ * @param literalTriples      Die Anzahl verschiedener Tripel mit einem Literal als Objekt.
+ * @param multiValuedLiterals Die Anzahl der Literal-Tripel, deren Subjekt dasselbe Prädikat mit einem anderen Literal hat;
+ *                            0 nur, wenn kein solches Tripel gesehen wurde.
+ * @param schemaTriples       Die Anzahl der RDFS-Schema-Tripel (Klassen, Properties, Hierarchien, Domain und Range).
+ * @param maxLiteralLength    Die Länge des längsten Literals in Zeichen.
+ * @param longLiteralCount    Die Anzahl der Literale, die zu lang für einen Index-Schlüssel sind.
+ * @param longLiterals        Beispiele solcher Literale.
+ * @param supernodes          Ressourcen und Blank Nodes mit den meisten Relationen oberhalb des Schwellwerts.
+ * @param frequentLiterals    Literale, die oberhalb des Schwellwerts als Objekt vorkommen.
+ * @param estimates           Die geschätzte Größe des Graphen je Mapper.
+ * @param recommendation      Die Empfehlung für den Import.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record ProfileReport(long triples, long distinctTriples, long subjects, long predicates, long uriResources,
+                            long blankNodes, long literals, long classes, long literalTriples, long multiValuedLiterals,
+                            long schemaTriples, int maxLiteralLength, long longLiteralCount, List<LongLiteral> longLiterals,
+                            List<HeavyHitter> supernodes, List<HeavyHitter> frequentLiterals,
+                            List<MapperEstimate> estimates, Recommendation recommendation) {
+
+    /**
+     * Gibt die Kennzahlen zurück, mit denen der {@code SchemaPlanner} die Indizes plant, ohne die Daten einzulesen.
+     *
+     * @return Die Kennzahlen.
+     */
+    public DataProfile toDataProfile() {
+        return new DataProfile(distinctTriples, uriResources, blankNodes, literals);
+    }
+
+    /**
+     * Gibt den Bericht auf der Konsole aus.
+     */
+    public void print() {
+        System.out.println("Profil der Eingabedaten (verschiedene Terme geschätzt):");
+        System.out.println("  Tripel:          " + triples + " (" + distinctTriples + " verschieden, " + literalTriples + " mit Literal)");
+        System.out.println("  Subjekte:        " + subjects);
+        System.out.println("  Prädikate:       " + predicates);
+        System.out.println("  Ressourcen:      " + uriResources);
+        System.out.println("  Blank Nodes:     " + blankNodes);
+        System.out.println("  Literale:        " + literals + " (längstes " + maxLiteralLength + " Zeichen)");
+        System.out.println("  Klassen:         " + classes);
+        System.out.println("  Schema-Tripel:   " + schemaTriples);
+        if (multiValuedLiterals > 0) {
+            System.out.println("  Mehrwertige Literal-Properties: etwa " + multiValuedLiterals + " Tripel");
+        }
+        if (longLiteralCount > 0) {
+            System.out.println("  Zu lange Literale für einen Index: " + longLiteralCount);
+            for (LongLiteral literal : longLiterals) {
+                System.out.println("    " + literal.subject() + " " + literal.predicate() + " (" + literal.bytes() + " Bytes)");
+            }
+        }
+        if (!supernodes.isEmpty()) {
+            System.out.println("  Superknoten:");
+            for (HeavyHitter supernode : supernodes) {
+                System.out.println("    " + supernode.term() + " (etwa " + supernode.count() + " Relationen)");
+            }
+        }
+        if (!frequentLiterals.isEmpty()) {
+            System.out.println("  Häufige Literale:");
+            for (HeavyHitter literal : frequentLiterals) {
+                System.out.println("    " + literal.term() + " (etwa " + literal.count() + " Vorkommen)");
+            }
+        }
+        System.out.println("Geschätzte Größe je Mapper:");
+        System.out.printf("  %-12s %14s %14s %14s %12s%n", "Mapper", "Knoten", "Relationen", "Properties", "Store (MB)");
+        for (MapperEstimate estimate : estimates) {
+            System.out.printf("  %-12s %14d %14d %14d %12.1f%n", estimate.mapper(), estimate.nodes(), estimate.relationships(),
+                    estimate.properties(), estimate.storeBytes() / (1024.0 * 1024.0));
+        }
+        System.out.println("Empfehlung: " + recommendation.mapper() + " - " + recommendation.mapperName()
+                + (recommendation.literalKeying() != null ? " mit LiteralKeying." + recommendation.literalKeying() : "")
+                + ", --batch-size " + recommendation.importBatchSize()
+                + ", Export-Abschnitte mit " + recommendation.exportPageSize() + " Subjekten");
+        for (String reason : recommendation.reasons()) {
+            System.out.println("  - " + reason);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package rdfpgmapper.profiler;
+
+import rdfpgmapper.job.JobConfig;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Konfiguration eines Profiling-Laufs des {@link DataProfiler}, gelesen wie die Konfiguration eines Import-Jobs
+ * aus Argumenten der Form {@code --schlüssel wert}.
+ *
+ * @param inputs             Die Eingaben: Dateien, Verzeichnisse oder Glob-Muster wie bei {@link JobConfig}.
+ * @param format             Das RDF-Format aller Eingaben oder {@code AUTO} für die Erkennung an der Dateiendung.
+ * @param supernodeThreshold Die Anzahl der Relationen bzw. Vorkommen, ab der ein Term als Superknoten gemeldet wird.
+ * @param longLiteralBytes   Die Länge in Bytes, ab der ein Literal als zu lang für einen Index-Schlüssel gilt.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record ProfilerConfig(List<String> inputs, String format, long supernodeThreshold, int longLiteralBytes) {
+
+    /**
+     * Die unterstützten Schlüssel in Argumenten.
+     */
+    public static final List<String> KEYS = List.of("input", "format", "supernode-threshold", "long-literal-bytes");
+
+    /**
+     * Die unterstützten Formate.
+     */
+    public static final List<String> FORMATS = List.of("AUTO", "TTL", "RDF/XML", "N-TRIPLE");
+
+    /**
+     * Liest die Konfiguration aus Kommandozeilen-Argumenten. Mehrere Eingaben werden durch Kommas getrennt.
+     *
+     * @param args Die Argumente, z.B. {@code --input "data/*.ttl" --supernode-threshold 50000}.
+     * @return Die Konfiguration.
+     * @throws IllegalArgumentException wenn ein Argument unbekannt oder ungültig ist.
+     */
+    public static ProfilerConfig parse(String[] args) {
+        Properties properties = new Properties();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Erwartet wird --<schlüssel> <wert>, gefunden: " + args[i]);
+            }
+            String key = args[i].substring(2);
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unbekanntes Argument: " + args[i]);
+            }
+            properties.setProperty(key, args[i + 1]);
+        }
+
+        List<String> inputs = Arrays.stream(properties.getProperty("input", "").split(","))
+                .map(String::trim).filter(s -> !s.isEmpty()).toList();
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("Mindestens eine Eingabe (--input) muss angegeben werden.");
+        }
+        String format = properties.getProperty("format", "AUTO").toUpperCase(Locale.ROOT);
+        if (!FORMATS.contains(format)) {
+            throw new IllegalArgumentException("Format nicht unterstützt: " + format);
+        }
+        long supernodeThreshold = parseLong(properties, "supernode-threshold", DataProfiler.DEFAULT_SUPERNODE_THRESHOLD);
+        long longLiteralBytes = parseLong(properties, "long-literal-bytes", DataProfiler.DEFAULT_LONG_LITERAL_BYTES);
+        if (supernodeThreshold < 1 || longLiteralBytes < 1 || longLiteralBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("supernode-threshold und long-literal-bytes müssen größer als 0 sein.");
+        }
+        return new ProfilerConfig(inputs, format, supernodeThreshold, (int) longLiteralBytes);
+    }
+
+    /**
+     * Gibt das RDF-Format einer Eingabedatei zurück.
+     *
+     * @param file Die Eingabedatei.
+     * @return Das konfigurierte Format oder bei {@code AUTO} das an der Dateiendung erkannte Format; null, wenn es unbekannt ist.
+     */
+    public String formatFor(Path file) {
+        return format.equals("AUTO") ? JobConfig.formatOf(file) : format;
+    }
+
+    private static long parseLong(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim().replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Keine Zahl für " + key + ": " + value);
+        }
+    }
+}
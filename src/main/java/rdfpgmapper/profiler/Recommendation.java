@@ -0,0 +1,21 @@
+package rdfpgmapper.profiler;
+
+import rdfpgmapper.mapper.rpt.LiteralKeying;
+
+import java.util.List;
+
+/**
+ * Empfehlung des {@link DataProfiler} für den Import der profilierten Daten.
+ *
+ * @param mapper          Die Nummer des Mappers wie im Menü und bei {@code --mapper} (1 bis 4).
+ * @param mapperName      Der Name des Mappers.
+ * @param literalKeying   Der Literal-Schlüssel für RPT Generic oder null bei anderen Mappern.
+ * @param importBatchSize Die Anzahl der Statements pro Import-Transaktion ({@code --batch-size}).
+ * @param exportPageSize  Die Anzahl der Subjekt-Knoten pro Export-Abschnitt.
+ * @param reasons         Die Begründungen und Warnungen, in der Reihenfolge ihrer Ermittlung.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record Recommendation(int mapper, String mapperName, LiteralKeying literalKeying, int importBatchSize,
+                             int exportPageSize, List<String> reasons) {
+}
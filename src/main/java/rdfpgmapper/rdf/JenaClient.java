@@ -1,14 +1,31 @@
 package rdfpgmapper.rdf;
 
+import io.micrometer.core.instrument.Timer;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.riot.system.StreamRDFWriter;
 import org.apache.jena.util.FileManager;
+import rdfpgmapper.metrics.MapperMetrics;
 
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
 
 /**
  * Diese Klasse bietet Methoden zum Einlesen und Schreiben von RDF-Modellen.
@@ -30,6 +47,7 @@ public class JenaClient {
      */
     public Model parseRDFFile(String filePath, String format) {
         Model model = ModelFactory.createDefaultModel();
+        Timer.Sample sample = MapperMetrics.start();
         try (InputStream in = FileManager.get().open(filePath)) {
             if (in == null) {
                 throw new IllegalArgumentException("Datei: " + filePath + " nicht gefunden.");
@@ -38,6 +56,33 @@ public class JenaClient {
         } catch (Exception e) {
             e.printStackTrace();
         }
+        MapperMetrics.parsed(sample, format, model.size());
+        return model;
+    }
+
+    /**
+     * Liest eine RDF-Datei und übernimmt dabei die Blank-Node-Bezeichner aus der Datei, jeweils mit dem angegebenen
+     * Bereich als Präfix. Dadurch erhalten Blank Nodes bei wiederholtem Einlesen derselben oder einer fortgeschriebenen
+     * Datei dieselben IDs, was für fortgesetzte und inkrementelle Importe erforderlich ist, während gleichlautende
+     * Bezeichner verschiedener Eingaben (z.B. {@code _:b0}) getrennte Knoten bleiben.
+     *
+     * @param filePath Der Dateipfad, von dem das RDF gelesen werden soll.
+     * @param format   Das Format des RDF-Dokuments (z.B. "RDF/XML", "TTL").
+     * @param scope    Der Bereich, in dem die Bezeichner gelten, z.B. der Hash der Eingabedatei.
+     * @return Ein Jena Model, das die geladenen RDF-Daten enthält.
+     */
+    public Model parseRDFFileWithStableBlankNodes(String filePath, String format, String scope) {
+        Model model = ModelFactory.createDefaultModel();
+        Timer.Sample sample = MapperMetrics.start();
+        try {
+            RDFParser.source(filePath)
+                    .lang(RDFLanguages.nameToLang(format))
+                    .labelToNode(LabelToNode.createUseLabelEncoded())
+                    .parse(new ScopedBlankNodes(StreamRDFLib.graph(model.getGraph()), scope + "-"));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        MapperMetrics.parsed(sample, format, model.size());
         return model;
     }
 
@@ -56,4 +101,80 @@ public class JenaClient {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Konvertiert eine N-Triples-Datei in das angegebene RDF-Format.
+     * Turtle und alle streamingfähigen Formate werden abschnittsweise geschrieben, ohne die Daten vollständig
+     * in den Speicher zu laden. Für alle anderen Formate (z.B. RDF/XML) wird ein Model aufgebaut.
+     * Schlägt die Konvertierung fehl, wird die unvollständige Ausgabedatei entfernt; die Quelldatei bleibt erhalten.
+     *
+     * @param sourceFilePath Der Pfad der N-Triples-Datei.
+     * @param outputFilePath Der Pfad, an dem die RDF-Datei gespeichert werden soll.
+     * @param format         Das RDF-Format, in dem geschrieben wird.
+     * @param nsPrefixUri    Die Namensraum-Präfixe, die in der Ausgabe deklariert werden.
+     * @throws IOException wenn die Quelldatei nicht gelesen oder die Ausgabedatei nicht geschrieben werden kann.
+     */
+    public void convertNTriples(String sourceFilePath, String outputFilePath, RDFFormat format, Map<String, Object> nsPrefixUri)
+            throws IOException {
+        RDFFormat streamFormat = format.getLang().equals(Lang.TURTLE) ? RDFFormat.TURTLE_BLOCKS : format;
+
+        try (OutputStream out = new FileOutputStream(outputFilePath)) {
+            if (!StreamRDFWriter.registered(streamFormat)) {
+                Model model = RDFDataMgr.loadModel(sourceFilePath, Lang.NTRIPLES);
+                nsPrefixUri.forEach((prefix, uri) -> model.setNsPrefix(prefix, uri.toString()));
+                RDFDataMgr.write(out, model, format);
+            } else {
+                StreamRDF writer = StreamRDFWriter.getWriterStream(out, streamFormat);
+                writer.start();
+                nsPrefixUri.forEach((prefix, uri) -> writer.prefix(prefix, uri.toString()));
+                RDFParser.source(sourceFilePath).lang(Lang.NTRIPLES).parse(new StreamRDFWithoutBoundaries(writer));
+                writer.finish();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(Path.of(outputFilePath));
+            throw e instanceof IOException io ? io
+                    : new IOException("Konvertierung von " + sourceFilePath + " fehlgeschlagen: " + e.getMessage(), e);
+        }
+        System.out.println("RDF erfolgreich geschrieben: " + outputFilePath);
+    }
+
+    /**
+     * Versieht die Bezeichner aller Blank Nodes mit dem Präfix ihres Bereichs.
+     */
+    private static class ScopedBlankNodes extends StreamRDFWrapper {
+
+        private final String prefix;
+
+        ScopedBlankNodes(StreamRDF other, String prefix) {
+            super(other);
+            this.prefix = prefix;
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            super.triple(Triple.create(scoped(triple.getSubject()), triple.getPredicate(), scoped(triple.getObject())));
+        }
+
+        private Node scoped(Node node) {
+            return node.isBlank() ? NodeFactory.createBlankNode(prefix + node.getBlankNodeLabel()) : node;
+        }
+    }
+
+    /**
+     * Leitet Tripel an einen Writer weiter, ohne dessen start/finish erneut aufzurufen.
+     */
+    private static class StreamRDFWithoutBoundaries extends StreamRDFWrapper {
+
+        StreamRDFWithoutBoundaries(StreamRDF other) {
+            super(other);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
 }
@@ -0,0 +1,357 @@
+package rdfpgmapper.service;
+
+import rdfpgmapper.job.JobConfig;
+import rdfpgmapper.mapper.ImportResult;
+import rdfpgmapper.mapper.MapperApi;
+import rdfpgmapper.mapper.dictionary.NodeDictionary;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.SchemaCache;
+import rdfpgmapper.mapper.schema.SchemaPlanner;
+import rdfpgmapper.neo4j.Neo4jClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Langlebiger Dienst, der Import- und Export-Aufträge mit einem dauerhaft geöffneten Neo4j-Client ausführt.
+ * Alle Aufträge teilen sich den Verbindungs-Pool des Treibers, einen Cache kompilierter Ontologie-Schemata und ein
+ * {@link NodeDictionary}, sodass kleine Dateien weder den Start der JVM noch den Aufbau der Verbindungen oder das
+ * Kompilieren einer unveränderten Ontologie bezahlen. Jeder Auftrag und jede seiner Dateien läuft auf einem eigenen
+ * virtuellen Thread; die Anzahl gleichzeitig importierter Dateien ist je Auftrag begrenzt und die Anzahl
+ * gleichzeitiger Schreib-Transaktionen über alle Aufträge durch {@link Neo4jClient#setWriteConcurrency(int)}.
+ * Lesevorgänge wie das Laden von Checkpoints und Schemata, Exporte und SPARQL-Abfragen teilen sich eigene Verbindungen,
+ * deren Anzahl {@link Neo4jClient#setReadConcurrency(int)} begrenzt.
+ * <p>
+ * Eingabedateien müssen innerhalb von {@link ServiceConfig#inputDir()} und Ausgabedateien innerhalb von
+ * {@link ServiceConfig#outputDir()} liegen; relative Pfade werden gegen diese Verzeichnisse aufgelöst.
+ * <p>
+ * Importe, die sich zeitlich überschneiden, teilen sich einen {@link SchemaPlanner#shared(Neo4jClient) Schema-Planer};
+ * zurückgestellte Constraints und Indizes werden angelegt, sobald der letzte von ihnen erfolgreich beendet ist.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class MapperService implements AutoCloseable {
+
+    /**
+     * Anzahl beendeter Aufträge, deren Zustand weiterhin abgefragt werden kann.
+     */
+    public static final int RETAINED_JOBS = 1000;
+
+    private final ServiceConfig config;
+    private final Neo4jClient neo4jClient;
+    private final SchemaCache schemaCache;
+    private final NodeDictionary nodeDictionary;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentSkipListMap<Long, ServiceJob> jobs = new ConcurrentSkipListMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final ReentrantLock importLock = new ReentrantLock();
+    private SchemaPlanner schemaPlanner;
+    private int activeImports;
+    private boolean importsFailed;
+
+    /**
+     * Konstruktor für den MapperService.
+     *
+     * @param config Die Konfiguration des Dienstes.
+     */
+    public MapperService(ServiceConfig config) {
+        this.config = config;
+        neo4jClient = new Neo4jClient(config.uri(), config.user(), config.password(),
+                config.writeConcurrency() + config.readConcurrency());
+        neo4jClient.setWriteConcurrency(config.writeConcurrency());
+        neo4jClient.setReadConcurrency(config.readConcurrency());
+        schemaCache = new SchemaCache(config.schemaCache());
+        nodeDictionary = new NodeDictionary(neo4jClient);
+    }
+
+    /**
+     * Nimmt einen Import-Auftrag an und startet ihn auf einem virtuellen Thread.
+     *
+     * @param mapper      Nummer des Mappers (1-4).
+     * @param inputs      Dateien, Verzeichnisse oder Glob-Muster der Eingabedateien, relativ zum Eingabeverzeichnis.
+     * @param format      Das RDF-Format aller Eingaben oder {@code AUTO} für die Erkennung an der Dateiendung.
+     * @param concurrency Die Anzahl gleichzeitig importierter Dateien oder 0 für die Voreinstellung des Dienstes.
+     * @return Der angenommene Auftrag.
+     * @throws IllegalArgumentException wenn keine Eingabedateien gefunden werden, eine Datei außerhalb des
+     *                                  Eingabeverzeichnisses liegt oder ein Format unbekannt ist.
+     * @throws IOException              wenn ein Verzeichnis nicht gelesen werden kann.
+     */
+    public ServiceJob submitImport(int mapper, List<String> inputs, String format, int concurrency) throws IOException {
+        List<String> resolvedInputs = new ArrayList<>();
+        for (String input : inputs) {
+            resolvedInputs.add(config.inputDir().resolve(input).toString());
+        }
+        List<Path> files = JobConfig.resolve(resolvedInputs);
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("Keine Eingabedateien gefunden: " + inputs);
+        }
+        Path inputRoot = config.inputDir().toRealPath();
+        String upperFormat = format.toUpperCase(Locale.ROOT);
+        for (Path file : files) {
+            if (!Files.isRegularFile(file)) {
+                throw new IllegalArgumentException("Eingabedatei nicht gefunden: " + file);
+            }
+            if (!file.toRealPath().startsWith(inputRoot)) {
+                throw new IllegalArgumentException("Eingabedatei liegt außerhalb des Eingabeverzeichnisses: " + file);
+            }
+            if (formatFor(file, upperFormat) == null) {
+                throw new IllegalArgumentException("Format nicht erkannt: " + file);
+            }
+        }
+
+        ServiceJob job = new ServiceJob(ids.incrementAndGet(), ServiceJob.Type.IMPORT, mapper, files, upperFormat,
+                concurrency > 0 ? concurrency : config.jobConcurrency());
+        register(job);
+        job.addTask(executor.submit(() -> runImport(job)));
+        return job;
+    }
+
+    /**
+     * Nimmt einen Export-Auftrag an und startet ihn auf einem virtuellen Thread.
+     *
+     * @param mapper Nummer des Mappers (1-4).
+     * @param output Pfad, an dem die RDF-Datei gespeichert werden soll, relativ zum Ausgabeverzeichnis.
+     * @param format Das RDF-Format, in das exportiert werden soll (z.B. "TTL").
+     * @param filter Der Filter des Exports.
+     * @return Der angenommene Auftrag.
+     * @throws IllegalArgumentException wenn die Ausgabedatei außerhalb des Ausgabeverzeichnisses liegt.
+     * @throws IOException              wenn das Ausgabeverzeichnis nicht gelesen werden kann.
+     */
+    public ServiceJob submitExport(int mapper, String output, String format, ExportFilter filter) throws IOException {
+        Path file = config.outputDir().resolve(output).normalize();
+        Path parent = file.getParent();
+        if (!file.startsWith(config.outputDir()) || parent == null || !Files.isDirectory(parent)
+                || !parent.toRealPath().startsWith(config.outputDir().toRealPath())
+                || Files.isSymbolicLink(file) || Files.isDirectory(file)) {
+            throw new IllegalArgumentException("Ausgabedatei liegt nicht im Ausgabeverzeichnis: " + output);
+        }
+        ServiceJob job = new ServiceJob(ids.incrementAndGet(), ServiceJob.Type.EXPORT, mapper, List.of(file),
+                format.toUpperCase(Locale.ROOT), 1);
+        register(job);
+        job.addTask(executor.submit(() -> runExport(job, filter)));
+        return job;
+    }
+
+    /**
+     * Beantwortet eine SPARQL-SELECT-Abfrage direkt auf dem gemappten Graphen. Abfragen laufen ohne Auftrag auf dem
+     * Thread der Anfrage und teilen sich die Lesevorgänge des Dienstes (siehe {@link ServiceConfig#readConcurrency()}).
+     *
+     * @param mapper Nummer des Mappers (1-3), mit dem die Daten importiert wurden.
+     * @param sparql Die SPARQL-Abfrage.
+     * @param output Der Strom, in den das Ergebnis geschrieben wird.
+     * @param format Das Ergebnisformat ("JSON", "XML", "CSV" oder "TSV").
+     * @throws IllegalArgumentException wenn die Abfrage ungültig ist oder für den Mapper nicht unterstützt wird.
+     */
+    public void query(int mapper, String sparql, OutputStream output, String format) {
+        new MapperApi(mapper, neo4jClient).query(sparql, output, format);
+    }
+
+    /**
+     * Gibt einen Auftrag zurück.
+     *
+     * @param id Die Kennung des Auftrags.
+     * @return Der Auftrag oder null, wenn er unbekannt ist.
+     */
+    public ServiceJob getJob(long id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Gibt alle bekannten Aufträge zurück.
+     *
+     * @return Die Aufträge, nach Kennung sortiert.
+     */
+    public Collection<ServiceJob> getJobs() {
+        return jobs.values();
+    }
+
+    /**
+     * Bricht einen Auftrag ab.
+     *
+     * @param id Die Kennung des Auftrags.
+     * @return true, wenn der Auftrag abgebrochen wurde; false, wenn er unbekannt oder bereits beendet ist.
+     */
+    public boolean cancel(long id) {
+        ServiceJob job = jobs.get(id);
+        return job != null && job.cancel();
+    }
+
+    /**
+     * Bricht alle laufenden Aufträge ab und schließt den Neo4j-Client.
+     */
+    @Override
+    public void close() {
+        jobs.values().forEach(ServiceJob::cancel);
+        executor.shutdownNow();
+        neo4jClient.close();
+    }
+
+    private void register(ServiceJob job) {
+        jobs.put(job.getId(), job);
+        while (jobs.size() > RETAINED_JOBS) {
+            ServiceJob oldest = jobs.values().stream().filter(candidate -> candidate.getStatus().isFinished()).findFirst().orElse(null);
+            if (oldest == null) {
+                break;
+            }
+            jobs.remove(oldest.getId());
+        }
+    }
+
+    private void runImport(ServiceJob job) {
+        if (!job.start()) {
+            return;
+        }
+        SchemaPlanner planner = beginImport();
+        Semaphore slots = new Semaphore(job.getConcurrency());
+        CountDownLatch stopped = new CountDownLatch(job.getFiles().size());
+        List<AtomicBoolean> claims = new ArrayList<>();
+        List<Future<ImportResult>> futures = new ArrayList<>();
+        for (Path file : job.getFiles()) {
+            AtomicBoolean claimed = new AtomicBoolean();
+            Future<ImportResult> future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return ImportResult.failed();
+                }
+                try {
+                    slots.acquire();
+                    try {
+                        return importFile(job, file, planner);
+                    } finally {
+                        slots.release();
+                    }
+                } finally {
+                    stopped.countDown();
+                }
+            });
+            claims.add(claimed);
+            futures.add(future);
+            job.addTask(future);
+        }
+
+        boolean success = true;
+        for (int i = 0; i < futures.size(); i++) {
+            ImportResult result = await(futures.get(i), job.getFiles().get(i));
+            job.fileDone(result);
+            success &= result.success();
+        }
+        // Ein abgebrochener Future meldet sich sofort, während seine Datei noch geschrieben werden kann. Nicht
+        // gestartete Dateien werden hier übernommen, auf laufende wird gewartet, bevor der Schema-Planer freigegeben wird.
+        for (AtomicBoolean claimed : claims) {
+            if (claimed.compareAndSet(false, true)) {
+                stopped.countDown();
+            }
+        }
+        awaitUninterruptibly(stopped);
+        endImport(success);
+        job.finish(success);
+    }
+
+    private ImportResult importFile(ServiceJob job, Path file, SchemaPlanner planner) {
+        MapperApi mapperApi = new MapperApi(job.getMapper(), neo4jClient);
+        mapperApi.setSchemaPlanner(planner);
+        mapperApi.setNodeDictionary(nodeDictionary);
+        mapperApi.setSchemaCache(schemaCache);
+        mapperApi.setImportBatchSize(config.batchSize());
+        return mapperApi.importRdf(file.toString(), formatFor(file, job.getFormat()));
+    }
+
+    private void runExport(ServiceJob job, ExportFilter filter) {
+        if (!job.start()) {
+            return;
+        }
+        Path output = job.getFiles().getFirst();
+        try {
+            Files.deleteIfExists(output);
+            MapperApi mapperApi = new MapperApi(job.getMapper(), neo4jClient);
+            mapperApi.exportRdf(output.toString(), job.getFormat(), filter);
+            job.finish(!Thread.currentThread().isInterrupted() && Files.exists(output));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Export " + job.getId() + " fehlgeschlagen: " + e.getMessage());
+            job.finish(false);
+        }
+    }
+
+    /**
+     * Gibt den Schema-Planer der gerade laufenden Importe zurück. Beginnt kein anderer Import gleichzeitig, wird ein
+     * neuer Planer angelegt, der selbst entscheidet, ob es sich um einen Bulk-Load in eine leere Datenbank handelt.
+     */
+    private SchemaPlanner beginImport() {
+        importLock.lock();
+        try {
+            if (activeImports++ == 0) {
+                schemaPlanner = SchemaPlanner.shared(neo4jClient);
+                importsFailed = false;
+            }
+            return schemaPlanner;
+        } finally {
+            importLock.unlock();
+        }
+    }
+
+    /**
+     * Legt nach dem letzten von sich überschneidenden Importen die zurückgestellten Constraints und Indizes an,
+     * sofern alle Importe erfolgreich waren.
+     */
+    private void endImport(boolean success) {
+        importLock.lock();
+        try {
+            importsFailed |= !success;
+            if (--activeImports == 0 && !importsFailed) {
+                schemaPlanner.applyPendingDeferred().forEach(statement -> System.err.println("Nicht angelegt: " + statement));
+            }
+        } finally {
+            importLock.unlock();
+        }
+    }
+
+    private static String formatFor(Path file, String format) {
+        return format.equals("AUTO") ? JobConfig.formatOf(file) : format;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ImportResult await(Future<ImportResult> future, Path file) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            System.err.println("Import von " + file + " fehlgeschlagen: " + e.getCause().getMessage());
+        } catch (CancellationException e) {
+            System.err.println("Import von " + file + " abgebrochen.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Import von " + file + " unterbrochen.");
+        }
+        return ImportResult.failed();
+    }
+}
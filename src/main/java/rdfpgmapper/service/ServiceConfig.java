@@ -0,0 +1,99 @@
+package rdfpgmapper.service;
+
+import rdfpgmapper.mapper.checkpoint.CheckpointedImporter;
+import rdfpgmapper.mapper.pgt.pgtcomplete.schemamodel.SchemaCache;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Konfiguration des Dienst-Modus (siehe {@link MapperService}).
+ * Sie wird wie die Konfiguration eines Import-Jobs aus Argumenten der Form {@code --schlüssel wert} gelesen.
+ *
+ * @param host             Die Adresse, an die die HTTP-Schnittstelle gebunden wird; standardmäßig nur lokal erreichbar.
+ * @param port             Der Port der HTTP-Schnittstelle.
+ * @param uri              Die URI der Neo4j-Datenbank.
+ * @param user             Der Benutzername für die Authentifizierung.
+ * @param password         Das Passwort für die Authentifizierung.
+ * @param writeConcurrency Die Anzahl gleichzeitiger Schreib-Transaktionen über alle Jobs.
+ * @param readConcurrency  Die Anzahl gleichzeitiger Lesevorgänge über alle Jobs und SPARQL-Abfragen.
+ * @param jobConcurrency   Die Anzahl gleichzeitig importierter Dateien eines Jobs, falls der Job keine eigene angibt.
+ * @param batchSize        Die Anzahl der Statements pro Transaktion.
+ * @param schemaCache      Das Verzeichnis des Caches kompilierter Ontologie-Schemata.
+ * @param inputDir         Das Verzeichnis, auf das die Eingabedateien von Import-Aufträgen beschränkt sind.
+ * @param outputDir        Das Verzeichnis, auf das die Ausgabedateien von Export-Aufträgen beschränkt sind.
+ * @param token            Das Bearer-Token, das jede Anfrage mitsenden muss, oder null, wenn keines verlangt wird.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record ServiceConfig(String host, int port, String uri, String user, String password, int writeConcurrency,
+                            int readConcurrency, int jobConcurrency, int batchSize, Path schemaCache, Path inputDir,
+                            Path outputDir, String token) {
+
+    /**
+     * Die unterstützten Schlüssel in Argumenten.
+     */
+    public static final List<String> KEYS = List.of("host", "port", "uri", "user", "password", "write-concurrency",
+            "read-concurrency", "job-concurrency", "batch-size", "schema-cache", "input-dir", "output-dir", "token");
+
+    /**
+     * Liest die Konfiguration aus Kommandozeilen-Argumenten.
+     *
+     * @param args Die Argumente, z.B. {@code --port 7475 --write-concurrency 8}.
+     * @return Die Konfiguration.
+     * @throws IllegalArgumentException wenn ein Argument unbekannt oder ungültig ist.
+     */
+    public static ServiceConfig parse(String[] args) {
+        Properties properties = new Properties();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Erwartet wird --<schlüssel> <wert>, gefunden: " + args[i]);
+            }
+            String key = args[i].substring(2);
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unbekanntes Argument: " + args[i]);
+            }
+            properties.setProperty(key, args[i + 1]);
+        }
+
+        int port = parseInt(properties, "port", 7475);
+        int writeConcurrency = parseInt(properties, "write-concurrency", Runtime.getRuntime().availableProcessors());
+        int readConcurrency = parseInt(properties, "read-concurrency", 2);
+        int jobConcurrency = parseInt(properties, "job-concurrency", 4);
+        int batchSize = parseInt(properties, "batch-size", CheckpointedImporter.DEFAULT_BATCH_SIZE);
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Ungültiger Port: " + port);
+        }
+        if (writeConcurrency < 1 || readConcurrency < 1 || jobConcurrency < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("write-concurrency, read-concurrency, job-concurrency und batch-size müssen größer als 0 sein.");
+        }
+        String token = properties.getProperty("token");
+        if (token != null && token.isBlank()) {
+            throw new IllegalArgumentException("Das Token darf nicht leer sein.");
+        }
+
+        String schemaCache = properties.getProperty("schema-cache");
+        return new ServiceConfig(properties.getProperty("host", "127.0.0.1"), port,
+                properties.getProperty("uri", "bolt://localhost:7687"),
+                properties.getProperty("user", "neo4j"),
+                properties.getProperty("password", "12345678"),
+                writeConcurrency, readConcurrency, jobConcurrency, batchSize,
+                schemaCache != null ? Path.of(schemaCache) : SchemaCache.defaultDirectory(),
+                Path.of(properties.getProperty("input-dir", ".")).toAbsolutePath().normalize(),
+                Path.of(properties.getProperty("output-dir", ".")).toAbsolutePath().normalize(),
+                token);
+    }
+
+    private static int parseInt(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Keine Zahl für " + key + ": " + value);
+        }
+    }
+}
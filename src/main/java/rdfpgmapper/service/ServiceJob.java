@@ -0,0 +1,251 @@
+package rdfpgmapper.service;
+
+import org.apache.jena.atlas.json.JsonArray;
+import org.apache.jena.atlas.json.JsonObject;
+import rdfpgmapper.mapper.ImportResult;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ein Import- oder Export-Auftrag des {@link MapperService} mit seinem Fortschritt.
+ * Der Zustand wird von den virtuellen Threads des Auftrags fortgeschrieben und kann jederzeit abgefragt werden.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ServiceJob {
+
+    /**
+     * Die Art eines Auftrags.
+     */
+    public enum Type {
+        IMPORT, EXPORT
+    }
+
+    /**
+     * Der Zustand eines Auftrags.
+     */
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        /**
+         * Gibt an, ob der Auftrag beendet ist.
+         *
+         * @return true für SUCCEEDED, FAILED und CANCELLED.
+         */
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final long id;
+    private final Type type;
+    private final int mapper;
+    private final List<Path> files;
+    private final String format;
+    private final int concurrency;
+    private final Instant created = Instant.now();
+    private final AtomicInteger filesDone = new AtomicInteger();
+    private final AtomicInteger filesFailed = new AtomicInteger();
+    private final AtomicLong triples = new AtomicLong();
+    private final AtomicLong statements = new AtomicLong();
+    private final List<Future<?>> tasks = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant started;
+    private volatile Instant finished;
+
+    /**
+     * Konstruktor für den ServiceJob.
+     *
+     * @param id          Die Kennung des Auftrags.
+     * @param type        Die Art des Auftrags.
+     * @param mapper      Nummer des Mappers (1-4).
+     * @param files       Die Eingabedateien eines Imports bzw. die Ausgabedatei eines Exports.
+     * @param format      Das RDF-Format oder {@code AUTO} für die Erkennung an der Dateiendung.
+     * @param concurrency Die Anzahl gleichzeitig importierter Dateien.
+     */
+    public ServiceJob(long id, Type type, int mapper, List<Path> files, String format, int concurrency) {
+        this.id = id;
+        this.type = type;
+        this.mapper = mapper;
+        this.files = List.copyOf(files);
+        this.format = format;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Gibt die Kennung des Auftrags zurück.
+     *
+     * @return Die Kennung.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gibt die Art des Auftrags zurück.
+     *
+     * @return Import oder Export.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gibt die Nummer des Mappers zurück.
+     *
+     * @return Die Nummer des Mappers (1-4).
+     */
+    public int getMapper() {
+        return mapper;
+    }
+
+    /**
+     * Gibt die Eingabedateien eines Imports bzw. die Ausgabedatei eines Exports zurück.
+     *
+     * @return Die Dateien.
+     */
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    /**
+     * Gibt das RDF-Format des Auftrags zurück.
+     *
+     * @return Das Format oder {@code AUTO}.
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Gibt die Anzahl gleichzeitig importierter Dateien zurück.
+     *
+     * @return Die Anzahl der Dateien.
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Gibt den Zustand des Auftrags zurück.
+     *
+     * @return Der Zustand.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Registriert eine Aufgabe des Auftrags, damit sie beim Abbruch unterbrochen wird. Ist der Auftrag bereits
+     * abgebrochen, wird die Aufgabe sofort unterbrochen.
+     *
+     * @param task Die Aufgabe.
+     */
+    synchronized void addTask(Future<?> task) {
+        tasks.add(task);
+        if (status == Status.CANCELLED) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Markiert den Auftrag als laufend, sofern er nicht bereits abgebrochen wurde.
+     *
+     * @return false, wenn der Auftrag abgebrochen wurde.
+     */
+    synchronized boolean start() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        started = Instant.now();
+        return true;
+    }
+
+    /**
+     * Schreibt das Ergebnis einer importierten Datei fort.
+     *
+     * @param result Das Ergebnis des Imports.
+     */
+    void fileDone(ImportResult result) {
+        filesDone.incrementAndGet();
+        if (!result.success()) {
+            filesFailed.incrementAndGet();
+        }
+        triples.addAndGet(result.triples());
+        statements.addAndGet(result.statements());
+    }
+
+    /**
+     * Beendet den Auftrag. Ein abgebrochener Auftrag bleibt abgebrochen.
+     *
+     * @param success true, wenn alle Dateien verarbeitet wurden.
+     */
+    synchronized void finish(boolean success) {
+        if (status != Status.CANCELLED) {
+            status = success ? Status.SUCCEEDED : Status.FAILED;
+        }
+        finished = Instant.now();
+    }
+
+    /**
+     * Bricht den Auftrag ab und unterbricht alle laufenden Aufgaben. Bereits übernommene Abschnitte bleiben in der
+     * Datenbank; ein erneuter Import derselben Dateien setzt an ihren Checkpoints fort.
+     *
+     * @return false, wenn der Auftrag bereits beendet war.
+     */
+    synchronized boolean cancel() {
+        if (status.isFinished()) {
+            return false;
+        }
+        if (status == Status.QUEUED) {
+            finished = Instant.now();
+        }
+        status = Status.CANCELLED;
+        tasks.forEach(task -> task.cancel(true));
+        return true;
+    }
+
+    /**
+     * Gibt den Zustand des Auftrags als JSON-Objekt zurück.
+     *
+     * @return Das JSON-Objekt.
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.put("id", id);
+        json.put("type", type.name().toLowerCase(Locale.ROOT));
+        json.put("status", status.name().toLowerCase(Locale.ROOT));
+        json.put("mapper", mapper);
+        json.put("format", format);
+        JsonArray paths = new JsonArray();
+        files.forEach(file -> paths.add(file.toString()));
+        json.put(type == Type.IMPORT ? "inputs" : "output", type == Type.IMPORT ? paths : paths.get(0));
+        if (type == Type.IMPORT) {
+            json.put("concurrency", concurrency);
+            json.put("filesDone", filesDone.get());
+            json.put("filesFailed", filesFailed.get());
+            json.put("triples", triples.get());
+            json.put("statements", statements.get());
+        }
+        json.put("created", created.toString());
+        if (started != null) {
+            json.put("started", started.toString());
+        }
+        if (finished != null) {
+            json.put("finished", finished.toString());
+            if (started != null) {
+                json.put("millis", finished.toEpochMilli() - started.toEpochMilli());
+            }
+        }
+        return json;
+    }
+}
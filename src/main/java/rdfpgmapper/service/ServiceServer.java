@@ -0,0 +1,444 @@
+package rdfpgmapper.service;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.jena.atlas.json.JSON;
+import org.apache.jena.atlas.json.JsonArray;
+import org.apache.jena.atlas.json.JsonException;
+import org.apache.jena.atlas.json.JsonObject;
+import org.apache.jena.atlas.json.JsonValue;
+import rdfpgmapper.job.JobConfig;
+import rdfpgmapper.mapper.export.ExportFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Lokale HTTP/JSON-Schnittstelle eines {@link MapperService}.
+ * <ul>
+ *     <li>{@code POST /jobs} nimmt einen Auftrag an, z.B. {@code {"type": "import", "mapper": 4, "inputs": ["data/*.ttl"],
+ *     "concurrency": 4}} oder {@code {"type": "export", "mapper": 4, "output": "out.ttl", "format": "TTL"}}, und
+ *     antwortet mit 202 und dem Zustand des Auftrags.</li>
+ *     <li>{@code GET /jobs} listet alle bekannten Aufträge, {@code GET /jobs/<id>} gibt den Zustand eines Auftrags zurück.</li>
+ *     <li>{@code DELETE /jobs/<id>} bricht einen Auftrag ab.</li>
+ *     <li>{@code GET /sparql?query=...&mapper=1} bzw. {@code POST /sparql} mit der Abfrage als
+ *     {@code application/sparql-query} oder Formular beantwortet eine SPARQL-SELECT-Abfrage direkt auf dem gemappten
+ *     Graphen. Das Ergebnis wird als SPARQL-JSON gestreamt, mit {@code format=tsv} oder dem Accept-Header
+ *     {@code text/tab-separated-values} als TSV.</li>
+ *     <li>{@code GET /health} antwortet mit 200, solange der Dienst läuft.</li>
+ * </ul>
+ * Anfragen werden auf virtuellen Threads bearbeitet. Damit eine Webseite im Browser keine Aufträge einstellen kann,
+ * werden Aufträge nur als {@code application/json} angenommen und Anfragen mit fremdem Origin-Header mit 403
+ * abgewiesen. Ist ein Token konfiguriert, muss jede Anfrage außer {@code /health} es als
+ * {@code Authorization: Bearer <token>} mitsenden; ohne Token werden nur Anfragen an die konfigurierte Adresse oder
+ * an {@code localhost} angenommen, was DNS-Rebinding verhindert.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ServiceServer {
+
+    private final MapperService service;
+    private final ServiceConfig config;
+    private final HttpServer server;
+
+    /**
+     * Konstruktor für den ServiceServer. Die Schnittstelle wird gebunden, aber noch nicht gestartet.
+     *
+     * @param service Der Dienst, der die Aufträge ausführt.
+     * @param config  Die Konfiguration mit Adresse und Port.
+     * @throws IOException wenn der Port nicht gebunden werden kann.
+     */
+    public ServiceServer(MapperService service, ServiceConfig config) throws IOException {
+        this.service = service;
+        this.config = config;
+        server = HttpServer.create(new InetSocketAddress(config.host(), config.port()), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/jobs", guarded(this::handleJobs));
+        server.createContext("/sparql", guarded(this::handleSparql));
+        server.createContext("/health", exchange -> {
+            JsonObject health = new JsonObject();
+            health.put("status", "ok");
+            send(exchange, 200, health);
+        });
+    }
+
+    /**
+     * Startet den Dienst mit der Konfiguration aus den Argumenten. Der Dienst läuft, bis der Prozess beendet wird;
+     * beim Beenden werden laufende Aufträge abgebrochen und der Neo4j-Client geschlossen.
+     *
+     * @param args Die Argumente (siehe {@link ServiceConfig#parse(String[])}).
+     * @return 0, wenn der Dienst gestartet wurde, 2 bei ungültiger Konfiguration und 1, wenn der Port nicht
+     * gebunden werden kann.
+     */
+    public static int run(String[] args) {
+        ServiceConfig config;
+        try {
+            config = ServiceConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Aufruf: java -jar rdfpgmapper.jar serve [--host <adresse>] [--port <n>] [--uri <uri>]"
+                    + " [--user <name>] [--password <passwort>] [--write-concurrency <n>] [--read-concurrency <n>]"
+                    + " [--job-concurrency <n>] [--batch-size <n>] [--schema-cache <verzeichnis>]"
+                    + " [--input-dir <verzeichnis>] [--output-dir <verzeichnis>] [--token <token>]");
+            return 2;
+        }
+
+        MapperService service = new MapperService(config);
+        ServiceServer server;
+        try {
+            server = new ServiceServer(service, config);
+        } catch (IOException e) {
+            System.err.println("Port " + config.port() + " konnte nicht gebunden werden: " + e.getMessage());
+            service.close();
+            return 1;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            service.close();
+        }));
+        server.start();
+        System.out.println("Dienst läuft auf http://" + config.host() + ":" + server.getPort());
+        return 0;
+    }
+
+    /**
+     * Startet die Bearbeitung von Anfragen.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Beendet die Bearbeitung von Anfragen; laufende Aufträge werden nicht abgebrochen.
+     */
+    public void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * Gibt den gebundenen Port zurück, z.B. wenn Port 0 konfiguriert wurde.
+     *
+     * @return Der Port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleJobs(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        try {
+            if (path.equals("/jobs") || path.equals("/jobs/")) {
+                switch (method) {
+                    case "GET" -> {
+                        JsonArray jobs = new JsonArray();
+                        service.getJobs().forEach(job -> jobs.add(job.toJson()));
+                        send(exchange, 200, jobs);
+                    }
+                    case "POST" -> {
+                        if (!hasContentType(exchange, "application/json")) {
+                            sendError(exchange, 415, "Aufträge werden nur als application/json angenommen.");
+                            return;
+                        }
+                        send(exchange, 202, submit(readBody(exchange)).toJson());
+                    }
+                    default -> sendError(exchange, 405, "Methode nicht erlaubt: " + method);
+                }
+                return;
+            }
+
+            long id;
+            try {
+                id = Long.parseLong(path.substring("/jobs/".length()));
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                sendError(exchange, 404, "Unbekannter Pfad: " + path);
+                return;
+            }
+            ServiceJob job = service.getJob(id);
+            if (job == null) {
+                sendError(exchange, 404, "Unbekannter Auftrag: " + id);
+                return;
+            }
+            switch (method) {
+                case "GET" -> send(exchange, 200, job.toJson());
+                case "DELETE" -> {
+                    if (service.cancel(id)) {
+                        send(exchange, 200, job.toJson());
+                    } else {
+                        sendError(exchange, 409, "Auftrag " + id + " ist bereits beendet.");
+                    }
+                }
+                default -> sendError(exchange, 405, "Methode nicht erlaubt: " + method);
+            }
+        } catch (IllegalArgumentException | JsonException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Anfrage " + method + " " + path + " fehlgeschlagen: " + e.getMessage());
+            sendError(exchange, 500, e.getMessage());
+        }
+    }
+
+    private void handleSparql(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        try {
+            Map<String, String> parameters = parameters(exchange.getRequestURI().getRawQuery());
+            if (method.equals("POST")) {
+                boolean form = hasContentType(exchange, "application/x-www-form-urlencoded");
+                if (!form && !hasContentType(exchange, "application/sparql-query")) {
+                    sendError(exchange, 415, "Abfragen werden nur als application/sparql-query oder Formular angenommen.");
+                    return;
+                }
+                String body;
+                try (InputStream in = exchange.getRequestBody()) {
+                    body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+                if (form) {
+                    parameters.putAll(parameters(body));
+                } else {
+                    parameters.put("query", body);
+                }
+            } else if (!method.equals("GET")) {
+                sendError(exchange, 405, "Methode nicht erlaubt: " + method);
+                return;
+            }
+            String query = parameters.get("query");
+            if (query == null || query.isBlank()) {
+                throw new IllegalArgumentException("Die SPARQL-Abfrage (query) muss angegeben werden.");
+            }
+            String accept = exchange.getRequestHeaders().getFirst("Accept");
+            String format = parameters.getOrDefault("format",
+                    accept != null && accept.contains("text/tab-separated-values") ? "TSV" : "JSON");
+            String contentType = switch (format.toUpperCase(Locale.ROOT)) {
+                case "TSV" -> "text/tab-separated-values; charset=utf-8";
+                case "CSV" -> "text/csv; charset=utf-8";
+                case "XML" -> "application/sparql-results+xml";
+                default -> "application/sparql-results+json";
+            };
+
+            // Die Kopfzeilen werden erst mit dem ersten Byte gesendet, sodass Fehler bei der Übersetzung
+            // und beim Start der Abfrage noch als Fehlerantwort gemeldet werden können.
+            try (ResponseStream out = new ResponseStream(exchange, contentType)) {
+                service.query(JobConfig.parseMapper(parameters.getOrDefault("mapper", "1")), query, out, format);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (exchange.getResponseCode() != -1) {
+                // Das Ergebnis wird bereits gestreamt; der Abbruch der Verbindung zeigt den Fehler an.
+                System.err.println("SPARQL-Abfrage abgebrochen: " + e.getMessage());
+                exchange.close();
+            } else if (e instanceof IllegalArgumentException) {
+                sendError(exchange, 400, e.getMessage());
+            } else {
+                System.err.println("SPARQL-Abfrage fehlgeschlagen: " + e.getMessage());
+                sendError(exchange, 500, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Prüft vor der Bearbeitung einer Anfrage Token, Host- und Origin-Header und weist sie andernfalls ab.
+     */
+    private HttpHandler guarded(HttpHandler handler) {
+        return exchange -> {
+            Headers headers = exchange.getRequestHeaders();
+            String host = headers.getFirst("Host");
+            String origin = headers.getFirst("Origin");
+            if (config.token() != null) {
+                String authorization = headers.getFirst("Authorization");
+                byte[] expected = ("Bearer " + config.token()).getBytes(StandardCharsets.UTF_8);
+                if (authorization == null || !MessageDigest.isEqual(expected, authorization.getBytes(StandardCharsets.UTF_8))) {
+                    exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                    sendError(exchange, 401, "Ein gültiges Token (Authorization: Bearer) muss angegeben werden.");
+                    return;
+                }
+            } else if (host == null || !isLocalHost(host)) {
+                sendError(exchange, 403, "Unbekannter Host: " + host);
+                return;
+            }
+            if (origin != null && !origin.equalsIgnoreCase("http://" + host)) {
+                sendError(exchange, 403, "Anfragen von fremden Origins sind nicht erlaubt: " + origin);
+                return;
+            }
+            handler.handle(exchange);
+        };
+    }
+
+    /**
+     * Gibt zurück, ob der Host-Header die konfigurierte Adresse oder {@code localhost} nennt.
+     */
+    private boolean isLocalHost(String host) {
+        int portSeparator = host.lastIndexOf(':');
+        String name = portSeparator > host.lastIndexOf(']') ? host.substring(0, portSeparator) : host;
+        return name.equalsIgnoreCase(config.host()) || name.equalsIgnoreCase("localhost")
+                || name.equals("127.0.0.1") || name.equals("[::1]");
+    }
+
+    private static boolean hasContentType(HttpExchange exchange, String mediaType) {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(mediaType);
+    }
+
+    private ServiceJob submit(JsonObject request) throws IOException {
+        String type = string(request, "type", "import");
+        int mapper = JobConfig.parseMapper(string(request, "mapper", "1"));
+        switch (type) {
+            case "import" -> {
+                List<String> inputs = strings(request, "inputs");
+                if (inputs.isEmpty()) {
+                    throw new IllegalArgumentException("Mindestens eine Eingabe (inputs) muss angegeben werden.");
+                }
+                int concurrency = Integer.parseInt(string(request, "concurrency", "0"));
+                return service.submitImport(mapper, inputs, string(request, "format", "AUTO"), concurrency);
+            }
+            case "export" -> {
+                String output = string(request, "output", null);
+                if (output == null) {
+                    throw new IllegalArgumentException("Die Ausgabedatei (output) muss angegeben werden.");
+                }
+                ExportFilter filter = ExportFilter.all();
+                strings(request, "classes").forEach(filter::addClass);
+                strings(request, "predicates").forEach(filter::addPredicate);
+                strings(request, "namespaces").forEach(filter::addNamespace);
+                strings(request, "datatypes").forEach(filter::addDatatype);
+                return service.submitExport(mapper, output, string(request, "format", "TTL"), filter);
+            }
+            default -> throw new IllegalArgumentException("Unbekannte Art des Auftrags: " + type);
+        }
+    }
+
+    private static JsonObject readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            JsonValue body = JSON.parseAny(in);
+            if (!body.isObject()) {
+                throw new IllegalArgumentException("Erwartet wird ein JSON-Objekt.");
+            }
+            return body.getAsObject();
+        }
+    }
+
+    private static String string(JsonObject request, String key, String defaultValue) {
+        JsonValue value = request.get(key);
+        if (value == null || value.isNull()) {
+            return defaultValue;
+        }
+        if (value.isString()) {
+            return value.getAsString().value();
+        }
+        if (value.isNumber()) {
+            return value.getAsNumber().value().toString();
+        }
+        throw new IllegalArgumentException("Ungültiger Wert für " + key + ": " + value);
+    }
+
+    private static List<String> strings(JsonObject request, String key) {
+        JsonValue value = request.get(key);
+        List<String> values = new ArrayList<>();
+        if (value == null || value.isNull()) {
+            return values;
+        }
+        if (value.isString()) {
+            values.add(value.getAsString().value());
+            return values;
+        }
+        if (!value.isArray()) {
+            throw new IllegalArgumentException("Ungültiger Wert für " + key + ": " + value);
+        }
+        for (JsonValue element : value.getAsArray()) {
+            if (!element.isString()) {
+                throw new IllegalArgumentException("Ungültiger Wert für " + key + ": " + element);
+            }
+            values.add(element.getAsString().value());
+        }
+        return values;
+    }
+
+    private static Map<String, String> parameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JsonObject error = new JsonObject();
+        error.put("error", message == null ? "Unbekannter Fehler" : message);
+        send(exchange, status, error);
+    }
+
+    private static void send(HttpExchange exchange, int status, JsonValue body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Antwort-Strom, der die Kopfzeilen einer Antwort mit Status 200 erst beim ersten Schreiben sendet.
+     */
+    private static class ResponseStream extends OutputStream {
+
+        private final HttpExchange exchange;
+        private final String contentType;
+        private OutputStream body;
+
+        ResponseStream(HttpExchange exchange, String contentType) {
+            this.exchange = exchange;
+            this.contentType = contentType;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            open().write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            open().write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (body != null) {
+                body.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (body != null) {
+                body.close();
+            }
+        }
+
+        private OutputStream open() throws IOException {
+            if (body == null) {
+                exchange.getResponseHeaders().set("Content-Type", contentType);
+                exchange.sendResponseHeaders(200, 0);
+                body = exchange.getResponseBody();
+            }
+            return body;
+        }
+    }
+}
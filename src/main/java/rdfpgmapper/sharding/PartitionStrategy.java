@@ -0,0 +1,94 @@
+package rdfpgmapper.sharding;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.vocabulary.RDF;
+import rdfpgmapper.mapper.delta.TripleFingerprintStore;
+
+/**
+ * Legt fest, nach welchem Schlüssel die Subjekte eines RDF-Modells auf Partitionen verteilt werden.
+ * Alle Tripel eines Subjekts landen in derselben Partition; welche Datenbank eine Partition aufnimmt,
+ * hält das {@link ShardManifest} fest.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public enum PartitionStrategy {
+
+    /**
+     * Partitioniert nach dem Namensraum der Subjekt-IRI. Blank Nodes bilden eine eigene Partition.
+     */
+    NAMESPACE {
+        @Override
+        public String partition(Resource subject, Model model) {
+            return subject.isURIResource() ? subject.getNameSpace() : BLANK_NODES;
+        }
+    },
+
+    /**
+     * Partitioniert nach dem Hash der Subjekt-IRI bzw. des Blank-Node-Bezeichners in {@value #BUCKETS} Buckets.
+     */
+    SUBJECT_HASH {
+        @Override
+        public String partition(Resource subject, Model model) {
+            return "bucket-" + bucket(subject, BUCKETS);
+        }
+    },
+
+    /**
+     * Partitioniert nach der lexikografisch kleinsten rdf:type-IRI des Subjekts, damit die Partition eines Subjekts
+     * nicht von der Reihenfolge der Typen abhängt. Subjekte ohne Typ bilden eine eigene Partition.
+     */
+    CLASS {
+        @Override
+        public String partition(Resource subject, Model model) {
+            String partition = null;
+            StmtIterator types = model.listStatements(subject, RDF.type, (RDFNode) null);
+            while (types.hasNext()) {
+                RDFNode type = types.nextStatement().getObject();
+                if (type.isURIResource() && (partition == null || type.asResource().getURI().compareTo(partition) < 0)) {
+                    partition = type.asResource().getURI();
+                }
+            }
+            return partition != null ? partition : UNTYPED;
+        }
+    };
+
+    /**
+     * Anzahl der Buckets bei {@link #SUBJECT_HASH}.
+     */
+    public static final int BUCKETS = 256;
+
+    /**
+     * Partition der Blank Nodes bei {@link #NAMESPACE}.
+     */
+    public static final String BLANK_NODES = "_:";
+
+    /**
+     * Partition der Subjekte ohne Typ bei {@link #CLASS}.
+     */
+    public static final String UNTYPED = "untyped";
+
+    /**
+     * Gibt die Partition eines Subjekts zurück.
+     *
+     * @param subject Das Subjekt.
+     * @param model   Das RDF-Modell, das die Tripel des Subjekts enthält.
+     * @return Der Schlüssel der Partition.
+     */
+    public abstract String partition(Resource subject, Model model);
+
+    /**
+     * Verteilt ein Subjekt stabil auf eine Anzahl von Buckets.
+     *
+     * @param subject Das Subjekt.
+     * @param buckets Die Anzahl der Buckets.
+     * @return Die Nummer des Buckets.
+     */
+    public static int bucket(Resource subject, int buckets) {
+        String id = subject.isURIResource() ? subject.getURI() : "_:" + subject.getId().getLabelString();
+        return (int) Math.floorMod(TripleFingerprintStore.fingerprint(id)[0], (long) buckets);
+    }
+}
@@ -0,0 +1,145 @@
+package rdfpgmapper.sharding;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Manifest eines verteilten Imports.
+ * Hält fest, mit welcher {@link PartitionStrategy} partitioniert wird, welche Shards es gibt und in welchem Shard
+ * jede Partition liegt. Eine einmal zugeordnete Partition bleibt bei weiteren Importen in ihrem Shard; neue
+ * Partitionen erhält der Shard mit den bisher wenigsten Tripeln. Der Export liest alle Shards des Manifests.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ShardManifest {
+
+    private static final String KEY_STRATEGY = "strategy";
+    private static final String KEY_TARGET = "target.";
+    private static final String KEY_TRIPLES = "triples.";
+    private static final String KEY_PARTITION = "partition.";
+    private static final String KEY_SIZE = "size.";
+
+    private final Path path;
+    private final Properties properties;
+
+    private ShardManifest(Path path, Properties properties) {
+        this.path = path;
+        this.properties = properties;
+    }
+
+    /**
+     * Lädt ein Manifest von der Festplatte oder legt ein neues an.
+     *
+     * @param path     Pfad der Manifest-Datei.
+     * @param strategy Die Partitionierung, mit der importiert wird, oder null beim Export.
+     * @return Das Manifest.
+     * @throws IOException              wenn die Datei nicht gelesen werden kann.
+     * @throws IllegalArgumentException wenn das Manifest mit einer anderen Partitionierung angelegt wurde.
+     */
+    public static ShardManifest load(Path path, PartitionStrategy strategy) throws IOException {
+        Properties properties = new Properties();
+        if (Files.exists(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            }
+        }
+        String stored = properties.getProperty(KEY_STRATEGY);
+        if (strategy != null) {
+            if (stored != null && !stored.equals(strategy.name())) {
+                throw new IllegalArgumentException("Das Manifest " + path + " verwendet die Partitionierung " + stored + ".");
+            }
+            properties.setProperty(KEY_STRATEGY, strategy.name());
+        }
+        return new ShardManifest(path, properties);
+    }
+
+    /**
+     * Gibt den Shard einer Partition zurück. Ist die Partition noch keinem Shard zugeordnet, erhält sie der
+     * Shard mit den bisher wenigsten Tripeln. Die Anzahl der Tripel der Partition ersetzt die zuvor für sie erfasste
+     * Anzahl, sodass ein fortgesetzter oder wiederholter Import derselben Datei den Shard nicht doppelt zählt.
+     *
+     * @param partition Der Schlüssel der Partition.
+     * @param triples   Die Anzahl der Tripel der Partition in diesem Import.
+     * @param targets   Die verfügbaren Shards.
+     * @return Der Name des Shards.
+     * @throws IllegalArgumentException wenn die Partition einem Shard zugeordnet ist, der nicht verfügbar ist.
+     */
+    public String assign(String partition, long triples, List<ShardTarget> targets) {
+        for (ShardTarget target : targets) {
+            properties.setProperty(KEY_TARGET + target.name(), target.uri());
+        }
+
+        String assigned = properties.getProperty(KEY_PARTITION + partition);
+        if (assigned != null && targets.stream().noneMatch(target -> target.name().equals(assigned))) {
+            throw new IllegalArgumentException("Partition " + partition + " liegt im nicht angegebenen Shard " + assigned + ".");
+        }
+        String shard = assigned != null ? assigned
+                : targets.stream().map(ShardTarget::name).min(Comparator.comparingLong(this::triples)).orElseThrow();
+        long previous = assigned != null ? Long.parseLong(properties.getProperty(KEY_SIZE + partition, "0")) : 0;
+        properties.setProperty(KEY_PARTITION + partition, shard);
+        properties.setProperty(KEY_SIZE + partition, String.valueOf(triples));
+        properties.setProperty(KEY_TRIPLES + shard, String.valueOf(triples(shard) - previous + triples));
+        return shard;
+    }
+
+    /**
+     * Gibt die Shards des Manifests zurück.
+     *
+     * @return Die URIs der Shards, nach Namen sortiert.
+     */
+    public Map<String, String> getTargets() {
+        return withPrefix(KEY_TARGET);
+    }
+
+    /**
+     * Gibt die Zuordnung der Partitionen zu den Shards zurück.
+     *
+     * @return Die Namen der Shards, nach Partition sortiert.
+     */
+    public Map<String, String> getPartitions() {
+        return withPrefix(KEY_PARTITION);
+    }
+
+    /**
+     * Gibt die Anzahl der bisher in einen Shard importierten Tripel zurück.
+     *
+     * @param shard Der Name des Shards.
+     * @return Die Anzahl der Tripel.
+     */
+    public long triples(String shard) {
+        return Long.parseLong(properties.getProperty(KEY_TRIPLES + shard, "0"));
+    }
+
+    /**
+     * Schreibt das Manifest auf die Festplatte.
+     *
+     * @throws IOException wenn die Datei nicht geschrieben werden kann.
+     */
+    public void save() throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            properties.store(out, "rdfpgmapper shard manifest");
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Map<String, String> withPrefix(String prefix) {
+        Map<String, String> values = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                values.put(key.substring(prefix.length()), properties.getProperty(key));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,15 @@
+package rdfpgmapper.sharding;
+
+/**
+ * Eine Neo4j-Datenbank, die Partitionen eines verteilten Imports aufnimmt.
+ *
+ * @param name     Der Name des Shards, unter dem das {@link ShardManifest} seine Partitionen festhält.
+ * @param uri      Die URI der Neo4j-Datenbank.
+ * @param user     Der Benutzername für die Authentifizierung.
+ * @param password Das Passwort für die Authentifizierung.
+ * @param writers  Die Anzahl gleichzeitiger Schreib-Threads für diesen Shard.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record ShardTarget(String name, String uri, String user, String password, int writers) {
+}
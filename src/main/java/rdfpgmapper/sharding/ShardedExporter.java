@@ -0,0 +1,176 @@
+package rdfpgmapper.sharding;
+
+import org.apache.jena.riot.RDFFormat;
+import rdfpgmapper.mapper.MapperApi;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.neo4j.Neo4jClient;
+import rdfpgmapper.rdf.JenaClient;
+import rdfpgmapper.utils.Helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Exportiert alle Shards eines verteilten Imports parallel und führt sie in einer Datei zusammen.
+ * Jeder Shard des {@link ShardManifest} wird seitenweise in eine eigene N-Triples-Datei exportiert; ein abgebrochener
+ * Export setzt pro Shard an dessen Checkpoint fort. Die Dateien werden anschließend aneinandergehängt, sodass
+ * Relationen zu Subjekten anderer Shards wieder auf deren Tripel treffen. In mehreren Shards enthaltene
+ * Schema-Tripel und Typen referenzierter Objekte erscheinen in N-Triples mehrfach, was den Graphen nicht verändert.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ShardedExporter {
+
+    private final int mapper;
+    private final List<ShardTarget> targets;
+    private final Path manifestPath;
+    private final JenaClient jenaClient = new JenaClient();
+    private Consumer<MapperApi> configuration = mapperApi -> {
+    };
+
+    /**
+     * Konstruktor für den ShardedExporter.
+     *
+     * @param mapper       Nummer des Mappers (1-4).
+     * @param targets      Die Shards mit ihren Zugangsdaten; es müssen alle Shards des Manifests enthalten sein.
+     * @param manifestPath Pfad des Manifests des verteilten Imports.
+     */
+    public ShardedExporter(int mapper, List<ShardTarget> targets, Path manifestPath) {
+        this.mapper = mapper;
+        this.targets = List.copyOf(targets);
+        this.manifestPath = manifestPath;
+    }
+
+    /**
+     * Exportiert einen gefilterten Teilgraphen aus allen Shards des Manifests in eine RDF-Datei.
+     *
+     * @param filePath Pfad, an dem die RDF-Datei gespeichert werden soll.
+     * @param format   Das RDF-Format, in das exportiert werden soll (z.B. "TTL", "RDF/XML").
+     * @param filter   Der Filter nach Klassen, Prädikaten, Namensräumen und Literal-Datentypen.
+     * @return true, wenn alle Shards exportiert und zusammengeführt wurden, sonst false.
+     */
+    public boolean exportRdf(String filePath, String format, ExportFilter filter) {
+        List<ShardTarget> shards = new ArrayList<>();
+        try {
+            for (String name : ShardManifest.load(manifestPath, null).getTargets().keySet()) {
+                Optional<ShardTarget> target = targets.stream().filter(candidate -> candidate.name().equals(name)).findFirst();
+                if (target.isEmpty()) {
+                    System.err.println("Zugangsdaten für Shard " + name + " fehlen.");
+                    return false;
+                }
+                shards.add(target.get());
+            }
+        } catch (IOException e) {
+            System.err.println("Manifest konnte nicht gelesen werden: " + e.getMessage());
+            return false;
+        }
+        if (shards.isEmpty()) {
+            System.err.println("Das Manifest " + manifestPath + " enthält keine Shards.");
+            return false;
+        }
+
+        List<Neo4jClient> clients = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(shards.size());
+        try {
+            List<Future<Path>> futures = new ArrayList<>();
+            for (ShardTarget shard : shards) {
+                Neo4jClient neo4jClient = new Neo4jClient(shard.uri(), shard.user(), shard.password());
+                clients.add(neo4jClient);
+                Path shardFile = Path.of(filePath + "." + shard.name() + ".nt");
+                futures.add(executor.submit(() -> {
+                    Files.deleteIfExists(shardFile);
+                    MapperApi mapperApi = new MapperApi(mapper, neo4jClient);
+                    configuration.accept(mapperApi);
+                    mapperApi.exportRdf(shardFile.toString(), "N-TRIPLE", filter);
+                    return Files.exists(shardFile) ? shardFile : null;
+                }));
+            }
+
+            List<Path> shardFiles = new ArrayList<>();
+            for (int i = 0; i < shards.size(); i++) {
+                Path shardFile = await(futures.get(i), shards.get(i));
+                if (shardFile == null) {
+                    System.err.println("Export von Shard " + shards.get(i).name() + " unvollständig, ein erneuter Aufruf setzt ihn fort.");
+                    return false;
+                }
+                shardFiles.add(shardFile);
+            }
+
+            try {
+                merge(shardFiles, filePath, MapperApi.toRdfFormat(format), Helper.readNsPrefixUri(clients.getFirst()));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Zusammenführen der Shards fehlgeschlagen, die Dateien " + filePath + ".<shard>.nt "
+                        + "bleiben erhalten: " + e.getMessage());
+                return false;
+            }
+            for (Path shardFile : shardFiles) {
+                Files.deleteIfExists(shardFile);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Verteilter Export abgebrochen: " + e.getMessage());
+            return false;
+        } finally {
+            executor.shutdown();
+            clients.forEach(Neo4jClient::close);
+        }
+    }
+
+    /**
+     * Legt fest, wie die MapperApi jedes Shards eingerichtet wird; sie muss der Einrichtung beim Import entsprechen.
+     *
+     * @param configuration Die Einrichtung der MapperApi.
+     */
+    public void setMapperConfiguration(Consumer<MapperApi> configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Führt die Dateien der Shards zusammen und schreibt sie im Zielformat. Die zusammengeführte Zwischendatei wird nur
+     * nach einer erfolgreichen Konvertierung entfernt.
+     */
+    private void merge(List<Path> shardFiles, String filePath, RDFFormat format, Map<String, Object> nsPrefixUri) throws IOException {
+        Path merged = Path.of(filePath + ".shards.nt");
+        try (OutputStream out = Files.newOutputStream(merged)) {
+            for (Path shardFile : shardFiles) {
+                try (InputStream in = Files.newInputStream(shardFile)) {
+                    in.transferTo(out);
+                }
+            }
+        }
+
+        if (format == RDFFormat.NTRIPLES) {
+            Files.move(merged, Path.of(filePath), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("RDF erfolgreich geschrieben: " + filePath);
+        } else {
+            jenaClient.convertNTriples(merged.toString(), filePath, format, nsPrefixUri);
+            Files.deleteIfExists(merged);
+        }
+    }
+
+    private static Path await(Future<Path> future, ShardTarget shard) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            System.err.println("Export von Shard " + shard.name() + " fehlgeschlagen: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Export von Shard " + shard.name() + " unterbrochen.");
+        }
+        return null;
+    }
+}
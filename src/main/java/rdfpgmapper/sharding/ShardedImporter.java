@@ -0,0 +1,267 @@
+package rdfpgmapper.sharding;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import rdfpgmapper.mapper.ImportResult;
+import rdfpgmapper.mapper.MapperApi;
+import rdfpgmapper.mapper.checkpoint.CheckpointedImporter;
+import rdfpgmapper.mapper.checkpoint.ImportCheckpoint;
+import rdfpgmapper.mapper.dictionary.NodeDictionary;
+import rdfpgmapper.mapper.schema.SchemaPlanner;
+import rdfpgmapper.neo4j.Neo4jClient;
+import rdfpgmapper.rdf.JenaClient;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Verteilt den Import einer RDF-Datei über eine {@link PartitionStrategy} auf mehrere Neo4j-Datenbanken.
+ * Die Instanz-Tripel eines Subjekts landen vollständig im Shard seiner Partition; Relationen zu Subjekten anderer
+ * Shards enden dort an einem Knoten ohne eigene Tripel. Schema-Ressourcen (Klassen und Properties samt ihren
+ * Tripeln) werden in jeden Shard geschrieben, damit jeder Shard für sich gemappt, validiert und exportiert werden kann.
+ * Jeder Shard hat einen eigenen Client mit eigenem Verbindungs-Pool und eine eigene Gruppe von Schreib-Threads,
+ * die seine Tripel nach Subjekt-Hash aufteilen. Die Zuordnung der Partitionen hält das {@link ShardManifest} fest.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class ShardedImporter {
+
+    private final int mapper;
+    private final List<ShardTarget> targets;
+    private final PartitionStrategy strategy;
+    private final Path manifestPath;
+    private final JenaClient jenaClient = new JenaClient();
+    private int importBatchSize = CheckpointedImporter.DEFAULT_BATCH_SIZE;
+    private Consumer<MapperApi> configuration = mapperApi -> {
+    };
+
+    /**
+     * Konstruktor für den ShardedImporter.
+     *
+     * @param mapper       Nummer des Mappers (1-4).
+     * @param targets      Die Shards.
+     * @param strategy     Die Partitionierung der Subjekte.
+     * @param manifestPath Pfad des Manifests, das die Zuordnung der Partitionen zu den Shards festhält.
+     */
+    public ShardedImporter(int mapper, List<ShardTarget> targets, PartitionStrategy strategy, Path manifestPath) {
+        this.mapper = mapper;
+        this.targets = List.copyOf(targets);
+        this.strategy = strategy;
+        this.manifestPath = manifestPath;
+    }
+
+    /**
+     * Importiert eine RDF-Datei verteilt auf die Shards.
+     * Die Zuordnung neuer Partitionen wird vor dem Schreiben im Manifest gespeichert. Ein abgebrochener Import
+     * setzt bei einem erneuten Aufruf mit derselben Datei in jedem Shard an dessen Checkpoints fort.
+     *
+     * @param filePath Pfad zur RDF-Datei.
+     * @param format   Format der RDF-Datei (z.B. "RDF/XML").
+     * @return true, wenn alle Shards vollständig importiert wurden, sonst false.
+     */
+    public boolean importRdf(String filePath, String format) {
+        String inputHash;
+        ShardManifest manifest;
+        try {
+            inputHash = ImportCheckpoint.hash(Path.of(filePath));
+            manifest = ShardManifest.load(manifestPath, strategy);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Verteilter Import nicht möglich: " + e.getMessage());
+            return false;
+        }
+
+        Model model = jenaClient.parseRDFFileWithStableBlankNodes(filePath, format, ImportCheckpoint.blankNodeScope(inputHash));
+        Map<String, Model> shards;
+        try {
+            shards = partition(model, manifest);
+            manifest.save();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Verteilter Import nicht möglich: " + e.getMessage());
+            return false;
+        }
+
+        List<Neo4jClient> clients = new ArrayList<>();
+        List<ExecutorService> writerPools = new ArrayList<>();
+        try {
+            Map<ShardTarget, List<Future<ImportResult>>> pending = new LinkedHashMap<>();
+            Map<ShardTarget, SchemaPlanner> schemaPlanners = new LinkedHashMap<>();
+            for (ShardTarget target : targets) {
+                Neo4jClient neo4jClient = new Neo4jClient(target.uri(), target.user(), target.password(), target.writers() + 1);
+                clients.add(neo4jClient);
+                ExecutorService writers = Executors.newFixedThreadPool(target.writers());
+                writerPools.add(writers);
+
+                SchemaPlanner schemaPlanner = SchemaPlanner.shared(neo4jClient);
+                schemaPlanners.put(target, schemaPlanner);
+                NodeDictionary nodeDictionary = new NodeDictionary(neo4jClient);
+
+                List<Model> slices = slice(shards.get(target.name()), target.writers());
+                List<Future<ImportResult>> futures = new ArrayList<>();
+                for (int i = 0; i < slices.size(); i++) {
+                    Model slice = slices.get(i);
+                    String inputId = inputHash + "#" + target.name() + "/" + i + "/" + slices.size();
+                    futures.add(writers.submit(() -> {
+                        MapperApi mapperApi = new MapperApi(mapper, neo4jClient);
+                        configuration.accept(mapperApi);
+                        mapperApi.setSchemaPlanner(schemaPlanner);
+                        mapperApi.setNodeDictionary(nodeDictionary);
+                        mapperApi.setImportBatchSize(importBatchSize);
+                        return mapperApi.importRdf(slice, inputId);
+                    }));
+                }
+                pending.put(target, futures);
+            }
+
+            boolean success = true;
+            for (Map.Entry<ShardTarget, List<Future<ImportResult>>> entry : pending.entrySet()) {
+                ShardTarget target = entry.getKey();
+                long triples = 0;
+                boolean shardSuccess = true;
+                for (Future<ImportResult> future : entry.getValue()) {
+                    ImportResult result = await(future, target);
+                    triples += result.triples();
+                    shardSuccess &= result.success();
+                }
+                if (shardSuccess) {
+                    schemaPlanners.get(target).applyPendingDeferred().forEach(statement -> System.err.println("Nicht angelegt: " + statement));
+                }
+                System.out.println("Shard " + target.name() + ": " + triples + " Tripel" + (shardSuccess ? "" : ", unvollständig"));
+                success &= shardSuccess;
+            }
+            return success;
+        } catch (RuntimeException e) {
+            System.err.println("Verteilter Import abgebrochen: " + e.getMessage());
+            return false;
+        } finally {
+            writerPools.forEach(ExecutorService::shutdown);
+            clients.forEach(Neo4jClient::close);
+        }
+    }
+
+    /**
+     * Legt fest, wie die MapperApi jedes Schreib-Threads eingerichtet wird, z.B. die Literal-Kodierung.
+     * Beim Export der Shards muss dieselbe Einrichtung verwendet werden.
+     *
+     * @param configuration Die Einrichtung der MapperApi.
+     */
+    public void setMapperConfiguration(Consumer<MapperApi> configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Setzt die Anzahl der Statements, die beim Import pro Transaktion übernommen werden.
+     *
+     * @param importBatchSize Die Größe eines Import-Abschnitts.
+     */
+    public void setImportBatchSize(int importBatchSize) {
+        this.importBatchSize = importBatchSize;
+    }
+
+    private Map<String, Model> partition(Model model, ShardManifest manifest) {
+        Set<Resource> schemaResources = schemaResources(model);
+        Map<String, List<Statement>> partitions = new TreeMap<>();
+        Model schema = ModelFactory.createDefaultModel();
+
+        for (Resource subject : model.listSubjects().toList()) {
+            List<Statement> statements = model.listStatements(subject, null, (RDFNode) null).toList();
+            if (schemaResources.contains(subject)) {
+                schema.add(statements);
+            } else {
+                partitions.computeIfAbsent(strategy.partition(subject, model), key -> new ArrayList<>()).addAll(statements);
+            }
+        }
+
+        Map<String, Model> shards = new LinkedHashMap<>();
+        for (ShardTarget target : targets) {
+            Model shard = ModelFactory.createDefaultModel();
+            shard.setNsPrefixes(model.getNsPrefixMap());
+            shard.add(schema);
+            shards.put(target.name(), shard);
+        }
+        for (Map.Entry<String, List<Statement>> partition : partitions.entrySet()) {
+            shards.get(manifest.assign(partition.getKey(), partition.getValue().size(), targets)).add(partition.getValue());
+        }
+        shards.values().forEach(shard -> addObjectTypes(shard, model));
+        return shards;
+    }
+
+    /**
+     * Teilt die Instanz-Tripel eines Shards nach Subjekt-Hash auf die Schreib-Threads auf. Die Schema-Tripel
+     * sind in jedem Teil enthalten, damit jeder Teil vollständig gemappt werden kann; ebenso die Typen aller
+     * referenzierten Objekte, damit die Range-Prüfung gültige Tripel nicht verwirft.
+     */
+    private static List<Model> slice(Model shard, int writers) {
+        Set<Resource> schemaResources = schemaResources(shard);
+        List<Model> slices = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            Model slice = ModelFactory.createDefaultModel();
+            slice.setNsPrefixes(shard.getNsPrefixMap());
+            slices.add(slice);
+        }
+        for (Resource subject : shard.listSubjects().toList()) {
+            List<Statement> statements = shard.listStatements(subject, null, (RDFNode) null).toList();
+            if (schemaResources.contains(subject)) {
+                slices.forEach(slice -> slice.add(statements));
+            } else {
+                slices.get(PartitionStrategy.bucket(subject, writers)).add(statements);
+            }
+        }
+        slices.forEach(slice -> addObjectTypes(slice, shard));
+        return slices;
+    }
+
+    /**
+     * Ergänzt die rdf:type-Tripel aller Objekte eines Teils aus dem Modell, aus dem er gebildet wurde. Wie beim
+     * Delta-Import werden sie mitgeschrieben; das Mappen derselben Typen in mehreren Teilen ist idempotent.
+     */
+    private static void addObjectTypes(Model part, Model source) {
+        List<Statement> types = new ArrayList<>();
+        part.listObjects().forEachRemaining(object -> {
+            if (object.isResource()) {
+                types.addAll(source.listStatements(object.asResource(), RDF.type, (RDFNode) null).toList());
+            }
+        });
+        part.add(types);
+    }
+
+    private static Set<Resource> schemaResources(Model model) {
+        Set<Resource> resources = new HashSet<>();
+        resources.addAll(model.listSubjectsWithProperty(RDF.type, RDFS.Class).toList());
+        resources.addAll(model.listSubjectsWithProperty(RDF.type, RDF.Property).toList());
+        resources.addAll(model.listSubjectsWithProperty(RDFS.subClassOf).toList());
+        resources.addAll(model.listSubjectsWithProperty(RDFS.subPropertyOf).toList());
+        resources.addAll(model.listSubjectsWithProperty(RDFS.domain).toList());
+        resources.addAll(model.listSubjectsWithProperty(RDFS.range).toList());
+        return resources;
+    }
+
+    private static ImportResult await(Future<ImportResult> future, ShardTarget target) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            System.err.println("Import in Shard " + target.name() + " fehlgeschlagen: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Import in Shard " + target.name() + " unterbrochen.");
+        }
+        return ImportResult.failed();
+    }
+}
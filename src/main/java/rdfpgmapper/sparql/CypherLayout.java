@@ -0,0 +1,247 @@
+package rdfpgmapper.sparql;
+
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.vocabulary.RDF;
+import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.mapper.pgt.LiteralEncoding;
+import rdfpgmapper.mapper.pgt.PgtSimple;
+import rdfpgmapper.mapper.rpt.RptGeneric;
+import rdfpgmapper.mapper.rpt.RptSimple;
+import rdfpgmapper.utils.Helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Übersetzt Tripel-Muster in Cypher-Abfragen über das Property-Graph-Layout eines Mappers.
+ * Jeder RDF-Term wird während der Abfrage als Zeichenkette in der Kodierung des Layouts geführt: IRIs als präfixierte
+ * Namen wie im {@code PrefixUriNode}, Blank Nodes als {@code _:id} und Literale als {@code wert^^präfixierter-datentyp},
+ * bei RptGeneric gefolgt von {@code @sprache}. So können gebundene Variablen und Konstanten direkt mit den indizierten
+ * Schlüsseln der Knoten verglichen werden.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public abstract class CypherLayout {
+
+    /**
+     * Name der Ergebnisspalte eines Tripel-Musters ohne freie Position.
+     */
+    static final String MATCH_COLUMN = "__match";
+
+    private final Map<String, Object> nsPrefixUri;
+
+    /**
+     * Konstruktor für das CypherLayout.
+     *
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs aus dem {@code PrefixUriNode}.
+     */
+    protected CypherLayout(Map<String, Object> nsPrefixUri) {
+        this.nsPrefixUri = nsPrefixUri;
+    }
+
+    /**
+     * Gibt das Layout eines Mappers zurück.
+     *
+     * @param mapper      Der Mapper, mit dem die Daten importiert wurden.
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs aus dem {@code PrefixUriNode}.
+     * @return Das Layout.
+     * @throws IllegalArgumentException wenn SPARQL-Abfragen für den Mapper nicht unterstützt werden.
+     */
+    public static CypherLayout of(Mapper mapper, Map<String, Object> nsPrefixUri) {
+        if (mapper instanceof RptSimple) {
+            return new RptSimpleLayout(nsPrefixUri);
+        }
+        if (mapper instanceof RptGeneric rptGeneric) {
+            return new RptGenericLayout(nsPrefixUri, rptGeneric.getLiteralKeying());
+        }
+        if (mapper instanceof PgtSimple pgtSimple) {
+            if (pgtSimple.getLiteralEncoding() != LiteralEncoding.STRING) {
+                throw new IllegalArgumentException("SPARQL-Abfragen werden für PgtSimple nur mit der Literal-Kodierung STRING unterstützt.");
+            }
+            return new PgtSimpleLayout(nsPrefixUri);
+        }
+        throw new IllegalArgumentException("SPARQL-Abfragen werden für " + mapper.getClass().getSimpleName() + " nicht unterstützt.");
+    }
+
+    /**
+     * Gibt die Namensraum-Präfixe zurück.
+     *
+     * @return Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     */
+    public Map<String, Object> getNsPrefixUri() {
+        return nsPrefixUri;
+    }
+
+    /**
+     * Kodiert einen konstanten RDF-Term so, wie das Layout ihn beim Import ablegt.
+     *
+     * @param term Der Term.
+     * @return Die Kodierung oder null, wenn das Layout den Term nicht darstellen kann.
+     */
+    public abstract String encode(Node term);
+
+    /**
+     * Erstellt die Zweige einer Unterabfrage, die alle Tripel zu einem Muster liefert. Jeder Zweig beginnt mit einer
+     * MATCH-Klausel und endet mit einer RETURN-Klausel, die die Terme der freien Positionen in deren Spalten
+     * zurückgibt; die Zweige werden mit UNION verbunden.
+     *
+     * @param subject   Das Subjekt des Musters.
+     * @param predicate Das Prädikat des Musters.
+     * @param object    Das Objekt des Musters.
+     * @return Die Zweige; leer, wenn das Muster im Layout keine Tripel haben kann.
+     */
+    public abstract List<String> branches(Slot subject, Slot predicate, Slot object);
+
+    /**
+     * Stellt einen RDF-Term aus seiner Kodierung wieder her.
+     *
+     * @param value Die Kodierung.
+     * @return Der Term.
+     */
+    public Node decode(String value) {
+        if (value.startsWith("_:")) {
+            return NodeFactory.createBlankNode(value.substring(2));
+        }
+        int separator = value.lastIndexOf("^^");
+        if (separator < 0) {
+            return NodeFactory.createURI(Helper.getUri(value, nsPrefixUri));
+        }
+        String lexical = value.substring(0, separator);
+        String datatype = value.substring(separator + 2);
+        int language = datatype.indexOf('@');
+        if (language >= 0) {
+            return NodeFactory.createLiteralLang(lexical, datatype.substring(language + 1));
+        }
+        String datatypeUri = Helper.getUri(datatype, nsPrefixUri);
+        if (datatypeUri.equals(RDF.dtLangString.getURI())) {
+            return NodeFactory.createLiteralString(lexical);
+        }
+        return NodeFactory.createLiteral(lexical, TypeMapper.getInstance().getSafeTypeByName(datatypeUri));
+    }
+
+    /**
+     * Konvertiert eine URI wie beim Import in ihre präfixierte Darstellung.
+     *
+     * @param uri Die URI.
+     * @return Der präfixierte Name oder die URI, wenn kein Namensraum passt.
+     */
+    protected String prefixed(String uri) {
+        return Helper.getPrefixedName(uri, nsPrefixUri);
+    }
+
+    /**
+     * Gibt den Cypher-Ausdruck einer gebundenen oder konstanten Position zurück.
+     *
+     * @param slot Die Position.
+     * @return Die Variable bzw. die kodierte Konstante als String-Literal.
+     */
+    protected String expression(Slot slot) {
+        return slot.isConstant() ? quote(encode(slot.constant())) : slot.variable();
+    }
+
+    /**
+     * Gibt an, ob eine Position im Layout keinen Term haben kann, weil ihre Konstante nicht darstellbar ist.
+     *
+     * @param slot Die Position.
+     * @return true, wenn das Muster keine Tripel haben kann.
+     */
+    protected boolean isUnrepresentable(Slot slot) {
+        return slot.isConstant() && encode(slot.constant()) == null;
+    }
+
+    /**
+     * Schließt einen Zweig ab: Gebundene und konstante Positionen werden mit dem Schlüssel ihres Knotens bzw. ihrer
+     * Relation verglichen, freie Positionen zurückgegeben. Eine Position null wurde bereits im Muster berücksichtigt.
+     *
+     * @param conditions Weitere Bedingungen des Zweigs; die Liste wird ergänzt.
+     * @param slots      Subjekt, Prädikat und Objekt.
+     * @param keys       Die Cypher-Ausdrücke der kodierten Terme in derselben Reihenfolge.
+     * @return Die WHERE- und RETURN-Klausel des Zweigs.
+     */
+    protected String complete(List<String> conditions, Slot[] slots, String[] keys) {
+        List<String> returns = new ArrayList<>();
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null && slots[i].isFree()) {
+                returns.add(keys[i] + " AS " + Helper.escapeName(slots[i].column()));
+            } else if (slots[i] != null) {
+                conditions.add(keys[i] + " = " + expression(slots[i]));
+            }
+        }
+        if (returns.isEmpty()) {
+            returns.add("true AS " + MATCH_COLUMN);
+        }
+        return ExportFilter.where("WHERE", conditions) + "RETURN " + String.join(", ", returns);
+    }
+
+    /**
+     * Vergleicht eine gebundene oder konstante Position bereits in der MATCH-Klausel mit dem Schlüssel ihres Knotens,
+     * z.B. bevor dessen Properties entfaltet werden.
+     *
+     * @param conditions Die Bedingungen der MATCH-Klausel; die Liste wird ergänzt.
+     * @param slot       Die Position.
+     * @param key        Der Cypher-Ausdruck des kodierten Terms.
+     * @return null, wenn die Position damit berücksichtigt ist, sonst die freie Position.
+     */
+    protected Slot bindEarly(List<String> conditions, Slot slot, String key) {
+        if (slot.isFree()) {
+            return slot;
+        }
+        conditions.add(key + " = " + expression(slot));
+        return null;
+    }
+
+    /**
+     * Gibt die Knotenformen zurück, die für eine Position in Frage kommen: für freie Positionen die allgemeine Form,
+     * für Konstanten die zur Art des Terms passenden Formen und für gebundene Variablen alle Formen, damit
+     * jede Form über ihren indizierten Schlüssel gesucht werden kann.
+     *
+     * @param slot   Die Position.
+     * @param any    Die allgemeine Form.
+     * @param shapes Die einzelnen Formen.
+     * @return Die Formen.
+     */
+    protected static List<Shape> shapes(Slot slot, Shape any, Shape... shapes) {
+        if (slot.isFree()) {
+            return List.of(any);
+        }
+        if (slot.isConstant()) {
+            return Arrays.stream(shapes).filter(shape -> shape.accepts().test(slot.constant())).toList();
+        }
+        return List.of(shapes);
+    }
+
+    /**
+     * Maskiert eine Zeichenkette als Cypher-String-Literal.
+     *
+     * @param value Die Zeichenkette.
+     * @return Das String-Literal mit umschließenden Anführungszeichen.
+     */
+    static String quote(String value) {
+        return "'" + Helper.escapeString(value) + "'";
+    }
+
+    /**
+     * Eine Form, in der ein Layout RDF-Terme als Knoten ablegt.
+     *
+     * @param label   Die Label-Einschränkung des Musters, z.B. {@code :Resource}, oder leer.
+     * @param key     Der Cypher-Ausdruck des kodierten Terms, mit {@code {n}} für die Variable des Knotens.
+     * @param accepts Prüft, ob ein konstanter Term in dieser Form abgelegt wird.
+     */
+    protected record Shape(String label, String key, Predicate<Node> accepts) {
+
+        String pattern(String variable) {
+            return "(" + variable + label + ")";
+        }
+
+        String key(String variable) {
+            return key.replace("{n}", variable);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package rdfpgmapper.sparql;
+
+import org.apache.jena.sparql.core.Var;
+
+import java.util.List;
+
+/**
+ * Eine in Cypher übersetzte SPARQL-SELECT-Abfrage.
+ *
+ * @param statement Das Cypher-Statement.
+ * @param variables Die Ergebnisvariablen der SPARQL-Abfrage.
+ * @param columns   Die Spalten des Cypher-Ergebnisses in derselben Reihenfolge; jede enthält den kodierten Term oder null.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public record CypherQuery(String statement, List<Var> variables, List<String> columns) {
+}
@@ -0,0 +1,287 @@
+package rdfpgmapper.sparql;
+
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.expr.E_Add;
+import org.apache.jena.sparql.expr.E_Bound;
+import org.apache.jena.sparql.expr.E_Datatype;
+import org.apache.jena.sparql.expr.E_Divide;
+import org.apache.jena.sparql.expr.E_Equals;
+import org.apache.jena.sparql.expr.E_GreaterThan;
+import org.apache.jena.sparql.expr.E_GreaterThanOrEqual;
+import org.apache.jena.sparql.expr.E_IsBlank;
+import org.apache.jena.sparql.expr.E_IsIRI;
+import org.apache.jena.sparql.expr.E_IsLiteral;
+import org.apache.jena.sparql.expr.E_IsNumeric;
+import org.apache.jena.sparql.expr.E_Lang;
+import org.apache.jena.sparql.expr.E_LessThan;
+import org.apache.jena.sparql.expr.E_LessThanOrEqual;
+import org.apache.jena.sparql.expr.E_LogicalAnd;
+import org.apache.jena.sparql.expr.E_LogicalNot;
+import org.apache.jena.sparql.expr.E_LogicalOr;
+import org.apache.jena.sparql.expr.E_Multiply;
+import org.apache.jena.sparql.expr.E_NotEquals;
+import org.apache.jena.sparql.expr.E_Regex;
+import org.apache.jena.sparql.expr.E_SameTerm;
+import org.apache.jena.sparql.expr.E_Str;
+import org.apache.jena.sparql.expr.E_StrContains;
+import org.apache.jena.sparql.expr.E_StrEndsWith;
+import org.apache.jena.sparql.expr.E_StrLength;
+import org.apache.jena.sparql.expr.E_StrLowerCase;
+import org.apache.jena.sparql.expr.E_StrStartsWith;
+import org.apache.jena.sparql.expr.E_StrUpperCase;
+import org.apache.jena.sparql.expr.E_Subtract;
+import org.apache.jena.sparql.expr.E_UnaryMinus;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprFunction;
+import org.apache.jena.sparql.expr.ExprVar;
+import org.apache.jena.sparql.expr.NodeValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Übersetzt SPARQL-Ausdrücke aus FILTER und ORDER BY in Cypher-Ausdrücke über die kodierten Terme eines
+ * {@link CypherLayout}. Gleichheit vergleicht die Kodierung der Terme; Größenvergleiche und Arithmetik rechnen mit
+ * der lexikalischen Form, numerisch sofern sie sich als Zahl lesen lässt.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+class ExpressionTranslator {
+
+    /**
+     * Die Art eines übersetzten Ausdrucks.
+     */
+    enum Kind {
+        TERM, STRING, NUMBER, BOOLEAN
+    }
+
+    /**
+     * Ein übersetzter Ausdruck.
+     *
+     * @param cypher Der Cypher-Ausdruck.
+     * @param kind   Die Art des Ausdrucks.
+     * @param term   Der Cypher-Ausdruck der Kodierung als RDF-Term oder null, wenn der Ausdruck kein Term ist.
+     */
+    record Value(String cypher, Kind kind, String term) {
+    }
+
+    private final CypherLayout layout;
+    private final Function<Var, String> variables;
+
+    /**
+     * Konstruktor für den ExpressionTranslator.
+     *
+     * @param layout    Das Layout, dessen Kodierung für Konstanten verwendet wird.
+     * @param variables Liefert zu einer SPARQL-Variablen die Cypher-Variable oder null, wenn sie nicht gebunden ist.
+     */
+    ExpressionTranslator(CypherLayout layout, Function<Var, String> variables) {
+        this.layout = layout;
+        this.variables = variables;
+    }
+
+    /**
+     * Übersetzt einen Ausdruck in eine Bedingung mit seinem effektiven Wahrheitswert.
+     *
+     * @param expr Der Ausdruck.
+     * @return Die Cypher-Bedingung.
+     * @throws IllegalArgumentException wenn der Ausdruck nicht unterstützt wird.
+     */
+    String condition(Expr expr) {
+        return bool(translate(expr));
+    }
+
+    /**
+     * Übersetzt einen Ausdruck in Sortierschlüssel. Terme werden zuerst numerisch und dann nach {@code str()} sortiert,
+     * damit IRIs wie in SPARQL nach der vollständigen IRI statt nach dem präfixierten Namen geordnet werden.
+     *
+     * @param expr       Der Ausdruck.
+     * @param descending true für absteigende Sortierung.
+     * @return Die Sortierschlüssel.
+     */
+    List<String> orderKeys(Expr expr, boolean descending) {
+        Value value = translate(expr);
+        String direction = descending ? " DESC" : "";
+        if (value.kind() == Kind.TERM) {
+            return List.of(number(value) + direction, string(value) + direction, value.cypher() + direction);
+        }
+        return List.of(value.cypher() + direction);
+    }
+
+    private Value translate(Expr expr) {
+        return switch (expr) {
+            case ExprVar var -> {
+                String variable = variables.apply(var.asVar());
+                String cypher = variable == null ? "null" : variable;
+                yield new Value(cypher, Kind.TERM, cypher);
+            }
+            case NodeValue constant -> constant(constant);
+            case E_LogicalAnd and -> bool("(" + condition(and.getArg1()) + " AND " + condition(and.getArg2()) + ")");
+            case E_LogicalOr or -> bool("(" + condition(or.getArg1()) + " OR " + condition(or.getArg2()) + ")");
+            case E_LogicalNot not -> bool("(NOT " + condition(not.getArg()) + ")");
+            case E_Bound bound -> bool("(" + translate(bound.getArg()).cypher() + " IS NOT NULL)");
+            case E_Equals equals -> compare("=", equals, true);
+            case E_SameTerm sameTerm -> compare("=", sameTerm, true);
+            case E_NotEquals notEquals -> compare("<>", notEquals, true);
+            case E_LessThan lessThan -> compare("<", lessThan, false);
+            case E_LessThanOrEqual lessThanOrEqual -> compare("<=", lessThanOrEqual, false);
+            case E_GreaterThan greaterThan -> compare(">", greaterThan, false);
+            case E_GreaterThanOrEqual greaterThanOrEqual -> compare(">=", greaterThanOrEqual, false);
+            case E_Add add -> arithmetic("+", add);
+            case E_Subtract subtract -> arithmetic("-", subtract);
+            case E_Multiply multiply -> arithmetic("*", multiply);
+            case E_Divide divide -> new Value("(" + number(translate(divide.getArg1())) + " / toFloat(" + number(translate(divide.getArg2())) + "))", Kind.NUMBER, null);
+            case E_UnaryMinus minus -> new Value("(-" + number(translate(minus.getArg())) + ")", Kind.NUMBER, null);
+            case E_Str str -> new Value(string(translate(str.getArg())), Kind.STRING, null);
+            case E_Lang lang -> {
+                String term = translate(lang.getArg()).cypher();
+                yield new Value("(CASE WHEN " + term + " CONTAINS '^^' THEN coalesce(split(last(split(" + term + ", '^^')), '@')[1], '') ELSE '' END)", Kind.STRING, null);
+            }
+            case E_Datatype datatype -> {
+                String term = translate(datatype.getArg()).cypher();
+                String cypher = "(CASE WHEN " + term + " CONTAINS '^^' THEN split(last(split(" + term + ", '^^')), '@')[0] END)";
+                yield new Value(cypher, Kind.TERM, cypher);
+            }
+            case E_IsIRI isIri -> termTest(isIri, "(%1$s IS NOT NULL AND NOT %1$s STARTS WITH '_:' AND NOT %1$s CONTAINS '^^')", "false");
+            case E_IsBlank isBlank -> termTest(isBlank, "(%1$s STARTS WITH '_:')", "false");
+            case E_IsLiteral isLiteral -> termTest(isLiteral, "(%1$s CONTAINS '^^')", "true");
+            case E_IsNumeric isNumeric -> termTest(isNumeric, "(%1$s CONTAINS '^^' AND " + lexicalNumber("%1$s") + " IS NOT NULL)", "true");
+            case E_Regex regex -> bool("(" + string(translate(regex.getArg(1))) + " =~ " + CypherLayout.quote(pattern(regex)) + ")");
+            case E_StrContains contains -> stringTest("CONTAINS", contains);
+            case E_StrStartsWith startsWith -> stringTest("STARTS WITH", startsWith);
+            case E_StrEndsWith endsWith -> stringTest("ENDS WITH", endsWith);
+            case E_StrLowerCase lowerCase -> new Value("toLower(" + string(translate(lowerCase.getArg())) + ")", Kind.STRING, null);
+            case E_StrUpperCase upperCase -> new Value("toUpper(" + string(translate(upperCase.getArg())) + ")", Kind.STRING, null);
+            case E_StrLength length -> new Value("size(" + string(translate(length.getArg())) + ")", Kind.NUMBER, null);
+            default -> throw new IllegalArgumentException("Ausdruck wird nicht unterstützt: " + expr);
+        };
+    }
+
+    private Value constant(NodeValue constant) {
+        String encoded = constant.isBlank() ? null : layout.encode(constant.asNode());
+        String term = encoded == null ? "null" : CypherLayout.quote(encoded);
+        if (constant.isInteger()) {
+            return new Value(constant.getInteger().toString(), Kind.NUMBER, term);
+        }
+        if (constant.isNumber()) {
+            return new Value(String.valueOf(constant.getDouble()), Kind.NUMBER, term);
+        }
+        if (constant.isBoolean()) {
+            return new Value(String.valueOf(constant.getBoolean()), Kind.BOOLEAN, term);
+        }
+        if (constant.isString() || constant.isLangString()) {
+            return new Value(CypherLayout.quote(constant.getString()), Kind.STRING, term);
+        }
+        return new Value(term, Kind.TERM, term);
+    }
+
+    private Value compare(String operator, ExprFunction function, boolean equality) {
+        Value left = translate(function.getArg(1));
+        Value right = translate(function.getArg(2));
+        if (left.kind() == Kind.NUMBER || right.kind() == Kind.NUMBER) {
+            return bool("(" + number(left) + " " + operator + " " + number(right) + ")");
+        }
+        if (equality && (left.kind() == Kind.TERM || right.kind() == Kind.TERM) && left.term() != null && right.term() != null) {
+            return bool("(" + left.term() + " " + operator + " " + right.term() + ")");
+        }
+        if (left.kind() == Kind.TERM && right.kind() == Kind.TERM) {
+            String leftLexical = lexical(left.cypher());
+            String rightLexical = lexical(right.cypher());
+            return bool("coalesce(toFloat(" + leftLexical + ") " + operator + " toFloat(" + rightLexical + "), "
+                    + leftLexical + " " + operator + " " + rightLexical + ")");
+        }
+        if (left.kind() == Kind.BOOLEAN && right.kind() == Kind.BOOLEAN) {
+            return bool("(" + left.cypher() + " " + operator + " " + right.cypher() + ")");
+        }
+        return bool("(" + string(left) + " " + operator + " " + string(right) + ")");
+    }
+
+    private Value arithmetic(String operator, ExprFunction function) {
+        return new Value("(" + number(translate(function.getArg(1))) + " " + operator + " " + number(translate(function.getArg(2))) + ")", Kind.NUMBER, null);
+    }
+
+    private Value termTest(ExprFunction function, String test, String otherwise) {
+        Value value = translate(function.getArg(1));
+        if (value.kind() != Kind.TERM) {
+            return bool(otherwise);
+        }
+        return bool(String.format(test, value.cypher()));
+    }
+
+    private Value stringTest(String operator, ExprFunction function) {
+        return bool("(" + string(translate(function.getArg(1))) + " " + operator + " " + string(translate(function.getArg(2))) + ")");
+    }
+
+    /**
+     * Bildet das Muster und die Flags eines REGEX-Aufrufs auf einen Java-Regex ab, der wie in SPARQL
+     * an beliebiger Stelle der Zeichenkette passt.
+     */
+    private static String pattern(E_Regex regex) {
+        if (!(regex.getArg(2) instanceof NodeValue pattern) || !pattern.isString()) {
+            throw new IllegalArgumentException("REGEX wird nur mit konstantem Muster unterstützt: " + regex);
+        }
+        StringBuilder flags = new StringBuilder("s");
+        if (regex.numArgs() > 2) {
+            if (!(regex.getArg(3) instanceof NodeValue value) || !value.isString()) {
+                throw new IllegalArgumentException("REGEX wird nur mit konstanten Flags unterstützt: " + regex);
+            }
+            for (char flag : value.getString().toCharArray()) {
+                if ("imx".indexOf(flag) < 0) {
+                    throw new IllegalArgumentException("REGEX-Flag wird nicht unterstützt: " + flag);
+                }
+                flags.append(flag);
+            }
+        }
+        return "(?" + flags + ").*(?:" + pattern.getString() + ").*";
+    }
+
+    private static Value bool(String cypher) {
+        return new Value(cypher, Kind.BOOLEAN, null);
+    }
+
+    private static String bool(Value value) {
+        return switch (value.kind()) {
+            case BOOLEAN -> value.cypher();
+            case NUMBER -> "(" + value.cypher() + " <> 0)";
+            case STRING -> "(" + value.cypher() + " <> '')";
+            case TERM -> "(" + value.cypher() + " IS NOT NULL AND NOT " + lexical(value.cypher()) + " IN ['', '0', 'false'])";
+        };
+    }
+
+    private static String number(Value value) {
+        return switch (value.kind()) {
+            case NUMBER -> value.cypher();
+            case STRING -> "toFloat(" + value.cypher() + ")";
+            case BOOLEAN -> "(CASE WHEN " + value.cypher() + " THEN 1 ELSE 0 END)";
+            case TERM -> lexicalNumber(value.cypher());
+        };
+    }
+
+    /**
+     * Gibt den Cypher-Ausdruck der Funktion {@code str()} zurück: die lexikalische Form eines Literals bzw.
+     * die vollständige IRI, deren Präfix über die Namensräume des {@code PrefixUriNode} aufgelöst wird.
+     */
+    private String string(Value value) {
+        if (value.kind() != Kind.TERM) {
+            return value.kind() == Kind.STRING ? value.cypher() : "toString(" + value.cypher() + ")";
+        }
+        String term = value.cypher();
+        StringBuilder cypher = new StringBuilder("(CASE WHEN " + term + " CONTAINS '^^' THEN " + lexical(term));
+        for (Map.Entry<String, Object> entry : layout.getNsPrefixUri().entrySet()) {
+            String prefix = entry.getKey() + "_";
+            cypher.append(" WHEN ").append(term).append(" STARTS WITH ").append(CypherLayout.quote(prefix))
+                    .append(" THEN ").append(CypherLayout.quote(entry.getValue().toString()))
+                    .append(" + substring(").append(term).append(", ").append(prefix.length()).append(")");
+        }
+        return cypher.append(" ELSE ").append(term).append(" END)").toString();
+    }
+
+    private static String lexical(String term) {
+        return "head(split(" + term + ", '^^'))";
+    }
+
+    private static String lexicalNumber(String term) {
+        return "toFloat(" + lexical(term) + ")";
+    }
+}
@@ -0,0 +1,90 @@
+package rdfpgmapper.sparql;
+
+import org.apache.jena.datatypes.DatatypeFormatException;
+import org.apache.jena.graph.Node;
+import rdfpgmapper.mapper.export.ExportFilter;
+import rdfpgmapper.utils.Helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout des PgtSimple-Mappers mit der Literal-Kodierung STRING: IRIs sind {@code (:Resource {iri})} und Blank Nodes
+ * {@code (:BlankNode {id})}. Tripel mit Ressourcen als Objekt sind Relationen, deren Typ das präfixierte Prädikat ist;
+ * Literale sind Properties des Subjekts mit dem präfixierten Prädikat als Schlüssel und dem Wert {@code wert^^datentyp}.
+ * Ein Muster mit unbekanntem Objekt sucht daher in beiden Formen.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+class PgtSimpleLayout extends CypherLayout {
+
+    private static final Shape RESOURCE = new Shape(":Resource", "{n}.iri", Node::isURI);
+    private static final Shape BLANK_NODE = new Shape(":BlankNode", "{n}.id", Node::isBlank);
+    private static final Shape ANY_NODE = new Shape(":Resource|BlankNode", "coalesce({n}.iri, {n}.id)", term -> true);
+
+    PgtSimpleLayout(Map<String, Object> nsPrefixUri) {
+        super(nsPrefixUri);
+    }
+
+    @Override
+    public String encode(Node term) {
+        if (term.isURI()) {
+            return prefixed(term.getURI());
+        }
+        if (term.isBlank()) {
+            return "_:" + term.getBlankNodeLabel();
+        }
+        if (!term.isLiteral()) {
+            return null;
+        }
+        String value;
+        try {
+            value = term.getLiteralValue().toString();
+        } catch (DatatypeFormatException e) {
+            value = term.getLiteralLexicalForm();
+        }
+        return value + "^^" + prefixed(term.getLiteralDatatypeURI());
+    }
+
+    @Override
+    public List<String> branches(Slot subject, Slot predicate, Slot object) {
+        if (isUnrepresentable(subject) || isUnrepresentable(predicate) || isUnrepresentable(object)
+                || predicate.isConstant() && !predicate.constant().isURI()) {
+            return List.of();
+        }
+        String property = predicate.isConstant() ? Helper.escapeName(encode(predicate.constant())) : null;
+        boolean literalObject = object.isConstant() && object.constant().isLiteral();
+        boolean resourceObject = object.isConstant() && !literalObject;
+        List<String> branches = new ArrayList<>();
+
+        if (!literalObject) {
+            for (Shape subjectShape : shapes(subject, ANY_NODE, RESOURCE, BLANK_NODE)) {
+                for (Shape objectShape : shapes(object, ANY_NODE, RESOURCE, BLANK_NODE)) {
+                    branches.add("MATCH " + subjectShape.pattern("s") + "-[r" + (property != null ? ":" + property : "") + "]->" + objectShape.pattern("o")
+                            + complete(new ArrayList<>(), new Slot[]{subject, property != null ? null : predicate, object},
+                            new String[]{subjectShape.key("s"), "type(r)", objectShape.key("o")}));
+                }
+            }
+        }
+
+        if (!resourceObject) {
+            for (Shape subjectShape : shapes(subject, ANY_NODE, RESOURCE, BLANK_NODE)) {
+                if (property != null) {
+                    branches.add("MATCH " + subjectShape.pattern("s")
+                            + complete(new ArrayList<>(List.of("s." + property + " IS NOT NULL")), new Slot[]{subject, null, object},
+                            new String[]{subjectShape.key("s"), null, "s." + property}));
+                    continue;
+                }
+                // Das Subjekt wird vor dem Entfalten der Properties gesucht, damit sein Index genutzt wird.
+                List<String> match = new ArrayList<>();
+                Slot unbound = bindEarly(match, subject, subjectShape.key("s"));
+                branches.add("MATCH " + subjectShape.pattern("s") + ExportFilter.where("WHERE", match) + "UNWIND keys(s) AS k WITH s, k"
+                        + complete(new ArrayList<>(List.of("NOT k IN ['iri', 'id']", "NOT k STARTS WITH '__'")),
+                        new Slot[]{unbound, predicate, object}, new String[]{subjectShape.key("s"), "k", "s[k]"}));
+            }
+        }
+        return branches;
+    }
+}
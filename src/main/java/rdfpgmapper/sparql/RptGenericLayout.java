@@ -0,0 +1,84 @@
+package rdfpgmapper.sparql;
+
+import org.apache.jena.datatypes.DatatypeFormatException;
+import org.apache.jena.graph.Node;
+import rdfpgmapper.mapper.rpt.LiteralKeying;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout des RptGeneric-Mappers: IRIs sind {@code (:Resource {iri})}, Blank Nodes {@code (:BlankNode {id})} und
+ * Literale {@code (:Literal {value, type, lang})}; Tripel sind {@code -[:ObjectProperty {type}]->} bzw.
+ * {@code -[:DatatypeProperty {type}]->}. Beim Schlüssel {@link LiteralKeying#VALUE} ist der Wert eines Literals
+ * wie beim Import über seinen Java-Wert kodiert und ein Sprach-Tag nicht gespeichert.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+class RptGenericLayout extends CypherLayout {
+
+    private static final Shape RESOURCE = new Shape(":Resource", "{n}.iri", Node::isURI);
+    private static final Shape BLANK_NODE = new Shape(":BlankNode", "{n}.id", Node::isBlank);
+    private static final Shape LITERAL = new Shape(":Literal", "{n}.value + '^^' + {n}.type + coalesce('@' + {n}.lang, '')", Node::isLiteral);
+    private static final Shape ANY_SUBJECT = new Shape(":Resource|BlankNode", "coalesce({n}.iri, {n}.id)", term -> true);
+    private static final Shape ANY_OBJECT = new Shape("", "coalesce({n}.iri, {n}.id, " + LITERAL.key() + ")", term -> true);
+
+    private final LiteralKeying literalKeying;
+
+    RptGenericLayout(Map<String, Object> nsPrefixUri, LiteralKeying literalKeying) {
+        super(nsPrefixUri);
+        this.literalKeying = literalKeying;
+    }
+
+    @Override
+    public String encode(Node term) {
+        if (term.isURI()) {
+            return prefixed(term.getURI());
+        }
+        if (term.isBlank()) {
+            return "_:" + term.getBlankNodeLabel().replace("'", "_");
+        }
+        if (!term.isLiteral()) {
+            return null;
+        }
+        return literalValue(term) + "^^" + prefixed(term.getLiteralDatatypeURI())
+                + (literalKeying == LiteralKeying.VALUE || term.getLiteralLanguage().isEmpty() ? "" : "@" + term.getLiteralLanguage());
+    }
+
+    @Override
+    public List<String> branches(Slot subject, Slot predicate, Slot object) {
+        if (isUnrepresentable(subject) || isUnrepresentable(predicate) || isUnrepresentable(object)) {
+            return List.of();
+        }
+        List<String> branches = new ArrayList<>();
+        for (Shape subjectShape : shapes(subject, ANY_SUBJECT, RESOURCE, BLANK_NODE)) {
+            for (Shape objectShape : shapes(object, ANY_OBJECT, RESOURCE, BLANK_NODE, LITERAL)) {
+                String relationship = objectShape == LITERAL ? ":DatatypeProperty"
+                        : objectShape == ANY_OBJECT ? ":ObjectProperty|DatatypeProperty" : ":ObjectProperty";
+                List<String> conditions = new ArrayList<>();
+                if (objectShape == LITERAL && object.isConstant() && literalKeying == LiteralKeying.VALUE) {
+                    // Wert und Datentyp sind im Modus VALUE gemeinsam eindeutig und damit indiziert.
+                    conditions.add("o.value = " + quote(literalValue(object.constant())));
+                    conditions.add("o.type = " + quote(prefixed(object.constant().getLiteralDatatypeURI())));
+                }
+                branches.add("MATCH " + subjectShape.pattern("s") + "-[r" + relationship + "]->" + objectShape.pattern("o")
+                        + complete(conditions, new Slot[]{subject, predicate, object},
+                        new String[]{subjectShape.key("s"), "r.type", objectShape.key("o")}));
+            }
+        }
+        return branches;
+    }
+
+    private String literalValue(Node literal) {
+        if (literalKeying != LiteralKeying.VALUE) {
+            return literal.getLiteralLexicalForm();
+        }
+        try {
+            return literal.getLiteralValue().toString().replace("'", "_");
+        } catch (DatatypeFormatException e) {
+            return literal.getLiteralLexicalForm().replace("'", "_");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package rdfpgmapper.sparql;
+
+import org.apache.jena.datatypes.DatatypeFormatException;
+import org.apache.jena.graph.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout des RptSimple-Mappers: Jeder Term ist ein Knoten {@code (:Node {name})}, jedes Tripel eine Relation
+ * {@code -[:Property {name}]->}. Literale sind wie beim Import über ihren Java-Wert kodiert.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+class RptSimpleLayout extends CypherLayout {
+
+    RptSimpleLayout(Map<String, Object> nsPrefixUri) {
+        super(nsPrefixUri);
+    }
+
+    @Override
+    public String encode(Node term) {
+        if (term.isURI()) {
+            return prefixed(term.getURI());
+        }
+        if (term.isBlank()) {
+            return "_:" + term.getBlankNodeLabel().replace("'", "_");
+        }
+        if (!term.isLiteral()) {
+            return null;
+        }
+        String value;
+        try {
+            value = term.getLiteralValue().toString();
+        } catch (DatatypeFormatException e) {
+            value = term.getLiteralLexicalForm();
+        }
+        return value.replace("'", "_") + "^^" + prefixed(term.getLiteralDatatypeURI());
+    }
+
+    @Override
+    public List<String> branches(Slot subject, Slot predicate, Slot object) {
+        if (isUnrepresentable(subject) || isUnrepresentable(predicate) || isUnrepresentable(object)) {
+            return List.of();
+        }
+        return List.of("MATCH (s:Node)-[r:Property]->(o:Node)" + complete(new ArrayList<>(),
+                new Slot[]{subject, predicate, object}, new String[]{"s.name", "r.name", "o.name"}));
+    }
+}
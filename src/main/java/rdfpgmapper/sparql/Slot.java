@@ -0,0 +1,37 @@
+package rdfpgmapper.sparql;
+
+import org.apache.jena.graph.Node;
+
+/**
+ * Eine Position (Subjekt, Prädikat oder Objekt) eines Tripel-Musters bei der Übersetzung nach Cypher.
+ * Eine Position ist entweder eine Konstante, eine bereits gebundene Variable, deren kodierter Term
+ * als Cypher-Variable importiert wird, oder frei; dann liefert die Übersetzung den Term in der angegebenen Spalte.
+ *
+ * @param constant Der konstante Term oder null.
+ * @param variable Der Name der gebundenen Cypher-Variablen oder null.
+ * @param column   Der Name der Ergebnisspalte einer freien Position oder null.
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+record Slot(Node constant, String variable, String column) {
+
+    static Slot constant(Node constant) {
+        return new Slot(constant, null, null);
+    }
+
+    static Slot bound(String variable) {
+        return new Slot(null, variable, null);
+    }
+
+    static Slot free(String column) {
+        return new Slot(null, null, column);
+    }
+
+    boolean isConstant() {
+        return constant != null;
+    }
+
+    boolean isFree() {
+        return column != null;
+    }
+}
@@ -0,0 +1,102 @@
+package rdfpgmapper.sparql;
+
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.ResultSetMgr;
+import org.apache.jena.riot.resultset.ResultSetLang;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingBuilder;
+import org.apache.jena.sparql.exec.RowSetStream;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import rdfpgmapper.mapper.Mapper;
+import rdfpgmapper.neo4j.Neo4jClient;
+import rdfpgmapper.utils.Helper;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Beantwortet SPARQL-SELECT-Abfragen direkt auf dem gemappten Graphen, ohne ihn zu exportieren.
+ * Die Abfrage wird mit dem {@link SparqlTranslator} in ein Cypher-Statement übersetzt; dessen Ergebnis wird
+ * zeilenweise in RDF-Terme zurückübersetzt und als SPARQL-Ergebnis geschrieben, ohne es vorher zu sammeln.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class SparqlEndpoint {
+
+    private final Mapper mapper;
+    private final Neo4jClient neo4jClient;
+
+    /**
+     * Konstruktor für den SparqlEndpoint.
+     *
+     * @param mapper      Der Mapper, mit dem die Daten importiert wurden.
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     */
+    public SparqlEndpoint(Mapper mapper, Neo4jClient neo4jClient) {
+        this.mapper = mapper;
+        this.neo4jClient = neo4jClient;
+    }
+
+    /**
+     * Beantwortet eine SPARQL-Abfrage. Die Namensraum-Präfixe werden aus dem {@code PrefixUriNode} gelesen.
+     * Fehler bei der Übersetzung und beim Start des Cypher-Statements treten auf, bevor in den Strom geschrieben wird.
+     *
+     * @param sparql Die SPARQL-SELECT-Abfrage.
+     * @param output Der Strom, in den das Ergebnis geschrieben wird; er wird nicht geschlossen.
+     * @param format Das Ergebnisformat (siehe {@link #resultLang(String)}).
+     * @throws IllegalArgumentException wenn die Abfrage ungültig ist, nicht unterstützt wird oder das Format unbekannt ist.
+     */
+    public void query(String sparql, OutputStream output, String format) {
+        Lang lang = resultLang(format);
+        CypherLayout layout = CypherLayout.of(mapper, Helper.readNsPrefixUri(neo4jClient));
+        CypherQuery query = new SparqlTranslator(layout).translate(sparql);
+        neo4jClient.readFromNeo4j(query.statement(), Map.of(), records -> {
+            Iterator<Binding> bindings = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return records.hasNext();
+                }
+
+                @Override
+                public Binding next() {
+                    return toBinding(records.next(), query, layout);
+                }
+            };
+            ResultSetMgr.write(output, ResultSet.adapt(RowSetStream.create(query.variables(), bindings)), lang);
+            return null;
+        });
+    }
+
+    /**
+     * Gibt das Jena-Ergebnisformat zu einem Formatnamen zurück.
+     *
+     * @param format "JSON", "XML", "CSV" oder "TSV".
+     * @return Das Ergebnisformat.
+     * @throws IllegalArgumentException wenn das Format unbekannt ist.
+     */
+    public static Lang resultLang(String format) {
+        return switch (format.toUpperCase(Locale.ROOT)) {
+            case "JSON" -> ResultSetLang.RS_JSON;
+            case "XML" -> ResultSetLang.RS_XML;
+            case "CSV" -> ResultSetLang.RS_CSV;
+            case "TSV" -> ResultSetLang.RS_TSV;
+            default -> throw new IllegalArgumentException("Ergebnisformat nicht unterstützt: " + format);
+        };
+    }
+
+    private static Binding toBinding(Record record, CypherQuery query, CypherLayout layout) {
+        BindingBuilder binding = Binding.builder();
+        for (int i = 0; i < query.columns().size(); i++) {
+            Value value = record.get(query.columns().get(i));
+            if (value != null && !value.isNull()) {
+                binding.add(query.variables().get(i), layout.decode(value.asObject().toString()));
+            }
+        }
+        return binding.build();
+    }
+}
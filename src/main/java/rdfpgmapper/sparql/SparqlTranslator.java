@@ -0,0 +1,363 @@
+package rdfpgmapper.sparql;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryException;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.SortCondition;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.op.OpBGP;
+import org.apache.jena.sparql.algebra.op.OpDistinct;
+import org.apache.jena.sparql.algebra.op.OpFilter;
+import org.apache.jena.sparql.algebra.op.OpJoin;
+import org.apache.jena.sparql.algebra.op.OpLeftJoin;
+import org.apache.jena.sparql.algebra.op.OpOrder;
+import org.apache.jena.sparql.algebra.op.OpProject;
+import org.apache.jena.sparql.algebra.op.OpReduced;
+import org.apache.jena.sparql.algebra.op.OpSequence;
+import org.apache.jena.sparql.algebra.op.OpSlice;
+import org.apache.jena.sparql.algebra.op.OpTable;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprList;
+import rdfpgmapper.utils.Helper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Übersetzt SPARQL-SELECT-Abfragen in ein einzelnes Cypher-Statement über das Layout eines Mappers.
+ * Unterstützt werden Basic Graph Patterns, FILTER, OPTIONAL, DISTINCT, ORDER BY sowie LIMIT und OFFSET.
+ * <p>
+ * Jede Variable wird als kodierter Term (siehe {@link CypherLayout}) in einer gleichnamigen Cypher-Variablen geführt.
+ * Die Tripel eines Basic Graph Patterns werden so angeordnet, dass möglichst jedes Muster ein bereits bekanntes Subjekt
+ * oder Objekt hat, und als {@code CALL}-Unterabfragen aneinandergereiht, die die gebundenen Variablen importieren und
+ * über die indizierten Schlüssel der Knoten suchen. OPTIONAL wird als Unterabfrage ausgeführt, deren Zeilen gesammelt
+ * und bei leerem Ergebnis durch eine einzelne ungebundene Zeile ersetzt werden.
+ *
+ * @author Hannes Kollert
+ * @version 1.0
+ */
+public class SparqlTranslator {
+
+    private final CypherLayout layout;
+    private int temporaries;
+
+    /**
+     * Konstruktor für den SparqlTranslator.
+     *
+     * @param layout Das Layout des Mappers, mit dem die Daten importiert wurden.
+     */
+    public SparqlTranslator(CypherLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * Übersetzt eine SPARQL-SELECT-Abfrage.
+     *
+     * @param sparql Die Abfrage.
+     * @return Die übersetzte Abfrage.
+     * @throws IllegalArgumentException wenn die Abfrage ungültig ist oder nicht unterstützte Konstrukte enthält.
+     */
+    public CypherQuery translate(String sparql) {
+        Query query;
+        try {
+            query = QueryFactory.create(sparql);
+        } catch (QueryException e) {
+            throw new IllegalArgumentException("Ungültige SPARQL-Abfrage: " + e.getMessage());
+        }
+        if (!query.isSelectType()) {
+            throw new IllegalArgumentException("Nur SELECT-Abfragen werden unterstützt.");
+        }
+        if (query.hasAggregators() || query.hasGroupBy() || query.hasHaving() || query.hasValues() || !query.getProject().getExprs().isEmpty()) {
+            throw new IllegalArgumentException("Aggregationen, GROUP BY, VALUES und berechnete Projektionen werden nicht unterstützt.");
+        }
+
+        Op op = Algebra.compile(query);
+        long offset = Query.NOLIMIT;
+        long limit = Query.NOLIMIT;
+        boolean distinct = false;
+        List<SortCondition> order = List.of();
+        if (op instanceof OpSlice slice) {
+            offset = slice.getStart();
+            limit = slice.getLength();
+            op = slice.getSubOp();
+        }
+        if (op instanceof OpDistinct opDistinct) {
+            distinct = true;
+            op = opDistinct.getSubOp();
+        } else if (op instanceof OpReduced reduced) {
+            distinct = true;
+            op = reduced.getSubOp();
+        }
+        if (op instanceof OpProject project) {
+            op = project.getSubOp();
+        }
+        if (op instanceof OpOrder opOrder) {
+            order = opOrder.getConditions();
+            op = opOrder.getSubOp();
+        }
+
+        Block block = new Block(new LinkedHashMap<>());
+        pattern(op, block);
+
+        List<Var> variables = query.getProjectVars();
+        List<String> columns = variables.stream().map(SparqlTranslator::column).toList();
+        List<String> returns = new ArrayList<>();
+        for (String column : columns) {
+            returns.add(block.scope.containsKey(column) ? Helper.escapeName(column) : "null AS " + Helper.escapeName(column));
+        }
+        if (returns.isEmpty()) {
+            returns.add("true AS " + CypherLayout.MATCH_COLUMN);
+        }
+
+        ExpressionTranslator expressions = expressions(block);
+        List<String> keys = new ArrayList<>();
+        boolean projectedOrder = true;
+        for (SortCondition condition : order) {
+            keys.addAll(expressions.orderKeys(condition.getExpression(), condition.getDirection() == Query.ORDER_DESCENDING));
+            projectedOrder &= condition.getExpression().getVarsMentioned().stream().allMatch(variables::contains);
+        }
+        // Nach RETURN DISTINCT darf nur nach zurückgegebenen Spalten sortiert werden; sonst wird vorher sortiert.
+        boolean sortBeforeReturn = distinct && !projectedOrder && !keys.isEmpty();
+        if (sortBeforeReturn) {
+            block.cypher.append("WITH * ORDER BY ").append(String.join(", ", keys)).append(" ");
+        }
+        block.cypher.append("RETURN ").append(distinct ? "DISTINCT " : "").append(String.join(", ", returns));
+        if (!sortBeforeReturn && !keys.isEmpty()) {
+            block.cypher.append(" ORDER BY ").append(String.join(", ", keys));
+        }
+        if (offset != Query.NOLIMIT && offset > 0) {
+            block.cypher.append(" SKIP ").append(offset);
+        }
+        if (limit != Query.NOLIMIT) {
+            block.cypher.append(" LIMIT ").append(limit);
+        }
+        return new CypherQuery(block.cypher.toString(), variables, columns);
+    }
+
+    /**
+     * Gibt den Namen der Cypher-Variablen bzw. Ergebnisspalte einer SPARQL-Variablen zurück.
+     *
+     * @param var Die SPARQL-Variable.
+     * @return Der Name.
+     */
+    static String column(Var var) {
+        return "v_" + var.getVarName();
+    }
+
+    private void pattern(Op op, Block block) {
+        switch (op) {
+            case OpBGP bgp -> {
+                List<Triple> triples = new ArrayList<>(bgp.getPattern().getList());
+                while (!triples.isEmpty()) {
+                    Triple next = triples.getFirst();
+                    for (Triple triple : triples) {
+                        if (selectivity(triple, block) > selectivity(next, block)) {
+                            next = triple;
+                        }
+                    }
+                    triples.remove(next);
+                    triple(next, block);
+                }
+            }
+            case OpJoin join -> {
+                pattern(join.getLeft(), block);
+                pattern(join.getRight(), block);
+            }
+            case OpSequence sequence -> sequence.getElements().forEach(element -> pattern(element, block));
+            case OpFilter filter -> {
+                pattern(filter.getSubOp(), block);
+                filter(filter.getExprs(), block);
+            }
+            case OpLeftJoin leftJoin -> {
+                pattern(leftJoin.getLeft(), block);
+                optional(leftJoin.getRight(), leftJoin.getExprs(), block);
+            }
+            case OpTable table when table.isJoinIdentity() -> {
+            }
+            default -> throw new IllegalArgumentException("SPARQL-Konstrukt wird nicht unterstützt: " + op.getName());
+        }
+    }
+
+    /**
+     * Bewertet, wie gut ein Tripel-Muster über bekannte Terme gesucht werden kann: ein bekanntes Subjekt zählt
+     * mehr als ein bekanntes Objekt und dieses mehr als ein bekanntes Prädikat.
+     */
+    private static int selectivity(Triple triple, Block block) {
+        return (isKnown(triple.getSubject(), block) ? 4 : 0) + (isKnown(triple.getObject(), block) ? 2 : 0)
+                + (isKnown(triple.getPredicate(), block) ? 1 : 0);
+    }
+
+    private static boolean isKnown(Node node, Block block) {
+        return !node.isVariable() || Boolean.TRUE.equals(block.scope.get(column(Var.alloc(node))));
+    }
+
+    /**
+     * Hängt die Unterabfrage eines Tripel-Musters an. Sicher gebundene Variablen werden importiert; Variablen, die
+     * nur in einem OPTIONAL gebunden sein können, und wiederholte Variablen werden in Hilfsspalten zurückgegeben und
+     * anschließend verglichen.
+     */
+    private void triple(Triple triple, Block block) {
+        Node[] nodes = {triple.getSubject(), triple.getPredicate(), triple.getObject()};
+        Slot[] slots = new Slot[3];
+        List<String> imports = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        Map<String, String> returned = new LinkedHashMap<>();
+        Map<String, String> rebinds = new LinkedHashMap<>();
+
+        for (int i = 0; i < nodes.length; i++) {
+            if (!nodes[i].isVariable()) {
+                slots[i] = Slot.constant(nodes[i]);
+                continue;
+            }
+            String column = column(Var.alloc(nodes[i]));
+            String variable = Helper.escapeName(column);
+            Boolean certain = block.scope.get(column);
+            if (Boolean.TRUE.equals(certain)) {
+                slots[i] = Slot.bound(variable);
+                if (!imports.contains(variable)) {
+                    imports.add(variable);
+                }
+            } else if (returned.containsKey(column)) {
+                String temporary = temporary();
+                slots[i] = Slot.free(temporary);
+                conditions.add(Helper.escapeName(returned.get(column)) + " = " + Helper.escapeName(temporary));
+            } else if (certain != null) {
+                String temporary = temporary();
+                slots[i] = Slot.free(temporary);
+                returned.put(column, temporary);
+                conditions.add("(" + variable + " IS NULL OR " + variable + " = " + Helper.escapeName(temporary) + ")");
+                rebinds.put(column, "coalesce(" + variable + ", " + Helper.escapeName(temporary) + ")");
+            } else {
+                slots[i] = Slot.free(column);
+                returned.put(column, column);
+            }
+        }
+
+        List<String> branches = layout.branches(slots[0], slots[1], slots[2]);
+        if (branches.isEmpty()) {
+            branches = List.of(empty(slots));
+        }
+        String importClause = imports.isEmpty() ? "" : "WITH " + String.join(", ", imports) + " ";
+        block.cypher.append("CALL { ")
+                .append(branches.stream().map(branch -> importClause + branch).collect(Collectors.joining(" UNION ")))
+                .append(" } ");
+        if (!conditions.isEmpty()) {
+            block.cypher.append("WITH * WHERE ").append(String.join(" AND ", conditions)).append(" ");
+        }
+        returned.keySet().forEach(column -> block.scope.put(column, true));
+
+        boolean temporaryColumns = returned.size() < countFree(slots) || !rebinds.isEmpty() || returned.isEmpty();
+        if (temporaryColumns) {
+            block.cypher.append("WITH ").append(projection(block.scope, rebinds)).append(" ");
+        }
+    }
+
+    /**
+     * Hängt ein OPTIONAL an: Die Zeilen der rechten Seite werden je Zeile der linken Seite gesammelt; ist die Sammlung
+     * leer, bleibt die Zeile der linken Seite mit ungebundenen Variablen erhalten.
+     */
+    private void optional(Op right, ExprList exprs, Block block) {
+        Block inner = new Block(new LinkedHashMap<>(block.scope));
+        pattern(right, inner);
+        if (exprs != null && !exprs.isEmpty()) {
+            filter(exprs, inner);
+        }
+
+        List<String> outputs = inner.scope.keySet().stream()
+                .filter(column -> !Boolean.TRUE.equals(block.scope.get(column)))
+                .toList();
+        String rows = Helper.escapeName(temporary());
+        String row = Helper.escapeName(temporary());
+        block.cypher.append("CALL { ");
+        if (!block.scope.isEmpty()) {
+            block.cypher.append("WITH ").append(block.scope.keySet().stream().map(Helper::escapeName).collect(Collectors.joining(", "))).append(" ");
+        }
+        block.cypher.append(inner.cypher)
+                .append("RETURN collect({")
+                .append(outputs.stream().map(column -> Helper.escapeName(column) + ": " + Helper.escapeName(column)).collect(Collectors.joining(", ")))
+                .append("}) AS ").append(rows).append(" } ")
+                .append("UNWIND CASE size(").append(rows).append(") WHEN 0 THEN [null] ELSE ").append(rows).append(" END AS ").append(row).append(" ");
+
+        Map<String, String> rebinds = new LinkedHashMap<>();
+        for (String column : outputs) {
+            String value = row + "." + Helper.escapeName(column);
+            rebinds.put(column, block.scope.containsKey(column) ? "coalesce(" + value + ", " + Helper.escapeName(column) + ")" : value);
+            block.scope.putIfAbsent(column, false);
+        }
+        block.cypher.append("WITH ").append(projection(block.scope, rebinds)).append(" ");
+    }
+
+    private void filter(ExprList exprs, Block block) {
+        ExpressionTranslator expressions = expressions(block);
+        List<String> conditions = new ArrayList<>();
+        for (Expr expr : exprs) {
+            conditions.add(expressions.condition(expr));
+        }
+        block.cypher.append("WITH * WHERE ").append(String.join(" AND ", conditions)).append(" ");
+    }
+
+    private ExpressionTranslator expressions(Block block) {
+        return new ExpressionTranslator(layout, var -> block.scope.containsKey(column(var)) ? Helper.escapeName(column(var)) : null);
+    }
+
+    /**
+     * Erstellt einen Zweig ohne Zeilen für Muster, die im Layout keine Tripel haben können.
+     */
+    private static String empty(Slot[] slots) {
+        List<String> returns = new ArrayList<>();
+        for (Slot slot : slots) {
+            if (slot.isFree()) {
+                returns.add("null AS " + Helper.escapeName(slot.column()));
+            }
+        }
+        if (returns.isEmpty()) {
+            returns.add("true AS " + CypherLayout.MATCH_COLUMN);
+        }
+        return "UNWIND [] AS none RETURN " + String.join(", ", returns);
+    }
+
+    private static long countFree(Slot[] slots) {
+        long free = 0;
+        for (Slot slot : slots) {
+            if (slot.isFree()) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Erstellt die Projektion aller Variablen im Gültigkeitsbereich, sodass Hilfsspalten entfallen.
+     * Ist noch keine Variable gebunden, bleibt eine Hilfsspalte, damit die Zeilen erhalten bleiben.
+     */
+    private static String projection(Map<String, Boolean> scope, Map<String, String> rebinds) {
+        if (scope.isEmpty()) {
+            return "true AS " + CypherLayout.MATCH_COLUMN;
+        }
+        return scope.keySet().stream()
+                .map(column -> rebinds.containsKey(column) ? rebinds.get(column) + " AS " + Helper.escapeName(column) : Helper.escapeName(column))
+                .collect(Collectors.joining(", "));
+    }
+
+    private String temporary() {
+        return "_t" + ++temporaries;
+    }
+
+    /**
+     * Ein Abschnitt des Cypher-Statements mit den darin gebundenen Variablen. Der Wert gibt an, ob eine Variable
+     * sicher gebunden ist (true) oder, weil sie nur in einem OPTIONAL vorkommt, null sein kann (false).
+     */
+    private record Block(Map<String, Boolean> scope, StringBuilder cypher) {
+
+        Block(Map<String, Boolean> scope) {
+            this(scope, new StringBuilder());
+        }
+    }
+}
@@ -8,10 +8,15 @@ import org.apache.jena.query.QuerySolution;
 import org.apache.jena.query.ResultSet;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Resource;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import rdfpgmapper.neo4j.Neo4jClient;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Hilfsklasse mit statischen Methoden zur Unterstützung der Funktionalität.
@@ -38,6 +43,23 @@ public class Helper {
         return uri;
     }
 
+    /**
+     * Konvertiert eine vollständige URI in eine Präfix-basierte Darstellung unter Verwendung der in Neo4j gespeicherten Namensräume.
+     *
+     * @param uri         Die vollständige URI, die umgewandelt werden soll.
+     * @param nsPrefixUri Eine Map von Namensraum-Präfixen zu vollständigen URIs.
+     * @return Die präfixierte Darstellung der URI oder die ursprüngliche URI, wenn kein entsprechender Namensraum gefunden wird.
+     */
+    public static String getPrefixedName(String uri, Map<String, Object> nsPrefixUri) {
+        for (Map.Entry<String, Object> entry : nsPrefixUri.entrySet()) {
+            String namespace = entry.getValue().toString();
+            if (uri.startsWith(namespace)) {
+                return entry.getKey() + "_" + uri.substring(namespace.length());
+            }
+        }
+        return uri;
+    }
+
     /**
      * Konvertiert einen präfixierten Namen zurück in seine vollständige URI unter Verwendung der angegebenen Namensraum-Präfix-Konfiguration.
      *
@@ -100,4 +122,103 @@ public class Helper {
         return hierarchy;
     }
 
+    /**
+     * Liest die beim Import gespeicherte Namensraum-Präfix-Deklaration aus dem PrefixUriNode.
+     *
+     * @param neo4jClient Der Client zur Kommunikation mit der Neo4j-Datenbank.
+     * @return Eine Map von Namensraum-Präfixen zu vollständigen URIs, leer wenn kein PrefixUriNode existiert.
+     */
+    public static Map<String, Object> readNsPrefixUri(Neo4jClient neo4jClient) {
+        List<Record> nsPrefixUriRecord = neo4jClient.readFromNeo4j("MATCH (n:PrefixUriNode) RETURN properties(n) as nsPrefixUri");
+        if (nsPrefixUriRecord.isEmpty()) {
+            return Map.of();
+        }
+        return nsPrefixUriRecord.getFirst().get("nsPrefixUri").asMap();
+    }
+
+    /**
+     * Gibt den String-Wert eines Feldes eines Records zurück.
+     *
+     * @param record Der Record, aus dem gelesen wird.
+     * @param key    Der Name des Feldes.
+     * @return Der String-Wert oder null, wenn das Feld fehlt oder null ist.
+     */
+    public static String getString(Record record, String key) {
+        Value value = record.get(key);
+        return value == null || value.isNull() ? null : value.asString();
+    }
+
+    /**
+     * Maskiert einen Namen als Cypher-Label, Relationstyp oder Property-Schlüssel.
+     *
+     * @param name Der Name.
+     * @return Der mit Backticks maskierte Name.
+     */
+    public static String escapeName(String name) {
+        return "`" + name.replace("`", "``") + "`";
+    }
+
+    /**
+     * Wandelt eine MERGE-Klausel in die entsprechende MATCH-Klausel um, sodass beim Löschen
+     * exakt dieselbe Schlüsselkodierung wie beim Import verwendet wird.
+     *
+     * @param mergeClause Die MERGE-Klausel.
+     * @return Die MATCH-Klausel mit identischem Muster.
+     */
+    public static String mergeToMatch(String mergeClause) {
+        return "MATCH" + mergeClause.substring("MERGE".length());
+    }
+
+    /**
+     * Erstellt eine Cypher-Klausel, die die angegebenen Knoten löscht, sofern sie keine Relationen mehr besitzen.
+     *
+     * @param variables Die Variablen der Knoten.
+     * @return Die Cypher-Klausel.
+     */
+    public static String deleteOrphans(String... variables) {
+        return "WITH [" + String.join(", ", variables) + "] AS nodes UNWIND nodes AS x WITH DISTINCT x WHERE NOT (x)--() DELETE x";
+    }
+
+    /**
+     * Maskiert eine Zeichenkette für die Verwendung als Cypher-String-Literal in einfachen Anführungszeichen.
+     *
+     * @param value Die Zeichenkette.
+     * @return Die maskierte Zeichenkette ohne umschließende Anführungszeichen.
+     */
+    public static String escapeString(String value) {
+        return value.replace("\\", "\\\\").replace("'", "\\'");
+    }
+
+    /**
+     * Erstellt ein Cypher-Statement, das einen APOC-Trigger in der Phase "before" installiert bzw. ersetzt.
+     *
+     * @param name      Der Name des Triggers.
+     * @param statement Das Cypher-Statement des Triggers.
+     * @return Das Cypher-Statement zur Installation des Triggers.
+     */
+    public static String addTrigger(String name, String statement) {
+        return "CALL apoc.trigger.add('" + escapeString(name) + "', '" + escapeString(statement) + "', {phase:'before'});";
+    }
+
+    /**
+     * Erstellt ein Cypher-Statement, das einen APOC-Trigger entfernt.
+     *
+     * @param name Der Name des Triggers.
+     * @return Das Cypher-Statement zum Entfernen des Triggers.
+     */
+    public static String removeTrigger(String name) {
+        return "CALL apoc.trigger.remove('" + escapeString(name) + "');";
+    }
+
+    /**
+     * Erstellt ein Cypher-Listen-Literal aus Zeichenketten.
+     *
+     * @param values Die Zeichenketten.
+     * @return Das Listen-Literal, z.B. ['a', 'b'].
+     */
+    public static String toCypherList(Collection<String> values) {
+        return values.stream()
+                .map(value -> "'" + escapeString(value) + "'")
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
 }